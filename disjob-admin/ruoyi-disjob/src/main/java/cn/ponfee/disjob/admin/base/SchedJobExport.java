@@ -133,7 +133,7 @@ public class SchedJobExport {
     private Integer misfireStrategy;
 
     /**
-     * 任务分派给哪一个worker的路由策略：1-轮询；2-随机；3-简单的哈希；4-一致性哈希；5-本地优先；6-广播；
+     * 任务分派给哪一个worker的路由策略：1-轮询；2-随机；3-简单的哈希；4-一致性哈希；5-本地优先；6-广播；7-最小负载；
      */
     @Excel(name = "路由策略")
     private Integer routeStrategy;
@@ -93,28 +93,30 @@ public class ConsistentHash<T> {
     }
 
     /**
-     * Virtual node of the consistent hash ring.
+     * Immutable hash ring, the virtual node hashes sorted in ascending order.
      */
-    private class VirtualNode {
-        private final T physicalNode;
-        private final String physicalKey;
-        private final String virtualKey;
+    private static final class Ring {
+        private static final Ring EMPTY = new Ring(new int[0], new Object[0], new String[0]);
 
-        private VirtualNode(T physicalNode, int replicaIndex) {
-            this.physicalNode = physicalNode;
-            this.physicalKey = keyMapper.apply(physicalNode);
-            this.virtualKey = "SHARD-" + physicalKey + "-NODE-" + replicaIndex;
-        }
+        private final int[] hashes;
+        private final Object[] physicalNodes;
+        private final String[] physicalKeys;
 
-        private boolean isVirtualNodeOf(T pNode) {
-            return physicalKey.equals(keyMapper.apply(pNode));
+        private Ring(int[] hashes, Object[] physicalNodes, String[] physicalKeys) {
+            this.hashes = hashes;
+            this.physicalNodes = physicalNodes;
+            this.physicalKeys = physicalKeys;
         }
     }
 
-    private final TreeMap<Integer, VirtualNode> ring = new TreeMap<>();
     private final Function<T, String> keyMapper;
     private final HashFunction hashFunction;
 
+    /**
+     * Copy-on-write ring, the read(route) operations are lock-free
+     */
+    private volatile Ring ring = Ring.EMPTY;
+
     public ConsistentHash(Collection<T> pNodes, int vNodeCount) {
         this(pNodes, vNodeCount, String::valueOf, HashFunction.MURMUR3_32);
     }
@@ -139,10 +141,18 @@ public class ConsistentHash<T> {
                           HashFunction hashFunction) {
         this.keyMapper = Objects.requireNonNull(keyMapper, "Key mapper cannot be null.");
         this.hashFunction = Objects.requireNonNull(hashFunction, "Hash function cannot be null.");
-        if (pNodes != null) {
+        if (vNodeCount < 0) {
+            throw new IllegalArgumentException("Invalid virtual node counts: " + vNodeCount);
+        }
+        if (pNodes != null && !pNodes.isEmpty()) {
+            List<VirtualNode> vNodes = new ArrayList<>(pNodes.size() * vNodeCount);
             for (T pNode : pNodes) {
-                addNode(pNode, vNodeCount);
+                String pKey = keyMapper.apply(pNode);
+                for (int i = 0; i < vNodeCount; i++) {
+                    vNodes.add(new VirtualNode(pNode, pKey, i));
+                }
             }
+            this.ring = build(Ring.EMPTY, vNodes);
         }
     }
 
@@ -152,15 +162,17 @@ public class ConsistentHash<T> {
      * @param pNode      physical node
      * @param vNodeCount the number virtual node of the physical node.
      */
-    public void addNode(T pNode, int vNodeCount) {
+    public synchronized void addNode(T pNode, int vNodeCount) {
         if (vNodeCount < 0) {
             throw new IllegalArgumentException("Invalid virtual node counts: " + vNodeCount);
         }
+        String pKey = keyMapper.apply(pNode);
         int existingReplicas = getExistingReplicas(pNode);
+        List<VirtualNode> vNodes = new ArrayList<>(vNodeCount);
         for (int i = 0; i < vNodeCount; i++) {
-            VirtualNode vNode = new VirtualNode(pNode, i + existingReplicas);
-            ring.put(hashFunction.hash(vNode.virtualKey), vNode);
+            vNodes.add(new VirtualNode(pNode, pKey, i + existingReplicas));
         }
+        this.ring = build(ring, vNodes);
     }
 
     /**
@@ -168,14 +180,24 @@ public class ConsistentHash<T> {
      *
      * @param pNode the physical node
      */
-    public void removeNode(T pNode) {
-        Iterator<Integer> it = ring.keySet().iterator();
-        while (it.hasNext()) {
-            VirtualNode virtualNode = ring.get(it.next());
-            if (virtualNode.isVirtualNodeOf(pNode)) {
-                it.remove();
+    public synchronized void removeNode(T pNode) {
+        String pKey = keyMapper.apply(pNode);
+        Ring current = ring;
+        int n = current.hashes.length, count = 0;
+        int[] hashes = new int[n];
+        Object[] physicalNodes = new Object[n];
+        String[] physicalKeys = new String[n];
+        for (int i = 0; i < n; i++) {
+            if (!current.physicalKeys[i].equals(pKey)) {
+                hashes[count] = current.hashes[i];
+                physicalNodes[count] = current.physicalNodes[i];
+                physicalKeys[count] = current.physicalKeys[i];
+                count++;
             }
         }
+        if (count < n) {
+            this.ring = new Ring(Arrays.copyOf(hashes, count), Arrays.copyOf(physicalNodes, count), Arrays.copyOf(physicalKeys, count));
+        }
     }
 
     /**
@@ -184,19 +206,90 @@ public class ConsistentHash<T> {
      * @param key the key to find the nearest physical node
      * @return routed physical node
      */
+    @SuppressWarnings("unchecked")
     public T routeNode(String key) {
-        if (ring.isEmpty()) {
+        Ring current = ring;
+        int n = current.hashes.length;
+        if (n == 0) {
             return null;
         }
 
-        SortedMap<Integer, VirtualNode> tailMap = ring.tailMap(hashFunction.hash(key));
-        VirtualNode virtualNode = tailMap.isEmpty() ? ring.firstEntry().getValue() : ring.get(tailMap.firstKey());
-        return virtualNode.physicalNode;
+        // the first virtual node which hash greater than or equal to the key hash, wrap around to the first if not found
+        int index = Arrays.binarySearch(current.hashes, hashFunction.hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return (T) current.physicalNodes[index == n ? 0 : index];
     }
 
     public int getExistingReplicas(T pNode) {
         final String pNodeKey = keyMapper.apply(pNode);
-        return (int) ring.values().stream().filter(e -> e.physicalKey.equals(pNodeKey)).count();
+        int count = 0;
+        for (String physicalKey : ring.physicalKeys) {
+            if (physicalKey.equals(pNodeKey)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // ------------------------------------------------------------------------private methods
+
+    /**
+     * Builds a new ring which merged the virtual nodes to the current ring.
+     * <p>Same as TreeMap#put, the later virtual node replaces the existing one if hash collision.
+     */
+    private Ring build(Ring current, List<VirtualNode> vNodes) {
+        for (VirtualNode vNode : vNodes) {
+            vNode.hash = hashFunction.hash(vNode.virtualKey);
+        }
+        // stable sort, so the later virtual node is behind the earlier one if hash collision
+        vNodes.sort(Comparator.comparingInt(e -> e.hash));
+
+        int n = current.hashes.length, m = vNodes.size();
+        int[] hashes = new int[n + m];
+        Object[] physicalNodes = new Object[n + m];
+        String[] physicalKeys = new String[n + m];
+        int i = 0, j = 0, count = 0;
+        while (i < n || j < m) {
+            if (j == m || (i < n && current.hashes[i] < vNodes.get(j).hash)) {
+                hashes[count] = current.hashes[i];
+                physicalNodes[count] = current.physicalNodes[i];
+                physicalKeys[count] = current.physicalKeys[i];
+                i++;
+            } else {
+                VirtualNode vNode = vNodes.get(j++);
+                if (i < n && current.hashes[i] == vNode.hash) {
+                    // replaced the existing virtual node
+                    i++;
+                }
+                hashes[count] = vNode.hash;
+                physicalNodes[count] = vNode.physicalNode;
+                physicalKeys[count] = vNode.physicalKey;
+            }
+            if (count > 0 && hashes[count - 1] == hashes[count]) {
+                // hash collision of the new virtual nodes, the later replaces the earlier
+                hashes[count - 1] = hashes[count];
+                physicalNodes[count - 1] = physicalNodes[count];
+                physicalKeys[count - 1] = physicalKeys[count];
+            } else {
+                count++;
+            }
+        }
+        return new Ring(Arrays.copyOf(hashes, count), Arrays.copyOf(physicalNodes, count), Arrays.copyOf(physicalKeys, count));
+    }
+
+    private static final class VirtualNode {
+        private final Object physicalNode;
+        private final String physicalKey;
+        private final String virtualKey;
+        private int hash;
+
+        private VirtualNode(Object physicalNode, String physicalKey, int replicaIndex) {
+            this.physicalNode = physicalNode;
+            this.physicalKey = physicalKey;
+            this.virtualKey = "SHARD-" + physicalKey + "-NODE-" + replicaIndex;
+        }
     }
 
 }
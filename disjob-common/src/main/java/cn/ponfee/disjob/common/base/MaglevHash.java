@@ -0,0 +1,129 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.common.base;
+
+import cn.ponfee.disjob.common.base.ConsistentHash.HashFunction;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Maglev consistent hashing algorithm, immutable lookup table and O(1) route.
+ * <p>Compared with the hash ring, it has better balance and less memory, but need rebuild when nodes changed.
+ *
+ * <p><a href="https://research.google/pubs/pub44824/">Maglev: A Fast and Reliable Software Network Load Balancer</a>
+ *
+ * @param <T> the node type
+ * @author Ponfee
+ */
+public final class MaglevHash<T> {
+
+    /**
+     * Default lookup table size, must be a prime number
+     */
+    public static final int DEFAULT_TABLE_SIZE = 65537;
+
+    private final HashFunction hashFunction;
+    private final Object[] nodes;
+    private final int[] lookup;
+
+    public MaglevHash(Collection<T> nodes, Function<T, String> keyMapper) {
+        this(nodes, keyMapper, HashFunction.MURMUR3_32, DEFAULT_TABLE_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param nodes        the nodes
+     * @param keyMapper    node mapping to string key function
+     * @param hashFunction hash function to hash the route key
+     * @param tableSize    the lookup table size, must be a prime number and should be much greater than nodes size
+     */
+    public MaglevHash(Collection<T> nodes, Function<T, String> keyMapper, HashFunction hashFunction, int tableSize) {
+        Objects.requireNonNull(keyMapper, "Key mapper cannot be null.");
+        this.hashFunction = Objects.requireNonNull(hashFunction, "Hash function cannot be null.");
+        if (tableSize < 2 || !isPrime(tableSize)) {
+            throw new IllegalArgumentException("Table size must be a prime number: " + tableSize);
+        }
+        if (nodes == null || nodes.isEmpty()) {
+            this.nodes = new Object[0];
+            this.lookup = new int[0];
+            return;
+        }
+
+        // sort by key, so the lookup table is independent of the nodes order
+        TreeMap<String, T> sorted = new TreeMap<>();
+        nodes.forEach(e -> sorted.put(keyMapper.apply(e), e));
+        this.nodes = sorted.values().toArray();
+        this.lookup = populate(sorted.keySet().toArray(new String[0]), tableSize);
+    }
+
+    /**
+     * Returns the node of specified key
+     *
+     * @param key the key
+     * @return routed node, null if empty nodes
+     */
+    @SuppressWarnings("unchecked")
+    public T routeNode(String key) {
+        if (lookup.length == 0) {
+            return null;
+        }
+        int slot = (int) (Integer.toUnsignedLong(hashFunction.hash(key)) % lookup.length);
+        return (T) nodes[lookup[slot]];
+    }
+
+    // ------------------------------------------------------------------------private methods
+
+    private static int[] populate(String[] keys, int tableSize) {
+        int n = keys.length;
+        long[] offsets = new long[n], skips = new long[n];
+        for (int i = 0; i < n; i++) {
+            offsets[i] = Integer.toUnsignedLong(HashFunction.MURMUR3_32.hash(keys[i])) % tableSize;
+            skips[i] = Integer.toUnsignedLong(HashFunction.FNV.hash(keys[i])) % (tableSize - 1) + 1;
+        }
+
+        int[] table = new int[tableSize];
+        Arrays.fill(table, -1);
+        long[] next = new long[n];
+        for (int filled = 0; ; ) {
+            for (int i = 0; i < n; i++) {
+                // the i-th node permutation: (offset + j * skip) % tableSize
+                int slot = (int) ((offsets[i] + next[i] * skips[i]) % tableSize);
+                while (table[slot] >= 0) {
+                    next[i]++;
+                    slot = (int) ((offsets[i] + next[i] * skips[i]) % tableSize);
+                }
+                table[slot] = i;
+                next[i]++;
+                if (++filled == tableSize) {
+                    return table;
+                }
+            }
+        }
+    }
+
+    private static boolean isPrime(int n) {
+        for (int i = 2; (long) i * i <= n; i++) {
+            if (n % i == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
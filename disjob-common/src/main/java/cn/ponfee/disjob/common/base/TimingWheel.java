@@ -22,85 +22,33 @@ import org.springframework.util.Assert;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Timing wheel structure.
+ * Hierarchical timing wheel structure(Kafka-style).
  *
  * <p>TimingWheel(100, 60):
  * <pre>
- *   00.000[00, 59]
- *   00.100[01, 00]
- *   00.200[02, 01]
- *   00.300[03, 02]
- *   00.400[04, 03]
- *   00.500[05, 04]
- *   00.600[06, 05]
- *   00.700[07, 06]
- *   00.800[08, 07]
- *   00.900[09, 08]
- *   01.000[10, 09]
- *   01.100[11, 10]
- *   01.200[12, 11]
- *   01.300[13, 12]
- *   01.400[14, 13]
- *   01.500[15, 14]
- *   01.600[16, 15]
- *   01.700[17, 16]
- *   01.800[18, 17]
- *   01.900[19, 18]
- *   02.000[20, 19]
- *   02.100[21, 20]
- *   02.200[22, 21]
- *   02.300[23, 22]
- *   02.400[24, 23]
- *   02.500[25, 24]
- *   02.600[26, 25]
- *   02.700[27, 26]
- *   02.800[28, 27]
- *   02.900[29, 28]
- *   03.000[30, 29]
- *   03.100[31, 30]
- *   03.200[32, 31]
- *   03.300[33, 32]
- *   03.400[34, 33]
- *   03.500[35, 34]
- *   03.600[36, 35]
- *   03.700[37, 36]
- *   03.800[38, 37]
- *   03.900[39, 38]
- *   04.000[40, 39]
- *   04.100[41, 40]
- *   04.200[42, 41]
- *   04.300[43, 42]
- *   04.400[44, 43]
- *   04.500[45, 44]
- *   04.600[46, 45]
- *   04.700[47, 46]
- *   04.800[48, 47]
- *   04.900[49, 48]
- *   05.000[50, 49]
- *   05.100[51, 50]
- *   05.200[52, 51]
- *   05.300[53, 52]
- *   05.400[54, 53]
- *   05.500[55, 54]
- *   05.600[56, 55]
- *   05.700[57, 56]
- *   05.800[58, 57]
- *   05.900[59, 58]
- *
- *   06.000[00, 59]
- *   06.100[01, 00]
- *   06.200[02, 01]
+ *   level-0: 60 slots * 100ms   -> 6s
+ *   level-1: 60 slots * 6s      -> 6min   (created on demand)
+ *   level-2: 60 slots * 6min    -> 6h     (created on demand)
+ *   ...
  * </pre>
  *
+ * <p>Offer is lock-free O(1): producers only append to a multi-producer single-consumer queue.
+ * <p>Poll drains the queue into the wheels, then expires the due slots in order of slot time,
+ * the elements of an expired higher level slot are re-inserted into the lower levels.
+ * Only the poll thread touches the wheels, so the slots need not synchronization.
+ *
  * @author Ponfee
  */
 @Slf4j
 public abstract class TimingWheel<T extends TimingWheel.Timing<T>> implements java.io.Serializable {
 
     private static final long serialVersionUID = 4500377208898808026L;
-    private static final int PROCESS_SLOTS_SIZE = 2;
 
     /**
      * Tick duration milliseconds
@@ -108,28 +56,41 @@ public abstract class TimingWheel<T extends TimingWheel.Timing<T>> implements ja
     private final long tickMs;
 
     /**
-     * A round duration milliseconds
+     * Slots size of each level wheel
+     */
+    private final int ringSize;
+
+    /**
+     * Multi-producer single-consumer queue, the offered elements wait for poll thread to insert into wheels
+     */
+    private final Queue<Node<T>> inbound = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Non-empty slots of all levels, ordered by slot time
+     */
+    private final PriorityQueue<Slot<T>> slots = new PriorityQueue<>();
+
+    /**
+     * Count of the offered but not yet polled elements
+     */
+    private final AtomicInteger size = new AtomicInteger(0);
+
+    /**
+     * Poll lock, normally only the rotator thread poll
      */
-    private final long roundMs;
+    private final ReentrantLock pollLock = new ReentrantLock();
 
     /**
-     * Ring buffer of wheel
+     * The lowest level wheel
      */
-    private final TimingQueue<T>[] wheel;
+    private final Wheel<T> wheel;
 
     protected TimingWheel(long tickMs, int ringSize) {
         Assert.isTrue(tickMs > 0, "Tick milliseconds must be greater than 0");
-        Assert.isTrue(ringSize > 0, "Ring size must be greater than 0");
+        Assert.isTrue(ringSize > 1, "Ring size must be greater than 1");
         this.tickMs = tickMs;
-        this.roundMs = tickMs * ringSize;
-
-        @SuppressWarnings("unchecked")
-        TimingQueue<T>[] ring = new TimingQueue[ringSize];
-        // initialize 0 ~ ringSize slots
-        for (int i = 0; i < ring.length; i++) {
-            ring[i] = new TimingQueue<>();
-        }
-        this.wheel = ring;
+        this.ringSize = ringSize;
+        this.wheel = new Wheel<>(tickMs, ringSize, System.currentTimeMillis());
     }
 
     public final long getTickMs() {
@@ -137,7 +98,16 @@ public abstract class TimingWheel<T extends TimingWheel.Timing<T>> implements ja
     }
 
     public final int getRingSize() {
-        return wheel.length;
+        return ringSize;
+    }
+
+    /**
+     * Returns the count of elements which waiting in timing wheel
+     *
+     * @return size of timing wheel
+     */
+    public final int size() {
+        return size.get();
     }
 
     /**
@@ -169,10 +139,9 @@ public abstract class TimingWheel<T extends TimingWheel.Timing<T>> implements ja
 
         // 如果小于leastTimeMillis，则放入leastTimeMillis所在的槽位
         long slotTimeMillis = Math.max(timing.timing(), leastTimeMillis);
-        int ringIndex = calculateIndex(slotTimeMillis);
-
-        boolean res = wheel[ringIndex].offer(timing);
+        boolean res = inbound.offer(new Node<>(timing, slotTimeMillis));
         if (res) {
+            size.incrementAndGet();
             log.info("Timing wheel task offer success: {}", timing);
         } else {
             log.error("Timing wheel task offer failed: {}", timing);
@@ -192,33 +161,41 @@ public abstract class TimingWheel<T extends TimingWheel.Timing<T>> implements ja
      */
     public final List<T> poll(long latestTimeMillis) {
         List<T> ringTrigger = new ArrayList<>();
-        int ringIndex = calculateIndex(latestTimeMillis);
-        long maximumTiming = (latestTimeMillis / tickMs) * tickMs + tickMs;
-        // process current and previous tick timingQueue
-        for (int i = 0; i < PROCESS_SLOTS_SIZE; i++) {
-            TimingQueue<T> ringTick = wheel[(ringIndex - i + wheel.length) % wheel.length];
-            T first;
-            while ((first = ringTick.peek()) != null && first.timing() < maximumTiming) {
-                first = ringTick.poll();
-
-                // if run in single thread, there code block unnecessary
-                if (first == null) {
-                    break;
-                }
-                if (first.timing() > maximumTiming) {
-                    log.info("Re-offer first element because timing exceeds maximum value: {}, {}", first, maximumTiming);
-                    ringTick.offer(first);
-                    break;
-                }
+        long currentTickTime = latestTimeMillis - latestTimeMillis % tickMs;
+        pollLock.lock();
+        try {
+            for (Node<T> node; (node = inbound.poll()) != null; ) {
+                insert(node, ringTrigger);
+            }
 
-                ringTrigger.add(first);
+            // 按槽位时间顺序过期：高层槽位的元素重新放入低层的槽位，低层的已过期槽位也会在本次循环中处理
+            for (Slot<T> slot; (slot = slots.peek()) != null && slot.expiration <= currentTickTime; ) {
+                slots.poll();
+                wheel.advanceClock(slot.expiration);
+                for (Node<T> node : slot.flush()) {
+                    insert(node, ringTrigger);
+                }
             }
+            wheel.advanceClock(currentTickTime);
+        } finally {
+            pollLock.unlock();
+        }
+
+        if (!ringTrigger.isEmpty()) {
+            size.addAndGet(-ringTrigger.size());
+        }
+        if (ringTrigger.size() > 1) {
+            ringTrigger.sort(null);
         }
         return ringTrigger;
     }
 
-    private int calculateIndex(long timeMillis) {
-        return (int) ((timeMillis % roundMs) / tickMs);
+    // ------------------------------------------------------------------------private methods
+
+    private void insert(Node<T> node, List<T> expired) {
+        if (!wheel.add(node, slots)) {
+            expired.add(node.timing);
+        }
     }
 
     /**
@@ -245,21 +222,117 @@ public abstract class TimingWheel<T extends TimingWheel.Timing<T>> implements ja
     }
 
     /**
-     * Timing queue
-     *
-     * @param <T> element type
+     * Timing element with slot time
      */
-    private static final class TimingQueue<T extends Timing<T>> extends PriorityQueue<T> /*PriorityBlockingQueue<T>*/ {
-        private static final long serialVersionUID = -1728596471728230208L;
+    private static final class Node<T> implements java.io.Serializable {
+        private static final long serialVersionUID = -3870563541372283461L;
 
-        @Override
-        public synchronized T poll() {
-            return super.poll();
+        private final T timing;
+        private final long slotTime;
+
+        private Node(T timing, long slotTime) {
+            this.timing = timing;
+            this.slotTime = slotTime;
+        }
+    }
+
+    /**
+     * Slot of wheel, only accessed by poll thread
+     */
+    private static final class Slot<T> implements Comparable<Slot<T>>, java.io.Serializable {
+        private static final long serialVersionUID = 6372165716735498541L;
+
+        private List<Node<T>> nodes = new ArrayList<>();
+        private long expiration = -1;
+
+        private void add(Node<T> node) {
+            nodes.add(node);
+        }
+
+        /**
+         * Sets the slot expiration
+         *
+         * @param expiration the expiration
+         * @return {@code true} if the expiration changed, then should put to priority queue
+         */
+        private boolean setExpiration(long expiration) {
+            boolean changed = this.expiration != expiration;
+            this.expiration = expiration;
+            return changed;
+        }
+
+        private List<Node<T>> flush() {
+            List<Node<T>> result = nodes;
+            this.nodes = new ArrayList<>();
+            this.expiration = -1;
+            return result;
         }
 
         @Override
-        public synchronized boolean offer(T timing) {
-            return super.offer(timing);
+        public int compareTo(Slot<T> that) {
+            return Long.compare(this.expiration, that.expiration);
+        }
+    }
+
+    /**
+     * Single level wheel, only accessed by poll thread
+     */
+    private static final class Wheel<T> implements java.io.Serializable {
+        private static final long serialVersionUID = -1047935306592742187L;
+
+        private final long tickMs;
+        private final long intervalMs;
+        private final Slot<T>[] ring;
+        private long currentTime;
+        private Wheel<T> overflow;
+
+        private Wheel(long tickMs, int ringSize, long startTime) {
+            this.tickMs = tickMs;
+            // 防止高层的时间跨度溢出
+            this.intervalMs = tickMs > Long.MAX_VALUE / ringSize ? Long.MAX_VALUE : tickMs * ringSize;
+            this.currentTime = startTime - startTime % tickMs;
+            @SuppressWarnings("unchecked")
+            Slot<T>[] array = new Slot[ringSize];
+            for (int i = 0; i < ringSize; i++) {
+                array[i] = new Slot<>();
+            }
+            this.ring = array;
+        }
+
+        /**
+         * Adds to wheel
+         *
+         * @param node  the node
+         * @param slots the non-empty slots
+         * @return {@code false} if the node already expired
+         */
+        private boolean add(Node<T> node, PriorityQueue<Slot<T>> slots) {
+            long expiration = node.slotTime;
+            if (expiration - currentTime < tickMs) {
+                return false;
+            }
+            if (expiration - currentTime < intervalMs) {
+                long virtualId = expiration / tickMs;
+                Slot<T> slot = ring[(int) (virtualId % ring.length)];
+                slot.add(node);
+                if (slot.setExpiration(virtualId * tickMs)) {
+                    slots.offer(slot);
+                }
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Wheel<>(intervalMs, ring.length, currentTime);
+            }
+            return overflow.add(node, slots);
+        }
+
+        private void advanceClock(long timeMillis) {
+            if (timeMillis - currentTime >= tickMs) {
+                currentTime = timeMillis - timeMillis % tickMs;
+                if (overflow != null) {
+                    overflow.advanceClock(currentTime);
+                }
+            }
         }
     }
 
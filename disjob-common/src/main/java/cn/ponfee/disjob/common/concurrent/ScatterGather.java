@@ -0,0 +1,199 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.common.concurrent;
+
+import org.springframework.util.Assert;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Scatter-gather the calls to multiple destinations in parallel, with per-call timeout and global deadline.
+ * <p>The failed, timeout or rejected call result is replaced by the fallback, so it always returns partial results before deadline.
+ * <p>The in-flight calls of the same destination are bounded, a hung destination cannot occupy all threads of the executor.
+ *
+ * @author Ponfee
+ */
+public final class ScatterGather {
+
+    /**
+     * Default max in-flight calls per destination
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY_PER_DESTINATION = 8;
+
+    private final Executor executor;
+    private final ScheduledExecutorService timer;
+    private final int maxConcurrencyPerDestination;
+
+    /**
+     * Map<destination, in-flight call count>
+     */
+    private final ConcurrentMap<Object, Integer> inflight = new ConcurrentHashMap<>();
+
+    public ScatterGather(Executor executor, ScheduledExecutorService timer, int maxConcurrencyPerDestination) {
+        Assert.isTrue(maxConcurrencyPerDestination > 0, "Max concurrency per destination must be greater than 0.");
+        this.executor = Objects.requireNonNull(executor);
+        this.timer = Objects.requireNonNull(timer);
+        this.maxConcurrencyPerDestination = maxConcurrencyPerDestination;
+    }
+
+    /**
+     * Creates a ScatterGather based on the common thread pool.
+     * <p>Each call site should use its own instance, the in-flight calls are bounded per instance,
+     * so the calls of different purposes to the same destination do not reject each other.
+     *
+     * @param maxConcurrencyPerDestination the max in-flight calls per destination
+     * @see #DEFAULT_MAX_CONCURRENCY_PER_DESTINATION
+     */
+    public ScatterGather(int maxConcurrencyPerDestination) {
+        this(ThreadPoolExecutors.commonThreadPool(), ThreadPoolExecutors.commonScheduledPool(), maxConcurrencyPerDestination);
+    }
+
+    /**
+     * Run the action for each destination, returns before the deadline.
+     *
+     * @param destinations  the destinations
+     * @param action        the action
+     * @param callTimeoutMs the per-call timeout milliseconds
+     * @param deadlineMs    the global deadline milliseconds
+     * @param <T>           the destination type
+     * @return the failed destinations
+     */
+    public <T> List<T> run(Collection<T> destinations, Consumer<T> action, long callTimeoutMs, long deadlineMs) {
+        List<T> failed = new ArrayList<>(0);
+        call(destinations, e -> {
+            action.accept(e);
+            return Boolean.TRUE;
+        }, (e, t) -> {
+            failed.add(e);
+            return Boolean.FALSE;
+        }, callTimeoutMs, deadlineMs);
+        return failed;
+    }
+
+    /**
+     * Call the action for each destination, returns the results before the deadline, the order same as destinations.
+     *
+     * @param destinations  the destinations
+     * @param action        the action
+     * @param fallback      the fallback of failed/timeout/rejected call, the fallback is called in current thread
+     * @param callTimeoutMs the per-call timeout milliseconds
+     * @param deadlineMs    the global deadline milliseconds
+     * @param <T>           the destination type
+     * @param <U>           the result type
+     * @return results
+     */
+    public <T, U> List<U> call(Collection<T> destinations,
+                               Function<T, U> action,
+                               BiFunction<T, Throwable, U> fallback,
+                               long callTimeoutMs,
+                               long deadlineMs) {
+        Assert.isTrue(callTimeoutMs > 0, "Call timeout ms must be greater than 0.");
+        Assert.isTrue(deadlineMs > 0, "Deadline ms must be greater than 0.");
+        if (destinations == null || destinations.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        List<T> list = new ArrayList<>(destinations);
+        List<CompletableFuture<U>> futures = new ArrayList<>(list.size());
+        for (T destination : list) {
+            futures.add(submit(destination, action, callTimeoutMs));
+        }
+
+        List<U> results = new ArrayList<>(list.size());
+        for (int i = 0, n = list.size(); i < n; i++) {
+            CompletableFuture<U> future = futures.get(i);
+            U result;
+            try {
+                result = future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                result = fallback.apply(list.get(i), e.getCause());
+            } catch (TimeoutException e) {
+                future.completeExceptionally(e);
+                result = fallback.apply(list.get(i), new TimeoutException("Scatter gather deadline exceeded: " + deadlineMs));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.completeExceptionally(e);
+                result = fallback.apply(list.get(i), e);
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    // -------------------------------------------------------------------------------private methods
+
+    private <T, U> CompletableFuture<U> submit(T destination, Function<T, U> action, long callTimeoutMs) {
+        CompletableFuture<U> future = new CompletableFuture<>();
+        if (!acquire(destination)) {
+            future.completeExceptionally(new RejectedExecutionException("Too many in-flight calls to destination: " + destination));
+            return future;
+        }
+        final Thread caller = Thread.currentThread();
+        Runnable task = () -> {
+            try {
+                if (future.isDone()) {
+                    // already deadline exceeded
+                    return;
+                }
+                if (Thread.currentThread() == caller) {
+                    // the executor rejected policy is CALLER_RUNS, cannot block the caller
+                    future.completeExceptionally(new RejectedExecutionException("Scatter gather executor saturated."));
+                    return;
+                }
+                ScheduledFuture<?> timeout = timer.schedule(
+                    () -> future.completeExceptionally(new TimeoutException("Scatter gather call timeout: " + callTimeoutMs)),
+                    callTimeoutMs, TimeUnit.MILLISECONDS
+                );
+                try {
+                    future.complete(action.apply(destination));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                } finally {
+                    timeout.cancel(false);
+                }
+            } finally {
+                release(destination);
+            }
+        };
+        try {
+            executor.execute(task);
+        } catch (Throwable t) {
+            release(destination);
+            future.completeExceptionally(t);
+        }
+        return future;
+    }
+
+    private boolean acquire(Object destination) {
+        Integer count = inflight.merge(destination, 1, Integer::sum);
+        if (count <= maxConcurrencyPerDestination) {
+            return true;
+        }
+        release(destination);
+        return false;
+    }
+
+    private void release(Object destination) {
+        inflight.computeIfPresent(destination, (k, v) -> v <= 1 ? null : v - 1);
+    }
+
+}
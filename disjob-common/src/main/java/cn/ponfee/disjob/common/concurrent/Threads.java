@@ -75,15 +75,18 @@ public final class Threads {
     }
 
     /**
-     * Stops the thread
+     * Stops the thread: join -> interrupt and join -> Thread#stop()
+     * <p>The virtual thread and JDK 20+ not supported Thread#stop(), so the non-cooperative thread cannot be force stopped.
      *
      * @param thread     the thread
      * @param joinMillis the joinMillis
+     * @return {@code false} if the thread still alive and cannot be force stopped
      */
-    public static void stopThread(Thread thread, long joinMillis) {
+    public static boolean stopThread(Thread thread, long joinMillis) {
         log.info("Stop thread start [{}]", thread.getName());
-        stopThread0(thread, joinMillis);
-        log.info("Stop thread end [{}]", thread.getName());
+        boolean result = stopThread0(thread, joinMillis);
+        log.info("Stop thread end [{}]: {}", thread.getName(), result);
+        return result;
     }
 
     /**
@@ -153,27 +156,33 @@ public final class Threads {
         return builder.toString();
     }
 
-    private static void stopThread0(Thread thread, long joinMillis) {
+    private static boolean stopThread0(Thread thread, long joinMillis) {
         if (thread == Thread.currentThread()) {
             log.info("Stop self thread [{}]\n{}", thread.getName(), getStackTrace());
-            return;
+            return true;
         }
         if (isStopped(thread)) {
             log.info("Thread already stopped [{}]", thread.getName());
-            return;
+            return true;
         }
 
         long halfJoinMillis = joinMillis / 2;
 
         // wait joined
         if (join(thread, halfJoinMillis)) {
-            return;
+            return true;
         }
 
         // again wait joined with interrupt
         thread.interrupt();
         if (join(thread, halfJoinMillis)) {
-            return;
+            return true;
+        }
+
+        if (VirtualThreads.isVirtual(thread)) {
+            // 虚拟线程不支持Thread#stop()，会抛出UnsupportedOperationException
+            log.warn("Virtual thread cannot be force stopped, it still alive after interrupted: {}", thread.getName());
+            return false;
         }
 
         try {
@@ -182,8 +191,14 @@ public final class Threads {
             log.warn("Invoke java.lang.Thread#stop() method begin: {}", thread.getName());
             thread.stop();
             log.warn("Invoke java.lang.Thread#stop() method end: {}", thread.getName());
+            return true;
+        } catch (UnsupportedOperationException e) {
+            // JDK 20+ Thread#stop() always throws UnsupportedOperationException
+            log.warn("Thread cannot be force stopped, Thread#stop() not supported: {}", thread.getName());
+            return false;
         } catch (Throwable t) {
             log.error("Invoke java.lang.Thread#stop() method failed: {}", thread.getName(), t);
+            return false;
         }
     }
 
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.common.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+
+/**
+ * Virtual thread utilities, based on reflection because the project compiled with java 8.
+ * <p>Virtual thread only available on JDK 21+
+ *
+ * @author Ponfee
+ */
+@Slf4j
+public final class VirtualThreads {
+
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_UNSTARTED;
+    private static final Method IS_VIRTUAL;
+
+    static {
+        Method ofVirtual = null, builderName = null, builderUnstarted = null;
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            builderName = builderClass.getMethod("name", String.class);
+            builderUnstarted = builderClass.getMethod("unstarted", Runnable.class);
+        } catch (Throwable t) {
+            ofVirtual = builderName = builderUnstarted = null;
+            log.debug("Virtual thread not supported: {}", t.getMessage());
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_UNSTARTED = builderUnstarted;
+
+        Method isVirtual = null;
+        try {
+            isVirtual = Thread.class.getMethod("isVirtual");
+        } catch (Throwable ignored) {
+            // Thread#isVirtual only available on JDK 21+
+        }
+        IS_VIRTUAL = isVirtual;
+    }
+
+    private VirtualThreads() {
+        throw new AssertionError("No VirtualThreads instances for you!");
+    }
+
+    /**
+     * Returns {@code true} if current jvm supported virtual thread.
+     *
+     * @return {@code true} if supported virtual thread
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Returns {@code true} if the thread is a virtual thread.
+     *
+     * @param thread the thread
+     * @return {@code true} if the thread is a virtual thread
+     */
+    public static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (Boolean) IS_VIRTUAL.invoke(thread);
+        } catch (Exception e) {
+            log.warn("Invoke Thread#isVirtual() method failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Creates an unstarted virtual thread.
+     *
+     * @param name     the thread name
+     * @param runnable the runnable
+     * @return unstarted virtual thread
+     * @throws UnsupportedOperationException if current jvm not supported virtual thread
+     */
+    public static Thread newThread(String name, Runnable runnable) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual thread not supported, current java version: " + System.getProperty("java.version"));
+        }
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = BUILDER_NAME.invoke(builder, name);
+            return (Thread) BUILDER_UNSTARTED.invoke(builder, runnable);
+        } catch (Exception e) {
+            throw new IllegalStateException("Create virtual thread failed: " + name, e);
+        }
+    }
+
+}
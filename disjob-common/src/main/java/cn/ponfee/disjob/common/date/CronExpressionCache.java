@@ -0,0 +1,219 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.common.date;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Objects;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of the compiled cron expression, keyed by expression and time zone.
+ * <p>Each cached expression also holds a few lookahead windows of the next fire times,
+ * so the same expression need not compute again while the base time fall in one of windows,
+ * even if the jobs of sharing the expression use different base times.
+ *
+ * @author Ponfee
+ */
+public final class CronExpressionCache {
+
+    private static final int MAXIMUM_SIZE = 4096;
+    private static final int LOOKAHEAD_COUNT = 16;
+    private static final int LOOKAHEAD_WINDOWS = 4;
+
+    private static final Cache<Key, Entry> CACHE = CacheBuilder.newBuilder()
+        .maximumSize(MAXIMUM_SIZE)
+        .expireAfterAccess(1, TimeUnit.HOURS)
+        .build();
+
+    private CronExpressionCache() {
+    }
+
+    /**
+     * Returns a copy of the cached compiled cron expression with default time zone.
+     *
+     * @param expression the cron expression
+     * @return compiled cron expression
+     * @throws ParseException if invalid cron expression
+     */
+    public static CronExpression get(String expression) throws ParseException {
+        return get(expression, TimeZone.getDefault());
+    }
+
+    /**
+     * Returns a copy of the cached compiled cron expression.
+     * <p>The cached object is shared by all callers, so returns a defensive copy.
+     *
+     * @param expression the cron expression
+     * @param timeZone   the time zone
+     * @return compiled cron expression
+     * @throws ParseException if invalid cron expression
+     */
+    public static CronExpression get(String expression, TimeZone timeZone) throws ParseException {
+        return new CronExpression(entry(expression, timeZone).expression);
+    }
+
+    /**
+     * Returns the next fire time after the given date, with default time zone.
+     *
+     * @param expression the cron expression
+     * @param date       the date
+     * @return next fire time, or null if has not next fire time
+     * @throws ParseException if invalid cron expression
+     */
+    public static Date getNextValidTimeAfter(String expression, Date date) throws ParseException {
+        return getNextValidTimeAfter(expression, TimeZone.getDefault(), date);
+    }
+
+    /**
+     * Returns the next fire time after the given date.
+     *
+     * @param expression the cron expression
+     * @param timeZone   the time zone
+     * @param date       the date
+     * @return next fire time, or null if has not next fire time
+     * @throws ParseException if invalid cron expression
+     */
+    public static Date getNextValidTimeAfter(String expression, TimeZone timeZone, Date date) throws ParseException {
+        return entry(expression, timeZone).next(date);
+    }
+
+    public static long size() {
+        return CACHE.size();
+    }
+
+    public static void clear() {
+        CACHE.invalidateAll();
+    }
+
+    // -------------------------------------------------------------------------------private methods
+
+    private static Entry entry(String expression, TimeZone timeZone) throws ParseException {
+        Objects.requireNonNull(expression, "Cron expression cannot be null.");
+        Key key = new Key(expression, timeZone.getID());
+        Entry entry = CACHE.getIfPresent(key);
+        if (entry != null) {
+            return entry;
+        }
+        CronExpression cronExpression = new CronExpression(expression);
+        // 先设置时区，避免共享对象在`getTimeZone`中延迟赋值
+        cronExpression.setTimeZone(timeZone);
+        entry = new Entry(cronExpression);
+        Entry exists = CACHE.asMap().putIfAbsent(key, entry);
+        return exists != null ? exists : entry;
+    }
+
+    private static final class Key {
+        final String expression;
+        final String timeZoneId;
+
+        Key(String expression, String timeZoneId) {
+            this.expression = expression;
+            this.timeZoneId = timeZoneId;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return expression.equals(other.expression) && timeZoneId.equals(other.timeZoneId);
+        }
+
+        @Override
+        public int hashCode() {
+            return expression.hashCode() * 31 + timeZoneId.hashCode();
+        }
+    }
+
+    private static final class Entry {
+        final CronExpression expression;
+        /**
+         * Immutable array of lookahead windows, most recently computed first.
+         */
+        volatile Lookahead[] windows = new Lookahead[0];
+
+        Entry(CronExpression expression) {
+            this.expression = expression;
+        }
+
+        Date next(Date date) {
+            long time = date.getTime();
+            Lookahead[] current = windows;
+            for (Lookahead window : current) {
+                if (window.covers(time)) {
+                    return window.next(time);
+                }
+            }
+            Lookahead window = Lookahead.compute(expression, date);
+            // 并发时可能丢失其它线程新计算的窗口，只影响命中率不影响正确性
+            Lookahead[] updated = new Lookahead[Math.min(current.length + 1, LOOKAHEAD_WINDOWS)];
+            updated[0] = window;
+            System.arraycopy(current, 0, updated, 1, updated.length - 1);
+            this.windows = updated;
+            return window.next(time);
+        }
+    }
+
+    /**
+     * Immutable lookahead fire times, contains all fire times in the range (base, times[length - 1]].
+     */
+    private static final class Lookahead {
+        final long base;
+        final long[] times;
+        final boolean exhausted;
+
+        Lookahead(long base, long[] times, boolean exhausted) {
+            this.base = base;
+            this.times = times;
+            this.exhausted = exhausted;
+        }
+
+        static Lookahead compute(CronExpression expression, Date base) {
+            long[] times = new long[LOOKAHEAD_COUNT];
+            int count = 0;
+            for (Date next = base; count < LOOKAHEAD_COUNT && (next = expression.getNextValidTimeAfter(next)) != null; ) {
+                times[count++] = next.getTime();
+            }
+            return new Lookahead(base.getTime(), Arrays.copyOf(times, count), count < LOOKAHEAD_COUNT);
+        }
+
+        boolean covers(long time) {
+            if (time < base) {
+                return false;
+            }
+            return exhausted || (times.length > 0 && time < times[times.length - 1]);
+        }
+
+        Date next(long time) {
+            int index = Arrays.binarySearch(times, time);
+            // found: the next index; not found: the insertion point
+            index = index >= 0 ? index + 1 : -(index + 1);
+            return index < times.length ? new Date(times[index]) : null;
+        }
+    }
+
+}
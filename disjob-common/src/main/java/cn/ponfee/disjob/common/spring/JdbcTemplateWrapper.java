@@ -78,6 +78,11 @@ public final class JdbcTemplateWrapper {
         return jdbcTemplate.update(sql, args);
     }
 
+    public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+        Assert.isTrue(sql.startsWith("UPDATE "), () -> "Invalid UPDATE sql: " + sql);
+        return jdbcTemplate.batchUpdate(sql, batchArgs);
+    }
+
     public int delete(String sql, Object... args) {
         Assert.isTrue(sql.startsWith("DELETE "), () -> "Invalid DELETE sql: " + sql);
         return jdbcTemplate.update(sql, args);
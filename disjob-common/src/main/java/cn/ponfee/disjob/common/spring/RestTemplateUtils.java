@@ -29,11 +29,16 @@ import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.conn.ssl.TrustAllStrategy;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.ssl.SSLContexts;
 import org.springframework.core.NamedThreadLocal;
@@ -42,9 +47,11 @@ import org.springframework.http.*;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.converter.ByteArrayHttpMessageConverter;
 import org.springframework.http.converter.FormHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.ResourceHttpMessageConverter;
 import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.http.converter.xml.SourceHttpMessageConverter;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -60,6 +67,8 @@ import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
@@ -93,6 +102,11 @@ public class RestTemplateUtils {
     public static final Type RESULT_BOOLEAN = new ParameterizedTypeReference<Result<Boolean>>() {}.getType();
     public static final Type RESULT_VOID = new ParameterizedTypeReference<Result<Void>>() {}.getType();
 
+    /**
+     * The rpc servers(host:port) which supported smile codec
+     */
+    private static final Set<String> SMILE_SERVERS = ConcurrentHashMap.newKeySet();
+
     public static RestTemplate create(int connectTimeout, int readTimeout, ObjectMapper objectMapper) {
         return create(connectTimeout, readTimeout, objectMapper, StandardCharsets.UTF_8);
     }
@@ -102,27 +116,86 @@ public class RestTemplateUtils {
     }
 
     public static RestTemplate create(int connectTimeout, int readTimeout, MappingJackson2HttpMessageConverter messageConverter, Charset charset) {
-        SSLContext sslContext = ThrowingSupplier.doChecked(() -> SSLContexts.custom().loadTrustMaterial(null, TrustAllStrategy.INSTANCE).build());
         CloseableHttpClient httpClient = HttpClients.custom()
-            .setSSLSocketFactory(new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE))
+            .setSSLSocketFactory(createSslSocketFactory())
+            .build();
+        return create(httpClient, connectTimeout, readTimeout, -1, messageConverter, null, charset);
+    }
+
+    /**
+     * Creates rest template with the pooling connection manager, keep-alive connections are reused by route.
+     *
+     * @param connectTimeout           the connect timeout milliseconds
+     * @param readTimeout              the read timeout milliseconds
+     * @param connectionRequestTimeout the timeout milliseconds of lease connection from pool
+     * @param maxIdleTime              the max idle time milliseconds, idle connection will be evicted
+     * @param connectionManager        the pooling connection manager
+     * @param objectMapper             the object mapper
+     * @param smileCodec               whether to use smile codec if the server supported
+     * @return rest template
+     * @see #createConnectionManager(int, int, long, int)
+     */
+    public static RestTemplate create(int connectTimeout, int readTimeout, int connectionRequestTimeout, long maxIdleTime,
+                                      PoolingHttpClientConnectionManager connectionManager, ObjectMapper objectMapper,
+                                      boolean smileCodec) {
+        CloseableHttpClient httpClient = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .evictExpiredConnections()
+            .evictIdleConnections(maxIdleTime, TimeUnit.MILLISECONDS)
+            .build();
+        MappingJackson2HttpMessageConverter messageConverter = createMappingJackson2HttpMessageConverter(objectMapper);
+        MappingJackson2SmileHttpMessageConverter smileConverter = smileCodec ? SmileCodec.createMessageConverter() : null;
+        return create(httpClient, connectTimeout, readTimeout, connectionRequestTimeout, messageConverter, smileConverter, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates pooling connection manager, the pool stats can get by {@link PoolingHttpClientConnectionManager#getTotalStats()}
+     *
+     * @param maxTotal                the max total connections
+     * @param maxPerRoute             the max connections per route
+     * @param timeToLive              the connection time to live milliseconds, less than or equal 0 means no limit
+     * @param validateAfterInactivity the validate connection after inactivity milliseconds
+     * @return pooling connection manager
+     */
+    public static PoolingHttpClientConnectionManager createConnectionManager(int maxTotal, int maxPerRoute,
+                                                                             long timeToLive, int validateAfterInactivity) {
+        Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+            .register("http", PlainConnectionSocketFactory.getSocketFactory())
+            .register("https", createSslSocketFactory())
             .build();
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+            registry, null, null, null, timeToLive, TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setValidateAfterInactivity(validateAfterInactivity);
+        return connectionManager;
+    }
 
+    private static RestTemplate create(CloseableHttpClient httpClient, int connectTimeout, int readTimeout, int connectionRequestTimeout,
+                                       MappingJackson2HttpMessageConverter messageConverter,
+                                       MappingJackson2SmileHttpMessageConverter smileConverter, Charset charset) {
         //SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
         HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
         requestFactory.setHttpClient(httpClient);
         requestFactory.setConnectTimeout(connectTimeout);
         requestFactory.setReadTimeout(readTimeout);
+        requestFactory.setConnectionRequestTimeout(connectionRequestTimeout);
         requestFactory.setHttpContextFactory(new HttpContextFactory());
 
+        List<HttpMessageConverter<?>> messageConverters = new ArrayList<>(7);
+        messageConverters.add(new ByteArrayHttpMessageConverter());
+        messageConverters.add(new StringHttpMessageConverter(charset));
+        messageConverters.add(new ResourceHttpMessageConverter());
+        messageConverters.add(new SourceHttpMessageConverter<>());
+        messageConverters.add(new FormHttpMessageConverter());
+        if (smileConverter != null) {
+            // 在json之前，使得请求头`Accept`优先smile
+            messageConverters.add(smileConverter);
+        }
+        messageConverters.add(messageConverter);
+
         RestTemplate restTemplate = new RestTemplate(requestFactory);
-        restTemplate.setMessageConverters(Arrays.asList(
-            new ByteArrayHttpMessageConverter(),
-            new StringHttpMessageConverter(charset),
-            new ResourceHttpMessageConverter(),
-            new SourceHttpMessageConverter<>(),
-            new FormHttpMessageConverter(),
-            messageConverter
-        ));
+        restTemplate.setMessageConverters(messageConverters);
         return restTemplate;
     }
 
@@ -178,6 +251,8 @@ public class RestTemplateUtils {
             headersMap.forEach(headers::set);
         }
 
+        boolean smileCodec = isSmileCodec(restTemplate);
+        boolean smileRequest = false;
         URI uri;
         if (QUERY_PARAM_METHODS.contains(httpMethod)) {
             UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(url);
@@ -189,14 +264,31 @@ public class RestTemplateUtils {
         } else {
             uri = restTemplate.getUriTemplateHandler().expand(url, Collects.EMPTY_OBJECT_ARRAY);
             if (ArrayUtils.isNotEmpty(arguments)) {
-                headers.setContentType(MediaType.APPLICATION_JSON);
+                smileRequest = smileCodec && SMILE_SERVERS.contains(uri.getAuthority());
+                headers.setContentType(smileRequest ? SmileCodec.MEDIA_TYPE : MediaType.APPLICATION_JSON);
             }
         }
 
         RequestCallback requestCallback = restTemplate.httpEntityCallback(new HttpEntity<>(arguments, headers), returnType);
         ResponseExtractor<ResponseEntity<T>> responseExtractor = restTemplate.responseEntityExtractor(returnType);
-        ResponseEntity<T> responseEntity = restTemplate.execute(uri, httpMethod, requestCallback, responseExtractor);
-        return Objects.requireNonNull(responseEntity).getBody();
+        ResponseEntity<T> responseEntity;
+        try {
+            responseEntity = Objects.requireNonNull(restTemplate.execute(uri, httpMethod, requestCallback, responseExtractor));
+        } catch (RuntimeException e) {
+            if (smileRequest) {
+                // 服务端可能已降级为不支持smile的版本，下次请求回退为json
+                SMILE_SERVERS.remove(uri.getAuthority());
+            }
+            throw e;
+        }
+        if (smileCodec) {
+            if (SmileCodec.HEADER_VALUE.equals(responseEntity.getHeaders().getFirst(SmileCodec.HEADER_NAME))) {
+                SMILE_SERVERS.add(uri.getAuthority());
+            } else {
+                SMILE_SERVERS.remove(uri.getAuthority());
+            }
+        }
+        return responseEntity.getBody();
     }
 
     public static <T> T invoke(RequestConfig requestConfig, RestTemplate restTemplate, URI uri,
@@ -215,6 +307,20 @@ public class RestTemplateUtils {
 
     // -----------------------------------------------------------------------private methods or static class
 
+    private static boolean isSmileCodec(RestTemplate restTemplate) {
+        for (HttpMessageConverter<?> converter : restTemplate.getMessageConverters()) {
+            if (converter instanceof MappingJackson2SmileHttpMessageConverter) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static SSLConnectionSocketFactory createSslSocketFactory() {
+        SSLContext sslContext = ThrowingSupplier.doChecked(() -> SSLContexts.custom().loadTrustMaterial(null, TrustAllStrategy.INSTANCE).build());
+        return new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE);
+    }
+
     private static List<String> toListString(Object value) {
         if (value == null) {
             return null;
@@ -22,17 +22,28 @@ import cn.ponfee.disjob.common.util.Jsons;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Objects;
@@ -45,9 +56,84 @@ import java.util.Set;
  */
 public class RpcControllerConfigurer implements WebMvcConfigurer {
 
+    private static final String RPC_SMILE_ATTRIBUTE_KEY = "$disjob$RpcController#smile";
+
+    /**
+     * Whether to support smile codec, only for the {@link RpcController} handlers.
+     * <p>Requires the optional dependency {@code com.fasterxml.jackson.dataformat:jackson-dataformat-smile}
+     */
+    private final boolean smileCodec;
+
+    public RpcControllerConfigurer() {
+        this(false);
+    }
+
+    public RpcControllerConfigurer(boolean smileCodec) {
+        this.smileCodec = smileCodec;
+    }
+
     @Override
     public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
-        resolvers.add(new RpcControllerArgumentResolver());
+        resolvers.add(new RpcControllerArgumentResolver(smileCodec));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!smileCodec) {
+            return;
+        }
+        // 告知rpc客户端：本服务支持smile编码的请求体(仅RpcController)
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (handler instanceof HandlerMethod && isRpcController(((HandlerMethod) handler).getBeanType())) {
+                    request.setAttribute(RPC_SMILE_ATTRIBUTE_KEY, Boolean.TRUE);
+                    response.setHeader(SmileCodec.HEADER_NAME, SmileCodec.HEADER_VALUE);
+                }
+                return true;
+            }
+        });
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        if (!smileCodec) {
+            return;
+        }
+        // 使用与json相同配置的smile converter，放在默认的smile converter之前，只对RpcController的请求生效
+        int index = 0;
+        while (index < converters.size() && !(converters.get(index) instanceof MappingJackson2SmileHttpMessageConverter)) {
+            index++;
+        }
+        converters.add(index, new RpcSmileHttpMessageConverter());
+    }
+
+    private static boolean isRpcController(Class<?> beanType) {
+        return AnnotatedElementUtils.hasAnnotation(beanType, RpcController.class);
+    }
+
+    /**
+     * Smile message converter, only can read/write for the {@link RpcController} handlers.
+     */
+    private static class RpcSmileHttpMessageConverter extends MappingJackson2SmileHttpMessageConverter {
+        RpcSmileHttpMessageConverter() {
+            super(SmileCodec.createMessageConverter().getObjectMapper());
+        }
+
+        @Override
+        public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+            return isRpcRequest() && super.canRead(type, contextClass, mediaType);
+        }
+
+        @Override
+        public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+            return isRpcRequest() && super.canWrite(clazz, mediaType);
+        }
+
+        private static boolean isRpcRequest() {
+            RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+            return attributes != null && attributes.getAttribute(RPC_SMILE_ATTRIBUTE_KEY, RequestAttributes.SCOPE_REQUEST) != null;
+        }
     }
 
     /**
@@ -58,6 +144,12 @@ public class RpcControllerConfigurer implements WebMvcConfigurer {
         static final Set<String> QUERY_PARAM_METHODS = Collects.convert(RestTemplateUtils.QUERY_PARAM_METHODS, HttpMethod::name);
         static final String CACHE_ATTRIBUTE_KEY = "$disjob$RpcController#method(args)";
 
+        final boolean smileCodec;
+
+        RpcControllerArgumentResolver(boolean smileCodec) {
+            this.smileCodec = smileCodec;
+        }
+
         @Override
         public boolean supportsParameter(MethodParameter parameter) {
             if (parameter.getMethod() == null) {
@@ -96,12 +188,19 @@ public class RpcControllerConfigurer implements WebMvcConfigurer {
             return Collects.get(arguments, parameterIndex);
         }
 
-        private static Object[] parseMethodParameters(Method method, HttpServletRequest request) throws IOException {
+        private Object[] parseMethodParameters(Method method, HttpServletRequest request) throws IOException {
             if (QUERY_PARAM_METHODS.contains(request.getMethod())) {
                 return RpcControllerUtils.parseQueryParameters(method, request.getParameterMap());
             }
 
             try (ServletInputStream inputStream = request.getInputStream()) {
+                if (smileCodec && SmileCodec.isSmile(request.getContentType())) {
+                    byte[] data = IOUtils.toByteArray(inputStream);
+                    if (data.length > 0) {
+                        return SmileCodec.parseArgs(data, method.getGenericParameterTypes());
+                    }
+                    return RpcControllerUtils.parseQueryParameters(method, request.getParameterMap());
+                }
                 String body = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
                 if (StringUtils.isEmpty(body)) {
                     return RpcControllerUtils.parseQueryParameters(method, request.getParameterMap());
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.common.spring;
+
+import cn.ponfee.disjob.common.util.Jsons;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Rpc binary codec based jackson smile, it has the same data model(object mapper configuration) with json.
+ * <p>Content type negotiated: the rpc server responds header {@link #HEADER_NAME}, then the rpc client
+ * uses smile to encode request body, otherwise still uses json(compatible with older nodes).
+ *
+ * @author Ponfee
+ */
+public final class SmileCodec {
+
+    /**
+     * Smile media type
+     */
+    public static final MediaType MEDIA_TYPE = new MediaType("application", "x-jackson-smile");
+
+    /**
+     * Rpc server responds the header for supported rpc codec
+     */
+    public static final String HEADER_NAME = "X-Disjob-Rpc-Codec";
+
+    /**
+     * Rpc server responds the header value for supported smile codec
+     */
+    public static final String HEADER_VALUE = "smile";
+
+    /**
+     * Smile ObjectMapper(thread safe)
+     */
+    private static final ObjectMapper OBJECT_MAPPER = createObjectMapper(JsonInclude.Include.NON_NULL);
+
+    private SmileCodec() {
+    }
+
+    public static ObjectMapper createObjectMapper(JsonInclude.Include include) {
+        ObjectMapper objectMapper = new ObjectMapper(new SmileFactory());
+        if (include != null) {
+            objectMapper.setSerializationInclusion(include);
+        }
+        Jsons.configObjectMapper(objectMapper);
+        return objectMapper;
+    }
+
+    public static MappingJackson2SmileHttpMessageConverter createMessageConverter() {
+        return new MappingJackson2SmileHttpMessageConverter(OBJECT_MAPPER);
+    }
+
+    public static boolean isSmile(String contentType) {
+        return contentType != null && MEDIA_TYPE.isCompatibleWith(MediaType.parseMediaType(contentType));
+    }
+
+    public static byte[] encode(Object target) {
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(target);
+        } catch (IOException e) {
+            return ExceptionUtils.rethrow(e);
+        }
+    }
+
+    public static <T> T decode(byte[] data, Type type) {
+        try {
+            return OBJECT_MAPPER.readValue(data, OBJECT_MAPPER.constructType(type));
+        } catch (IOException e) {
+            return ExceptionUtils.rethrow(e);
+        }
+    }
+
+    /**
+     * Parse the smile encoded method arguments
+     *
+     * @param data           the smile encoded data
+     * @param parameterTypes the method parameter types
+     * @return method arguments
+     * @see Jsons#parseArgs(JsonNode, Type[])
+     */
+    public static Object[] parseArgs(byte[] data, Type[] parameterTypes) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        try {
+            return Jsons.parseArgs(OBJECT_MAPPER.readTree(data), parameterTypes);
+        } catch (IOException e) {
+            return ExceptionUtils.rethrow(e);
+        }
+    }
+
+}
@@ -239,17 +239,26 @@ public final class Jsons {
     }
 
     public static Object[] parseArgs(String body, Type[] parameterTypes) {
-        if (body == null) {
+        if (body == null || parameterTypes.length == 0) {
             return null;
         }
+        return parseArgs(readTree(NORMAL.objectMapper, body), parameterTypes);
+    }
 
+    /**
+     * Parse method arguments from the json tree, the tree can be read from other data format(e.g. smile)
+     *
+     * @param rootNode       the root json node
+     * @param parameterTypes the method parameter types
+     * @return method arguments
+     */
+    public static Object[] parseArgs(JsonNode rootNode, Type[] parameterTypes) {
         int argumentCount = parameterTypes.length;
         if (/*method.getParameterCount()*/argumentCount == 0) {
             return null;
         }
 
         ObjectMapper objectMapper = NORMAL.objectMapper;
-        JsonNode rootNode = readTree(objectMapper, body);
         if (rootNode.isArray()) {
             ArrayNode arrayNode = (ArrayNode) rootNode;
 
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.common.base;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * MaglevHash test
+ *
+ * @author Ponfee
+ */
+public class MaglevHashTest {
+
+    @Test
+    public void testBalanceAndDisruption() {
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            nodes.add("node-" + i);
+        }
+        MaglevHash<String> maglevHash = new MaglevHash<>(nodes, Function.identity());
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            counts.merge(maglevHash.routeNode("key-" + i), 1, Integer::sum);
+        }
+        Assertions.assertEquals(10, counts.size());
+        counts.values().forEach(e -> Assertions.assertTrue(e > 9000 && e < 11000, "Unbalanced count: " + e));
+
+        // remove a node and shuffle, the lookup table is independent of the nodes order
+        List<String> changed = new ArrayList<>(nodes);
+        changed.remove("node-3");
+        Collections.shuffle(changed);
+        MaglevHash<String> changedHash = new MaglevHash<>(changed, Function.identity());
+        int moved = 0;
+        for (int i = 0; i < 100000; i++) {
+            String before = maglevHash.routeNode("key-" + i);
+            if (!"node-3".equals(before) && !before.equals(changedHash.routeNode("key-" + i))) {
+                moved++;
+            }
+        }
+        Assertions.assertTrue(moved < 2000, "Too many moved: " + moved);
+    }
+
+    @Test
+    public void testEmpty() {
+        Assertions.assertNull(new MaglevHash<String>(Collections.emptyList(), Function.identity()).routeNode("key"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new MaglevHash<>(Collections.singletonList("a"), Function.identity(), ConsistentHash.HashFunction.FNV, 100));
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.common.base;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hierarchical timing wheel test
+ *
+ * @author Ponfee
+ */
+public class TimingWheelTest {
+
+    private static final long TICK_MS = 100;
+    private static final int RING_SIZE = 60;
+
+    @Test
+    public void testPollInTick() {
+        TimingWheel<TimingData> timingWheel = new TimingWheel<TimingData>(TICK_MS, RING_SIZE) {};
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now = System.currentTimeMillis();
+        long range = TimeUnit.HOURS.toMillis(3);
+        int count = 20000;
+        for (int i = 0; i < count; i++) {
+            // 包括已过期的、当前层的、以及溢出层的数据
+            Assertions.assertTrue(timingWheel.offer(new TimingData(now - 1000 + random.nextLong(range)), 0));
+        }
+
+        int polled = 0;
+        long previousMaximum = Long.MIN_VALUE;
+        for (long time = now; time < now + range + TICK_MS; ) {
+            long maximum = (time / TICK_MS) * TICK_MS + TICK_MS;
+            List<TimingData> list = timingWheel.poll(time);
+            for (TimingData e : list) {
+                Assertions.assertTrue(e.timing() < maximum);
+                Assertions.assertTrue(e.timing() >= previousMaximum);
+            }
+            polled += list.size();
+            previousMaximum = maximum;
+            // 有时跳过若干个刻度，模拟rotator延迟
+            time += random.nextInt(10) == 0 ? random.nextLong(TimeUnit.MINUTES.toMillis(10)) : TICK_MS;
+        }
+        polled += timingWheel.poll(now + range + TICK_MS).size();
+        Assertions.assertEquals(count, polled);
+    }
+
+    @Test
+    public void testLeastTime() {
+        TimingWheel<TimingData> timingWheel = new TimingWheel<TimingData>(TICK_MS, RING_SIZE) {};
+        long now = System.currentTimeMillis();
+        timingWheel.offer(new TimingData(now - 5000), now + 1000);
+        Assertions.assertTrue(timingWheel.poll(now + 500).isEmpty());
+        Assertions.assertEquals(1, timingWheel.size());
+        Assertions.assertEquals(1, timingWheel.poll(now + 1000).size());
+        Assertions.assertEquals(0, timingWheel.size());
+        Assertions.assertFalse(timingWheel.offer(null));
+        Assertions.assertEquals(0, timingWheel.size());
+    }
+
+    @Test
+    public void testConcurrentCost() throws InterruptedException {
+        TimingWheel<TimingData> timingWheel = new TimingWheel<TimingData>(TICK_MS, RING_SIZE) {};
+        int producers = 8, round = 50000;
+        long start = System.currentTimeMillis();
+        CountDownLatch latch = new CountDownLatch(producers);
+        AtomicLong offerCost = new AtomicLong();
+        for (int i = 0; i < producers; i++) {
+            new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long begin = System.nanoTime();
+                for (int j = 0; j < round; j++) {
+                    timingWheel.offer(new TimingData(start + random.nextLong(TimeUnit.MINUTES.toMillis(30))), 0);
+                }
+                offerCost.addAndGet(System.nanoTime() - begin);
+                latch.countDown();
+            }).start();
+        }
+
+        // 模拟rotator线程：在offer的同时poll
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong polled = new AtomicLong();
+        Thread consumer = new Thread(() -> {
+            long time = start;
+            while (running.get()) {
+                polled.addAndGet(timingWheel.poll(time).size());
+                time += TICK_MS;
+            }
+        });
+        consumer.start();
+        latch.await();
+        running.set(false);
+        consumer.join();
+
+        long begin = System.nanoTime();
+        polled.addAndGet(timingWheel.poll(start + TimeUnit.MINUTES.toMillis(31)).size());
+        long pollCost = System.nanoTime() - begin;
+        Assertions.assertEquals((long) producers * round, polled.get());
+        System.out.println("Timing wheel offer cost(ns/op): " + offerCost.get() / ((long) producers * round) + ", final poll cost(ms): " + pollCost / 1000000);
+    }
+
+    private static class TimingData implements TimingWheel.Timing<TimingData> {
+        private final long time;
+
+        private TimingData(long time) {
+            this.time = time;
+        }
+
+        @Override
+        public long timing() {
+            return time;
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.common.concurrent;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * ScatterGather test
+ *
+ * @author Ponfee
+ */
+public class ScatterGatherTest {
+
+    @Test
+    public void testCall() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        CountDownLatch hung = new CountDownLatch(1);
+        try {
+            ScatterGather scatterGather = new ScatterGather(executor, timer, 1);
+            List<Integer> destinations = Arrays.asList(1, 2, 3, 4);
+            long start = System.currentTimeMillis();
+            List<String> results = scatterGather.call(destinations, e -> {
+                if (e == 2) {
+                    // hung destination
+                    Uninterruptibles.awaitUninterruptibly(hung);
+                }
+                if (e == 3) {
+                    throw new IllegalStateException("error");
+                }
+                return "ok-" + e;
+            }, (e, t) -> t.getClass().getSimpleName() + "-" + e, 200, 1000);
+            long cost = System.currentTimeMillis() - start;
+
+            Assertions.assertEquals(Arrays.asList("ok-1", "TimeoutException-2", "IllegalStateException-3", "ok-4"), results);
+            Assertions.assertTrue(cost < 1000, "cost: " + cost);
+
+            // the hung destination in-flight call is not finished, reject the new call
+            List<Integer> failed = scatterGather.run(Collections.singletonList(2), e -> {}, 200, 1000);
+            Assertions.assertEquals(Collections.singletonList(2), failed);
+
+            hung.countDown();
+            Thread.sleep(100);
+            Assertions.assertTrue(scatterGather.run(Collections.singletonList(2), e -> {}, 200, 1000).isEmpty());
+        } finally {
+            hung.countDown();
+            executor.shutdownNow();
+            timer.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDeadline() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        try {
+            ScatterGather scatterGather = new ScatterGather(executor, timer, 2);
+            long start = System.currentTimeMillis();
+            List<Boolean> results = scatterGather.call(Arrays.asList(1, 2), e -> {
+                Threads.sleep(e * 300L);
+                return true;
+            }, (e, t) -> false, 1000, 450);
+            Assertions.assertEquals(Arrays.asList(true, false), results);
+            Assertions.assertTrue(System.currentTimeMillis() - start < 600);
+        } finally {
+            executor.shutdownNow();
+            timer.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSeparateInflight() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        CountDownLatch hung = new CountDownLatch(1);
+        try {
+            ScatterGather notify = new ScatterGather(executor, timer, 1);
+            ScatterGather metrics = new ScatterGather(executor, timer, 1);
+            List<Integer> failed = notify.run(Collections.singletonList(1), e -> Uninterruptibles.awaitUninterruptibly(hung), 100, 200);
+            Assertions.assertEquals(Collections.singletonList(1), failed);
+            Assertions.assertEquals(Collections.singletonList(1), notify.run(Collections.singletonList(1), e -> {}, 100, 200));
+
+            // the hung call of other instance not occupy the in-flight quota
+            Assertions.assertTrue(metrics.run(Collections.singletonList(1), e -> {}, 100, 200).isEmpty());
+        } finally {
+            hung.countDown();
+            executor.shutdownNow();
+            timer.shutdownNow();
+        }
+    }
+
+}
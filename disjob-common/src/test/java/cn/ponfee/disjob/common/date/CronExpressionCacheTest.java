@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.common.date;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * CronExpressionCache Test
+ *
+ * @author Ponfee
+ */
+public class CronExpressionCacheTest {
+
+    private static final String[] EXPRESSIONS = {
+        "0/10 * * * * ?", "0 0 * * * ?", "0 0/5 14,18 * * ?", "0 15 10 L * ?", "0 0 12 ? * MON-FRI", "59 59 23 31 12 ? 2099"
+    };
+
+    @Test
+    public void testNextValidTimeAfter() throws ParseException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now = System.currentTimeMillis();
+        for (String expr : EXPRESSIONS) {
+            CronExpression expected = new CronExpression(expr);
+            Date date = new Date(now - random.nextLong(86400000L));
+            for (int i = 0; i < 1000; i++) {
+                Assertions.assertEquals(expected.getNextValidTimeAfter(date), CronExpressionCache.getNextValidTimeAfter(expr, date));
+                // 向前跳跃若干毫秒(有时回退)，覆盖lookahead命中与未命中的场景
+                date = new Date(date.getTime() + random.nextLong(-2000, 600000));
+            }
+        }
+        Assertions.assertNotSame(CronExpressionCache.get(EXPRESSIONS[0]), CronExpressionCache.get(EXPRESSIONS[0]));
+        Assertions.assertEquals(CronExpressionCache.get(EXPRESSIONS[0]).toString(), CronExpressionCache.get(EXPRESSIONS[0]).toString());
+        Assertions.assertNotSame(CronExpressionCache.get(EXPRESSIONS[0]), CronExpressionCache.get(EXPRESSIONS[0], TimeZone.getTimeZone("UTC")));
+    }
+
+    @Test
+    public void testInterleavedBaseTimes() throws ParseException {
+        String expr = "0 0/5 14,18 * * ?";
+        CronExpression expected = new CronExpression(expr);
+        Date[] dates = {
+            Dates.parse("2022-01-01 00:00:00", Dates.DATETIME_PATTERN),
+            Dates.parse("2023-06-15 14:07:00", Dates.DATETIME_PATTERN),
+            Dates.parse("2024-12-31 18:55:00", Dates.DATETIME_PATTERN)
+        };
+        // 不同基准时间交替访问同一表达式
+        for (int i = 0; i < 100; i++) {
+            Date date = dates[i % dates.length];
+            Assertions.assertEquals(expected.getNextValidTimeAfter(date), CronExpressionCache.getNextValidTimeAfter(expr, date));
+            dates[i % dates.length] = new Date(date.getTime() + 60000);
+        }
+    }
+
+    @Test
+    public void testExhausted() throws ParseException {
+        String expr = "5 4 3 2 1 ? 2022";
+        Date date = Dates.parse("2000-01-01 00:00:00", Dates.DATETIME_PATTERN);
+        Assertions.assertEquals("2022-01-02 03:04:05", Dates.format(CronExpressionCache.getNextValidTimeAfter(expr, date)));
+        Assertions.assertNull(CronExpressionCache.getNextValidTimeAfter(expr, Dates.parse("2022-01-02 03:04:05", Dates.DATETIME_PATTERN)));
+        Assertions.assertThrows(ParseException.class, () -> CronExpressionCache.get("invalid"));
+    }
+
+    @Test
+    public void testCost() throws ParseException {
+        int round = 20000;
+        String expr = "0 0/5 14,18 * * ?";
+        Date date = new Date();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < round; i++) {
+            new CronExpression(expr).getNextValidTimeAfter(date);
+        }
+        long parseEveryTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < round; i++) {
+            CronExpressionCache.getNextValidTimeAfter(expr, date);
+        }
+        long cached = System.nanoTime() - start;
+        System.out.println("Cron next time cost(ns/op) parse every time: " + parseEveryTime / round + ", cached: " + cached / round);
+    }
+
+}
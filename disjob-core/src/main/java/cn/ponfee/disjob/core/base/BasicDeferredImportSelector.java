@@ -20,6 +20,8 @@ import cn.ponfee.disjob.common.spring.RestTemplateUtils;
 import cn.ponfee.disjob.common.spring.RpcControllerConfigurer;
 import cn.ponfee.disjob.common.spring.SpringContextHolder;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -66,17 +68,34 @@ public class BasicDeferredImportSelector implements DeferredImportSelector {
             return new SpringContextHolder();
         }
 
+        /**
+         * Rpc http connection pool, the pool stats can get by {@link PoolingHttpClientConnectionManager#getTotalStats()}
+         *
+         * @param http the http properties
+         * @return PoolingHttpClientConnectionManager
+         */
+        @ConditionalOnMissingBean(name = JobConstants.SPRING_BEAN_NAME_HTTP_CONNECTION_MANAGER)
+        @Bean(JobConstants.SPRING_BEAN_NAME_HTTP_CONNECTION_MANAGER)
+        PoolingHttpClientConnectionManager httpConnectionManager(HttpProperties http) {
+            http.check();
+            return RestTemplateUtils.createConnectionManager(
+                http.getMaxConnTotal(), http.getMaxConnPerRoute(), http.getConnTimeToLive(), http.getValidateAfterInactivity());
+        }
+
         @ConditionalOnMissingBean(name = JobConstants.SPRING_BEAN_NAME_REST_TEMPLATE)
         @Bean(JobConstants.SPRING_BEAN_NAME_REST_TEMPLATE)
-        RestTemplate restTemplate(HttpProperties http, @Nullable ObjectMapper objectMapper) {
+        RestTemplate restTemplate(HttpProperties http,
+                                  @Qualifier(JobConstants.SPRING_BEAN_NAME_HTTP_CONNECTION_MANAGER) PoolingHttpClientConnectionManager connectionManager,
+                                  @Nullable ObjectMapper objectMapper) {
             http.check();
-            return RestTemplateUtils.create(http.getConnectTimeout(), http.getReadTimeout(), objectMapper);
+            return RestTemplateUtils.create(http.getConnectTimeout(), http.getReadTimeout(),
+                http.getConnectionRequestTimeout(), http.getMaxIdleTime(), connectionManager, objectMapper, http.isSmileCodec());
         }
 
         @ConditionalOnMissingBean
         @Bean
-        RpcControllerConfigurer rpcControllerConfigurer() {
-            return new RpcControllerConfigurer();
+        RpcControllerConfigurer rpcControllerConfigurer(HttpProperties http) {
+            return new RpcControllerConfigurer(http.isSmileCodec());
         }
 
         @ConditionalOnProperty(name = DATE_CONFIGURER_KEY, havingValue = "multiple")
@@ -26,14 +26,14 @@ import cn.ponfee.disjob.common.spring.SpringContextHolder;
 import cn.ponfee.disjob.common.util.NetUtils;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheStats;
-import com.google.common.collect.Interner;
-import com.google.common.collect.Interners;
+import com.google.common.util.concurrent.Striped;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 import java.util.function.Supplier;
 
 import static cn.ponfee.disjob.core.base.JobConstants.DISJOB_BOUND_SERVER_HOST;
@@ -48,8 +48,9 @@ public class CoreUtils {
 
     /**
      * Instance lock pool
+     * <p>使用ReentrantLock而非synchronized：虚拟线程在synchronized块内阻塞(如RPC调用)时会pin住载体线程
      */
-    private static final Interner<Long> INSTANCE_LOCK_POOL = Interners.newWeakInterner();
+    private static final Striped<Lock> INSTANCE_LOCK_POOL = Striped.lazyWeakLock(1024);
 
     public static String getLocalHost() {
         return getLocalHost(SpringContextHolder.getProperty(DISJOB_BOUND_SERVER_HOST));
@@ -80,17 +81,18 @@ public class CoreUtils {
     }
 
     public static <R> R doInSynchronized(Long lockKey, Supplier<R> action) {
-        // synchronized ( Long.toString(lock).intern() )
-        synchronized (INSTANCE_LOCK_POOL.intern(lockKey)) {
+        Lock lock = INSTANCE_LOCK_POOL.get(lockKey);
+        lock.lock();
+        try {
             return action.get();
+        } finally {
+            lock.unlock();
         }
     }
 
     public static void doInSynchronized(Long lockKey, ThrowingRunnable<?> action, Supplier<String> message) {
         try {
-            synchronized (INSTANCE_LOCK_POOL.intern(lockKey)) {
-                action.run();
-            }
+            doInLocked(lockKey, action);
         } catch (Throwable t) {
             log.error(message.get(), t);
             if (isCurrentThreadInterrupted(t)) {
@@ -98,9 +100,7 @@ public class CoreUtils {
                 log.info("Do synchronized retry interrupted {}, {}", interrupted, message.get());
                 ThreadPoolExecutors.commonThreadPool().execute(() -> {
                     try {
-                        synchronized (INSTANCE_LOCK_POOL.intern(lockKey)) {
-                            action.run();
-                        }
+                        doInLocked(lockKey, action);
                     } catch (Throwable e) {
                         log.error("Do synchronized retry error, {}", message.get(), e);
                     }
@@ -110,6 +110,16 @@ public class CoreUtils {
         }
     }
 
+    private static void doInLocked(Long lockKey, ThrowingRunnable<?> action) throws Throwable {
+        Lock lock = INSTANCE_LOCK_POOL.get(lockKey);
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public static void checkClobMaximumLength(String text, String name) {
         int length = StringUtils.length(text);
         if (length > JobConstants.CLOB_MAXIMUM_LENGTH) {
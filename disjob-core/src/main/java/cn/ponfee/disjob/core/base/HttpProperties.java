@@ -21,6 +21,7 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 
 import java.io.Serializable;
 
@@ -34,6 +35,7 @@ import java.io.Serializable;
 @ConfigurationProperties(prefix = JobConstants.HTTP_CONFIG_KEY)
 public class HttpProperties extends ToJsonString implements Serializable {
     private static final long serialVersionUID = 5956808059609905150L;
+    private static final String SMILE_FACTORY_CLASS = "com.fasterxml.jackson.dataformat.smile.SmileFactory";
 
     /**
      * Http rest connect timeout milliseconds, default 2000.
@@ -45,9 +47,53 @@ public class HttpProperties extends ToJsonString implements Serializable {
      */
     private int readTimeout = 5000;
 
+    /**
+     * Http rest lease connection from pool timeout milliseconds, default 2000.
+     */
+    private int connectionRequestTimeout = 2000;
+
+    /**
+     * Http connection pool max total connections, default 500.
+     */
+    private int maxConnTotal = 500;
+
+    /**
+     * Http connection pool max connections per route(host:port), default 50.
+     */
+    private int maxConnPerRoute = 50;
+
+    /**
+     * Http connection time to live milliseconds, 0 means no limit, default 600000.
+     */
+    private long connTimeToLive = 600000;
+
+    /**
+     * Http connection max idle time milliseconds, idle connection will be evicted, default 60000.
+     */
+    private long maxIdleTime = 60000;
+
+    /**
+     * Http connection validate after inactivity milliseconds, default 2000.
+     */
+    private int validateAfterInactivity = 2000;
+
+    /**
+     * Whether to use smile binary codec for rpc, default false.
+     * <p>Negotiated with the rpc server, fall back to json if the server not supported.
+     * <p>Requires the optional dependency {@code com.fasterxml.jackson.dataformat:jackson-dataformat-smile}
+     */
+    private boolean smileCodec = false;
+
     public void check() {
         Assert.isTrue(connectTimeout > 0, "Http connect timeout must be greater than 0.");
+        Assert.isTrue(!smileCodec || ClassUtils.isPresent(SMILE_FACTORY_CLASS, null), "Http smile codec requires dependency jackson-dataformat-smile.");
         Assert.isTrue(readTimeout > 0, "Http read timeout must be greater than 0.");
+        Assert.isTrue(connectionRequestTimeout > 0, "Http connection request timeout must be greater than 0.");
+        Assert.isTrue(maxConnPerRoute > 0, "Http max conn per route must be greater than 0.");
+        Assert.isTrue(maxConnTotal >= maxConnPerRoute, "Http max conn total cannot less than max conn per route.");
+        Assert.isTrue(connTimeToLive >= 0, "Http conn time to live cannot be negative.");
+        Assert.isTrue(maxIdleTime > 0, "Http max idle time must be greater than 0.");
+        Assert.isTrue(validateAfterInactivity > 0, "Http validate after inactivity must be greater than 0.");
     }
 
 }
@@ -81,6 +81,11 @@ public final class JobConstants {
      */
     public static final String SPRING_BEAN_NAME_REST_TEMPLATE = SPRING_BEAN_NAME_PREFIX + ".rest-template";
 
+    /**
+     * Http connection manager spring bean name
+     */
+    public static final String SPRING_BEAN_NAME_HTTP_CONNECTION_MANAGER = SPRING_BEAN_NAME_PREFIX + ".http-connection-manager";
+
     /**
      * Authenticate header group
      */
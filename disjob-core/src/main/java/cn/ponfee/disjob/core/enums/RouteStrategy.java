@@ -56,6 +56,11 @@ public enum RouteStrategy implements IntValueEnum<RouteStrategy> {
      */
     BROADCAST(6, "广播"),
 
+    /**
+     * 最小负载(根据Worker心跳上报的线程池指标，二选一择优分派)
+     */
+    LEAST_LOADED(7, "最小负载"),
+
     ;
 
     private final int value;
@@ -19,6 +19,7 @@ package cn.ponfee.disjob.core.enums;
 import cn.ponfee.disjob.common.base.IntValueEnum;
 import cn.ponfee.disjob.common.collect.Collects;
 import cn.ponfee.disjob.common.date.CronExpression;
+import cn.ponfee.disjob.common.date.CronExpressionCache;
 import cn.ponfee.disjob.common.date.DatePeriodValue;
 import cn.ponfee.disjob.common.date.DatePeriods;
 import cn.ponfee.disjob.common.date.Dates;
@@ -74,7 +75,7 @@ public enum TriggerType implements IntValueEnum<TriggerType> {
         @Override
         protected Date computeNextTriggerTime0(String triggerValue, Date baseTime) {
             try {
-                return new CronExpression(triggerValue).getNextValidTimeAfter(baseTime);
+                return CronExpressionCache.getNextValidTimeAfter(triggerValue, baseTime);
             } catch (ParseException e) {
                 throw new IllegalArgumentException("Invalid cron expression: " + triggerValue, e);
             }
@@ -83,9 +84,8 @@ public enum TriggerType implements IntValueEnum<TriggerType> {
         @Override
         protected List<Date> computeNextTriggerTimes0(String triggerValue, Date baseTime, int count) {
             try {
-                CronExpression cronExpression = new CronExpression(triggerValue);
                 List<Date> result = new ArrayList<>(count);
-                while (count-- > 0 && (baseTime = cronExpression.getNextValidTimeAfter(baseTime)) != null) {
+                while (count-- > 0 && (baseTime = CronExpressionCache.getNextValidTimeAfter(triggerValue, baseTime)) != null) {
                     result.add(baseTime);
                 }
                 return result;
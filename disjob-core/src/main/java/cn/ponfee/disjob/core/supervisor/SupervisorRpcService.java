@@ -21,6 +21,7 @@ import cn.ponfee.disjob.core.enums.RegistryEventType;
 import cn.ponfee.disjob.core.supervisor.dto.StartTaskParam;
 import cn.ponfee.disjob.core.supervisor.dto.StartTaskResult;
 import cn.ponfee.disjob.core.supervisor.dto.StopTaskParam;
+import cn.ponfee.disjob.core.supervisor.dto.WorkerHeartbeatParam;
 import cn.ponfee.disjob.core.worker.Worker;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -38,6 +39,14 @@ public interface SupervisorRpcService {
     @PostMapping("/worker_event/subscribe")
     void subscribeWorkerEvent(RegistryEventType eventType, Worker worker);
 
+    /**
+     * Receives the worker heartbeat, which carries the running and queued task ids of the worker
+     *
+     * @param param the worker heartbeat param
+     */
+    @PostMapping("/worker/heartbeat")
+    void reportWorkerHeartbeat(WorkerHeartbeatParam param);
+
     @PostMapping("/task_worker/update")
     void updateTaskWorker(List<Long> taskIds, String worker);
 
@@ -47,6 +56,24 @@ public interface SupervisorRpcService {
     @PostMapping("/task/stop")
     boolean stopTask(StopTaskParam param);
 
+    /**
+     * Batch starts the tasks, the supervisor start the tasks of same instance in one locked transaction
+     *
+     * @param params the start task params
+     * @return start results, corresponding to the params one by one
+     */
+    @PostMapping("/tasks/start")
+    List<StartTaskResult> startTasks(List<StartTaskParam> params);
+
+    /**
+     * Batch stops the tasks, the supervisor stop the tasks of same instance in one locked transaction
+     *
+     * @param params the stop task params
+     * @return stop results, corresponding to the params one by one
+     */
+    @PostMapping("/tasks/stop")
+    boolean[] stopTasks(List<StopTaskParam> params);
+
     @PostMapping("/instance/pause")
     boolean pauseInstance(long instanceId);
 
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.core.supervisor.dto;
+
+import cn.ponfee.disjob.common.base.ToJsonString;
+import cn.ponfee.disjob.core.worker.WorkerMetrics;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.util.Assert;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Worker heartbeat parameter, push from worker to supervisor periodically.
+ * <p>The task ids are sorted and delta encoded, to reduce the payload size.
+ *
+ * @author Ponfee
+ */
+@Getter
+@Setter
+public class WorkerHeartbeatParam extends ToJsonString implements Serializable {
+    private static final long serialVersionUID = -3181505749183625733L;
+
+    private String worker;
+    private long periodMs;
+    private long[] taskIds;
+    private WorkerMetrics.WorkerThreadPoolMetrics threadPoolMetrics;
+
+    public static WorkerHeartbeatParam of(String worker, long periodMs, Collection<Long> taskIds,
+                                          WorkerMetrics.WorkerThreadPoolMetrics threadPoolMetrics) {
+        WorkerHeartbeatParam param = new WorkerHeartbeatParam();
+        param.setWorker(worker);
+        param.setPeriodMs(periodMs);
+        param.setTaskIds(encode(taskIds));
+        param.setThreadPoolMetrics(threadPoolMetrics);
+
+        param.check();
+        return param;
+    }
+
+    public void check() {
+        Assert.hasText(worker, "Heartbeat worker cannot be blank.");
+        Assert.isTrue(periodMs > 0, "Heartbeat period ms must be greater than 0.");
+    }
+
+    /**
+     * Returns the decoded task ids which running or queued in worker thread pool.
+     *
+     * @return task ids
+     */
+    public Set<Long> decodeTaskIds() {
+        if (taskIds == null || taskIds.length == 0) {
+            return new HashSet<>();
+        }
+        Set<Long> result = new HashSet<>(taskIds.length * 4 / 3 + 1);
+        long taskId = 0;
+        for (long delta : taskIds) {
+            taskId += delta;
+            result.add(taskId);
+        }
+        return result;
+    }
+
+    static long[] encode(Collection<Long> taskIds) {
+        if (taskIds == null || taskIds.isEmpty()) {
+            return new long[0];
+        }
+        long[] result = taskIds.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        for (int i = result.length - 1; i > 0; i--) {
+            result[i] -= result[i - 1];
+        }
+        return result;
+    }
+
+}
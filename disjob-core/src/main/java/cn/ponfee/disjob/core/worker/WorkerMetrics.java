@@ -58,11 +58,21 @@ public class WorkerMetrics extends ToJsonString implements Serializable {
      */
     private int jvmThreadActiveCount;
 
+    /**
+     * 时间轮中等待的任务数
+     */
+    private int timingWheelTaskCount;
+
     /**
      * Worker线程池指标情况
      */
     private WorkerThreadPoolMetrics workerThreadPoolMetrics;
 
+    /**
+     * Rpc http连接池指标情况
+     */
+    private HttpPoolMetrics httpPoolMetrics;
+
     /**
      * Worker signature
      */
@@ -92,4 +102,30 @@ public class WorkerMetrics extends ToJsonString implements Serializable {
         private long completedTaskCount;
     }
 
+    @Getter
+    @Setter
+    public static class HttpPoolMetrics extends ToJsonString implements Serializable {
+        private static final long serialVersionUID = 3371649357722938713L;
+
+        /**
+         * Maximum total connections
+         */
+        private int max;
+
+        /**
+         * Leased(in use) connections
+         */
+        private int leased;
+
+        /**
+         * Pending connection requests, waiting for a connection lease
+         */
+        private int pending;
+
+        /**
+         * Available(idle) persistent connections
+         */
+        private int available;
+    }
+
 }
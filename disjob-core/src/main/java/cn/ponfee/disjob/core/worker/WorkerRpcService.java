@@ -41,12 +41,25 @@ public interface WorkerRpcService {
     @PostMapping("/job/split")
     SplitJobResult splitJob(SplitJobParam param) throws JobException;
 
+    /**
+     * Receives the task
+     * <p>Returns {@code false} if the worker rejected(e.g. busy), supervisor should route the task to other worker.
+     *
+     * @param param the execute task param
+     * @return {@code true} if received successful
+     */
     @PostMapping("/task/receive")
     boolean receiveTask(ExecuteTaskParam param);
 
+    @PostMapping("/tasks/receive")
+    boolean[] receiveTasks(ReceiveTasksParam param);
+
     @GetMapping("/task/exists")
     boolean existsTask(ExistsTaskParam param);
 
+    @PostMapping("/tasks/exists")
+    boolean[] existsTasks(ExistsTasksParam param);
+
     @GetMapping("/metrics/get")
     WorkerMetrics getMetrics(GetMetricsParam param);
 
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.core.worker.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.util.Assert;
+
+import java.util.List;
+
+/**
+ * Exists batch tasks param, the tasks are assigned to the same worker
+ *
+ * @author Ponfee
+ */
+@Getter
+@Setter
+public class ExistsTasksParam extends AuthenticationParam {
+    private static final long serialVersionUID = -4931562703264584016L;
+
+    private List<Long> taskIds;
+
+    public static ExistsTasksParam of(List<Long> taskIds) {
+        ExistsTasksParam param = new ExistsTasksParam();
+        param.setTaskIds(taskIds);
+        return param;
+    }
+
+    @Override
+    public void check() {
+        Assert.notEmpty(taskIds, "Exists task ids cannot be empty.");
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.core.base;
+
+import cn.ponfee.disjob.common.spring.SmileCodec;
+import cn.ponfee.disjob.common.util.Jsons;
+import cn.ponfee.disjob.core.enums.JobType;
+import cn.ponfee.disjob.core.enums.Operation;
+import cn.ponfee.disjob.core.enums.RouteStrategy;
+import cn.ponfee.disjob.core.enums.ShutdownStrategy;
+import cn.ponfee.disjob.core.supervisor.dto.StartTaskResult;
+import cn.ponfee.disjob.core.worker.Worker;
+import cn.ponfee.disjob.core.worker.WorkerMetrics;
+import cn.ponfee.disjob.core.worker.dto.ExecuteTaskParam;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Date;
+
+/**
+ * Smile codec test, compares payload size and encode/decode cost with json
+ *
+ * @author Ponfee
+ */
+public class SmileCodecTest {
+
+    private static final int ROUND = 20000;
+
+    @Test
+    public void testExecuteTaskParam() {
+        ExecuteTaskParam param = new ExecuteTaskParam();
+        param.setOperation(Operation.TRIGGER);
+        param.setTaskId(1003164910267351007L);
+        param.setInstanceId(1003164910267351006L);
+        param.setTriggerTime(System.currentTimeMillis());
+        param.setJobId(1003164910267351005L);
+        param.setRetryCount(3);
+        param.setJobType(JobType.GENERAL);
+        param.setRouteStrategy(RouteStrategy.ROUND_ROBIN);
+        param.setShutdownStrategy(ShutdownStrategy.RESUME);
+        param.setExecuteTimeout(60000);
+        param.setJobExecutor("cn.ponfee.disjob.test.executor.NoopJobExecutor");
+        param.setWorker(new Worker("app-test", "0f4d4e2e5d2c4c0e8a9b", "127.0.0.1", 8080));
+        param.setSupervisorAuthenticationToken(RandomStringUtils.randomAlphanumeric(64));
+        compare(param, ExecuteTaskParam.class);
+    }
+
+    @Test
+    public void testStartTaskResult() {
+        StartTaskResult result = new StartTaskResult();
+        result.setSuccess(true);
+        result.setTaskId(1003164910267351007L);
+        result.setTaskNo(1);
+        result.setTaskCount(10);
+        result.setTaskParam("{\"ids\":[" + RandomStringUtils.randomNumeric(2000) + "],\"name\":\"" + RandomStringUtils.randomAlphanumeric(500) + "\"}");
+        result.setExecuteSnapshot("{\"next\":" + RandomStringUtils.randomNumeric(10) + "}");
+        compare(result, StartTaskResult.class);
+    }
+
+    @Test
+    public void testWorkerMetrics() {
+        WorkerMetrics.WorkerThreadPoolMetrics poolMetrics = new WorkerMetrics.WorkerThreadPoolMetrics();
+        poolMetrics.setKeepAliveTime(300);
+        poolMetrics.setMaximumPoolSize(100);
+        poolMetrics.setCurrentPoolSize(20);
+        poolMetrics.setActivePoolSize(15);
+        poolMetrics.setIdlePoolSize(5);
+        poolMetrics.setQueueTaskCount(1000);
+        poolMetrics.setCompletedTaskCount(123456789);
+
+        WorkerMetrics metrics = new WorkerMetrics();
+        metrics.setVersion("2.1.0");
+        metrics.setWorkerId("0f4d4e2e5d2c4c0e8a9b");
+        metrics.setStartupTime(new Date());
+        metrics.setJvmThreadActiveCount(120);
+        metrics.setWorkerThreadPoolMetrics(poolMetrics);
+        metrics.setSignature(RandomStringUtils.randomAlphanumeric(32));
+        compare(metrics, WorkerMetrics.class);
+    }
+
+    @Test
+    public void testParseArgs() throws Exception {
+        Method method = SmileCodecTest.class.getDeclaredMethod("args", ExecuteTaskParam.class, long.class);
+        ExecuteTaskParam param = new ExecuteTaskParam();
+        param.setTaskId(1L);
+        param.setWorker(new Worker("app-test", "workerId", "127.0.0.1", 8080));
+        Object[] args = SmileCodec.parseArgs(SmileCodec.encode(new Object[]{param, 2L}), method.getGenericParameterTypes());
+        Assertions.assertEquals(param.toString(), args[0].toString());
+        Assertions.assertEquals(2L, args[1]);
+    }
+
+    private static <T> void compare(T target, Class<T> type) {
+        byte[] json = Jsons.toBytes(target);
+        byte[] smile = SmileCodec.encode(target);
+        Assertions.assertEquals(Jsons.toJson(target), Jsons.toJson(SmileCodec.decode(smile, type)));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUND; i++) {
+            Jsons.fromJson(Jsons.toBytes(target), type);
+        }
+        long jsonCost = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ROUND; i++) {
+            SmileCodec.decode(SmileCodec.encode(target), type);
+        }
+        long smileCost = System.nanoTime() - start;
+
+        System.out.printf("%s size(bytes) json: %d, smile: %d; encode+decode cost(ns/op) json: %d, smile: %d%n",
+            type.getSimpleName(), json.length, smile.length, jsonCost / ROUND, smileCost / ROUND);
+    }
+
+    @SuppressWarnings("unused")
+    private static void args(ExecuteTaskParam param, long value) {
+    }
+
+}
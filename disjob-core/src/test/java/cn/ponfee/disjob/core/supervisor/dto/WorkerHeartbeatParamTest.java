@@ -0,0 +1,49 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.core.supervisor.dto;
+
+import cn.ponfee.disjob.common.util.Jsons;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * WorkerHeartbeatParam test
+ *
+ * @author Ponfee
+ */
+public class WorkerHeartbeatParamTest {
+
+    @Test
+    public void testDeltaEncode() {
+        WorkerHeartbeatParam param = WorkerHeartbeatParam.of("group-a:workerId1:localhost:80", 5000, Arrays.asList(1003L, 1001L, 1002L, 1001L, 1010L), null);
+        assertThat(param.getTaskIds()).containsExactly(1001L, 1L, 1L, 7L);
+        assertThat(param.decodeTaskIds()).isEqualTo(new HashSet<>(Arrays.asList(1001L, 1002L, 1003L, 1010L)));
+
+        WorkerHeartbeatParam copy = Jsons.fromJson(Jsons.toJson(param), WorkerHeartbeatParam.class);
+        assertThat(copy.decodeTaskIds()).isEqualTo(param.decodeTaskIds());
+
+        param = WorkerHeartbeatParam.of("group-a:workerId1:localhost:80", 5000, Collections.emptyList(), null);
+        assertThat(param.getTaskIds()).isEmpty();
+        assertThat(param.decodeTaskIds()).isEmpty();
+    }
+
+}
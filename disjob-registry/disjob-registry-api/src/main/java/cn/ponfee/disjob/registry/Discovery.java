@@ -21,6 +21,7 @@ import cn.ponfee.disjob.core.enums.RegistryEventType;
 
 import java.io.Closeable;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Discovery server.
@@ -70,6 +71,13 @@ public interface Discovery<D extends Server> extends Closeable {
      */
     void subscribeServerEvent(RegistryEventType eventType, D server);
 
+    /**
+     * Adds discovered server membership change listener, it will be called synchronously after the members changed.
+     *
+     * @param listener the membership change listener
+     */
+    void addMembershipChangeListener(Consumer<MembershipChangeEvent<D>> listener);
+
     /**
      * Returns discovery server role.
      *
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.registry;
+
+import cn.ponfee.disjob.core.base.Server;
+import com.google.common.collect.ImmutableList;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Discovered server membership change event, published only when the members actually changed.
+ * <p>The group is null for the ungrouped servers, such as supervisor.
+ *
+ * @param <D> the discovery server type
+ * @author Ponfee
+ */
+@Getter
+public final class MembershipChangeEvent<D extends Server> {
+
+    /**
+     * The group
+     */
+    private final String group;
+
+    /**
+     * The added servers
+     */
+    private final List<D> added;
+
+    /**
+     * The removed servers
+     */
+    private final List<D> removed;
+
+    /**
+     * The current sorted immutable servers after changed, it's the same instance of {@link Discovery#getAliveServers(String)}
+     */
+    private final List<D> servers;
+
+    private MembershipChangeEvent(String group, List<D> added, List<D> removed, List<D> servers) {
+        this.group = group;
+        this.added = added;
+        this.removed = removed;
+        this.servers = servers;
+    }
+
+    /**
+     * Returns the membership change event, or null if not changed.
+     *
+     * @param group    the group
+     * @param previous the previous sorted servers
+     * @param current  the current sorted servers
+     * @param <D>      the discovery server type
+     * @return membership change event, or null if not changed
+     */
+    public static <D extends Server> MembershipChangeEvent<D> of(String group, List<D> previous, List<D> current) {
+        ImmutableList.Builder<D> added = ImmutableList.builder();
+        ImmutableList.Builder<D> removed = ImmutableList.builder();
+        // merge two sorted list
+        int i = 0, j = 0, m = previous.size(), n = current.size();
+        while (i < m || j < n) {
+            int c = (i == m) ? 1 : (j == n) ? -1 : compare(previous.get(i), current.get(j));
+            if (c < 0) {
+                removed.add(previous.get(i++));
+            } else if (c > 0) {
+                added.add(current.get(j++));
+            } else {
+                i++;
+                j++;
+            }
+        }
+        ImmutableList<D> addedList = added.build(), removedList = removed.build();
+        if (addedList.isEmpty() && removedList.isEmpty()) {
+            return null;
+        }
+        return new MembershipChangeEvent<>(group, addedList, removedList, current);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <D extends Server> int compare(D a, D b) {
+        // the discovery server(Worker/Supervisor) is comparable
+        return ((Comparable<D>) a).compareTo(b);
+    }
+
+    @Override
+    public String toString() {
+        return "MembershipChangeEvent{group=" + group + ", added=" + added + ", removed=" + removed + ", size=" + servers.size() + "}";
+    }
+
+}
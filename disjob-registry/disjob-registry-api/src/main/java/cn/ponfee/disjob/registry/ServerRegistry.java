@@ -28,11 +28,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Objects;
-import java.util.Set;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -52,6 +50,11 @@ public abstract class ServerRegistry<R extends Server, D extends Server> impleme
     protected final String discoveryRootPath;
     private final ServerDiscovery<D, R> serverDiscovery;
 
+    /**
+     * Map<serialized server, discovered server>, avoid deserialize the unchanged server on every refresh.
+     */
+    private volatile Map<String, D> discoveredServers = Collections.emptyMap();
+
     /**
      * Registered servers.
      */
@@ -127,13 +130,32 @@ public abstract class ServerRegistry<R extends Server, D extends Server> impleme
         serverDiscovery.update(eventType, dServer);
     }
 
+    @Override
+    public final void addMembershipChangeListener(Consumer<MembershipChangeEvent<D>> listener) {
+        serverDiscovery.addMembershipChangeListener(listener);
+    }
+
     /**
      * Refresh discovered servers.
      *
      * @param list the list
      */
     protected final void refreshDiscoveredServers(List<String> list) {
-        List<D> servers = deserializeServers(list, discoveryRole);
+        List<D> servers = new ArrayList<>(list == null ? 0 : list.size());
+        if (list != null) {
+            final Map<String, D> previous = discoveredServers;
+            Map<String, D> current = new HashMap<>(list.size() << 1);
+            for (String str : list) {
+                D server = previous.get(str);
+                if (server == null) {
+                    server = deserializeServer(str, discoveryRole);
+                }
+                if (server != null && current.putIfAbsent(str, server) == null) {
+                    servers.add(server);
+                }
+            }
+            this.discoveredServers = current;
+        }
         serverDiscovery.refresh(servers);
         if (servers.isEmpty()) {
             log.warn("Not discovered available {}", discoveryRole);
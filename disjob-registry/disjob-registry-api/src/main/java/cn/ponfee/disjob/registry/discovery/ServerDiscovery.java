@@ -16,10 +16,10 @@
 
 package cn.ponfee.disjob.registry.discovery;
 
-import cn.ponfee.disjob.common.concurrent.MultithreadExecutors;
-import cn.ponfee.disjob.common.concurrent.ThreadPoolExecutors;
+import cn.ponfee.disjob.common.concurrent.ScatterGather;
 import cn.ponfee.disjob.core.base.Server;
 import cn.ponfee.disjob.core.enums.RegistryEventType;
+import cn.ponfee.disjob.registry.MembershipChangeEvent;
 import cn.ponfee.disjob.registry.ServerRole;
 import com.google.common.collect.ImmutableList;
 import org.apache.commons.collections4.CollectionUtils;
@@ -28,6 +28,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 /**
@@ -37,8 +39,14 @@ import java.util.stream.Stream;
  */
 public abstract class ServerDiscovery<D extends Server, R extends Server> {
 
+    private static final long NOTIFY_CALL_TIMEOUT_MS = 3000;
+    private static final long NOTIFY_DEADLINE_MS = 5000;
+    private static final ScatterGather NOTIFY_SCATTER_GATHER = new ScatterGather(ScatterGather.DEFAULT_MAX_CONCURRENCY_PER_DESTINATION);
+
     protected final Logger log = LoggerFactory.getLogger(getClass());
 
+    private final List<Consumer<MembershipChangeEvent<D>>> membershipChangeListeners = new CopyOnWriteArrayList<>();
+
     // ----------------------------------------------------------------write methods
 
     public abstract void refresh(List<D> servers);
@@ -46,12 +54,39 @@ public abstract class ServerDiscovery<D extends Server, R extends Server> {
     public abstract void update(RegistryEventType eventType, D server);
 
     public final void notify(RegistryEventType eventType, R rServer) {
-        MultithreadExecutors.run(
-            getAliveServers(), e -> notify(e, eventType, rServer), ThreadPoolExecutors.commonThreadPool());
+        List<D> failed = NOTIFY_SCATTER_GATHER.run(
+            getAliveServers(), e -> notify(e, eventType, rServer), NOTIFY_CALL_TIMEOUT_MS, NOTIFY_DEADLINE_MS);
+        if (!failed.isEmpty()) {
+            // the discovery side will be corrected by the next registry discovery refresh
+            log.warn("Notify server event timeout or rejected: {}, {}, {}", eventType, rServer, failed);
+        }
     }
 
     abstract void notify(D dServer, RegistryEventType eventType, R rServer);
 
+    public final void addMembershipChangeListener(Consumer<MembershipChangeEvent<D>> listener) {
+        membershipChangeListeners.add(listener);
+    }
+
+    /**
+     * Publish the membership change event to listeners, must be called in the synchronized write methods.
+     *
+     * @param event the membership change event, null means not changed
+     */
+    final void publish(MembershipChangeEvent<D> event) {
+        if (event == null) {
+            return;
+        }
+        log.info("Discovered server membership changed: {}", event);
+        for (Consumer<MembershipChangeEvent<D>> listener : membershipChangeListeners) {
+            try {
+                listener.accept(event);
+            } catch (Throwable t) {
+                log.error("Membership change listener occur error: " + event, t);
+            }
+        }
+    }
+
     // ----------------------------------------------------------------read methods
 
     public abstract List<D> getAliveServers(String group);
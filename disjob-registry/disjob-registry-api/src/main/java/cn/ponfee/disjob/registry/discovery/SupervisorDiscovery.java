@@ -21,6 +21,7 @@ import cn.ponfee.disjob.core.enums.RegistryEventType;
 import cn.ponfee.disjob.core.supervisor.Supervisor;
 import cn.ponfee.disjob.core.supervisor.SupervisorRpcService;
 import cn.ponfee.disjob.core.worker.Worker;
+import cn.ponfee.disjob.registry.MembershipChangeEvent;
 import cn.ponfee.disjob.registry.rpc.DestinationServerRestProxy;
 import com.google.common.collect.ImmutableList;
 import org.springframework.util.Assert;
@@ -63,14 +64,23 @@ final class SupervisorDiscovery extends ServerDiscovery<Supervisor, Worker> {
      */
     @Override
     public synchronized void refresh(List<Supervisor> discoveredSupervisors) {
-        this.supervisors = toSortedImmutableList(discoveredSupervisors);
+        final ImmutableList<Supervisor> previous = supervisors;
+        ImmutableList<Supervisor> current = toSortedImmutableList(discoveredSupervisors);
+        MembershipChangeEvent<Supervisor> event = MembershipChangeEvent.of(null, previous, current);
+        if (event != null) {
+            // keep the previous list instance if not changed
+            this.supervisors = current;
+            publish(event);
+        }
     }
 
     @Override
     public synchronized void update(RegistryEventType eventType, Supervisor supervisor) {
         // if register and not exists supervisor, or deregister and exists supervisor
         if (eventType.isRegister() != isAliveServer(supervisor)) {
-            this.supervisors = merge(supervisors, eventType, supervisor);
+            final ImmutableList<Supervisor> previous = supervisors;
+            this.supervisors = merge(previous, eventType, supervisor);
+            publish(MembershipChangeEvent.of(null, previous, supervisors));
         }
     }
 
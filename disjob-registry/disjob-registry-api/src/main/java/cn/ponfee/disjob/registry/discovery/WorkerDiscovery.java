@@ -22,15 +22,14 @@ import cn.ponfee.disjob.core.supervisor.Supervisor;
 import cn.ponfee.disjob.core.worker.Worker;
 import cn.ponfee.disjob.core.worker.WorkerRpcService;
 import cn.ponfee.disjob.core.worker.dto.SupervisorEventParam;
+import cn.ponfee.disjob.registry.MembershipChangeEvent;
 import cn.ponfee.disjob.registry.rpc.DestinationServerRestProxy;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.util.Assert;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Worker discovery.
@@ -54,16 +53,41 @@ final class WorkerDiscovery extends ServerDiscovery<Worker, Supervisor> {
 
     // ----------------------------------------------------------------write methods
 
+    /**
+     * Refresh with per-group diff, the unchanged group reuse the previous ImmutableList instance,
+     * so the list identity based cache(e.g. consistent hash ring) still valid.
+     *
+     * @param discoveredWorkers the discovered workers
+     */
     @Override
     public synchronized void refresh(List<Worker> discoveredWorkers) {
-        if (CollectionUtils.isEmpty(discoveredWorkers)) {
-            this.groupedWorkers = ImmutableMap.of();
-        } else {
-            this.groupedWorkers = discoveredWorkers.stream()
-                .collect(Collectors.groupingBy(Worker::getGroup))
-                .entrySet()
-                .stream()
-                .collect(ImmutableMap.toImmutableMap(Map.Entry::getKey, e -> toSortedImmutableList(e.getValue())));
+        final ImmutableMap<String, ImmutableList<Worker>> map = groupedWorkers;
+        Map<String, Set<Worker>> discovered = new HashMap<>();
+        if (discoveredWorkers != null) {
+            discoveredWorkers.forEach(e -> discovered.computeIfAbsent(e.getGroup(), k -> new HashSet<>()).add(e));
+        }
+
+        List<MembershipChangeEvent<Worker>> events = new ArrayList<>();
+        ImmutableMap.Builder<String, ImmutableList<Worker>> builder = ImmutableMap.builder();
+        discovered.forEach((group, workers) -> {
+            ImmutableList<Worker> previous = map.get(group);
+            if (previous != null && previous.size() == workers.size() && workers.containsAll(previous)) {
+                builder.put(group, previous);
+            } else {
+                ImmutableList<Worker> current = toSortedImmutableList(workers.stream());
+                builder.put(group, current);
+                events.add(MembershipChangeEvent.of(group, previous == null ? ImmutableList.of() : previous, current));
+            }
+        });
+        map.forEach((group, previous) -> {
+            if (!discovered.containsKey(group)) {
+                events.add(MembershipChangeEvent.of(group, previous, ImmutableList.of()));
+            }
+        });
+
+        if (!events.isEmpty()) {
+            this.groupedWorkers = builder.build();
+            events.forEach(this::publish);
         }
     }
 
@@ -73,12 +97,19 @@ final class WorkerDiscovery extends ServerDiscovery<Worker, Supervisor> {
         if (eventType.isRegister() != isAliveServer(worker)) {
             final ImmutableMap<String, ImmutableList<Worker>> map = groupedWorkers;
             String group = worker.getGroup();
+            ImmutableList<Worker> previous = map.getOrDefault(group, ImmutableList.of());
+            ImmutableList<Worker> current = merge(previous, eventType, worker);
             ImmutableMap.Builder<String, ImmutableList<Worker>> builder = ImmutableMap.builder();
-            map.forEach((k, v) -> builder.put(k, group.equals(k) ? merge(v, eventType, worker) : v));
-            if (!map.containsKey(group)) {
-                builder.put(group, ImmutableList.of(worker));
+            map.forEach((k, v) -> {
+                if (!group.equals(k)) {
+                    builder.put(k, v);
+                }
+            });
+            if (!current.isEmpty()) {
+                builder.put(group, current);
             }
             this.groupedWorkers = builder.build();
+            publish(MembershipChangeEvent.of(group, previous, current));
         }
     }
 
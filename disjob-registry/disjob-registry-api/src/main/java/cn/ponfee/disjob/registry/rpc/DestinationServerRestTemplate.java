@@ -48,6 +48,8 @@ import java.util.Set;
 @Slf4j
 final class DestinationServerRestTemplate {
 
+    private static final Set<String> WORKER_TO_SUPERVISOR_METHODS = ImmutableSet.of("subscribeWorkerEvent", "reportWorkerHeartbeat");
+
     private static final Set<HttpStatus> RETRYABLE_HTTP_STATUS = ImmutableSet.of(
         // 4xx：408、429
         HttpStatus.REQUEST_TIMEOUT,
@@ -93,8 +95,9 @@ final class DestinationServerRestTemplate {
         if (destinationServer instanceof Supervisor) {
             Class<?> declaringClass = method.getDeclaringClass();
             if (declaringClass == SupervisorRpcService.class) {
-                // Worker -> Supervisor：registry时调用`SupervisorRpcService#subscribeWorkerEvent`方法通知Supervisor
-                Assert.isTrue("subscribeWorkerEvent".equals(method.getName()), () -> "Unexpected method: " + method);
+                // Worker -> Supervisor：registry时调用`SupervisorRpcService#subscribeWorkerEvent`方法通知Supervisor，
+                // 以及定时调用`SupervisorRpcService#reportWorkerHeartbeat`方法上报心跳
+                Assert.isTrue(WORKER_TO_SUPERVISOR_METHODS.contains(method.getName()), () -> "Unexpected method: " + method);
                 authenticationHeaders = Worker.local().createWorkerAuthenticationHeaders();
                 serverContextPath = Worker.local().getSupervisorContextPath();
             } else {
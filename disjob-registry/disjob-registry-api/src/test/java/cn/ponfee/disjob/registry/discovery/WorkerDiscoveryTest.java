@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.registry.discovery;
+
+import cn.ponfee.disjob.core.enums.RegistryEventType;
+import cn.ponfee.disjob.core.worker.Worker;
+import cn.ponfee.disjob.registry.MembershipChangeEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * WorkerDiscovery test
+ *
+ * @author Ponfee
+ */
+public class WorkerDiscoveryTest {
+
+    @Test
+    public void testRefresh() {
+        Worker a1 = new Worker("a", "1", "127.0.0.1", 8081);
+        Worker a2 = new Worker("a", "2", "127.0.0.1", 8082);
+        Worker b1 = new Worker("b", "1", "127.0.0.1", 8083);
+        Worker b2 = new Worker("b", "2", "127.0.0.1", 8084);
+
+        WorkerDiscovery discovery = new WorkerDiscovery(null);
+        List<MembershipChangeEvent<Worker>> events = new ArrayList<>();
+        discovery.addMembershipChangeListener(events::add);
+
+        discovery.refresh(Arrays.asList(a2, a1, b1));
+        Assertions.assertEquals(2, events.size());
+        List<Worker> groupA = discovery.getAliveServers("a");
+        List<Worker> groupB = discovery.getAliveServers("b");
+        Assertions.assertEquals(Arrays.asList(a1, a2), groupA);
+
+        // not changed
+        events.clear();
+        discovery.refresh(Arrays.asList(b1, a1, a2));
+        Assertions.assertTrue(events.isEmpty());
+        Assertions.assertSame(groupA, discovery.getAliveServers("a"));
+        Assertions.assertSame(groupB, discovery.getAliveServers("b"));
+
+        // group b changed, group a unchanged
+        discovery.refresh(Arrays.asList(a1, a2, b2));
+        Assertions.assertSame(groupA, discovery.getAliveServers("a"));
+        Assertions.assertEquals(1, events.size());
+        MembershipChangeEvent<Worker> event = events.get(0);
+        Assertions.assertEquals("b", event.getGroup());
+        Assertions.assertEquals(Collections.singletonList(b2), event.getAdded());
+        Assertions.assertEquals(Collections.singletonList(b1), event.getRemoved());
+        Assertions.assertSame(discovery.getAliveServers("b"), event.getServers());
+
+        // group b removed
+        events.clear();
+        discovery.refresh(Arrays.asList(a1, a2));
+        Assertions.assertEquals(1, events.size());
+        Assertions.assertEquals(Collections.singletonList(b2), events.get(0).getRemoved());
+        Assertions.assertTrue(discovery.getAliveServers("b").isEmpty());
+
+        // update
+        events.clear();
+        discovery.update(RegistryEventType.DEREGISTER, a1);
+        discovery.update(RegistryEventType.DEREGISTER, a1);
+        Assertions.assertEquals(1, events.size());
+        Assertions.assertEquals(Collections.singletonList(a2), discovery.getAliveServers("a"));
+        discovery.update(RegistryEventType.DEREGISTER, a2);
+        Assertions.assertFalse(discovery.hasAliveServer());
+    }
+
+}
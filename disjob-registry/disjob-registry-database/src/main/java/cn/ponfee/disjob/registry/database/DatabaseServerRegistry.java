@@ -24,25 +24,32 @@ import cn.ponfee.disjob.core.base.Server;
 import cn.ponfee.disjob.core.enums.RegistryEventType;
 import cn.ponfee.disjob.registry.ServerRegistry;
 import cn.ponfee.disjob.registry.database.configuration.DatabaseRegistryProperties;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.web.client.RestTemplate;
 
 import javax.annotation.PreDestroy;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.util.List;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static cn.ponfee.disjob.common.spring.TransactionUtils.assertOneAffectedRow;
 import static cn.ponfee.disjob.common.spring.TransactionUtils.hasAffectedRow;
 
 /**
  * Registry server based database.
+ * <p>Discovery is incremental: compare the digest(count, sum(id), max(id)) of alive servers at first,
+ * fetch nothing if unchanged, only fetch the new registered rows(id > last max id) if changed,
+ * and fallback to full reload if it has removed servers.
  *
  * @author Ponfee
  */
 public abstract class DatabaseServerRegistry<R extends Server, D extends Server> extends ServerRegistry<R, D> {
 
     private static final long DEAD_TIME_MILLIS = TimeUnit.HOURS.toMillis(12);
+    private static final long PURGE_DEAD_PERIOD_MS = TimeUnit.HOURS.toMillis(1);
+    private static final int FULL_RESYNC_PERIODS = 10;
     private static final String TABLE_NAME = "sched_registry";
 
     private static final String CREATE_TABLE_DDL =
@@ -56,7 +63,7 @@ public abstract class DatabaseServerRegistry<R extends Server, D extends Server>
         "  UNIQUE KEY `uk_namespace_role_server` (`namespace`, `role`, `server`)                                                \n" +
         ") ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_bin COMMENT='Disjob registry based database'; \n" ;
 
-    private static final String REMOVE_DEAD_SQL = "DELETE FROM " + TABLE_NAME + " WHERE namespace=? AND role=? AND heartbeat_time<?";
+    private static final String REMOVE_DEAD_SQL = "DELETE FROM " + TABLE_NAME + " WHERE namespace=? AND heartbeat_time<?";
 
     private static final String REGISTER_SQL    = "INSERT INTO " + TABLE_NAME + " (namespace, role, server, heartbeat_time) VALUES (?, ?, ?, ?)";
 
@@ -68,6 +75,20 @@ public abstract class DatabaseServerRegistry<R extends Server, D extends Server>
 
     private static final String EXISTS_SQL      = "SELECT 1 FROM " + TABLE_NAME + " WHERE namespace=? AND role=? AND server=?";
 
+    private static final String LEADER_SQL      = "SELECT role, server FROM " + TABLE_NAME + " WHERE id=(SELECT MIN(id) FROM " + TABLE_NAME + " WHERE namespace=? AND heartbeat_time>?)";
+
+    private static final String DIGEST_SQL      = "SELECT COUNT(*), COALESCE(SUM(id), 0), COALESCE(MAX(id), 0) FROM " + TABLE_NAME + " WHERE namespace=? AND role=? AND heartbeat_time>?";
+
+    private static final String DISCOVER_SQL    = "SELECT id, server FROM " + TABLE_NAME + " WHERE namespace=? AND role=? AND heartbeat_time>?";
+
+    private static final String DELTA_SQL       = DISCOVER_SQL + " AND id>?";
+
+    private static final RowMapper<Map.Entry<String, String>> LEADER_ROW_MAPPER = (rs, i) -> new AbstractMap.SimpleEntry<>(rs.getString(1), rs.getString(2));
+
+    private static final RowMapper<Digest> DIGEST_ROW_MAPPER = (rs, i) -> new Digest(rs.getLong(1), rs.getLong(2), rs.getLong(3));
+
+    private static final RowMapper<Map.Entry<Long, String>> DISCOVER_ROW_MAPPER = (rs, i) -> new AbstractMap.SimpleEntry<>(rs.getLong(1), rs.getString(2));
+
     /**
      * Registry namespace
      */
@@ -87,12 +108,20 @@ public abstract class DatabaseServerRegistry<R extends Server, D extends Server>
 
     private final String registerRoleName;
     private final LoopThread registerHeartbeatThread;
+    private long nextPurgeDeadTime = 0;
 
     // -------------------------------------------------Discovery
 
     private final String discoveryRoleName;
     private final LoopThread discoverHeartbeatThread;
 
+    /**
+     * Map<id, server>, last discovered alive servers
+     */
+    private Map<Long, String> discoveredRows = null;
+    private Digest discoveredDigest = null;
+    private int discoverCount = 0;
+
     protected DatabaseServerRegistry(DatabaseRegistryProperties config, RestTemplate restTemplate, JdbcTemplateWrapper jdbcTemplateWrapper) {
         super(config, restTemplate, ':');
         this.namespace = config.getNamespace().trim();
@@ -105,10 +134,6 @@ public abstract class DatabaseServerRegistry<R extends Server, D extends Server>
         // create table
         jdbcTemplateWrapper.createTableIfNotExists(TABLE_NAME, CREATE_TABLE_DDL);
 
-        // remove dead server
-        Object[] args = {namespace, registerRoleName, System.currentTimeMillis() - DEAD_TIME_MILLIS};
-        RetryTemplate.executeQuietly(() -> jdbcTemplateWrapper.delete(REMOVE_DEAD_SQL, args), 3, 1000L);
-
         long periodMs = sessionTimeoutMs / 3;
 
         // heartbeat register servers
@@ -167,7 +192,7 @@ public abstract class DatabaseServerRegistry<R extends Server, D extends Server>
 
     @Override
     public void discoverServers() {
-        RetryTemplate.execute(() -> refreshDiscoveredServers(getServers(discoveryRoleName)), 3, 1000L);
+        RetryTemplate.execute(this::discoverServers0, 3, 1000L);
     }
 
     // ------------------------------------------------------------------Close
@@ -188,15 +213,47 @@ public abstract class DatabaseServerRegistry<R extends Server, D extends Server>
     // ------------------------------------------------------------------private methods
 
     /**
-     * 心跳注册
+     * 心跳注册：批量更新heartbeat_time，未更新到的server再逐个注册
      */
     private void registerServers() {
-        for (R s : registered) {
-            String server = s.serialize();
-            RetryTemplate.executeQuietly(() -> register(server), 3, 1000L);
+        List<String> servers = registered.stream().map(Server::serialize).collect(Collectors.toList());
+        if (servers.isEmpty()) {
+            return;
+        }
+        long heartbeatTime = System.currentTimeMillis();
+        List<Object[]> batchArgs = new ArrayList<>(servers.size());
+        servers.forEach(e -> batchArgs.add(new Object[]{heartbeatTime, namespace, registerRoleName, e}));
+        int[] affectedRows = RetryTemplate.executeQuietly(() -> jdbcTemplateWrapper.batchUpdate(HEARTBEAT_SQL, batchArgs), 3, 1000L);
+        for (int i = 0, n = servers.size(); i < n; i++) {
+            // Statement.SUCCESS_NO_INFO(-2) if the jdbc driver rewrite batched statements
+            if (affectedRows == null || affectedRows.length != n || affectedRows[i] == 0) {
+                String server = servers.get(i);
+                RetryTemplate.executeQuietly(() -> register(server), 3, 1000L);
+            }
+        }
+
+        if (heartbeatTime >= nextPurgeDeadTime) {
+            nextPurgeDeadTime = heartbeatTime + PURGE_DEAD_PERIOD_MS;
+            RetryTemplate.executeQuietly(this::purgeDeadServersIfLeader, 1, 1000L);
         }
     }
 
+    /**
+     * 只由leader(最早注册的存活server)清理namespace下的死亡server
+     */
+    private void purgeDeadServersIfLeader() {
+        Object[] leaderArgs = {namespace, System.currentTimeMillis() - sessionTimeoutMs};
+        Map.Entry<String, String> leader = jdbcTemplateWrapper.get(LEADER_SQL, LEADER_ROW_MAPPER, leaderArgs);
+        if (leader == null || !registerRoleName.equals(leader.getKey())) {
+            return;
+        }
+        if (registered.stream().noneMatch(e -> e.serialize().equals(leader.getValue()))) {
+            return;
+        }
+        int rows = jdbcTemplateWrapper.delete(REMOVE_DEAD_SQL, namespace, System.currentTimeMillis() - DEAD_TIME_MILLIS);
+        log.info("Database registry purged dead servers: {}, {}", namespace, rows);
+    }
+
     private void register(String server) {
         jdbcTemplateWrapper.executeInTransaction(psCreator -> {
             // 1、update server heartbeat_time if registered
@@ -235,9 +292,81 @@ public abstract class DatabaseServerRegistry<R extends Server, D extends Server>
         });
     }
 
+    private synchronized void discoverServers0() {
+        long minHeartbeatTime = System.currentTimeMillis() - sessionTimeoutMs;
+        boolean fullResync = (discoveredRows == null) || (++discoverCount % FULL_RESYNC_PERIODS == 0);
+        Map<Long, String> rows = null;
+        if (!fullResync) {
+            Digest digest = jdbcTemplateWrapper.get(DIGEST_SQL, DIGEST_ROW_MAPPER, namespace, discoveryRoleName, minHeartbeatTime);
+            if (discoveredDigest.equals(digest)) {
+                // unchanged
+                return;
+            }
+            if (digest.count > discoveredDigest.count) {
+                // maybe only has new registered servers
+                rows = new HashMap<>(discoveredRows);
+                Object[] args = {namespace, discoveryRoleName, minHeartbeatTime, discoveredDigest.maxId};
+                for (Map.Entry<Long, String> e : jdbcTemplateWrapper.list(DELTA_SQL, DISCOVER_ROW_MAPPER, args)) {
+                    rows.put(e.getKey(), e.getValue());
+                }
+                if (!Digest.of(rows).equals(digest)) {
+                    // has removed servers, or changed concurrently
+                    rows = null;
+                }
+            }
+        }
+        if (rows == null) {
+            rows = new HashMap<>();
+            for (Map.Entry<Long, String> e : jdbcTemplateWrapper.list(DISCOVER_SQL, DISCOVER_ROW_MAPPER, namespace, discoveryRoleName, minHeartbeatTime)) {
+                rows.put(e.getKey(), e.getValue());
+            }
+        }
+        refreshDiscoveredServers(new ArrayList<>(rows.values()));
+        this.discoveredRows = rows;
+        this.discoveredDigest = Digest.of(rows);
+    }
+
     private List<String> getServers(String roleName) {
         Object[] args = {namespace, roleName, System.currentTimeMillis() - sessionTimeoutMs};
         return jdbcTemplateWrapper.list(SELECT_SQL, JdbcTemplateWrapper.STRING_ROW_MAPPER, args);
     }
 
+    /**
+     * The digest of alive servers, the row id is stable while the server keep heartbeat.
+     */
+    private static final class Digest {
+        private final long count;
+        private final long sumId;
+        private final long maxId;
+
+        private Digest(long count, long sumId, long maxId) {
+            this.count = count;
+            this.sumId = sumId;
+            this.maxId = maxId;
+        }
+
+        private static Digest of(Map<Long, String> rows) {
+            long sumId = 0, maxId = 0;
+            for (Long id : rows.keySet()) {
+                sumId += id;
+                maxId = Math.max(maxId, id);
+            }
+            return new Digest(rows.size(), sumId, maxId);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Digest)) {
+                return false;
+            }
+            Digest that = (Digest) obj;
+            return this.count == that.count && this.sumId == that.sumId && this.maxId == that.maxId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(count, sumId, maxId);
+        }
+    }
+
 }
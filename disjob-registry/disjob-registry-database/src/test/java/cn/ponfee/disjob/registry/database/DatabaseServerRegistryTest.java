@@ -0,0 +1,317 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.registry.database;
+
+import cn.ponfee.disjob.common.spring.JdbcTemplateWrapper;
+import cn.ponfee.disjob.common.util.UuidUtils;
+import cn.ponfee.disjob.core.supervisor.Supervisor;
+import cn.ponfee.disjob.core.worker.Worker;
+import cn.ponfee.disjob.registry.ServerRegistry;
+import cn.ponfee.disjob.registry.database.configuration.DatabaseRegistryProperties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.web.client.RestTemplate;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Database server registry test, the database is simulated by mocked JdbcTemplate
+ *
+ * @author Ponfee
+ */
+public class DatabaseServerRegistryTest {
+
+    private final String namespace = "test_" + UuidUtils.uuid32();
+    private final Connection connection = mock(Connection.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class, this::answer);
+
+    /**
+     * Executed update sql and args, include DELETE sql
+     */
+    private final List<Object[]> updates = new CopyOnWriteArrayList<>();
+
+    /**
+     * Prepared statements of the register transaction
+     */
+    private final List<PreparedStatement> statements = new CopyOnWriteArrayList<>();
+
+    /**
+     * Map<id, server>, the alive supervisor rows
+     */
+    private final Map<Long, String> aliveRows = new ConcurrentSkipListMap<>();
+
+    /**
+     * Executed discovery query: digest, delta, discover
+     */
+    private final List<String> discoverQueries = new CopyOnWriteArrayList<>();
+
+    private volatile int[] heartbeatAffectedRows;
+    private volatile String[] leader;
+
+    DatabaseServerRegistryTest() throws SQLException {
+        DatabaseMetaData meta = mock(DatabaseMetaData.class);
+        ResultSet tables = mock(ResultSet.class);
+        when(connection.getMetaData()).thenReturn(meta);
+        when(meta.getTables(any(), any(), anyString(), any())).thenReturn(tables);
+        when(tables.next()).thenReturn(true);
+        when(tables.getString(3)).thenReturn("sched_registry");
+        when(connection.prepareStatement(anyString())).thenAnswer(e -> {
+            PreparedStatement ps = mock(PreparedStatement.class);
+            // the server heartbeat row exists
+            when(ps.executeUpdate()).thenReturn(1);
+            statements.add(ps);
+            return ps;
+        });
+    }
+
+    @Test
+    public void testRegisterServersFallback() throws Exception {
+        Worker worker1 = new Worker("app-test", "worker1", "127.0.0.1", 8081);
+        Worker worker2 = new Worker("app-test", "worker2", "127.0.0.1", 8082);
+        Worker worker3 = new Worker("app-test", "worker3", "127.0.0.1", 8083);
+        DatabaseWorkerRegistry registry = createWorkerRegistry();
+        try {
+            registry.register(worker1);
+            registry.register(worker2);
+            registry.register(worker3);
+            Map<String, Integer> heartbeatRows = new HashMap<>();
+            heartbeatRows.put(worker1.serialize(), 1);
+            // the worker2 row has been purged by other server
+            heartbeatRows.put(worker2.serialize(), 0);
+            heartbeatRows.put(worker3.serialize(), Statement.SUCCESS_NO_INFO);
+            statements.clear();
+
+            List<String> servers = invokeRegisterServers(registry, heartbeatRows);
+
+            // only the 0 affected row server fallback to register
+            Assertions.assertEquals(3, servers.size());
+            Assertions.assertEquals(1, statements.size());
+            verify(statements.get(0)).setString(4, worker2.serialize());
+
+            // the batch update failed, all the servers fallback to register
+            statements.clear();
+            heartbeatAffectedRows = null;
+            invokePrivate(registry, "registerServers");
+            Assertions.assertEquals(3, statements.size());
+        } finally {
+            registry.close();
+        }
+    }
+
+    @Test
+    public void testPurgeDeadServersIfLeader() throws Exception {
+        Worker worker1 = new Worker("app-test", "worker1", "127.0.0.1", 8081);
+        Worker worker2 = new Worker("app-test", "worker2", "127.0.0.1", 8082);
+        DatabaseWorkerRegistry registry1 = createWorkerRegistry();
+        DatabaseWorkerRegistry registry2 = createWorkerRegistry();
+        try {
+            registry1.register(worker1);
+            registry2.register(worker2);
+
+            // the worker1 hold the lowest id alive row
+            leader = new String[]{"worker", worker1.serialize()};
+            invokePrivate(registry2, "purgeDeadServersIfLeader");
+            Assertions.assertTrue(purgeDeadArgs().isEmpty());
+
+            long begin = System.currentTimeMillis();
+            invokePrivate(registry1, "purgeDeadServersIfLeader");
+            List<Object[]> purged = purgeDeadArgs();
+            Assertions.assertEquals(1, purged.size());
+            Assertions.assertEquals(namespace, purged.get(0)[1]);
+            long deadTime = (Long) purged.get(0)[2];
+            Assertions.assertTrue(deadTime >= begin - TimeUnit.HOURS.toMillis(12));
+            Assertions.assertTrue(deadTime <= System.currentTimeMillis() - TimeUnit.HOURS.toMillis(12));
+
+            // the lowest id alive row is other role, or none alive row
+            updates.clear();
+            leader = new String[]{"supervisor", worker1.serialize()};
+            invokePrivate(registry1, "purgeDeadServersIfLeader");
+            leader = null;
+            invokePrivate(registry1, "purgeDeadServersIfLeader");
+            Assertions.assertTrue(purgeDeadArgs().isEmpty());
+        } finally {
+            registry1.close();
+            registry2.close();
+        }
+    }
+
+    @Test
+    public void testDiscoverServers() {
+        Supervisor s1 = new Supervisor("127.0.0.1", 8081);
+        Supervisor s2 = new Supervisor("127.0.0.1", 8082);
+        Supervisor s3 = new Supervisor("127.0.0.1", 8083);
+        Supervisor s4 = new Supervisor("127.0.0.1", 8084);
+        Supervisor s5 = new Supervisor("127.0.0.1", 8085);
+        DatabaseWorkerRegistry registry = createWorkerRegistry();
+        try {
+            aliveRows.put(1L, s1.serialize());
+            aliveRows.put(2L, s2.serialize());
+            registry.discoverServers();
+            Assertions.assertEquals(Collections.singletonList("discover"), discoverQueries);
+            assertAliveServers(registry, s1, s2);
+
+            // unchanged digest: short-circuit, fetch nothing
+            discoverQueries.clear();
+            registry.discoverServers();
+            Assertions.assertEquals(Collections.singletonList("digest"), discoverQueries);
+            assertAliveServers(registry, s1, s2);
+
+            // add only: apply the delta rows
+            discoverQueries.clear();
+            aliveRows.put(3L, s3.serialize());
+            registry.discoverServers();
+            Assertions.assertEquals(Arrays.asList("digest", "delta"), discoverQueries);
+            assertAliveServers(registry, s1, s2, s3);
+
+            // removed: full reload
+            discoverQueries.clear();
+            aliveRows.remove(2L);
+            registry.discoverServers();
+            Assertions.assertEquals(Arrays.asList("digest", "discover"), discoverQueries);
+            assertAliveServers(registry, s1, s3);
+
+            // removed and added with the count increased: the delta digest mismatch, then full reload
+            discoverQueries.clear();
+            aliveRows.remove(1L);
+            aliveRows.put(4L, s4.serialize());
+            aliveRows.put(5L, s5.serialize());
+            registry.discoverServers();
+            Assertions.assertEquals(Arrays.asList("digest", "delta", "discover"), discoverQueries);
+            assertAliveServers(registry, s3, s4, s5);
+        } finally {
+            registry.close();
+        }
+    }
+
+    // ------------------------------------------------------------------private methods
+
+    private static void assertAliveServers(DatabaseWorkerRegistry registry, Supervisor... expect) {
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(expect)), new HashSet<>(registry.getAliveServers(null)));
+    }
+
+    private DatabaseWorkerRegistry createWorkerRegistry() {
+        DatabaseRegistryProperties config = new DatabaseRegistryProperties();
+        config.setNamespace(namespace);
+        // avoid the heartbeat thread run during test
+        config.setSessionTimeoutMs(TimeUnit.HOURS.toMillis(1));
+        return new DatabaseWorkerRegistry(config, new RestTemplate(), JdbcTemplateWrapper.of(jdbcTemplate));
+    }
+
+    private List<String> invokeRegisterServers(DatabaseWorkerRegistry registry, Map<String, Integer> heartbeatRows) throws Exception {
+        // the batch args order is same as the registered set iteration order
+        List<String> servers = new ArrayList<>();
+        for (Worker worker : registeredServers(registry)) {
+            servers.add(worker.serialize());
+        }
+        heartbeatAffectedRows = servers.stream().mapToInt(heartbeatRows::get).toArray();
+        invokePrivate(registry, "registerServers");
+        return servers;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Worker> registeredServers(DatabaseWorkerRegistry registry) throws Exception {
+        Field field = ServerRegistry.class.getDeclaredField("registered");
+        field.setAccessible(true);
+        return (Set<Worker>) field.get(registry);
+    }
+
+    private static void invokePrivate(DatabaseServerRegistry<?, ?> registry, String methodName) throws Exception {
+        Method method = DatabaseServerRegistry.class.getDeclaredMethod(methodName);
+        method.setAccessible(true);
+        method.invoke(registry);
+    }
+
+    private List<Object[]> purgeDeadArgs() {
+        List<Object[]> result = new ArrayList<>();
+        for (Object[] e : updates) {
+            if (((String) e[0]).startsWith("DELETE ") && ((String) e[0]).contains("heartbeat_time<?")) {
+                result.add(e);
+            }
+        }
+        return result;
+    }
+
+    private Object answer(InvocationOnMock invocation) throws Throwable {
+        Object[] args = invocation.getArguments();
+        switch (invocation.getMethod().getName()) {
+            case "execute":
+                if (args[0] instanceof ConnectionCallback) {
+                    return ((ConnectionCallback<?>) args[0]).doInConnection(connection);
+                }
+                return null;
+            case "batchUpdate":
+                return heartbeatAffectedRows;
+            case "update":
+                updates.add(args);
+                return 1;
+            case "query":
+                return query((String) args[0], (RowMapper<?>) args[1], args[args.length - 1]);
+            default:
+                return RETURNS_DEFAULTS.answer(invocation);
+        }
+    }
+
+    private List<?> query(String sql, RowMapper<?> rowMapper, Object lastArg) throws SQLException {
+        if (sql.contains("MIN(id)")) {
+            return leader == null ? Collections.emptyList() : Collections.singletonList(mapRow(rowMapper, leader[0], leader[1]));
+        }
+        if (sql.startsWith("SELECT COUNT(*)")) {
+            discoverQueries.add("digest");
+            long sumId = aliveRows.keySet().stream().mapToLong(Long::longValue).sum();
+            long maxId = aliveRows.keySet().stream().mapToLong(Long::longValue).max().orElse(0);
+            return Collections.singletonList(mapRow(rowMapper, (long) aliveRows.size(), sumId, maxId));
+        }
+        if (sql.startsWith("SELECT id, server")) {
+            boolean delta = sql.endsWith("id>?");
+            discoverQueries.add(delta ? "delta" : "discover");
+            List<Object> result = new ArrayList<>();
+            for (Map.Entry<Long, String> e : aliveRows.entrySet()) {
+                if (!delta || e.getKey() > (Long) lastArg) {
+                    result.add(mapRow(rowMapper, e.getKey(), e.getValue()));
+                }
+            }
+            return result;
+        }
+        return Collections.emptyList();
+    }
+
+    private static Object mapRow(RowMapper<?> rowMapper, Object... columns) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i] instanceof Long) {
+                when(rs.getLong(i + 1)).thenReturn((Long) columns[i]);
+            } else {
+                when(rs.getString(i + 1)).thenReturn((String) columns[i]);
+            }
+        }
+        return rowMapper.mapRow(rs, 0);
+    }
+
+}
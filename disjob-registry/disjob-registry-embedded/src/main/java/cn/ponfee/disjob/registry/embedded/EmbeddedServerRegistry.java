@@ -0,0 +1,136 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.registry.embedded;
+
+import cn.ponfee.disjob.core.base.Server;
+import cn.ponfee.disjob.core.enums.RegistryEventType;
+import cn.ponfee.disjob.registry.ServerRegistry;
+import cn.ponfee.disjob.registry.embedded.configuration.EmbeddedRegistryProperties;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry server embedded in current jvm, only for the single-jvm merged deployment(supervisor and worker in the same jvm).
+ * <p>The servers only can discover the servers which registered in the same jvm, none registry center and heartbeat.
+ * <p>The rpc between the local supervisor and local worker are direct method invocation,
+ * see {@code DestinationServerRestProxy} and {@code DiscoveryUngroupedServerRestProxy}.
+ *
+ * @author Ponfee
+ */
+public abstract class EmbeddedServerRegistry<R extends Server, D extends Server> extends ServerRegistry<R, D> {
+
+    /**
+     * Map<root path, Set<serialized server>>, shared by all embedded registry in current jvm
+     */
+    private static final ConcurrentMap<String, Set<String>> REGISTERED_SERVERS = new ConcurrentHashMap<>();
+
+    /**
+     * All embedded registry in current jvm
+     */
+    private static final Set<EmbeddedServerRegistry<?, ?>> REGISTRIES = ConcurrentHashMap.newKeySet();
+
+    protected EmbeddedServerRegistry(EmbeddedRegistryProperties config, RestTemplate restTemplate) {
+        super(config, restTemplate, ':');
+        REGISTRIES.add(this);
+        discoverServers();
+        log.info("Embedded server registry initialized: {}, {}", registryRole, discoveryRole);
+    }
+
+    @Override
+    public boolean isConnected() {
+        return !state.isStopped();
+    }
+
+    // ------------------------------------------------------------------Registry
+
+    @Override
+    public final void register(R server) {
+        if (state.isStopped()) {
+            return;
+        }
+        REGISTERED_SERVERS.computeIfAbsent(registryRootPath, k -> ConcurrentHashMap.newKeySet()).add(server.serialize());
+        registered.add(server);
+        publishServerEvent(RegistryEventType.REGISTER, server);
+        log.info("Embedded server registered: {}, {}", registryRole, server);
+    }
+
+    @Override
+    public final void deregister(R server) {
+        registered.remove(server);
+        Set<String> servers = REGISTERED_SERVERS.get(registryRootPath);
+        if (servers != null) {
+            servers.remove(server.serialize());
+        }
+        publishServerEvent(RegistryEventType.DEREGISTER, server);
+        log.info("Embedded server deregister success: {}", server);
+    }
+
+    @Override
+    public List<R> getRegisteredServers() {
+        return deserializeServers(getServers(registryRootPath), registryRole);
+    }
+
+    // ------------------------------------------------------------------Discovery
+
+    @Override
+    public void discoverServers() {
+        refreshDiscoveredServers(getServers(discoveryRootPath));
+    }
+
+    // ------------------------------------------------------------------Close
+
+    @PreDestroy
+    @Override
+    public void close() {
+        if (!state.stop()) {
+            return;
+        }
+        registered.forEach(this::deregister);
+        REGISTRIES.remove(this);
+        super.close();
+    }
+
+    // ------------------------------------------------------------------Subscribe
+
+    /**
+     * Refresh the discovery of the embedded registries in current jvm, instead of the http notification.
+     *
+     * @param eventType the event type
+     * @param server    the registry server
+     */
+    @Override
+    protected void publishServerEvent(RegistryEventType eventType, R server) {
+        log.info("Publish server event: {}, {}", eventType, server);
+        for (EmbeddedServerRegistry<?, ?> registry : REGISTRIES) {
+            if (registry.discoveryRootPath.equals(registryRootPath)) {
+                registry.discoverServers();
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------private methods
+
+    private static List<String> getServers(String rootPath) {
+        Set<String> servers = REGISTERED_SERVERS.get(rootPath);
+        return servers == null ? Collections.emptyList() : new ArrayList<>(servers);
+    }
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.registry.embedded;
+
+import cn.ponfee.disjob.core.supervisor.Supervisor;
+import cn.ponfee.disjob.core.worker.Worker;
+import cn.ponfee.disjob.registry.WorkerRegistry;
+import cn.ponfee.disjob.registry.embedded.configuration.EmbeddedRegistryProperties;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Registry worker embedded in current jvm.
+ *
+ * @author Ponfee
+ */
+public class EmbeddedWorkerRegistry extends EmbeddedServerRegistry<Worker, Supervisor> implements WorkerRegistry {
+
+    public EmbeddedWorkerRegistry(EmbeddedRegistryProperties config, RestTemplate restTemplate) {
+        super(config, restTemplate);
+    }
+
+}
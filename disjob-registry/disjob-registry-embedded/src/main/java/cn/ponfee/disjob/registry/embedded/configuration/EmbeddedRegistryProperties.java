@@ -14,17 +14,23 @@
  * limitations under the License.
  */
 
-package cn.ponfee.disjob.supervisor.dispatch;
+package cn.ponfee.disjob.registry.embedded.configuration;
+
+import cn.ponfee.disjob.registry.AbstractRegistryProperties;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
- * Task dispatch exception
+ * Embedded registry configuration properties.
  *
  * @author Ponfee
  */
-class TaskDispatchException extends Exception {
-    private static final long serialVersionUID = 2626305365213783551L;
+@Getter
+@Setter
+@ConfigurationProperties(prefix = EmbeddedRegistryProperties.KEY_PREFIX)
+public class EmbeddedRegistryProperties extends AbstractRegistryProperties {
+    private static final long serialVersionUID = 3517936580342151772L;
+    public static final String KEY_PREFIX = DISJOB_REGISTRY_KEY_PREFIX + ".embedded";
 
-    public TaskDispatchException(String msg) {
-        super(msg);
-    }
 }
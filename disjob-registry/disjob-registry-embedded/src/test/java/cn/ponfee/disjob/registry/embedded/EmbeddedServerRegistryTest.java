@@ -0,0 +1,66 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.registry.embedded;
+
+import cn.ponfee.disjob.common.util.UuidUtils;
+import cn.ponfee.disjob.core.supervisor.Supervisor;
+import cn.ponfee.disjob.core.worker.Worker;
+import cn.ponfee.disjob.registry.embedded.configuration.EmbeddedRegistryProperties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+/**
+ * Embedded server registry test
+ *
+ * @author Ponfee
+ */
+public class EmbeddedServerRegistryTest {
+
+    @Test
+    public void testRegistry() {
+        EmbeddedRegistryProperties config = new EmbeddedRegistryProperties();
+        config.setNamespace("test_" + UuidUtils.uuid32());
+        EmbeddedSupervisorRegistry supervisorRegistry = new EmbeddedSupervisorRegistry(config, null);
+        EmbeddedWorkerRegistry workerRegistry = new EmbeddedWorkerRegistry(config, null);
+
+        Supervisor supervisor = new Supervisor("127.0.0.1", 8081);
+        Worker worker = new Worker("app-test", UuidUtils.uuid32(), "127.0.0.1", 8082);
+        Assertions.assertFalse(supervisorRegistry.hasAliveServer());
+        Assertions.assertFalse(workerRegistry.hasAliveServer());
+
+        supervisorRegistry.register(supervisor);
+        workerRegistry.register(worker);
+        Assertions.assertEquals(Collections.singletonList(supervisor), workerRegistry.getAliveServers(null));
+        Assertions.assertEquals(Collections.singletonList(worker), supervisorRegistry.getAliveServers("app-test"));
+        Assertions.assertEquals(Collections.singletonList(worker), workerRegistry.getRegisteredServers());
+
+        // other namespace cannot discover
+        EmbeddedRegistryProperties other = new EmbeddedRegistryProperties();
+        other.setNamespace("test_" + UuidUtils.uuid32());
+        EmbeddedSupervisorRegistry otherRegistry = new EmbeddedSupervisorRegistry(other, null);
+        Assertions.assertFalse(otherRegistry.hasAliveServer());
+        otherRegistry.close();
+
+        workerRegistry.close();
+        Assertions.assertFalse(supervisorRegistry.hasAliveServer());
+        Assertions.assertFalse(workerRegistry.isConnected());
+        supervisorRegistry.close();
+    }
+
+}
@@ -19,7 +19,6 @@ package cn.ponfee.disjob.registry.redis;
 import cn.ponfee.disjob.common.base.RetryTemplate;
 import cn.ponfee.disjob.common.concurrent.LoopThread;
 import cn.ponfee.disjob.common.exception.Throwables.ThrowingRunnable;
-import cn.ponfee.disjob.common.exception.Throwables.ThrowingSupplier;
 import cn.ponfee.disjob.common.spring.RedisTemplateUtils;
 import cn.ponfee.disjob.core.base.Server;
 import cn.ponfee.disjob.core.enums.RegistryEventType;
@@ -34,6 +33,7 @@ import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.web.client.RestTemplate;
 
 import javax.annotation.PreDestroy;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -43,6 +43,12 @@ import static cn.ponfee.disjob.common.base.Symbol.Str.COLON;
 
 /**
  * Registry server based redis.
+ * <p>The membership version is increased when the servers changed(register new, deregister, expired),
+ * discovery only fetch the servers if the version changed, and full resync periodically as a safety net.
+ * <p>The servers key and version key are accessed in one lua script, so they use the same hash tag `{root path}`
+ * to be located in the same slot of redis cluster.
+ * <p>Migration: the keys renamed from `root path` to `{root path}`, the old version servers and new version servers
+ * cannot discover each other, so all the supervisors and workers should be upgraded together.
  * <p><a href="https://english.stackexchange.com/questions/25931/unregister-vs-deregister">unregister-vs-deregister</a>
  *
  * @author Ponfee
@@ -51,24 +57,51 @@ public abstract class RedisServerRegistry<R extends Server, D extends Server> ex
 
     private static final String CHANNEL = "channel";
 
+    private static final String VERSION = "version";
+
+    private static final int FULL_RESYNC_PERIODS = 10;
+
     private static final RedisScript<Void> REGISTRY_SCRIPT = RedisScript.of(
-        "local score  = ARGV[1];                        \n" +
-        "local expire = ARGV[2];                        \n" +
-        "local length = #ARGV;                          \n" +
-        "for i = 3,length do                            \n" +
-        "  redis.call('zadd', KEYS[1], score, ARGV[i]); \n" +
-        "end                                            \n" +
-        "redis.call('pexpire', KEYS[1], expire);        \n" ,
+        "local score  = ARGV[1];                                        \n" +
+        "local expire = ARGV[2];                                        \n" +
+        "local length = #ARGV;                                          \n" +
+        "local added  = 0;                                              \n" +
+        "for i = 3,length do                                            \n" +
+        "  added = added + redis.call('zadd', KEYS[1], score, ARGV[i]); \n" +
+        "end                                                            \n" +
+        "redis.call('pexpire', KEYS[1], expire);                        \n" +
+        "if added > 0 then                                              \n" +
+        "  redis.call('incr', KEYS[2]);                                 \n" +
+        "end                                                            \n" +
+        "redis.call('pexpire', KEYS[2], expire);                        \n" ,
+        Void.class
+    );
+
+    private static final RedisScript<Void> DEREGISTRY_SCRIPT = RedisScript.of(
+        "if redis.call('zrem', KEYS[1], ARGV[1]) > 0 then \n" +
+        "  redis.call('incr', KEYS[2]);                   \n" +
+        "end                                              \n" ,
         Void.class
     );
 
+    /**
+     * Returns list of [version, server...], only returns [version] if the version equals ARGV[3]
+     */
     @SuppressWarnings("rawtypes")
     private static final RedisScript<List> QUERY_SCRIPT = RedisScript.of(
         // ['-inf', '+inf'] maybe occur redis bug: ERR min or max is not a float script
-        "redis.call('zremrangebyscore', KEYS[1], '-inf', ARGV[1]);          \n" +
-        "local ret = redis.call('zrangebyscore', KEYS[1], ARGV[1], '+inf'); \n" +
-        "redis.call('pexpire', KEYS[1], ARGV[2]);                           \n" +
-        "return ret;                                                        \n" ,
+        "if redis.call('zremrangebyscore', KEYS[1], '-inf', ARGV[1]) > 0 then \n" +
+        "  redis.call('incr', KEYS[2]);                                       \n" +
+        "end                                                                  \n" +
+        "redis.call('pexpire', KEYS[1], ARGV[2]);                             \n" +
+        "redis.call('pexpire', KEYS[2], ARGV[2]);                             \n" +
+        "local version = redis.call('get', KEYS[2]) or '0';                   \n" +
+        "if version == ARGV[3] then                                           \n" +
+        "  return {version};                                                  \n" +
+        "end                                                                  \n" +
+        "local ret = redis.call('zrangebyscore', KEYS[1], ARGV[1], '+inf');   \n" +
+        "table.insert(ret, 1, version);                                       \n" +
+        "return ret;                                                          \n" ,
         List.class
     );
 
@@ -98,6 +131,8 @@ public abstract class RedisServerRegistry<R extends Server, D extends Server> ex
 
     private final LoopThread discoverHeartbeatThread;
     private final List<String> discoveryRedisKey;
+    private String discoveredVersion = null;
+    private int discoverCount = 0;
 
     // -------------------------------------------------Subscribe
 
@@ -108,8 +143,8 @@ public abstract class RedisServerRegistry<R extends Server, D extends Server> ex
         this.registryChannel = registryRootPath + separator + CHANNEL;
         this.stringRedisTemplate = stringRedisTemplate;
         this.sessionTimeoutMs = config.getSessionTimeoutMs();
-        this.registryRedisKey = Collections.singletonList(registryRootPath);
-        this.discoveryRedisKey = Collections.singletonList(discoveryRootPath);
+        this.registryRedisKey = redisKeys(registryRootPath, separator);
+        this.discoveryRedisKey = redisKeys(discoveryRootPath, separator);
 
         long periodMs = sessionTimeoutMs / 3;
 
@@ -156,7 +191,7 @@ public abstract class RedisServerRegistry<R extends Server, D extends Server> ex
     public final void deregister(R server) {
         try {
             registered.remove(server);
-            ThrowingSupplier.doCaught(() -> stringRedisTemplate.opsForZSet().remove(registryRootPath, server.serialize()));
+            ThrowingRunnable.doCaught(() -> stringRedisTemplate.execute(DEREGISTRY_SCRIPT, registryRedisKey, server.serialize()));
             publishServerEvent(RegistryEventType.DEREGISTER, server);
             log.info("Redis server deregister success: {}", server);
         } catch (Throwable t) {
@@ -166,14 +201,15 @@ public abstract class RedisServerRegistry<R extends Server, D extends Server> ex
 
     @Override
     public List<R> getRegisteredServers() {
-        return deserializeServers(getServers(registryRedisKey), registryRole);
+        List<String> list = getServers(registryRedisKey, "");
+        return deserializeServers(list.subList(1, list.size()), registryRole);
     }
 
     // ------------------------------------------------------------------Discovery
 
     @Override
     public void discoverServers() {
-        RetryTemplate.execute(() -> refreshDiscoveredServers(getServers(discoveryRedisKey)), 3, 1000L);
+        RetryTemplate.execute(this::discoverServers0, 3, 1000L);
     }
 
     // ------------------------------------------------------------------Close
@@ -259,10 +295,41 @@ public abstract class RedisServerRegistry<R extends Server, D extends Server> ex
         stringRedisTemplate.execute(REGISTRY_SCRIPT, registryRedisKey, args);
     }
 
+    private synchronized void discoverServers0() {
+        boolean fullResync = (discoveredVersion == null) || (++discoverCount % FULL_RESYNC_PERIODS == 0);
+        List<String> list = getServers(discoveryRedisKey, fullResync ? "" : discoveredVersion);
+        String version = list.get(0);
+        if (!fullResync && version.equals(discoveredVersion)) {
+            // unchanged
+            return;
+        }
+        refreshDiscoveredServers(list.subList(1, list.size()));
+        this.discoveredVersion = version;
+    }
+
+    /**
+     * Returns the servers key and version key, the hash tag make them in the same slot of redis cluster.
+     *
+     * @param rootPath  the server role root path
+     * @param separator the separator
+     * @return list of [servers key, version key]
+     */
+    static List<String> redisKeys(String rootPath, char separator) {
+        String hashTag = "{" + rootPath + "}";
+        return Arrays.asList(hashTag, hashTag + separator + VERSION);
+    }
+
+    /**
+     * Returns list of [version, server...]
+     *
+     * @param serverRoleKey the server role redis key
+     * @param knownVersion  the known version, empty string means always fetch servers
+     * @return list of [version, server...]
+     */
     @SuppressWarnings("unchecked")
-    private List<String> getServers(List<String> serverRoleKey) {
+    private List<String> getServers(List<String> serverRoleKey, String knownVersion) {
         String baseScore = Long.toString(System.currentTimeMillis());
-        return stringRedisTemplate.execute(QUERY_SCRIPT, serverRoleKey, baseScore, REDIS_KEY_TTL_MILLIS);
+        return stringRedisTemplate.execute(QUERY_SCRIPT, serverRoleKey, baseScore, REDIS_KEY_TTL_MILLIS, knownVersion);
     }
 
 }
@@ -129,11 +129,24 @@ public class VertxWebServer extends AbstractVerticle {
             return workerRpcService.receiveTask(param);
         }, ctx, INTERNAL_SERVER_ERROR));
 
+        router.post(prefixPath + "/tasks/receive").handler(ctx -> handle(() -> {
+            ReceiveTasksParam param = parseBodyArg(ctx, ReceiveTasksParam.class);
+            for (ExecuteTaskParam task : param.getTasks()) {
+                JobExecutorMapping.correctParamJobExecutor(task, "jobExecutor");
+            }
+            return workerRpcService.receiveTasks(param);
+        }, ctx, INTERNAL_SERVER_ERROR));
+
         router.get(prefixPath + "/task/exists").handler(ctx -> handle(() -> {
             ExistsTaskParam param = parseParamArg(ctx, ExistsTaskParam.class);
             return workerRpcService.existsTask(param);
         }, ctx, INTERNAL_SERVER_ERROR));
 
+        router.post(prefixPath + "/tasks/exists").handler(ctx -> handle(() -> {
+            ExistsTasksParam param = parseBodyArg(ctx, ExistsTasksParam.class);
+            return workerRpcService.existsTasks(param);
+        }, ctx, INTERNAL_SERVER_ERROR));
+
         router.get(prefixPath + "/metrics/get").handler(ctx -> handle(() -> {
             GetMetricsParam param = parseParamArg(ctx, GetMetricsParam.class);
             return workerRpcService.getMetrics(param);
@@ -37,10 +37,12 @@ import cn.ponfee.disjob.registry.redis.RedisWorkerRegistry;
 import cn.ponfee.disjob.registry.redis.configuration.RedisRegistryProperties;
 import cn.ponfee.disjob.worker.WorkerStartup;
 import cn.ponfee.disjob.worker.base.TaskTimingWheel;
+import cn.ponfee.disjob.worker.base.WorkerConfigurator;
 import cn.ponfee.disjob.worker.configuration.WorkerProperties;
 import cn.ponfee.disjob.worker.provider.WorkerRpcProvider;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
@@ -79,13 +81,17 @@ public class WorkerFramelessMain {
         workerProps.check();
 
         // 2、create component
-        RestTemplate restTemplate = RestTemplateUtils.create(httpProps.getConnectTimeout(), httpProps.getReadTimeout(), null);
+        PoolingHttpClientConnectionManager httpConnectionManager = RestTemplateUtils.createConnectionManager(
+            httpProps.getMaxConnTotal(), httpProps.getMaxConnPerRoute(), httpProps.getConnTimeToLive(), httpProps.getValidateAfterInactivity());
+        RestTemplate restTemplate = RestTemplateUtils.create(httpProps.getConnectTimeout(), httpProps.getReadTimeout(),
+            httpProps.getConnectionRequestTimeout(), httpProps.getMaxIdleTime(), httpConnectionManager, null, httpProps.isSmileCodec());
+        WorkerConfigurator.setHttpConnectionManager(httpConnectionManager);
         Worker.Local localWorker = createLocalWorker(config, workerProps);
         TimingWheel<ExecuteTaskParam> timingWheel = new TaskTimingWheel(workerProps.getTimingWheelTickMs(), workerProps.getTimingWheelRingSize());
         WorkerRegistry workerRegistry = createWorkerRegistry(config, restTemplate);
 
         // 3、create starter
-        VertxWebServer vertxWebServer = createVertxWebServer(localWorker, timingWheel, config, workerRegistry);
+        VertxWebServer vertxWebServer = createVertxWebServer(workerProps, localWorker, timingWheel, config, workerRegistry);
         WorkerStartup workerStartup = new WorkerStartup(workerProps, localWorker, timingWheel, retryProps, workerRegistry, restTemplate, null);
 
         // 4、do start
@@ -127,9 +133,9 @@ public class WorkerFramelessMain {
         return new RedisWorkerRegistry(registryProps, restTemplate, redisTemplateFactory.getStringRedisTemplate());
     }
 
-    private static VertxWebServer createVertxWebServer(Worker.Local localWorker, TimingWheel<ExecuteTaskParam> timingWheel,
+    private static VertxWebServer createVertxWebServer(WorkerProperties workerProps, Worker.Local localWorker, TimingWheel<ExecuteTaskParam> timingWheel,
                                                        YamlProperties config, WorkerRegistry workerRegistry) {
-        WorkerRpcService workerRpcService = WorkerRpcProvider.create(localWorker, timingWheel, workerRegistry);
+        WorkerRpcService workerRpcService = WorkerRpcProvider.create(workerProps, localWorker, timingWheel, workerRegistry);
         String workerContextPath = config.getString(SpringUtils.SPRING_BOOT_CONTEXT_PATH);
         return new VertxWebServer(localWorker.getPort(), workerContextPath, workerRpcService);
     }
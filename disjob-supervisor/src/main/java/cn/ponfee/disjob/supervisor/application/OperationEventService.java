@@ -20,6 +20,7 @@ import cn.ponfee.disjob.common.base.SingletonClassConstraint;
 import cn.ponfee.disjob.common.date.Dates;
 import cn.ponfee.disjob.core.supervisor.Supervisor;
 import cn.ponfee.disjob.supervisor.base.OperationEventType;
+import cn.ponfee.disjob.supervisor.component.TriggeringJobIndex;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.stereotype.Service;
@@ -47,9 +48,11 @@ public class OperationEventService extends SingletonClassConstraint {
     private static final Map<OperationEventType, Pair<Date, String>> MAP = new ConcurrentHashMap<>();
 
     private final SchedGroupService groupService;
+    private final TriggeringJobIndex triggeringJobIndex;
 
-    public OperationEventService(SchedGroupService groupService) {
+    public OperationEventService(SchedGroupService groupService, TriggeringJobIndex triggeringJobIndex) {
         this.groupService = groupService;
+        this.triggeringJobIndex = triggeringJobIndex;
 
         long initialDelay = PERIOD_MS + ThreadLocalRandom.current().nextLong(PERIOD_MS);
         commonScheduledPool().scheduleWithFixedDelay(this::process, initialDelay, PERIOD_MS, TimeUnit.MILLISECONDS);
@@ -58,7 +61,7 @@ public class OperationEventService extends SingletonClassConstraint {
     public static void subscribe(OperationEventType eventType, Date eventTime, String eventData) {
         if (eventType != null) {
             // add or update value
-            MAP.put(eventType, Pair.of(eventTime, eventData));
+            MAP.merge(eventType, Pair.of(eventTime, eventData), (o, n) -> Pair.of(n.getLeft(), eventType.merge(o.getRight(), n.getRight())));
         }
     }
 
@@ -83,6 +86,10 @@ public class OperationEventService extends SingletonClassConstraint {
         boolean state = true;
         if (eventType == OperationEventType.REFRESH_GROUP) {
             groupService.refresh();
+        } else if (eventType == OperationEventType.RELOAD_TRIGGERING_JOB_INDEX) {
+            triggeringJobIndex.requestReload();
+        } else if (eventType == OperationEventType.REFRESH_TRIGGERING_JOB) {
+            triggeringJobIndex.refresh(eventType.<List<Long>>parse(eventData));
         } else {
             state = false;
             log.error("Unsupported subscribe operation event type: {}", eventType);
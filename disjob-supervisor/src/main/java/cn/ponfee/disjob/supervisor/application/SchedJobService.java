@@ -28,8 +28,10 @@ import cn.ponfee.disjob.supervisor.application.request.*;
 import cn.ponfee.disjob.supervisor.application.response.SchedInstanceResponse;
 import cn.ponfee.disjob.supervisor.application.response.SchedJobResponse;
 import cn.ponfee.disjob.supervisor.application.response.SchedTaskResponse;
+import cn.ponfee.disjob.supervisor.base.OperationEventType;
 import cn.ponfee.disjob.supervisor.component.JobManager;
 import cn.ponfee.disjob.supervisor.component.JobQuerier;
+import cn.ponfee.disjob.supervisor.component.TriggeringJobIndex;
 import cn.ponfee.disjob.supervisor.model.SchedInstance;
 import cn.ponfee.disjob.supervisor.model.SchedJob;
 import cn.ponfee.disjob.supervisor.model.SchedTask;
@@ -56,28 +58,36 @@ public class SchedJobService extends SingletonClassConstraint {
 
     private final JobManager jobManager;
     private final JobQuerier jobQuerier;
+    private final TriggeringJobIndex triggeringJobIndex;
+    private final ServerInvokeService serverInvokeService;
 
     // ------------------------------------------------------------------job
 
     public Long addJob(String user, SchedJobAddRequest req) throws JobException {
         log.info("Adding job by {}: {}", user, req);
-        return jobManager.addJob(req.tosSchedJob(user));
+        Long jobId = jobManager.addJob(req.tosSchedJob(user));
+        publishJobChanged(jobId);
+        return jobId;
     }
 
     public void updateJob(String user, SchedJobUpdateRequest req) throws JobException {
         log.info("Updating job by {}: {}", user, req);
-        jobManager.updateJob(req.tosSchedJob(user));
+        SchedJob job = req.tosSchedJob(user);
+        jobManager.updateJob(job);
+        publishJobChanged(job.getJobId());
     }
 
     public void deleteJob(String user, long jobId) {
         log.info("Deleting job by {}: {}", user, jobId);
         jobManager.deleteJob(user, jobId);
+        publishJobChanged(jobId);
     }
 
     public void changeJobStatus(String user, long jobId, int toJobStatus) {
         JobStatus toStatus = JobStatus.of(toJobStatus);
         log.info("Changing job status by {}: {}, {}", user, jobId, toStatus);
         jobManager.changeJobStatus(user, jobId, toStatus);
+        publishJobChanged(jobId);
     }
 
     public void manualTriggerJob(String user, long jobId) throws JobException {
@@ -160,4 +170,13 @@ public class SchedJobService extends SingletonClassConstraint {
         return jobQuerier.listInstanceChildren(pnstanceId);
     }
 
+    // ------------------------------------------------------------------private methods
+
+    private void publishJobChanged(Long jobId) {
+        if (jobId != null && triggeringJobIndex.isEnabled()) {
+            // 当前supervisor的索引已在JobManager中同步，通知其它supervisor只刷新变更的job
+            serverInvokeService.publishOperationEvent(OperationEventType.REFRESH_TRIGGERING_JOB, jobId.toString(), false);
+        }
+    }
+
 }
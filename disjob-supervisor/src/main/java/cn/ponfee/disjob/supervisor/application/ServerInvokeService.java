@@ -20,6 +20,7 @@ import cn.ponfee.disjob.common.base.RetryTemplate;
 import cn.ponfee.disjob.common.base.SingletonClassConstraint;
 import cn.ponfee.disjob.common.collect.Collects;
 import cn.ponfee.disjob.common.concurrent.MultithreadExecutors;
+import cn.ponfee.disjob.common.concurrent.ScatterGather;
 import cn.ponfee.disjob.common.concurrent.ThreadPoolExecutors;
 import cn.ponfee.disjob.common.util.Numbers;
 import cn.ponfee.disjob.core.base.JobConstants;
@@ -68,6 +69,10 @@ import static cn.ponfee.disjob.common.base.Symbol.Str.COLON;
 @Service
 public class ServerInvokeService extends SingletonClassConstraint {
 
+    private static final long METRICS_CALL_TIMEOUT_MS = 3000;
+    private static final long METRICS_DEADLINE_MS = 5000;
+
+    private final ScatterGather metricsScatterGather = new ScatterGather(ScatterGather.DEFAULT_MAX_CONCURRENCY_PER_DESTINATION);
     private final WorkerClient workerClient;
     private final Registry<Supervisor> supervisorRegistry;
     private final Supervisor.Local localSupervisor;
@@ -95,14 +100,20 @@ public class ServerInvokeService extends SingletonClassConstraint {
     public List<SupervisorMetricsResponse> supervisors() {
         List<Supervisor> list = supervisorRegistry.getRegisteredServers();
         list = Collects.sorted(list, Comparator.comparing(e -> localSupervisor.equals(e) ? 0 : 1));
-        return MultithreadExecutors.call(list, this::getSupervisorMetrics, ThreadPoolExecutors.commonThreadPool());
+        return metricsScatterGather.call(list, this::getSupervisorMetrics, (e, t) -> {
+            log.warn("Gets supervisor metrics failed: {}, {}", e, t.toString());
+            return toSupervisorMetricsResponse(e, null, null);
+        }, METRICS_CALL_TIMEOUT_MS, METRICS_DEADLINE_MS);
     }
 
     public List<WorkerMetricsResponse> workers(String group) {
         List<Worker> list = workerClient.getAliveWorkers(group);
         // 当前Supervisor同时也是Worker时，此Worker排到最前面
         list = Collects.sorted(list, Comparator.comparing(e -> e.equals(Worker.local()) ? 0 : 1));
-        return MultithreadExecutors.call(list, this::getWorkerMetrics, ThreadPoolExecutors.commonThreadPool());
+        return metricsScatterGather.call(list, this::getWorkerMetrics, (e, t) -> {
+            log.warn("Gets worker metrics failed: {}, {}", e, t.toString());
+            return toWorkerMetricsResponse(e, null, null);
+        }, METRICS_CALL_TIMEOUT_MS, METRICS_DEADLINE_MS);
     }
 
     public WorkerMetricsResponse worker(String group, String worker) {
@@ -168,7 +179,10 @@ public class ServerInvokeService extends SingletonClassConstraint {
         } catch (Throwable t) {
             log.warn("Gets supervisor metrics occur error: {}, {}", supervisor, t.getMessage());
         }
+        return toSupervisorMetricsResponse(supervisor, metrics, responseTime);
+    }
 
+    private SupervisorMetricsResponse toSupervisorMetricsResponse(Supervisor supervisor, SupervisorMetrics metrics, Long responseTime) {
         SupervisorMetricsResponse response;
         if (metrics == null) {
             response = new SupervisorMetricsResponse();
@@ -192,7 +206,10 @@ public class ServerInvokeService extends SingletonClassConstraint {
         } catch (Throwable t) {
             log.warn("Gets worker metrics occur error: {}, {}", worker, t.getMessage());
         }
+        return toWorkerMetricsResponse(worker, metrics, responseTime);
+    }
 
+    private WorkerMetricsResponse toWorkerMetricsResponse(Worker worker, WorkerMetrics metrics, Long responseTime) {
         WorkerMetricsResponse response;
         if (metrics == null || !Supervisor.local().verifyWorkerSignatureToken(worker.getGroup(), metrics.getSignature())) {
             response = new WorkerMetricsResponse();
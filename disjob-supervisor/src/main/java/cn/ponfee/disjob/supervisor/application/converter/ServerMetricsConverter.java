@@ -37,6 +37,10 @@ public interface ServerMetricsConverter {
     SupervisorMetricsResponse convert(SupervisorMetrics source);
 
     @Mapping(target = ".", source = "workerThreadPoolMetrics")
+    @Mapping(target = "httpPoolMax", source = "httpPoolMetrics.max")
+    @Mapping(target = "httpPoolLeased", source = "httpPoolMetrics.leased")
+    @Mapping(target = "httpPoolPending", source = "httpPoolMetrics.pending")
+    @Mapping(target = "httpPoolAvailable", source = "httpPoolMetrics.available")
     WorkerMetricsResponse convert(WorkerMetrics source);
 
 }
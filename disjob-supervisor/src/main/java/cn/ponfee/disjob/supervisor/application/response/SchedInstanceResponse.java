@@ -64,6 +64,15 @@ public class SchedInstanceResponse extends ToJsonString implements Serializable
     private Integer retryTimes;
     private String workflowCurNode;
 
+    /**
+     * 各状态的任务数量(为空表示未维护计数)，用于展示执行进度
+     */
+    private Integer waitingTaskCount;
+    private Integer executingTaskCount;
+    private Integer pausedTaskCount;
+    private Integer completedTaskCount;
+    private Integer failedTaskCount;
+
     /**
      * 是否有子节点：0-无；1-有；
      */
@@ -33,6 +33,7 @@ public class WorkerMetricsResponse extends ServerMetricsResponse {
 
     private Boolean alsoSupervisor;
     private Integer jvmThreadActiveCount;
+    private Integer timingWheelTaskCount;
     private Boolean closed;
     private Long keepAliveTime;
     private Integer maximumPoolSize;
@@ -41,5 +42,9 @@ public class WorkerMetricsResponse extends ServerMetricsResponse {
     private Integer idlePoolSize;
     private Long queueTaskCount;
     private Long completedTaskCount;
+    private Integer httpPoolMax;
+    private Integer httpPoolLeased;
+    private Integer httpPoolPending;
+    private Integer httpPoolAvailable;
 
 }
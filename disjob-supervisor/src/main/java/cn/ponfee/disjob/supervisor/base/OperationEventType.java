@@ -16,6 +16,14 @@
 
 package cn.ponfee.disjob.supervisor.base;
 
+import cn.ponfee.disjob.common.util.Numbers;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
 /**
  * Operation event type
  *
@@ -33,8 +41,56 @@ public enum OperationEventType {
         }
     },
 
+    /**
+     * Reload triggering job index
+     */
+    RELOAD_TRIGGERING_JOB_INDEX {
+        @Override
+        public <T> T parse(String data) {
+            throw new UnsupportedOperationException("Reload triggering job index not support argument.");
+        }
+    },
+
+    /**
+     * Refresh the changed jobs of triggering job index, event data is comma separated job ids
+     */
+    REFRESH_TRIGGERING_JOB {
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T> T parse(String data) {
+            if (StringUtils.isBlank(data)) {
+                return (T) Collections.<Long>emptyList();
+            }
+            return (T) Arrays.stream(data.split(","))
+                .filter(StringUtils::isNotBlank)
+                .map(e -> Numbers.toWrapLong(e.trim()))
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        }
+
+        @Override
+        public String merge(String oldData, String newData) {
+            if (StringUtils.isBlank(oldData)) {
+                return newData;
+            }
+            return StringUtils.isBlank(newData) ? oldData : oldData + "," + newData;
+        }
+    },
+
     ;
 
     public abstract <T> T parse(String data);
 
+    /**
+     * Merge the event data when the previous same type event not yet processed.
+     *
+     * @param oldData the previous event data
+     * @param newData the new event data
+     * @return merged event data
+     */
+    public String merge(String oldData, String newData) {
+        return newData;
+    }
+
 }
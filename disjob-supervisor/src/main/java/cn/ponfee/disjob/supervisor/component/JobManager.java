@@ -57,7 +57,6 @@ import com.google.common.base.Joiner;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
@@ -67,9 +66,7 @@ import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
 
 import java.util.*;
-import java.util.function.Consumer;
-import java.util.function.LongFunction;
-import java.util.function.Predicate;
+import java.util.function.*;
 import java.util.stream.Collectors;
 
 import static cn.ponfee.disjob.common.spring.TransactionUtils.*;
@@ -95,7 +92,6 @@ public class JobManager {
     private static final List<Integer> RS_RUNNING    = of(RunStatus.RUNNING.value());
     private static final List<Integer> RS_PAUSED     = of(RunStatus.PAUSED.value());
     private static final List<Integer> ES_EXECUTABLE = of(ExecuteStatus.WAITING.value(), ExecuteStatus.PAUSED.value());
-    private static final List<Integer> ES_PAUSABLE   = of(ExecuteStatus.WAITING.value(), ExecuteStatus.EXECUTING.value());
     private static final List<Integer> ES_WAITING    = of(ExecuteStatus.WAITING.value());
     private static final List<Integer> ES_EXECUTING  = of(ExecuteStatus.EXECUTING.value());
     private static final List<Integer> ES_PAUSED     = of(ExecuteStatus.PAUSED.value());
@@ -110,6 +106,7 @@ public class JobManager {
     private final SchedTaskMapper taskMapper;
     private final WorkerClient workerClient;
     private final TaskDispatcher taskDispatcher;
+    private final TriggeringJobIndex triggeringJobIndex;
     private final ApplicationEventPublisher eventPublisher;
     private final TransactionTemplate transactionTemplate;
 
@@ -122,6 +119,7 @@ public class JobManager {
                       SchedTaskMapper taskMapper,
                       WorkerClient workerClient,
                       TaskDispatcher taskDispatcher,
+                      TriggeringJobIndex triggeringJobIndex,
                       ApplicationEventPublisher eventPublisher,
                       @Qualifier(SPRING_BEAN_NAME_TX_TEMPLATE) TransactionTemplate txTemplate) {
         conf.check();
@@ -134,6 +132,7 @@ public class JobManager {
         this.taskMapper = taskMapper;
         this.workerClient = workerClient;
         this.taskDispatcher = taskDispatcher;
+        this.triggeringJobIndex = triggeringJobIndex;
         this.eventPublisher = eventPublisher;
         this.transactionTemplate = txTemplate;
     }
@@ -155,15 +154,25 @@ public class JobManager {
     // ------------------------------------------------------------------database single operation without spring transactional
 
     public boolean disableJob(SchedJob job) {
-        return isOneAffectedRow(jobMapper.disable(job));
+        boolean updated = isOneAffectedRow(jobMapper.disable(job));
+        if (updated) {
+            triggeringJobIndex.remove(job.getJobId());
+        }
+        return updated;
     }
 
     public boolean updateJobNextTriggerTime(SchedJob job) {
-        return isOneAffectedRow(jobMapper.updateNextTriggerTime(job));
+        boolean updated = isOneAffectedRow(jobMapper.updateNextTriggerTime(job));
+        if (updated) {
+            triggeringJobIndex.put(job);
+        }
+        return updated;
     }
 
     public void updateJobNextScanTime(SchedJob job) {
-        jobMapper.updateNextScanTime(job);
+        if (isOneAffectedRow(jobMapper.updateNextScanTime(job))) {
+            triggeringJobIndex.put(job);
+        }
     }
 
     public boolean updateInstanceNextScanTime(SchedInstance inst, Date nextScanTime) {
@@ -189,6 +198,7 @@ public class JobManager {
         parseTriggerConfig(job);
 
         jobMapper.insert(job);
+        doAfterTransactionCommit(() -> triggeringJobIndex.put(job));
         return job.getJobId();
     }
 
@@ -212,6 +222,7 @@ public class JobManager {
         }
 
         assertOneAffectedRow(jobMapper.update(job), "Update sched job fail or conflict.");
+        doAfterTransactionCommit(() -> triggeringJobIndex.refresh(job.getJobId()));
     }
 
     @Transactional(transactionManager = SPRING_BEAN_NAME_TX_MANAGER, rollbackFor = Exception.class)
@@ -222,6 +233,7 @@ public class JobManager {
         assertOneAffectedRow(jobMapper.softDelete(jobId, user), "Delete sched job fail or conflict.");
         dependMapper.deleteByParentJobId(jobId);
         dependMapper.deleteByChildJobId(jobId);
+        doAfterTransactionCommit(() -> triggeringJobIndex.remove(jobId));
     }
 
     @Transactional(transactionManager = SPRING_BEAN_NAME_TX_MANAGER, rollbackFor = Exception.class)
@@ -237,6 +249,7 @@ public class JobManager {
                 assertOneAffectedRow(jobMapper.updateNextTriggerTime(job), () -> "Update next trigger time failed: " + job);
             }
         }
+        doAfterTransactionCommit(() -> triggeringJobIndex.refresh(jobId));
     }
 
     @Transactional(transactionManager = SPRING_BEAN_NAME_TX_MANAGER, rollbackFor = Exception.class)
@@ -248,6 +261,7 @@ public class JobManager {
     public void scheduleTriggerJob(SchedJob job, long triggerTime) throws JobException {
         if (isOneAffectedRow(jobMapper.updateNextTriggerTime(job))) {
             triggerJob(job, RunType.SCHEDULE, triggerTime);
+            doAfterTransactionCommit(() -> triggeringJobIndex.put(job));
             if (job.isDisabled()) {
                 log.warn("Disabled sched job: {}, {}", job.getJobId(), "trigger job success");
             }
@@ -256,6 +270,39 @@ public class JobManager {
         }
     }
 
+    /**
+     * Batch schedule trigger jobs within one transaction.
+     * <p>如果有job更新冲突或出现DuplicateKeyException，则整批回滚，由调用方降级为逐个job触发
+     *
+     * @param jobs the list of tuple2[job, triggerTime]
+     * @throws JobException if split task occur JobException
+     */
+    @Transactional(transactionManager = SPRING_BEAN_NAME_TX_MANAGER, rollbackFor = Exception.class)
+    public void scheduleTriggerJobs(List<Tuple2<SchedJob, Long>> jobs) throws JobException {
+        List<SchedJob> list = Collects.convert(jobs, e -> e.a);
+        int affectedRows = jobMapper.updateNextTriggerTimeBatch(list);
+        Assert.state(affectedRows == list.size(), () -> "Batch update next trigger time conflict: " + affectedRows + ", " + list.size());
+
+        List<TriggerInstance> triggerInstances = new ArrayList<>(jobs.size());
+        List<SchedInstance> instances = new ArrayList<>();
+        List<SchedWorkflow> workflows = new ArrayList<>();
+        List<SchedTask> tasks = new ArrayList<>();
+        for (Tuple2<SchedJob, Long> e : jobs) {
+            TriggerInstance ti = TriggerInstance.of(this, e.a, null, RunType.SCHEDULE, e.b);
+            ti.save((is, ws, ts) -> {
+                instances.addAll(is);
+                Optional.ofNullable(ws).ifPresent(workflows::addAll);
+                tasks.addAll(ts);
+            });
+            triggerInstances.add(ti);
+        }
+        saveInstances(instances, workflows, tasks);
+
+        triggerInstances.forEach(ti -> ti.dispatch((job, instance, ts) -> dispatch(false, job, instance, ts)));
+        list.stream().filter(SchedJob::isDisabled).forEach(e -> log.warn("Disabled sched job: {}, {}", e.getJobId(), "trigger job success"));
+        doAfterTransactionCommit(() -> list.forEach(triggeringJobIndex::put));
+    }
+
     /**
      * Set or clear task worker
      *
@@ -285,7 +332,7 @@ public class JobManager {
             if (!shouldTerminateDispatchFailedTask(taskId)) {
                 return;
             }
-            if (!taskMapper.terminate(taskId, null, ExecuteStatus.DISPATCH_FAILED, ExecuteStatus.WAITING, null, null)) {
+            if (!terminateTask(event.getInstanceId(), taskId, null, ExecuteStatus.DISPATCH_FAILED, ExecuteStatus.WAITING, null, null)) {
                 log.warn("Terminate dispatch failed task unsuccessful: {}", taskId);
             }
         });
@@ -299,93 +346,97 @@ public class JobManager {
      */
     public StartTaskResult startTask(StartTaskParam param) {
         param.check();
-        return doInSynchronizedTransaction0(param.getInstanceId(), param.getWnstanceId(), lockInstanceId -> {
-            String startIdempotencyKey = param.getStartIdempotencyKey();
-            log.info("Task trace [{}] starting: {}, {}", param.getTaskId(), param.getWorker(), startIdempotencyKey);
-            Date now = new Date();
-            // 如果先`get`查一次然后`start`，最后再`get`查会返回之前get时的一级缓存
-            if (isNoAffectedRow(taskMapper.start(param.getTaskId(), param.getWorker(), startIdempotencyKey, now))) {
-                if (!taskMapper.checkStartIdempotent(param.getTaskId(), param.getWorker(), startIdempotencyKey)) {
-                    return StartTaskResult.failure("Start task failure.");
+        return doInSynchronizedTransaction0(param.getInstanceId(), param.getWnstanceId(), lockInstanceId -> startTask0(param));
+    }
+
+    /**
+     * Batch starts the tasks, the tasks of same instance are started in one locked transaction.
+     * <p>If the transaction failed, then fallback to start the tasks one by one.
+     *
+     * @param params the start task params
+     * @return start results, corresponding to the params one by one
+     */
+    public List<StartTaskResult> startTasks(List<StartTaskParam> params) {
+        params.forEach(StartTaskParam::check);
+        StartTaskResult[] results = new StartTaskResult[params.size()];
+        groupByLockInstanceId(params, StartTaskParam::getInstanceId, StartTaskParam::getWnstanceId).forEach((lockInstanceId, indexes) -> {
+            StartTaskParam first = params.get(indexes.get(0));
+            try {
+                doInSynchronizedTransaction0(first.getInstanceId(), first.getWnstanceId(), lock -> {
+                    indexes.forEach(i -> results[i] = startTask0(params.get(i)));
+                    return null;
+                });
+            } catch (Throwable t) {
+                log.warn("Batch start tasks failed, fallback one by one: {}, {}", lockInstanceId, t.getMessage());
+                for (int i : indexes) {
+                    try {
+                        results[i] = startTask(params.get(i));
+                    } catch (Throwable e) {
+                        log.error("Start task error: {}", params.get(i), e);
+                        results[i] = StartTaskResult.failure("Start task error: " + e.getMessage());
+                    }
                 }
-                log.info("Start task idempotent: {}, {}, {}", param.getTaskId(), param.getWorker(), startIdempotencyKey);
-            }
-            if (isNoAffectedRow(instanceMapper.start(param.getInstanceId(), now))) {
-                SchedInstance instance = instanceMapper.get(param.getInstanceId());
-                Assert.state(instance != null && instance.isRunning(), () -> "Start instance failure: " + instance);
             }
-            return ModelConverter.toStartTaskResult(taskMapper.get(param.getTaskId()));
         });
+        return Arrays.asList(results);
     }
 
     /**
      * Stops the task
+     * <p>If the non-workflow instance has other active task, the trigger stop only use conditional update without instance lock.
      *
      * @param param the stop task param
      * @return {@code true} if stopped task successful
      */
     public boolean stopTask(StopTaskParam param) {
         param.check();
-        Operation ops = param.getOperation();
-        log.info("Task trace [{}] stopping: {}, {}, {}", param.getTaskId(), ops, param.getToStatus(), param.getWorker());
-        return doInSynchronizedTransaction(param.getInstanceId(), param.getWnstanceId(), instance -> {
-            Assert.isTrue(!instance.isWorkflowLead(), () -> "Stop task instance cannot be workflow lead: " + instance);
-            if (instance.isTerminal()) {
-                return false;
-            }
-            ExecuteStatus toStatus = param.getToStatus();
-            Date executeEndTime = toStatus.isTerminal() ? new Date() : null;
-            String errMsg = param.getErrorMsg();
-            if (!taskMapper.terminate(param.getTaskId(), param.getWorker(), toStatus, ExecuteStatus.EXECUTING, executeEndTime, errMsg)) {
-                // usual is worker invoke http timeout, then retry
-                log.warn("Conflict stop executing task: {}, {}", param.getTaskId(), toStatus);
-                return false;
-            }
+        Boolean stopped = stopTaskOptimistic(param);
+        if (stopped != null) {
+            return stopped;
+        }
+        return doInSynchronizedTransaction(param.getInstanceId(), param.getWnstanceId(), instance -> stopTask0(instance, param));
+    }
 
-            List<SchedTask> tasks = taskMapper.findBaseByInstanceId(param.getInstanceId());
-            if (toStatus == ExecuteStatus.WAITING) {
-                Assert.isTrue(ops == Operation.SHUTDOWN_RESUME, () -> "Operation must be SHUTDOWN_RESUME, but actual: " + ops);
-                if (tasks.stream().allMatch(SchedTask::isWaiting)) {
-                    boolean updated = instanceMapper.updateStatus(param.getInstanceId(), RunStatus.WAITING, RunStatus.RUNNING);
-                    Assert.isTrue(updated, () -> "Shutdown resume instance status to WAITING failed: " + param.getInstanceId());
-                }
-                Date nextScanTime = new Date(System.currentTimeMillis() + conf.getShutdownTaskDelayResumeMs());
-                if (isNoAffectedRow(instanceMapper.updateNextScanTime(instance.getInstanceId(), nextScanTime, instance.getVersion()))) {
-                    log.warn("Resume task renew instance update time failed: {}", param.getTaskId());
+    /**
+     * Batch stops the tasks, the tasks of same instance are stopped in one locked transaction.
+     * <p>If the transaction failed, then fallback to stop the tasks one by one.
+     *
+     * @param params the stop task params
+     * @return stop results, corresponding to the params one by one
+     */
+    public boolean[] stopTasks(List<StopTaskParam> params) {
+        params.forEach(StopTaskParam::check);
+        boolean[] results = new boolean[params.size()];
+        groupByLockInstanceId(params, StopTaskParam::getInstanceId, StopTaskParam::getWnstanceId).forEach((lockInstanceId, indexes) -> {
+            StopTaskParam first = params.get(indexes.get(0));
+            try {
+                doInSynchronizedTransaction0(first.getInstanceId(), first.getWnstanceId(), lock -> {
+                    Assert.notNull(instanceMapper.lock(lock), () -> "Locked instance not found: " + lock);
+                    for (int i : indexes) {
+                        StopTaskParam param = params.get(i);
+                        // reload instance, it maybe changed by the previous stop task
+                        SchedInstance instance = instanceMapper.get(param.getInstanceId());
+                        Assert.notNull(instance, () -> "Instance not found: " + param.getInstanceId());
+                        if (!Objects.equals(instance.getWnstanceId(), param.getWnstanceId())) {
+                            throw new IllegalStateException("Inconsistent workflow instance id: " + param.getWnstanceId() + ", " + instance);
+                        }
+                        results[i] = stopTask0(instance, param);
+                    }
+                    return null;
+                });
+            } catch (Throwable t) {
+                log.warn("Batch stop tasks failed, fallback one by one: {}, {}", lockInstanceId, t.getMessage());
+                for (int i : indexes) {
+                    try {
+                        results[i] = stopTask(params.get(i));
+                    } catch (Throwable e) {
+                        log.error("Stop task error: {}", params.get(i), e);
+                        results[i] = false;
+                    }
                 }
-                return true;
-            }
-
-            Tuple2<RunStatus, Date> tuple = obtainRunStatus(tasks);
-            if (tuple == null) {
-                // If the instance has (WAITING or EXECUTING) task
-                return true;
-            }
-
-            if (!tuple.a.isTerminal()) {
-                Assert.isTrue(tuple.a == RunStatus.PAUSED, () -> "Run status must be PAUSED, but actual: " + tuple.a);
-                pauseInstance(instance.isWorkflow() ? instanceMapper.get(instance.getWnstanceId()) : instance);
-                return true;
-            }
-
-            boolean updated = instanceMapper.terminate(param.getInstanceId(), tuple.a, RS_TERMINABLE, tuple.b);
-            Assert.state(updated, () -> "Stop task instance failed: " + param.getInstanceId() + ", " + tuple.a);
-            // the last executing task of this sched instance
-            instance.markTerminated(tuple.a, tuple.b);
-            if (ops.isTrigger()) {
-                // trigger operation
-                processTerminatedInstance(instance);
-            } else if (instance.isWorkflowNode()) {
-                Assert.isTrue(tuple.a == RunStatus.CANCELED, () -> "Invalid workflow non-trigger stop status: " + tuple.a);
-                updateWorkflowNodeStatus(instance, tuple.a, RS_TERMINABLE);
-                updateWorkflowLeadStatus(instanceMapper.get(instance.getWnstanceId()), tuple.a, RS_RUNNABLE);
-            } else {
-                Assert.isTrue(tuple.a == RunStatus.CANCELED, () -> "Invalid general non-trigger stop status: " + tuple.a);
-                afterTerminatedInstance(instance);
             }
-
-            return true;
         });
+        return results;
     }
 
     /**
@@ -406,6 +457,7 @@ public class JobManager {
             boolean updated = instanceMapper.updateStatus(instanceId, toRunStatus, fromRunStatus);
             Assert.state(updated, () -> "Force change status failed: " + instanceId);
             int changedTaskRows = taskMapper.forceChangeStatus(instanceId, toExecuteStatus.value());
+            refreshTaskCounts(instanceId);
             if (toExecuteStatus == ExecuteStatus.WAITING) {
                 Tuple3<SchedJob, SchedInstance, List<SchedTask>> tuple = buildDispatchParam(instanceId, changedTaskRows);
                 dispatch(false, tuple.a, tuple.b, tuple.c);
@@ -475,6 +527,7 @@ public class JobManager {
                 ExecuteStatus fromStatus = ExecuteStatus.of(e.getExecuteStatus());
                 taskMapper.terminate(e.getTaskId(), worker, ExecuteStatus.EXECUTE_ABORTED, fromStatus, new Date(), null);
             });
+            refreshTaskCounts(instanceId);
 
             instance.markTerminated(tuple.a, tuple.b);
             processTerminatedInstance(instance);
@@ -526,8 +579,184 @@ public class JobManager {
 
     // ------------------------------------------------------------------private methods
 
+    private StartTaskResult startTask0(StartTaskParam param) {
+        String startIdempotencyKey = param.getStartIdempotencyKey();
+        log.info("Task trace [{}] starting: {}, {}", param.getTaskId(), param.getWorker(), startIdempotencyKey);
+        Date now = new Date();
+        // 如果先`get`查一次然后`start`，最后再`get`查会返回之前get时的一级缓存
+        if (isNoAffectedRow(taskMapper.start(param.getTaskId(), param.getWorker(), startIdempotencyKey, now))) {
+            if (!taskMapper.checkStartIdempotent(param.getTaskId(), param.getWorker(), startIdempotencyKey)) {
+                return StartTaskResult.failure("Start task failure.");
+            }
+            log.info("Start task idempotent: {}, {}, {}", param.getTaskId(), param.getWorker(), startIdempotencyKey);
+        } else {
+            instanceMapper.transferTaskCount(param.getInstanceId(), ExecuteStatus.WAITING, ExecuteStatus.EXECUTING, false);
+        }
+        if (isNoAffectedRow(instanceMapper.start(param.getInstanceId(), now))) {
+            SchedInstance instance = instanceMapper.get(param.getInstanceId());
+            Assert.state(instance != null && instance.isRunning(), () -> "Start instance failure: " + instance);
+        }
+        return ModelConverter.toStartTaskResult(taskMapper.get(param.getTaskId()));
+    }
+
+    private boolean stopTask0(SchedInstance instance, StopTaskParam param) {
+        Operation ops = param.getOperation();
+        log.info("Task trace [{}] stopping: {}, {}, {}", param.getTaskId(), ops, param.getToStatus(), param.getWorker());
+        Assert.isTrue(!instance.isWorkflowLead(), () -> "Stop task instance cannot be workflow lead: " + instance);
+        if (instance.isTerminal()) {
+            return false;
+        }
+        ExecuteStatus toStatus = param.getToStatus();
+        Date executeEndTime = toStatus.isTerminal() ? new Date() : null;
+        String errMsg = param.getErrorMsg();
+        if (!taskMapper.terminate(param.getTaskId(), param.getWorker(), toStatus, ExecuteStatus.EXECUTING, executeEndTime, errMsg)) {
+            // usual is worker invoke http timeout, then retry
+            log.warn("Conflict stop executing task: {}, {}", param.getTaskId(), toStatus);
+            return false;
+        }
+        if (ops.isTrigger() && toStatus.isTerminal()
+            && instanceMapper.transferTaskCount(param.getInstanceId(), ExecuteStatus.EXECUTING, toStatus, true)) {
+            // the instance has other active task, the run status not changed
+            return true;
+        }
+
+        instanceMapper.transferTaskCount(param.getInstanceId(), ExecuteStatus.EXECUTING, toStatus, false);
+        SchedInstance counts = getTaskCounts(param.getInstanceId());
+        if (toStatus == ExecuteStatus.WAITING) {
+            Assert.isTrue(ops == Operation.SHUTDOWN_RESUME, () -> "Operation must be SHUTDOWN_RESUME, but actual: " + ops);
+            if (counts.getWaitingTaskCount() == counts.obtainTotalTaskCount()) {
+                boolean updated = instanceMapper.updateStatus(param.getInstanceId(), RunStatus.WAITING, RunStatus.RUNNING);
+                Assert.isTrue(updated, () -> "Shutdown resume instance status to WAITING failed: " + param.getInstanceId());
+            }
+            Date nextScanTime = new Date(System.currentTimeMillis() + conf.getShutdownTaskDelayResumeMs());
+            if (isNoAffectedRow(instanceMapper.updateNextScanTime(instance.getInstanceId(), nextScanTime, instance.getVersion()))) {
+                log.warn("Resume task renew instance update time failed: {}", param.getTaskId());
+            }
+            return true;
+        }
+
+        if (obtainRunStatus(counts, executeEndTime) == null) {
+            // If the instance has (WAITING or EXECUTING) task
+            return true;
+        }
+        // 计数器可能漂移：变更实例状态前使用任务记录重新计数校正(仅在实例最后一个活跃任务停止时执行)
+        counts.resetTaskCounts(refreshTaskCounts(param.getInstanceId()));
+        Tuple2<RunStatus, Date> tuple = obtainRunStatus(counts, executeEndTime);
+        if (tuple == null) {
+            log.warn("Instance task counters drifted, has active task: {}", param.getInstanceId());
+            return true;
+        }
+
+        if (!tuple.a.isTerminal()) {
+            Assert.isTrue(tuple.a == RunStatus.PAUSED, () -> "Run status must be PAUSED, but actual: " + tuple.a);
+            pauseInstance(instance.isWorkflow() ? instanceMapper.get(instance.getWnstanceId()) : instance);
+            return true;
+        }
+
+        boolean updated = instanceMapper.terminate(param.getInstanceId(), tuple.a, RS_TERMINABLE, tuple.b);
+        Assert.state(updated, () -> "Stop task instance failed: " + param.getInstanceId() + ", " + tuple.a);
+        // the last executing task of this sched instance
+        instance.markTerminated(tuple.a, tuple.b);
+        if (ops.isTrigger()) {
+            // trigger operation
+            processTerminatedInstance(instance);
+        } else if (instance.isWorkflowNode()) {
+            Assert.isTrue(tuple.a == RunStatus.CANCELED, () -> "Invalid workflow non-trigger stop status: " + tuple.a);
+            updateWorkflowNodeStatus(instance, tuple.a, RS_TERMINABLE);
+            updateWorkflowLeadStatus(instanceMapper.get(instance.getWnstanceId()), tuple.a, RS_RUNNABLE);
+        } else {
+            Assert.isTrue(tuple.a == RunStatus.CANCELED, () -> "Invalid general non-trigger stop status: " + tuple.a);
+            afterTerminatedInstance(instance);
+        }
+
+        return true;
+    }
+
+    /**
+     * Optimistic stop the task: without jvm lock and instance `SELECT FOR UPDATE`.
+     * <p>The instance counter update is executed before the task update, which is same lock order as the locked path.
+     * If the stopping task is the last active task of the instance, the counter update will not be affected,
+     * then returns null and should fallback to the locked path for process the instance run status.
+     * <p>Workflow node always stopped in locked path: the workflow operations lock the lead instance row and read
+     * the node rows with consistent read, which may not see the node counters updated without the lead lock.
+     *
+     * @param param the stop task param
+     * @return {@code null} if the task must be stopped in locked path
+     */
+    private Boolean stopTaskOptimistic(StopTaskParam param) {
+        ExecuteStatus toStatus = param.getToStatus();
+        if (param.getWnstanceId() != null || !param.getOperation().isTrigger() || !toStatus.isTerminal()) {
+            return null;
+        }
+        long instanceId = param.getInstanceId();
+        return transactionTemplate.execute(status -> {
+            if (!instanceMapper.transferTaskCount(instanceId, ExecuteStatus.EXECUTING, toStatus, true)) {
+                return null;
+            }
+            log.info("Task trace [{}] optimistic stopping: {}, {}", param.getTaskId(), toStatus, param.getWorker());
+            String errMsg = param.getErrorMsg();
+            if (taskMapper.terminate(param.getTaskId(), param.getWorker(), toStatus, ExecuteStatus.EXECUTING, new Date(), errMsg)) {
+                return true;
+            }
+            // rollback the counter update
+            status.setRollbackOnly();
+            log.warn("Conflict optimistic stop executing task: {}, {}", param.getTaskId(), toStatus);
+            return false;
+        });
+    }
+
+    private boolean terminateTask(long instanceId, long taskId, String worker, ExecuteStatus toStatus,
+                                  ExecuteStatus fromStatus, Date executeEndTime, String errorMsg) {
+        if (!taskMapper.terminate(taskId, worker, toStatus, fromStatus, executeEndTime, errorMsg)) {
+            return false;
+        }
+        instanceMapper.transferTaskCount(instanceId, fromStatus, toStatus, false);
+        return true;
+    }
+
+    /**
+     * Gets the instance with task counters, recount if the counters not maintained or drifted.
+     *
+     * @param instanceId the instance id
+     * @return the instance with task counters
+     */
+    private SchedInstance getTaskCounts(long instanceId) {
+        SchedInstance instance = instanceMapper.get(instanceId);
+        if (!instance.hasTaskCounts()) {
+            log.info("Recount instance task counters: {}", instanceId);
+            instance.resetTaskCounts(refreshTaskCounts(instanceId));
+        }
+        return instance;
+    }
+
+    private List<SchedTask> refreshTaskCounts(long instanceId) {
+        List<SchedTask> tasks = taskMapper.findBaseByInstanceId(instanceId);
+        SchedInstance counts = new SchedInstance();
+        counts.setInstanceId(instanceId);
+        counts.resetTaskCounts(tasks);
+        instanceMapper.updateTaskCounts(counts);
+        return tasks;
+    }
+
+    private static <T> Map<Long, List<Integer>> groupByLockInstanceId(List<T> params,
+                                                                      ToLongFunction<T> instanceIdMapper,
+                                                                      Function<T, Long> wnstanceIdMapper) {
+        Map<Long, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0, n = params.size(); i < n; i++) {
+            T param = params.get(i);
+            Long wnstanceId = wnstanceIdMapper.apply(param);
+            long lockInstanceId = (wnstanceId != null) ? wnstanceId : instanceIdMapper.applyAsLong(param);
+            groups.computeIfAbsent(lockInstanceId, k -> new ArrayList<>()).add(i);
+        }
+        return groups;
+    }
+
     private void saveInstances(List<SchedInstance> instances, List<SchedWorkflow> workflows, List<SchedTask> tasks) {
-        instances.forEach(SchedInstance::fillDedupKey);
+        Map<Long, List<SchedTask>> instanceTasks = tasks.stream().collect(Collectors.groupingBy(SchedTask::getInstanceId));
+        for (SchedInstance instance : instances) {
+            instance.fillDedupKey();
+            instance.resetTaskCounts(instanceTasks.getOrDefault(instance.getInstanceId(), Collections.emptyList()));
+        }
         Collects.batchProcess(instances, instanceMapper::insertBatch, PROCESS_BATCH_SIZE);
         Collects.batchProcess(workflows, workflowMapper::insertBatch, PROCESS_BATCH_SIZE);
         Collects.batchProcess(tasks, taskMapper::insertBatch, PROCESS_BATCH_SIZE);
@@ -609,7 +838,7 @@ public class JobManager {
                 Worker worker = task.worker();
                 if (!workerClient.isAliveWorker(worker)) {
                     // 上游调用方有些处于事务中，有些不在事务中。因为此处的update操作非必须要求原子性，所以未加Spring事务。
-                    taskMapper.terminate(task.getTaskId(), null, ExecuteStatus.BROADCAST_ABORTED, ExecuteStatus.WAITING, null, null);
+                    terminateTask(instance.getInstanceId(), task.getTaskId(), null, ExecuteStatus.BROADCAST_ABORTED, ExecuteStatus.WAITING, null, null);
                 } else {
                     list.add(builder.build(Operation.TRIGGER, task.getTaskId(), instance.getTriggerTime(), worker));
                 }
@@ -637,10 +866,12 @@ public class JobManager {
             log.error("Not found available worker for calculate workload: {}", job.getGroup());
             return Collections.emptyList();
         }
-        List<SchedTask> pausableTasks = taskMapper.findBaseByInstanceIdAndStatuses(instance.getInstanceId(), ES_PAUSABLE);
-        Map<String, Long> workerScoreMapping = pausableTasks.stream()
-            .filter(e -> StringUtils.isNotBlank(e.getWorker()))
-            .collect(Collectors.groupingBy(SchedTask::getWorker, Collectors.counting()));
+        Map<String, Long> workerScoreMapping = new HashMap<>();
+        if (!instance.hasTaskCounts() || instance.getWaitingTaskCount() + instance.getExecutingTaskCount() > 0) {
+            for (Map<String, Object> row : taskMapper.countPausableByWorker(instance.getInstanceId())) {
+                workerScoreMapping.put((String) row.get("worker"), ((Number) row.get("cnt")).longValue());
+            }
+        }
         return Collects.convert(workers, e -> Tuple2.of(e, workerScoreMapping.getOrDefault(e.serialize(), 0L)));
     }
 
@@ -682,6 +913,19 @@ public class JobManager {
         return CoreUtils.doInSynchronized(lock, () -> transactionTemplate.execute(status -> action.apply(lock)));
     }
 
+    private static Tuple2<RunStatus, Date> obtainRunStatus(SchedInstance counts, Date executeEndTime) {
+        if (counts.getWaitingTaskCount() + counts.getExecutingTaskCount() > 0) {
+            // has WAITING or EXECUTING task
+            return null;
+        }
+        if (counts.getPausedTaskCount() > 0) {
+            return Tuple2.of(RunStatus.PAUSED, null);
+        }
+        // the current stopped task is the last terminated task
+        RunStatus toStatus = counts.getFailedTaskCount() > 0 ? RunStatus.CANCELED : RunStatus.COMPLETED;
+        return Tuple2.of(toStatus, executeEndTime != null ? executeEndTime : new Date());
+    }
+
     private Tuple2<RunStatus, Date> obtainRunStatus(List<SchedTask> tasks) {
         List<ExecuteStatus> statuses = tasks.stream().map(e -> ExecuteStatus.of(e.getExecuteStatus())).collect(Collectors.toList());
         if (statuses.stream().allMatch(ExecuteStatus::isTerminal)) {
@@ -717,9 +961,10 @@ public class JobManager {
 
         // load the alive executing tasks
         List<ExecuteTaskParam> executingTasks = loadExecutingTasks(instance, ops);
+        List<SchedTask> tasks = refreshTaskCounts(instanceId);
         if (executingTasks.isEmpty()) {
             // has non executing task, update sched instance status
-            Tuple2<RunStatus, Date> tuple = obtainRunStatus(taskMapper.findBaseByInstanceId(instanceId));
+            Tuple2<RunStatus, Date> tuple = obtainRunStatus(tasks);
             // must be paused or terminated
             Assert.notNull(tuple, () -> "Pause instance failed: " + instanceId);
             boolean updated = instanceMapper.terminate(instanceId, tuple.a, RS_PAUSABLE, tuple.b);
@@ -754,9 +999,10 @@ public class JobManager {
 
         // load the alive executing tasks
         List<ExecuteTaskParam> executingTasks = loadExecutingTasks(instance, ops);
+        List<SchedTask> tasks = refreshTaskCounts(instanceId);
         if (executingTasks.isEmpty()) {
             // has non executing execute_status
-            Tuple2<RunStatus, Date> tuple = obtainRunStatus(taskMapper.findBaseByInstanceId(instanceId));
+            Tuple2<RunStatus, Date> tuple = obtainRunStatus(tasks);
             Assert.notNull(tuple, () -> "Cancel instance obtain run status failed: " + instanceId);
             // if all task paused, should update to canceled status
             if (tuple.a == RunStatus.PAUSED) {
@@ -805,6 +1051,7 @@ public class JobManager {
 
         int row = taskMapper.updateStatusByInstanceId(instanceId, ExecuteStatus.WAITING.value(), ES_PAUSED, null);
         assertHasAffectedRow(row, "Resume sched task failed.");
+        refreshTaskCounts(instanceId);
 
         // dispatch task
         Tuple3<SchedJob, SchedInstance, List<SchedTask>> param = buildDispatchParam(instanceId, row);
@@ -1012,6 +1259,9 @@ public class JobManager {
             }
             boolean updated = isOneAffectedRow(jobMapper.updateFixedNextTriggerTime(job.getJobId(), lastTriggerTime, nextTriggerTime));
             log.info("Renew fixed next trigger time: {}, {}, {}, {}", job.getJobId(), lastTriggerTime, nextTriggerTime, updated);
+            if (updated) {
+                doAfterTransactionCommit(() -> triggeringJobIndex.refresh(job.getJobId()));
+            }
         }
 
         // 3、publish alert instance event
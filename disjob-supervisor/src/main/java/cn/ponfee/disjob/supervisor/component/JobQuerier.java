@@ -16,6 +16,7 @@
 
 package cn.ponfee.disjob.supervisor.component;
 
+import cn.ponfee.disjob.common.collect.Collects;
 import cn.ponfee.disjob.common.model.PageResponse;
 import cn.ponfee.disjob.common.util.Numbers;
 import cn.ponfee.disjob.core.enums.RunStatus;
@@ -37,11 +38,11 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
 import org.springframework.stereotype.Component;
 
-import java.util.Date;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.stream.Collectors;
 
+import static cn.ponfee.disjob.core.base.JobConstants.PROCESS_BATCH_SIZE;
+
 /**
  * Job querier
  *
@@ -86,6 +87,19 @@ public class JobQuerier {
         return jobMapper.findBeTriggering(maxNextTriggerTime, size);
     }
 
+    /**
+     * Scan will be triggering sched jobs in the specified shards.
+     *
+     * @param maxNextTriggerTime the maxNextTriggerTime
+     * @param shardCount         the total shard count
+     * @param shards             the owned shard list
+     * @param size               the query data size
+     * @return will be triggering sched jobs
+     */
+    public List<SchedJob> findBeTriggeringJob(long maxNextTriggerTime, int shardCount, List<Integer> shards, int size) {
+        return jobMapper.findBeTriggeringInShards(maxNextTriggerTime, shardCount, shards, size);
+    }
+
     public List<SchedInstance> findExpireInstance(RunStatus runStatus, Date expireTime, int size) {
         return instanceMapper.findExpireStatus(runStatus.value(), expireTime, size);
     }
@@ -98,6 +112,25 @@ public class JobQuerier {
         return taskMapper.findBaseByInstanceId(instanceId);
     }
 
+    /**
+     * Finds the base tasks of the instances, query in batches of {@code PROCESS_BATCH_SIZE} instance ids
+     *
+     * @param instanceIds the instance ids
+     * @return map of instance id and tasks
+     */
+    public Map<Long, List<SchedTask>> findBaseInstanceTasks(List<Long> instanceIds) {
+        if (CollectionUtils.isEmpty(instanceIds)) {
+            return Collections.emptyMap();
+        }
+        Map<Long, List<SchedTask>> result = new HashMap<>();
+        Collects.batchProcess(instanceIds, ids -> {
+            for (SchedTask task : taskMapper.findBaseByInstanceIds(ids)) {
+                result.computeIfAbsent(task.getInstanceId(), k -> new ArrayList<>()).add(task);
+            }
+        }, PROCESS_BATCH_SIZE);
+        return result;
+    }
+
     public List<SchedTask> findLargeInstanceTasks(long instanceId) {
         return taskMapper.findLargeByInstanceId(instanceId);
     }
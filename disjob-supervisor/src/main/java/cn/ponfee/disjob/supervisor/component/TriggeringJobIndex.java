@@ -0,0 +1,285 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.supervisor.component;
+
+import cn.ponfee.disjob.common.collect.Collects;
+import cn.ponfee.disjob.supervisor.configuration.SupervisorProperties;
+import cn.ponfee.disjob.supervisor.dao.mapper.SchedJobMapper;
+import cn.ponfee.disjob.supervisor.model.SchedJob;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.LongPredicate;
+
+import static cn.ponfee.disjob.core.base.JobConstants.PROCESS_BATCH_SIZE;
+
+/**
+ * In-memory index of the enabled job next trigger time, avoid the database scan when none job will be triggering.
+ * <p>The database is still the source of truth, this index only decides whether it is necessary to scan database.
+ *
+ * @author Ponfee
+ */
+@Slf4j
+@Component
+public class TriggeringJobIndex {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final boolean enabled;
+    private final long reloadPeriodMs;
+    private final SchedJobMapper jobMapper;
+
+    /**
+     * Sorted by next trigger time
+     */
+    private final NavigableSet<Entry> sorted = new TreeSet<>();
+
+    /**
+     * Map<jobId, Entry>
+     */
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    /**
+     * 固定频率/延时类型的job，实例运行完成后才会计算next_trigger_time，而实例可能在其它supervisor完成，所以需要主动刷新
+     */
+    private final Set<Long> pending = new HashSet<>();
+
+    /**
+     * The job ids which changed during the reloading, non-null means is reloading
+     */
+    private Set<Long> changed = null;
+
+    private volatile long nextReloadTime = 0;
+
+    public TriggeringJobIndex(SupervisorProperties conf, SchedJobMapper jobMapper) {
+        this.enabled = conf.isTriggeringJobIndexEnabled();
+        this.reloadPeriodMs = conf.getTriggeringJobIndexReloadPeriodMs();
+        this.jobMapper = jobMapper;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns whether has job will be triggering.
+     *
+     * @param maxNextTriggerTime the max next trigger time
+     * @param filter             the job id filter
+     * @return {@code true} if need scan database
+     */
+    public boolean hasTriggering(long maxNextTriggerTime, LongPredicate filter) {
+        if (!enabled) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        if (now >= nextReloadTime && !reload(now)) {
+            return true;
+        }
+        refresh(pendingJobIds(filter));
+        return !findTriggering(maxNextTriggerTime, now, filter).isEmpty();
+    }
+
+    /**
+     * 扫描数据库后调用：索引中到期但本次未扫描到的job，说明索引数据已过时(如被其它supervisor更新)，需要从数据库刷新
+     *
+     * @param maxNextTriggerTime the max next trigger time
+     * @param filter             the job id filter
+     * @param scannedJobs        the scanned jobs from database
+     */
+    public void reconcile(long maxNextTriggerTime, LongPredicate filter, List<SchedJob> scannedJobs) {
+        if (!enabled) {
+            return;
+        }
+        Set<Long> scannedJobIds = new HashSet<>(Collects.convert(scannedJobs, SchedJob::getJobId));
+        List<Long> staleJobIds = findTriggering(maxNextTriggerTime, System.currentTimeMillis(), filter);
+        staleJobIds.removeIf(scannedJobIds::contains);
+        refresh(staleJobIds);
+    }
+
+    /**
+     * Request reload all index data on the next check.
+     */
+    public void requestReload() {
+        this.nextReloadTime = 0;
+    }
+
+    public void put(SchedJob job) {
+        if (enabled) {
+            synchronized (this) {
+                put0(job);
+                markChanged(job.getJobId());
+            }
+        }
+    }
+
+    public void remove(long jobId) {
+        if (enabled) {
+            synchronized (this) {
+                remove0(jobId);
+                markChanged(jobId);
+            }
+        }
+    }
+
+    public void refresh(long jobId) {
+        if (enabled) {
+            refresh(Collections.singletonList(jobId));
+        }
+    }
+
+    /**
+     * Refresh the specified jobs from database: upsert if enabled, else remove.
+     *
+     * @param jobIds the job ids
+     */
+    public void refresh(List<Long> jobIds) {
+        if (!enabled || CollectionUtils.isEmpty(jobIds)) {
+            return;
+        }
+        Collects.batchProcess(jobIds, ids -> {
+            Map<Long, SchedJob> map = new HashMap<>();
+            jobMapper.findByJobIds(ids).forEach(e -> map.put(e.getJobId(), e));
+            synchronized (this) {
+                for (Long jobId : ids) {
+                    SchedJob job = map.get(jobId);
+                    if (job == null) {
+                        remove0(jobId);
+                    } else {
+                        put0(job);
+                    }
+                    markChanged(jobId);
+                }
+            }
+        }, PROCESS_BATCH_SIZE);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // ------------------------------------------------------------------private methods
+
+    private boolean reload(long now) {
+        synchronized (this) {
+            changed = new HashSet<>();
+        }
+        Set<Long> changedJobIds;
+        try {
+            List<SchedJob> jobs = new ArrayList<>();
+            long startJobId = 0;
+            for (List<SchedJob> list; !(list = jobMapper.findEnabledTriggerTimes(startJobId, LOAD_BATCH_SIZE)).isEmpty(); ) {
+                jobs.addAll(list);
+                startJobId = list.get(list.size() - 1).getJobId();
+            }
+            synchronized (this) {
+                sorted.clear();
+                entries.clear();
+                pending.clear();
+                jobs.forEach(this::put0);
+                changedJobIds = changed;
+            }
+            this.nextReloadTime = now + reloadPeriodMs;
+            log.info("Reloaded triggering job index: {}", jobs.size());
+        } catch (Throwable t) {
+            log.error("Reload triggering job index error.", t);
+            return false;
+        } finally {
+            synchronized (this) {
+                changed = null;
+            }
+        }
+        // 重新加载期间被修改过的job，以数据库最新数据为准
+        refresh(new ArrayList<>(changedJobIds));
+        return true;
+    }
+
+    private synchronized List<Long> findTriggering(long maxNextTriggerTime, long now, LongPredicate filter) {
+        List<Long> result = new ArrayList<>();
+        for (Entry entry : sorted) {
+            if (entry.triggerTime >= maxNextTriggerTime) {
+                break;
+            }
+            if (entry.scanTime < now && filter.test(entry.jobId)) {
+                result.add(entry.jobId);
+            }
+        }
+        return result;
+    }
+
+    private synchronized List<Long> pendingJobIds(LongPredicate filter) {
+        List<Long> result = new ArrayList<>();
+        for (Long jobId : pending) {
+            if (filter.test(jobId)) {
+                result.add(jobId);
+            }
+        }
+        return result;
+    }
+
+    private void put0(SchedJob job) {
+        long jobId = job.getJobId();
+        remove0(jobId);
+        Long nextTriggerTime = job.getNextTriggerTime();
+        if (!job.isEnabled() || nextTriggerTime == null) {
+            return;
+        }
+        if (nextTriggerTime == Long.MAX_VALUE && job.isFixedTriggerType()) {
+            pending.add(jobId);
+            return;
+        }
+        long scanTime = job.getNextScanTime() == null ? 0 : job.getNextScanTime().getTime();
+        Entry entry = new Entry(jobId, nextTriggerTime, scanTime);
+        entries.put(jobId, entry);
+        sorted.add(entry);
+    }
+
+    private void remove0(long jobId) {
+        pending.remove(jobId);
+        Entry entry = entries.remove(jobId);
+        if (entry != null) {
+            sorted.remove(entry);
+        }
+    }
+
+    private void markChanged(long jobId) {
+        if (changed != null) {
+            changed.add(jobId);
+        }
+    }
+
+    private static class Entry implements Comparable<Entry> {
+        final long jobId;
+        final long triggerTime;
+        final long scanTime;
+
+        Entry(long jobId, long triggerTime, long scanTime) {
+            this.jobId = jobId;
+            this.triggerTime = triggerTime;
+            this.scanTime = scanTime;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int n = Long.compare(this.triggerTime, other.triggerTime);
+            return n != 0 ? n : Long.compare(this.jobId, other.jobId);
+        }
+    }
+
+}
@@ -27,6 +27,7 @@ import cn.ponfee.disjob.core.exception.JobException;
 import cn.ponfee.disjob.core.worker.Worker;
 import cn.ponfee.disjob.core.worker.WorkerRpcService;
 import cn.ponfee.disjob.core.worker.dto.ExistsTaskParam;
+import cn.ponfee.disjob.core.worker.dto.ExistsTasksParam;
 import cn.ponfee.disjob.core.worker.dto.SplitJobParam;
 import cn.ponfee.disjob.core.worker.dto.SplitJobResult;
 import cn.ponfee.disjob.core.worker.dto.VerifyJobParam;
@@ -44,9 +45,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * Worker client
@@ -60,8 +61,10 @@ public class WorkerClient {
     private final Discovery<Worker> discoverWorker;
     private final DiscoveryGroupedServerRestProxy<WorkerRpcService> groupedProxy;
     private final DestinationServerRestProxy<WorkerRpcService, Worker> destinationProxy;
+    private final WorkerHeartbeatTable workerHeartbeatTable;
 
     public WorkerClient(Discovery<Worker> discoverWorker,
+                        WorkerHeartbeatTable workerHeartbeatTable,
                         RetryProperties retry,
                         @Qualifier(JobConstants.SPRING_BEAN_NAME_REST_TEMPLATE) RestTemplate restTemplate,
                         @Nullable WorkerRpcService workerRpcProvider,
@@ -69,6 +72,7 @@ public class WorkerClient {
         retry.check();
 
         this.discoverWorker = discoverWorker;
+        this.workerHeartbeatTable = workerHeartbeatTable;
 
         Predicate<String> localGroupMatcher = localWorker != null ? localWorker::equalsGroup : group -> false;
         this.groupedProxy = DiscoveryGroupedServerRestProxy.of(
@@ -90,13 +94,34 @@ public class WorkerClient {
         return discoverWorker.hasAliveServer();
     }
 
+    /**
+     * Returns {@code true} if has alive executing task, the tasks are grouped by worker and each worker probe once.
+     *
+     * @param tasks the tasks
+     * @return {@code true} if has alive executing task
+     */
     public boolean hasAliveTask(List<SchedTask> tasks) {
-        return CollectionUtils.isNotEmpty(tasks) &&
-            tasks.stream().anyMatch(e -> e.isExecuting() && isAliveTask(e));
+        for (List<SchedTask> workerTasks : groupByWorker(tasks, SchedTask::isExecuting)) {
+            if (!findAliveTaskIds(workerTasks).isEmpty()) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    public boolean isNeedRedispatch(SchedTask task) {
-        return task.isWaiting() && !isAliveTask(task);
+    /**
+     * Filters the (un-dispatch) or (assigned worker dead) waiting tasks, which need redo dispatch.
+     *
+     * @param tasks the tasks
+     * @return need redispatch tasks
+     */
+    public List<SchedTask> filterNeedRedispatch(List<SchedTask> tasks) {
+        List<SchedTask> result = new ArrayList<>();
+        for (List<SchedTask> workerTasks : groupByWorker(tasks, SchedTask::isWaiting)) {
+            Set<Long> aliveTaskIds = findAliveTaskIds(workerTasks);
+            workerTasks.stream().filter(e -> !aliveTaskIds.contains(e.getTaskId())).forEach(result::add);
+        }
+        return result;
     }
 
     public WorkerRpcService destination(Worker destinationWorker) {
@@ -147,6 +172,71 @@ public class WorkerClient {
         return tasks;
     }
 
+    private static Collection<List<SchedTask>> groupByWorker(List<SchedTask> tasks, Predicate<SchedTask> filter) {
+        if (CollectionUtils.isEmpty(tasks)) {
+            return Collections.emptyList();
+        }
+        // task的worker为空时分为同一组(Map的key可为null)
+        Map<String, List<SchedTask>> map = new LinkedHashMap<>();
+        for (SchedTask task : tasks) {
+            if (filter.test(task)) {
+                map.computeIfAbsent(task.getWorker(), k -> new ArrayList<>()).add(task);
+            }
+        }
+        return map.values();
+    }
+
+    /**
+     * Finds the alive task ids, the tasks must be assigned to the same worker.
+     * <p>First consult the worker heartbeat table, only probe the remaining tasks by rpc.
+     *
+     * @param tasks the same worker tasks
+     * @return alive task ids
+     */
+    private Set<Long> findAliveTaskIds(List<SchedTask> tasks) {
+        Worker worker = tasks.get(0).worker();
+        if (!isAliveWorker(worker)) {
+            return Collections.emptySet();
+        }
+        Set<Long> result = new HashSet<>();
+        List<SchedTask> remains = new ArrayList<>(tasks.size());
+        for (SchedTask task : tasks) {
+            if (workerHeartbeatTable.isAliveTask(task.getWorker(), task.getTaskId())) {
+                result.add(task.getTaskId());
+            } else {
+                remains.add(task);
+            }
+        }
+        if (remains.isEmpty()) {
+            return result;
+        }
+        if (remains.size() == 1) {
+            SchedTask task = remains.get(0);
+            if (isAliveTask(task)) {
+                result.add(task.getTaskId());
+            }
+            return result;
+        }
+        List<Long> taskIds = remains.stream().map(SchedTask::getTaskId).collect(Collectors.toList());
+        boolean[] exists;
+        try {
+            exists = destination(worker).existsTasks(ExistsTasksParam.of(taskIds));
+            Assert.state(exists != null && exists.length == taskIds.size(), "Inconsistent exists tasks result size.");
+        } catch (Throwable t) {
+            // maybe the worker is an old version which not supported batch rpc
+            log.warn("Invoke worker exists tasks failed, fallback one by one: {}, {}", worker, t.getMessage());
+            Threads.reinterruptIfInterruptedException(t);
+            remains.stream().filter(this::isAliveTask).forEach(e -> result.add(e.getTaskId()));
+            return result;
+        }
+        for (int i = 0; i < exists.length; i++) {
+            if (exists[i]) {
+                result.add(taskIds.get(i));
+            }
+        }
+        return result;
+    }
+
     private boolean isAliveTask(SchedTask task) {
         Worker worker = task.worker();
         if (!isAliveWorker(worker)) {
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.supervisor.component;
+
+import cn.ponfee.disjob.core.supervisor.dto.WorkerHeartbeatParam;
+import cn.ponfee.disjob.core.worker.WorkerMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory table of the latest worker heartbeat, which pushed by worker periodically.
+ * <p>The running and queued task ids in a fresh heartbeat are alive, avoid the `existsTask` rpc call to worker.
+ *
+ * @author Ponfee
+ */
+@Component
+public class WorkerHeartbeatTable {
+
+    /**
+     * Heartbeat is stale if not received new heartbeat within this number of periods
+     */
+    private static final int STALE_PERIODS = 3;
+
+    private static final long PURGE_PERIOD_MS = 60_000L;
+
+    /**
+     * Map<serialized worker, Heartbeat>
+     */
+    private final Map<String, Heartbeat> table = new ConcurrentHashMap<>();
+
+    private volatile long nextPurgeTime = 0;
+
+    public void receive(WorkerHeartbeatParam param) {
+        param.check();
+        long now = System.currentTimeMillis();
+        table.put(param.getWorker(), new Heartbeat(now, param.getPeriodMs(), param.decodeTaskIds(), param.getThreadPoolMetrics()));
+        if (now >= nextPurgeTime) {
+            nextPurgeTime = now + PURGE_PERIOD_MS;
+            table.values().removeIf(e -> e.isStale(now));
+        }
+    }
+
+    /**
+     * Returns {@code true} if the task is running or queued in the worker fresh heartbeat.
+     * <p>Returns {@code false} only means unknown, should be confirmed by the `existsTask` rpc call.
+     *
+     * @param worker the serialized worker
+     * @param taskId the task id
+     * @return {@code true} if the task is alive
+     */
+    public boolean isAliveTask(String worker, long taskId) {
+        Heartbeat heartbeat = getFresh(worker);
+        return heartbeat != null && heartbeat.taskIds.contains(taskId);
+    }
+
+    /**
+     * Returns the worker thread pool metrics of fresh heartbeat, maybe null.
+     *
+     * @param worker the serialized worker
+     * @return worker thread pool metrics
+     */
+    public WorkerMetrics.WorkerThreadPoolMetrics getThreadPoolMetrics(String worker) {
+        Heartbeat heartbeat = getFresh(worker);
+        return heartbeat == null ? null : heartbeat.threadPoolMetrics;
+    }
+
+    public void remove(String worker) {
+        table.remove(worker);
+    }
+
+    // ----------------------------------------------------------------------private methods
+
+    private Heartbeat getFresh(String worker) {
+        if (worker == null) {
+            return null;
+        }
+        Heartbeat heartbeat = table.get(worker);
+        return (heartbeat == null || heartbeat.isStale(System.currentTimeMillis())) ? null : heartbeat;
+    }
+
+    private static class Heartbeat {
+        private final long receivedTime;
+        private final long periodMs;
+        private final Set<Long> taskIds;
+        private final WorkerMetrics.WorkerThreadPoolMetrics threadPoolMetrics;
+
+        private Heartbeat(long receivedTime, long periodMs, Set<Long> taskIds,
+                          WorkerMetrics.WorkerThreadPoolMetrics threadPoolMetrics) {
+            this.receivedTime = receivedTime;
+            this.periodMs = periodMs;
+            this.taskIds = taskIds;
+            this.threadPoolMetrics = threadPoolMetrics;
+        }
+
+        private boolean isStale(long now) {
+            return now - receivedTime > STALE_PERIODS * periodMs;
+        }
+    }
+
+}
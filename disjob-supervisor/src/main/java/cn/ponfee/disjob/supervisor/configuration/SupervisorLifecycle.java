@@ -23,14 +23,29 @@ import cn.ponfee.disjob.registry.SupervisorRegistry;
 import cn.ponfee.disjob.supervisor.SupervisorStartup;
 import cn.ponfee.disjob.supervisor.component.JobManager;
 import cn.ponfee.disjob.supervisor.component.JobQuerier;
+import cn.ponfee.disjob.supervisor.component.TriggeringJobIndex;
 import cn.ponfee.disjob.supervisor.component.WorkerClient;
+import cn.ponfee.disjob.supervisor.component.WorkerHeartbeatTable;
 import cn.ponfee.disjob.supervisor.dispatch.TaskDispatcher;
+import cn.ponfee.disjob.supervisor.dispatch.count.AtomicCounter;
+import cn.ponfee.disjob.supervisor.dispatch.count.DatabaseAtomicCounter;
+import cn.ponfee.disjob.supervisor.dispatch.count.RedisAtomicCounter;
+import cn.ponfee.disjob.supervisor.dispatch.route.ConsistentHashExecutionRouter;
+import cn.ponfee.disjob.supervisor.dispatch.route.ExecutionRouterRegistrar;
+import cn.ponfee.disjob.supervisor.dispatch.route.LeastLoadedExecutionRouter;
+import cn.ponfee.disjob.supervisor.dispatch.route.RoundRobinExecutionRouter;
 import cn.ponfee.disjob.supervisor.scanner.ExpireInstanceScanner;
 import cn.ponfee.disjob.supervisor.scanner.TriggeringJobScanner;
+import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.function.Function;
 
 import static cn.ponfee.disjob.supervisor.base.SupervisorConstants.*;
+import static cn.ponfee.disjob.supervisor.dao.SupervisorDataSourceConfig.SPRING_BEAN_NAME_JDBC_TEMPLATE;
 
 /**
  * Supervisor lifecycle
@@ -51,18 +66,44 @@ class SupervisorLifecycle implements SmartLifecycle {
                         JobManager jobManager,
                         JobQuerier jobQuerier,
                         WorkerClient workerClient,
+                        TriggeringJobIndex triggeringJobIndex,
+                        WorkerHeartbeatTable workerHeartbeatTable,
+                        BeanFactory beanFactory,
+                        @Qualifier(SPRING_BEAN_NAME_JDBC_TEMPLATE) JdbcTemplate jdbcTemplate,
                         @Qualifier(SPRING_BEAN_NAME_SCAN_WAITING_INSTANCE_LOCKER) LockTemplate scanWaitingInstanceLocker,
                         @Qualifier(SPRING_BEAN_NAME_SCAN_RUNNING_INSTANCE_LOCKER) LockTemplate scanRunningInstanceLocker,
                         @Qualifier(SPRING_BEAN_NAME_SCAN_TRIGGERING_JOB_LOCKER) LockTemplate scanTriggeringJobLocker) {
         supervisorConf.check();
+        // 不覆盖用户已注册的路由器
+        if (!"jdk".equals(supervisorConf.getRoundRobinCounter())) {
+            ExecutionRouterRegistrar.registerBuiltIn(new RoundRobinExecutionRouter(roundRobinCounterFactory(supervisorConf, beanFactory, jdbcTemplate)));
+        }
+        ExecutionRouterRegistrar.registerBuiltIn(new LeastLoadedExecutionRouter(e -> workerHeartbeatTable.getThreadPoolMetrics(e.serialize())));
+        ConsistentHashExecutionRouter consistentHashExecutionRouter = supervisorConf.isMaglevConsistentHash()
+            ? ConsistentHashExecutionRouter.maglev()
+            : new ConsistentHashExecutionRouter();
+        if (ExecutionRouterRegistrar.registerBuiltIn(consistentHashExecutionRouter)) {
+            supervisorRegistry.addMembershipChangeListener(consistentHashExecutionRouter::onMembershipChange);
+        }
+        supervisorRegistry.addMembershipChangeListener(e -> e.getRemoved().forEach(w -> workerHeartbeatTable.remove(w.serialize())));
         this.supervisorStartup = new SupervisorStartup(
             supervisorConf, localSupervisor, supervisorRegistry, taskDispatcher,
             new ExpireInstanceScanner(RunStatus.WAITING, supervisorConf, jobManager, jobQuerier, workerClient, scanWaitingInstanceLocker),
             new ExpireInstanceScanner(RunStatus.RUNNING, supervisorConf, jobManager, jobQuerier, workerClient, scanRunningInstanceLocker),
-            new TriggeringJobScanner(supervisorConf, jobManager, jobQuerier, workerClient, scanTriggeringJobLocker)
+            new TriggeringJobScanner(supervisorConf, jobManager, jobQuerier, workerClient, scanTriggeringJobLocker, supervisorRegistry, triggeringJobIndex)
         );
     }
 
+    private static Function<String, AtomicCounter> roundRobinCounterFactory(SupervisorProperties supervisorConf,
+                                                                            BeanFactory beanFactory,
+                                                                            JdbcTemplate jdbcTemplate) {
+        if ("redis".equals(supervisorConf.getRoundRobinCounter())) {
+            // 仅在使用时才加载redis相关的类，且不能在当前类的方法签名(包括lambda)中出现redis相关的类
+            return RedisAtomicCounter.factory(beanFactory.getBean(StringRedisTemplate.class));
+        }
+        return group -> new DatabaseAtomicCounter(jdbcTemplate, group);
+    }
+
     @Override
     public void start() {
         supervisorStartup.start();
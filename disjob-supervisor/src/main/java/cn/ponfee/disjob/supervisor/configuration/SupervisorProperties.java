@@ -22,8 +22,10 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 /**
  * Supervisor configuration properties.
@@ -35,6 +37,7 @@ import java.io.Serializable;
 @ConfigurationProperties(prefix = JobConstants.SUPERVISOR_CONFIG_KEY)
 public class SupervisorProperties extends ToJsonString implements Serializable {
     private static final long serialVersionUID = -7896732123210543684L;
+    private static final String REDIS_TEMPLATE_CLASS_NAME = "org.springframework.data.redis.core.StringRedisTemplate";
 
     /**
      * Enabled print banner
@@ -66,6 +69,28 @@ public class SupervisorProperties extends ToJsonString implements Serializable {
      */
     private long scanTriggeringJobPeriodMs = 3000;
 
+    /**
+     * Scan triggering job shard count, partition the sched_job by `job_id % shardCount`.
+     * <p>if value is 0 then disabled sharding, use the global lock scan.
+     */
+    private int scanTriggeringJobShardCount = 0;
+
+    /**
+     * Trigger job batch size, the scanned due jobs will be persisted in one transaction per batch.
+     * <p>if value is 1 then trigger job one by one.
+     */
+    private int triggerJobBatchSize = 1;
+
+    /**
+     * Enabled in-memory triggering job index, skip the database scan if none job will be triggering.
+     */
+    private boolean triggeringJobIndexEnabled = false;
+
+    /**
+     * Triggering job index full reload period milliseconds.
+     */
+    private long triggeringJobIndexReloadPeriodMs = 300000;
+
     /**
      * Scan waiting instance period milliseconds
      */
@@ -86,6 +111,11 @@ public class SupervisorProperties extends ToJsonString implements Serializable {
      */
     private int maximumProcessJobPoolSize = 10;
 
+    /**
+     * Maximum process expire instance thread pool size, default 10
+     */
+    private int maximumProcessInstancePoolSize = 10;
+
     /**
      * Group data refresh period minutes.
      */
@@ -101,19 +131,49 @@ public class SupervisorProperties extends ToJsonString implements Serializable {
      */
     private int maximumTaskDispatchFailures = 3;
 
+    /**
+     * Consistent hash route strategy algorithm: ring | maglev
+     */
+    private String consistentHashAlgorithm = "ring";
+
+    /**
+     * Round robin route strategy counter: jdk | redis | database
+     * <p>the redis and database counter are cluster-wide, the redis counter requires spring-boot-starter-data-redis.
+     */
+    private String roundRobinCounter = "jdk";
+
+    public boolean isMaglevConsistentHash() {
+        return "maglev".equalsIgnoreCase(consistentHashAlgorithm);
+    }
+
     public void check() {
         Assert.isTrue(20 <= scanBatchSize && scanBatchSize <= 2000, "Scan batch size must be range [20, 2000].");
         Assert.isTrue(maximumSplitTaskSize > 0, "Maximum split task size must be greater than 0.");
         Assert.isTrue(0 < maximumJobDependsDepth && maximumJobDependsDepth < 100, "Maximum job depends depth must be range [1, 99].");
         Assert.isTrue(0 < maximumJobRetryCount && maximumJobRetryCount < 10, "Maximum job retry count must be range [1, 9].");
         Assert.isTrue(scanTriggeringJobPeriodMs >= 1000, "Scan triggering job period ms cannot less than 1000.");
+        Assert.isTrue(0 <= scanTriggeringJobShardCount && scanTriggeringJobShardCount <= 1024, "Scan triggering job shard count must be range [0, 1024].");
+        Assert.isTrue(0 < triggerJobBatchSize && triggerJobBatchSize <= 500, "Trigger job batch size must be range [1, 500].");
+        Assert.isTrue(triggeringJobIndexReloadPeriodMs >= 30000, "Triggering job index reload period ms cannot less than 30000.");
         Assert.isTrue(scanWaitingInstancePeriodMs >= 15000, "Scan waiting instance period ms cannot less than 15000.");
         Assert.isTrue(scanRunningInstancePeriodMs >= 30000, "Scan running instance period ms cannot less than 30000.");
         Assert.isTrue(shutdownTaskDelayResumeMs >= 60000, "Shutdown task delay resume ms cannot less than 60000.");
         Assert.isTrue(maximumProcessJobPoolSize > 0, "Maximum process job pool size must be greater than 0.");
+        Assert.isTrue(maximumProcessInstancePoolSize > 0, "Maximum process instance pool size must be greater than 0.");
         Assert.isTrue(groupRefreshPeriodMinutes >= 0, "Refresh group period minutes cannot less than 0.");
         Assert.isTrue(maximumJobScanFailures >= 0, "Maximum job scan failures cannot less than 0.");
         Assert.isTrue(maximumTaskDispatchFailures >= 0, "Maximum task dispatch failures cannot less than 0.");
+        Assert.isTrue(
+            "ring".equalsIgnoreCase(consistentHashAlgorithm) || isMaglevConsistentHash(),
+            () -> "Consistent hash algorithm must be ring or maglev: " + consistentHashAlgorithm
+        );
+        Assert.isTrue(
+            Arrays.asList("jdk", "redis", "database").contains(roundRobinCounter),
+            () -> "Round robin counter must be jdk, redis or database: " + roundRobinCounter
+        );
+        if ("redis".equals(roundRobinCounter)) {
+            Assert.isTrue(ClassUtils.isPresent(REDIS_TEMPLATE_CLASS_NAME, null), "Round robin redis counter requires spring-data-redis.");
+        }
     }
 
 }
@@ -16,6 +16,7 @@
 
 package cn.ponfee.disjob.supervisor.dao.mapper;
 
+import cn.ponfee.disjob.core.enums.ExecuteStatus;
 import cn.ponfee.disjob.core.enums.RunStatus;
 import cn.ponfee.disjob.supervisor.application.request.SchedInstancePageRequest;
 import cn.ponfee.disjob.supervisor.model.SchedInstance;
@@ -84,6 +85,22 @@ public interface SchedInstanceMapper {
                            @Param("nextScanTime") Date nextScanTime,
                            @Param("version") int version);
 
+    /**
+     * Transfers one task between the task status counters.
+     *
+     * @param instanceId the instance id
+     * @param fromStatus the task from execute status
+     * @param toStatus   the task to execute status
+     * @param keepActive whether the instance must has other active(WAITING or EXECUTING) task
+     * @return update sql affected rows
+     */
+    int transferTaskCount(@Param("instanceId") long instanceId,
+                          @Param("fromStatus") int fromStatus,
+                          @Param("toStatus") int toStatus,
+                          @Param("keepActive") boolean keepActive);
+
+    int updateTaskCounts(SchedInstance instance);
+
     SchedInstance lock(long instanceId);
 
     /**
@@ -125,4 +142,8 @@ public interface SchedInstanceMapper {
         return isOneAffectedRow(updateRetrying(instanceId, retrying, toStatus.value(), fromStatus.value()));
     }
 
+    default boolean transferTaskCount(long instanceId, ExecuteStatus fromStatus, ExecuteStatus toStatus, boolean keepActive) {
+        return isOneAffectedRow(transferTaskCount(instanceId, fromStatus.value(), toStatus.value(), keepActive));
+    }
+
 }
@@ -71,6 +71,29 @@ public interface SchedJobMapper {
      */
     List<SchedJob> findBeTriggering(@Param("maxNextTriggerTime") long maxNextTriggerTime, @Param("size") int size);
 
+    /**
+     * Finds job witch will be triggering in the specified shards
+     *
+     * @param maxNextTriggerTime the max next trigger time
+     * @param shardCount         the total shard count
+     * @param shards             the shard list, shard = job_id % shardCount
+     * @param size               the size
+     * @return jobs
+     */
+    List<SchedJob> findBeTriggeringInShards(@Param("maxNextTriggerTime") long maxNextTriggerTime,
+                                            @Param("shardCount") int shardCount,
+                                            @Param("shards") List<Integer> shards,
+                                            @Param("size") int size);
+
+    /**
+     * Finds enabled job trigger times, order by job_id
+     *
+     * @param startJobId the start job id(exclusive)
+     * @param size       the size
+     * @return jobs only contains [job_id, job_status, trigger_type, next_trigger_time, next_scan_time]
+     */
+    List<SchedJob> findEnabledTriggerTimes(@Param("startJobId") long startJobId, @Param("size") int size);
+
     int updateNextScanTime(SchedJob job);
 
     /**
@@ -89,6 +112,14 @@ public interface SchedJobMapper {
      */
     int updateNextTriggerTime(SchedJob job);
 
+    /**
+     * Batch update the job next trigger time.
+     *
+     * @param jobs the job list
+     * @return update sql affected rows
+     */
+    int updateNextTriggerTimeBatch(List<SchedJob> jobs);
+
     /**
      * Updates fixed trigger type job next trigger time
      *
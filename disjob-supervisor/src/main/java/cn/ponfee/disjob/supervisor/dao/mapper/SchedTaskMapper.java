@@ -22,6 +22,7 @@ import org.apache.ibatis.annotations.Param;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import static cn.ponfee.disjob.common.spring.TransactionUtils.isOneAffectedRow;
 
@@ -38,6 +39,16 @@ public interface SchedTaskMapper {
 
     List<SchedTask> findBaseByInstanceIdAndStatuses(@Param("instanceId") long instanceId, @Param("statuses") List<Integer> statuses);
 
+    List<SchedTask> findBaseByInstanceIds(List<Long> instanceIds);
+
+    /**
+     * Counts the WAITING and EXECUTING tasks group by worker
+     *
+     * @param instanceId the instance id
+     * @return list of map, key is `worker` and `cnt`
+     */
+    List<Map<String, Object>> countPausableByWorker(long instanceId);
+
     List<SchedTask> findLargeByInstanceIdAndStatuses(@Param("instanceId") long instanceId, @Param("statuses") List<Integer> statuses);
 
     int incrementDispatchFailures(@Param("taskId") long taskId, @Param("currentDispatchFailures") int currentDispatchFailures);
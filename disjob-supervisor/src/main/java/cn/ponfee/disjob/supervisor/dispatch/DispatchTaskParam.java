@@ -16,9 +16,14 @@
 
 package cn.ponfee.disjob.supervisor.dispatch;
 
+import cn.ponfee.disjob.core.worker.Worker;
 import cn.ponfee.disjob.core.worker.dto.ExecuteTaskParam;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.StringJoiner;
+import java.util.stream.Collectors;
 
 /**
  * Dispatch task param
@@ -31,6 +36,11 @@ class DispatchTaskParam {
     private final String group;
     private int retries = 0;
 
+    /**
+     * The workers which rejected this task
+     */
+    private Set<Worker> rejectedWorkers;
+
     DispatchTaskParam(ExecuteTaskParam task, String group) {
         this.task = task;
         this.group = group;
@@ -45,6 +55,8 @@ class DispatchTaskParam {
     }
 
     int retrying() {
+        // 新一轮的退避重试，之前拒绝过的Worker可能已恢复(如不再繁忙)，需要重新参与路由
+        this.rejectedWorkers = null;
         return ++this.retries;
     }
 
@@ -52,12 +64,36 @@ class DispatchTaskParam {
         return retries;
     }
 
+    /**
+     * Returns {@code true} if the task can be rerouted to other worker after the worker rejected.
+     *
+     * @return {@code true} if reroutable
+     */
+    boolean isReroutable() {
+        return group != null && task.getOperation().isTrigger() && task.getRouteStrategy().isNotBroadcast();
+    }
+
+    void rejected(Worker worker) {
+        if (rejectedWorkers == null) {
+            rejectedWorkers = new HashSet<>();
+        }
+        rejectedWorkers.add(worker);
+    }
+
+    List<Worker> excludeRejected(List<Worker> workers) {
+        if (rejectedWorkers == null || workers == null) {
+            return workers;
+        }
+        return workers.stream().filter(e -> !rejectedWorkers.contains(e)).collect(Collectors.toList());
+    }
+
     @Override
     public String toString() {
         return new StringJoiner(", ", DispatchTaskParam.class.getSimpleName() + "[", "]")
             .add("task=" + task)
             .add("group=" + (group != null ? "'" + group + "'" : "null"))
             .add("retries=" + retries)
+            .add("rejectedWorkers=" + rejectedWorkers)
             .toString();
     }
 
@@ -18,12 +18,12 @@ package cn.ponfee.disjob.supervisor.dispatch;
 
 import cn.ponfee.disjob.common.base.Startable;
 import cn.ponfee.disjob.common.collect.Collects;
-import cn.ponfee.disjob.common.concurrent.AsyncDelayedExecutor;
-import cn.ponfee.disjob.common.concurrent.DelayedData;
+import cn.ponfee.disjob.common.concurrent.*;
 import cn.ponfee.disjob.common.spring.TransactionUtils;
 import cn.ponfee.disjob.core.base.RetryProperties;
 import cn.ponfee.disjob.core.worker.Worker;
 import cn.ponfee.disjob.core.worker.dto.ExecuteTaskParam;
+import cn.ponfee.disjob.core.worker.dto.ReceiveTasksParam;
 import cn.ponfee.disjob.registry.Discovery;
 import cn.ponfee.disjob.supervisor.component.WorkerClient;
 import cn.ponfee.disjob.supervisor.dispatch.route.ExecutionRouterRegistrar;
@@ -34,9 +34,9 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
 import java.util.stream.Collectors;
 
 /**
@@ -54,6 +54,7 @@ public final class TaskDispatcher implements Startable {
     private final Discovery<Worker> discoverWorker;
     private final WorkerClient workerClient;
     private final AsyncDelayedExecutor<DispatchTaskParam> asyncDelayedExecutor;
+    private final ExecutorService dispatchExecutor;
 
     public TaskDispatcher(RetryProperties retryConf,
                           ApplicationEventPublisher eventPublisher,
@@ -66,6 +67,14 @@ public final class TaskDispatcher implements Startable {
         this.discoverWorker = Objects.requireNonNull(discoverWorker);
         this.workerClient = Objects.requireNonNull(workerClient);
         this.asyncDelayedExecutor = new AsyncDelayedExecutor<>(5, e -> dispatch0(Collections.singletonList(e)));
+        this.dispatchExecutor = ThreadPoolExecutors.builder()
+            .corePoolSize(1)
+            .maximumPoolSize(Math.max(4, Runtime.getRuntime().availableProcessors() * 2))
+            .workQueue(new SynchronousQueue<>())
+            .keepAliveTimeSeconds(300)
+            .rejectedHandler(ThreadPoolExecutors.CALLER_RUNS)
+            .threadFactory(NamedThreadFactory.builder().prefix("task_dispatcher").daemon(true).uncaughtExceptionHandler(log).build())
+            .build();
     }
 
     /**
@@ -122,6 +131,7 @@ public final class TaskDispatcher implements Startable {
     @Override
     public void stop() {
         asyncDelayedExecutor.doStop();
+        ThreadPoolExecutors.shutdown(dispatchExecutor, 1);
     }
 
     // ------------------------------------------------------------private methods
@@ -132,21 +142,92 @@ public final class TaskDispatcher implements Startable {
             .collect(Collectors.groupingBy(e -> e.task().getInstanceId()))
             .forEach((instanceId, list) -> assignWorker(list));
 
+        // 按Worker分组，每个Worker一次RPC调用，不同的Worker间并行派发
+        Map<Worker, List<DispatchTaskParam>> groups = new LinkedHashMap<>();
         for (DispatchTaskParam param : params) {
             ExecuteTaskParam task = param.task();
             log.info("Task trace [{}] dispatching: {}, {}, {}", task.getTaskId(), task.getOperation(), task.getWorker(), param.retries());
+            if (task.getWorker() == null) {
+                log.error("Dispatch task failed: unassigned, {}", param);
+                retry(param);
+            } else {
+                groups.computeIfAbsent(task.getWorker(), k -> new ArrayList<>()).add(param);
+            }
+        }
+        MultithreadExecutors.run(groups.entrySet(), e -> dispatch0(e.getKey(), e.getValue()), dispatchExecutor);
+    }
+
+    private void dispatch0(Worker worker, List<DispatchTaskParam> params) {
+        if (params.size() == 1) {
+            // 单个task仍使用`receiveTask`，重试时也是单个task派发
+            DispatchTaskParam param = params.get(0);
+            ExecuteTaskParam task = param.task();
+            boolean received;
             try {
-                doDispatch(task);
-                log.info("Task trace [{}] dispatched: {}, {}", task.getTaskId(), task.getOperation(), task.getWorker());
+                received = workerClient.destination(worker).receiveTask(task);
             } catch (Throwable t) {
-                if (t instanceof TaskDispatchException) {
-                    log.error("Dispatch task failed: {}, {}", t.getMessage(), param);
-                } else {
-                    log.error("Dispatch task error: {}", param, t);
-                }
+                log.error("Dispatch task error: {}", param, t);
                 retry(param);
+                return;
+            }
+            if (received) {
+                log.info("Task trace [{}] dispatched: {}, {}", task.getTaskId(), task.getOperation(), worker);
+            } else {
+                reject(worker, params);
+            }
+            return;
+        }
+
+        List<ExecuteTaskParam> tasks = Collects.convert(params, DispatchTaskParam::task);
+        boolean[] results;
+        try {
+            results = workerClient.destination(worker).receiveTasks(ReceiveTasksParam.of(tasks));
+            Assert.state(results != null && results.length == tasks.size(), "Invalid receive tasks results.");
+        } catch (Throwable t) {
+            log.error("Dispatch batch tasks error: {}, {}", worker, tasks.size(), t);
+            params.forEach(this::retry);
+            return;
+        }
+        List<DispatchTaskParam> rejects = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            DispatchTaskParam param = params.get(i);
+            ExecuteTaskParam task = param.task();
+            if (results[i]) {
+                log.info("Task trace [{}] dispatched: {}, {}", task.getTaskId(), task.getOperation(), worker);
+            } else {
+                rejects.add(param);
             }
         }
+        if (!rejects.isEmpty()) {
+            reject(worker, rejects);
+        }
+    }
+
+    /**
+     * The worker rejected the tasks(e.g. busy), immediately reroute to other worker instead of retry with backoff.
+     *
+     * @param worker the rejected worker
+     * @param params the rejected tasks
+     */
+    private void reject(Worker worker, List<DispatchTaskParam> params) {
+        List<DispatchTaskParam> rerouted = new ArrayList<>(params.size());
+        for (DispatchTaskParam param : params) {
+            log.error("Dispatch task failed: rejected, {}", param);
+            List<Worker> workers = null;
+            if (param.isReroutable()) {
+                param.rejected(worker);
+                workers = param.excludeRejected(discoverWorker.getAliveServers(param.group()));
+            }
+            if (CollectionUtils.isEmpty(workers)) {
+                retry(param);
+            } else {
+                ExecutionRouterRegistrar.route(param.task().getRouteStrategy(), Collections.singletonList(param.task()), workers);
+                rerouted.add(param);
+            }
+        }
+        if (!rerouted.isEmpty()) {
+            dispatch0(rerouted);
+        }
     }
 
     private void assignWorker(List<DispatchTaskParam> params) {
@@ -162,17 +243,6 @@ public final class TaskDispatcher implements Startable {
         ExecutionRouterRegistrar.route(first.task().getRouteStrategy(), tasks, workers);
     }
 
-    private void doDispatch(ExecuteTaskParam task) throws Exception {
-        Worker worker = task.getWorker();
-        if (worker == null) {
-            throw new TaskDispatchException("unassigned");
-        }
-        // dispatch the task to destination worker
-        if (!workerClient.destination(worker).receiveTask(task)) {
-            throw new TaskDispatchException("false");
-        }
-    }
-
     private void retry(DispatchTaskParam param) {
         ExecuteTaskParam task = param.task();
         if (param.retries() < retryMaxCount) {
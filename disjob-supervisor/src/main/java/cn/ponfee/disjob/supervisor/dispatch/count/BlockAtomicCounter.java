@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.supervisor.dispatch.count;
+
+import org.springframework.util.Assert;
+
+/**
+ * Atomic counter which reserves the value range from remote storage in blocks,
+ * the values in a reserved block are allocated locally, only reserve next block when exhausted.
+ * <p>The values are unique in cluster, but not strictly sequential across the servers.
+ *
+ * @author Ponfee
+ */
+public abstract class BlockAtomicCounter extends AtomicCounter {
+
+    private final long blockSize;
+
+    /**
+     * The current value
+     */
+    private long value;
+
+    /**
+     * The end value(inclusive) of the reserved block
+     */
+    private long limit;
+
+    protected BlockAtomicCounter(long blockSize) {
+        Assert.isTrue(blockSize > 0, "Block size must be greater than 0.");
+        this.blockSize = blockSize;
+        // none reserved block
+        this.value = this.limit = 0;
+    }
+
+    /**
+     * Reserves a block from remote storage, atomic add the size and returns the new remote value.
+     *
+     * @param size the block size
+     * @return the new remote value
+     */
+    protected abstract long reserve(long size);
+
+    /**
+     * Sets the remote storage value
+     *
+     * @param newValue the new value
+     */
+    protected abstract void reset(long newValue);
+
+    @Override
+    public synchronized long get() {
+        return value;
+    }
+
+    @Override
+    public synchronized void set(long newValue) {
+        reset(newValue);
+        // discard the reserved block
+        this.value = this.limit = newValue;
+    }
+
+    @Override
+    public synchronized long addAndGet(long delta) {
+        Assert.isTrue(delta >= 0, "Block atomic counter delta cannot be negative.");
+        if (delta > limit - value) {
+            // the remaining values of current block are discarded
+            long size = Math.max(delta, blockSize);
+            long end = reserve(size);
+            this.value = end - size;
+            this.limit = end;
+        }
+        this.value += delta;
+        return value;
+    }
+
+}
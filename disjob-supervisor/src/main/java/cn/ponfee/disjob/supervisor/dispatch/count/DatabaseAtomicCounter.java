@@ -0,0 +1,136 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.supervisor.dispatch.count;
+
+import cn.ponfee.disjob.common.base.RetryTemplate;
+import cn.ponfee.disjob.common.spring.JdbcTemplateWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.util.Assert;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.function.Function;
+
+/**
+ * Cluster-wide atomic counter based database, reserves the value range in blocks.
+ *
+ * @author Ponfee
+ */
+@Slf4j
+public class DatabaseAtomicCounter extends BlockAtomicCounter {
+
+    private static final long DEFAULT_BLOCK_SIZE = 1000;
+
+    private static final String TABLE_NAME = "sched_counter";
+
+    private static final String CREATE_TABLE_DDL =
+        "CREATE TABLE IF NOT EXISTS `" + TABLE_NAME + "` (                                                         \n" +
+        "  `id`     BIGINT       UNSIGNED  NOT NULL  AUTO_INCREMENT  COMMENT 'auto increment primary key id',      \n" +
+        "  `name`   VARCHAR(60)            NOT NULL                  COMMENT 'counter name',                       \n" +
+        "  `value`  BIGINT                 NOT NULL  DEFAULT '0'     COMMENT 'counter value',                      \n" +
+        "  PRIMARY KEY (`id`),                                                                                     \n" +
+        "  UNIQUE KEY `uk_name` (`name`)                                                                           \n" +
+        ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_bin COMMENT='Distributed counter based database'; \n" ;
+
+    private static final String INSERT_SQL    = "INSERT INTO " + TABLE_NAME + " (name, value) VALUES (?, 0)";
+
+    private static final String GET_SQL       = "SELECT value FROM " + TABLE_NAME + " WHERE name=?";
+
+    private static final String INCREMENT_SQL = "UPDATE " + TABLE_NAME + " SET value=value+? WHERE name=?";
+
+    private static final String RESET_SQL     = "UPDATE " + TABLE_NAME + " SET value=? WHERE name=?";
+
+    /**
+     * Spring jdbc template wrapper.
+     */
+    private final JdbcTemplateWrapper jdbcTemplateWrapper;
+
+    /**
+     * Counter name
+     */
+    private final String counterName;
+
+    /**
+     * Function<String, AtomicCounter>: group -> new DatabaseAtomicCounter(jdbcTemplate, group)
+     *
+     * @param jdbcTemplate the JdbcTemplate
+     * @param group        the group
+     * @see cn.ponfee.disjob.supervisor.dispatch.route.RoundRobinExecutionRouter#RoundRobinExecutionRouter(Function)
+     */
+    public DatabaseAtomicCounter(JdbcTemplate jdbcTemplate, String group) {
+        this(jdbcTemplate, group, DEFAULT_BLOCK_SIZE);
+    }
+
+    public DatabaseAtomicCounter(JdbcTemplate jdbcTemplate, String group, long blockSize) {
+        super(blockSize);
+        this.jdbcTemplateWrapper = JdbcTemplateWrapper.of(jdbcTemplate);
+        // group最长60个字符，加上前缀会超出name字段长度，因此使用group的hash值
+        this.counterName = "route:" + DigestUtils.md5Hex(group);
+
+        // create table
+        jdbcTemplateWrapper.createTableIfNotExists(TABLE_NAME, CREATE_TABLE_DDL);
+
+        // initialize counter
+        RetryTemplate.execute(this::initializeCounterIfNecessary, 3, 1000L);
+    }
+
+    @Override
+    protected long reserve(long size) {
+        return jdbcTemplateWrapper.executeInTransaction(psCreator -> {
+            // the row lock held by update until transaction commit, so the select result is exactly this reservation
+            PreparedStatement updateStatement = psCreator.apply(INCREMENT_SQL);
+            updateStatement.setLong(1, size);
+            updateStatement.setString(2, counterName);
+            Assert.state(updateStatement.executeUpdate() == 1, () -> "Counter not found '" + counterName + "'.");
+
+            PreparedStatement getStatement = psCreator.apply(GET_SQL);
+            getStatement.setString(1, counterName);
+            ResultSet rs = getStatement.executeQuery();
+            Assert.state(rs.next(), () -> "Counter not found '" + counterName + "'.");
+            long value = rs.getLong(1);
+            JdbcUtils.closeResultSet(rs);
+            return value;
+        });
+    }
+
+    @Override
+    protected void reset(long newValue) {
+        int row = jdbcTemplateWrapper.update(RESET_SQL, newValue, counterName);
+        Assert.state(row == 1, () -> "Counter not found '" + counterName + "'.");
+    }
+
+    private void initializeCounterIfNecessary() {
+        if (getCounterValue() != null) {
+            return;
+        }
+        try {
+            jdbcTemplateWrapper.insert(INSERT_SQL, counterName);
+        } catch (DuplicateKeyException e) {
+            log.info("Counter name '{}' already exists: {}", counterName, e.getMessage());
+        }
+        Assert.notNull(getCounterValue(), () -> "Initialize counter failed '" + counterName + "'.");
+    }
+
+    private Long getCounterValue() {
+        return jdbcTemplateWrapper.get(GET_SQL, JdbcTemplateWrapper.LONG_ROW_MAPPER, counterName);
+    }
+
+}
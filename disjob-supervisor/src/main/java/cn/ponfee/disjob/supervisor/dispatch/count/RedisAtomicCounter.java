@@ -18,13 +18,13 @@ package cn.ponfee.disjob.supervisor.dispatch.count;
 
 import cn.ponfee.disjob.common.spring.RedisKeyRenewal;
 import cn.ponfee.disjob.core.base.JobConstants;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.redis.core.StringRedisTemplate;
 
+import java.util.Objects;
 import java.util.function.Function;
 
 /**
- * Atomic counter based redis INCRBY command.
+ * Cluster-wide atomic counter based redis INCRBY command, reserves the value range in blocks.
  *
  * <dependency>
  *   <groupId>org.springframework.boot</groupId>
@@ -34,7 +34,9 @@ import java.util.function.Function;
  *
  * @author Ponfee
  */
-public class RedisAtomicCounter extends AtomicCounter {
+public class RedisAtomicCounter extends BlockAtomicCounter {
+
+    private static final long DEFAULT_BLOCK_SIZE = 1000;
 
     private final String counterRedisKey;
     private final StringRedisTemplate stringRedisTemplate;
@@ -47,34 +49,39 @@ public class RedisAtomicCounter extends AtomicCounter {
      * @param stringRedisTemplate the StringRedisTemplate
      * @see cn.ponfee.disjob.supervisor.dispatch.route.RoundRobinExecutionRouter#RoundRobinExecutionRouter(Function)
      */
-    public RedisAtomicCounter(String group,
-                              StringRedisTemplate stringRedisTemplate) {
+    public RedisAtomicCounter(String group, StringRedisTemplate stringRedisTemplate) {
+        this(group, stringRedisTemplate, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Returns the counter factory for round robin execution router.
+     *
+     * @param stringRedisTemplate the StringRedisTemplate
+     * @return counter factory
+     * @see cn.ponfee.disjob.supervisor.dispatch.route.RoundRobinExecutionRouter#RoundRobinExecutionRouter(Function)
+     */
+    public static Function<String, AtomicCounter> factory(StringRedisTemplate stringRedisTemplate) {
+        return group -> new RedisAtomicCounter(group, stringRedisTemplate);
+    }
+
+    public RedisAtomicCounter(String group, StringRedisTemplate stringRedisTemplate, long blockSize) {
+        super(blockSize);
         this.counterRedisKey = JobConstants.DISJOB_KEY_PREFIX + ":route:counter:" + group;
         this.stringRedisTemplate = stringRedisTemplate;
         this.redisKeyRenewal = new RedisKeyRenewal(stringRedisTemplate, counterRedisKey);
     }
 
     @Override
-    public long get() {
-        String ret = stringRedisTemplate.opsForValue().get(counterRedisKey);
-        if (StringUtils.isBlank(ret)) {
-            return 0;
-        }
+    protected long reserve(long size) {
+        Long value = stringRedisTemplate.opsForValue().increment(counterRedisKey, size);
         redisKeyRenewal.renewIfNecessary();
-        return Long.parseLong(ret);
+        return Objects.requireNonNull(value, () -> "Redis counter increment returned null: " + counterRedisKey);
     }
 
     @Override
-    public void set(long newValue) {
+    protected void reset(long newValue) {
         stringRedisTemplate.opsForValue().set(counterRedisKey, Long.toString(newValue));
         redisKeyRenewal.renewIfNecessary();
     }
 
-    @Override
-    public long addAndGet(long delta) {
-        Long value = stringRedisTemplate.opsForValue().increment(counterRedisKey, delta);
-        redisKeyRenewal.renewIfNecessary();
-        return value == null ? 0 : value;
-    }
-
 }
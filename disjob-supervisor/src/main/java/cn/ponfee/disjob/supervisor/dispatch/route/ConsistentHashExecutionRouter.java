@@ -17,17 +17,22 @@
 package cn.ponfee.disjob.supervisor.dispatch.route;
 
 import cn.ponfee.disjob.common.base.ConsistentHash;
+import cn.ponfee.disjob.common.base.MaglevHash;
 import cn.ponfee.disjob.core.enums.RouteStrategy;
 import cn.ponfee.disjob.core.worker.Worker;
 import cn.ponfee.disjob.core.worker.dto.ExecuteTaskParam;
+import cn.ponfee.disjob.registry.MembershipChangeEvent;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 
 /**
  * Consistent hash algorithm for execution router.
+ * <p>The hash ring is immutable and rebuilt when the discovered worker list changed,
+ * the virtual node keys are deterministic, so the rebuilt ring is same as the incremental changed ring.
  *
  * <p><a href="https://www.jianshu.com/p/fadbff6d222e">replicas</a>
  *
@@ -35,18 +40,44 @@ import java.util.concurrent.ConcurrentMap;
  */
 public class ConsistentHashExecutionRouter extends ExecutionRouter {
 
-    private final ConcurrentMap<String, Pair<List<Worker>, ConsistentHash<Worker>>> cache = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Pair<List<Worker>, Function<String, Worker>>> cache = new ConcurrentHashMap<>();
 
-    private final int virtualCount;
-    private final ConsistentHash.HashFunction hashFunction;
+    private final Function<List<Worker>, Function<String, Worker>> routerFactory;
 
     public ConsistentHashExecutionRouter() {
         this(17, ConsistentHash.HashFunction.MURMUR3_32);
     }
 
     public ConsistentHashExecutionRouter(int virtualCount, ConsistentHash.HashFunction hashFunction) {
-        this.virtualCount = virtualCount;
-        this.hashFunction = hashFunction;
+        this(workers -> new ConsistentHash<>(workers, virtualCount, Worker::serialize, hashFunction)::routeNode);
+    }
+
+    private ConsistentHashExecutionRouter(Function<List<Worker>, Function<String, Worker>> routerFactory) {
+        this.routerFactory = routerFactory;
+    }
+
+    /**
+     * Creates a router based on the Maglev hash lookup table, which has better balance and O(1) route.
+     *
+     * @return ConsistentHashExecutionRouter
+     */
+    public static ConsistentHashExecutionRouter maglev() {
+        return new ConsistentHashExecutionRouter(workers -> new MaglevHash<>(workers, Worker::serialize)::routeNode);
+    }
+
+    /**
+     * Subscribe the worker membership change, rebuild the group router ahead of dispatch.
+     *
+     * @param event the membership change event
+     * @see cn.ponfee.disjob.registry.Discovery#addMembershipChangeListener(java.util.function.Consumer)
+     */
+    public void onMembershipChange(MembershipChangeEvent<Worker> event) {
+        List<Worker> workers = event.getServers();
+        if (workers.isEmpty()) {
+            cache.remove(event.getGroup());
+        } else if (cache.containsKey(event.getGroup())) {
+            cache.put(event.getGroup(), Pair.of(workers, routerFactory.apply(workers)));
+        }
     }
 
     @Override
@@ -56,37 +87,26 @@ public class ConsistentHashExecutionRouter extends ExecutionRouter {
 
     @Override
     protected void doRoute(List<ExecuteTaskParam> tasks, List<Worker> workers) {
-        ConsistentHash<Worker> consistentHashRouter = getConsistentHash(workers);
+        Function<String, Worker> router = getRouter(workers);
         for (ExecuteTaskParam task : tasks) {
             String key = Long.toString(task.getTaskId());
-            task.setWorker(consistentHashRouter.routeNode(key));
+            task.setWorker(router.apply(key));
         }
     }
 
     // ------------------------------------------------------private methods
 
-    private ConsistentHash<Worker> getConsistentHash(List<Worker> workers) {
+    private Function<String, Worker> getRouter(List<Worker> workers) {
         String group = workers.get(0).getGroup();
-        Pair<List<Worker>, ConsistentHash<Worker>> pair = cache.get(group);
+        Pair<List<Worker>, Function<String, Worker>> pair = cache.get(group);
         if (pair != null && pair.getLeft() == workers) {
             return pair.getRight();
         }
 
-        synchronized (group.intern()) {
-            if ((pair = cache.get(group)) == null) {
-                pair = Pair.of(workers, new ConsistentHash<>(workers, virtualCount, Worker::serialize, hashFunction));
-                cache.put(group, pair);
-            } else if (pair.getLeft() != workers) {
-                ConsistentHash<Worker> router = pair.getRight();
-                List<Worker> oldWorkers = pair.getLeft();
-                List<Worker> newWorkers = workers;
-                oldWorkers.stream().filter(e -> !newWorkers.contains(e)).forEach(router::removeNode);
-                newWorkers.stream().filter(e -> !oldWorkers.contains(e)).forEach(e -> router.addNode(e, virtualCount));
-                pair = Pair.of(newWorkers, router);
-                cache.put(group, pair);
-            }
-            return pair.getRight();
-        }
+        // copy-on-write: the discovered worker list is immutable, rebuild when its identity changed
+        pair = Pair.of(workers, routerFactory.apply(workers));
+        cache.put(group, pair);
+        return pair.getRight();
     }
 
 }
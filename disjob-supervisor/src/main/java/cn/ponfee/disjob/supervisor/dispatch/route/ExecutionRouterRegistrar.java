@@ -34,6 +34,11 @@ public class ExecutionRouterRegistrar {
 
     private static final ExecutionRouter[] REGISTERED_ROUTES = new ExecutionRouter[RouteStrategy.values().length];
 
+    /**
+     * Marks the route strategy whether is registered by user(application code or SPI)
+     */
+    private static final boolean[] USER_REGISTERED = new boolean[RouteStrategy.values().length];
+
     static {
         // register built-in execution router
         register0(RoundRobinExecutionRouter.DEFAULT);
@@ -42,6 +47,8 @@ public class ExecutionRouterRegistrar {
         register0(new ConsistentHashExecutionRouter());
         register0(new LocalPriorityExecutionRouter(RoundRobinExecutionRouter.DEFAULT));
         register0(BroadcastExecutionRouter.INSTANCE);
+        // without worker metrics, should register the router with metrics provider at supervisor startup
+        register0(new LeastLoadedExecutionRouter(worker -> null));
 
         for (int i = 0; i < REGISTERED_ROUTES.length; i++) {
             if (REGISTERED_ROUTES[i] == null) {
@@ -55,6 +62,23 @@ public class ExecutionRouterRegistrar {
         Assert.notNull(executionRouter.routeStrategy(), "Register execution router strategy cannot be null.");
         Assert.isTrue(executionRouter.routeStrategy().isNotBroadcast(), "Cannot register broadcast strategy.");
         register0(executionRouter);
+        USER_REGISTERED[executionRouter.routeStrategy().ordinal()] = true;
+    }
+
+    /**
+     * Replaces the built-in execution router, if the route strategy already registered by user then does nothing.
+     *
+     * @param executionRouter the built-in execution router
+     * @return {@code true} if registered
+     */
+    public static synchronized boolean registerBuiltIn(ExecutionRouter executionRouter) {
+        Assert.notNull(executionRouter, "Register execution router cannot be null.");
+        Assert.notNull(executionRouter.routeStrategy(), "Register execution router strategy cannot be null.");
+        if (USER_REGISTERED[executionRouter.routeStrategy().ordinal()]) {
+            return false;
+        }
+        register0(executionRouter);
+        return true;
     }
 
     public static void route(RouteStrategy routeStrategy, List<ExecuteTaskParam> tasks, List<Worker> workers) {
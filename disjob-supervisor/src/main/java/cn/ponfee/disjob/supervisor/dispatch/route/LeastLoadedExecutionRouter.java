@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.supervisor.dispatch.route;
+
+import cn.ponfee.disjob.core.enums.RouteStrategy;
+import cn.ponfee.disjob.core.worker.Worker;
+import cn.ponfee.disjob.core.worker.WorkerMetrics.WorkerThreadPoolMetrics;
+import cn.ponfee.disjob.core.worker.dto.ExecuteTaskParam;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Least loaded algorithm for execution router, based on the worker thread pool metrics.
+ * <p>Uses power-of-two-choices: randomly choose two workers and route to the less loaded one,
+ * avoid all supervisors herding to the same least loaded worker with the stale metrics.
+ * <p>The load is (active threads + queued tasks + assigned in this route) / maximum pool size,
+ * the worker without metrics is regarded as idle.
+ *
+ * @author Ponfee
+ */
+public class LeastLoadedExecutionRouter extends ExecutionRouter {
+
+    private final Function<Worker, WorkerThreadPoolMetrics> metricsProvider;
+    private final Random random;
+
+    public LeastLoadedExecutionRouter(Function<Worker, WorkerThreadPoolMetrics> metricsProvider) {
+        this(metricsProvider, null);
+    }
+
+    public LeastLoadedExecutionRouter(Function<Worker, WorkerThreadPoolMetrics> metricsProvider, Random random) {
+        this.metricsProvider = Objects.requireNonNull(metricsProvider, "Metrics provider cannot be null.");
+        this.random = random;
+    }
+
+    @Override
+    public RouteStrategy routeStrategy() {
+        return RouteStrategy.LEAST_LOADED;
+    }
+
+    @Override
+    protected void doRoute(List<ExecuteTaskParam> tasks, List<Worker> workers) {
+        int size = workers.size();
+        if (size == 1) {
+            Worker worker = workers.get(0);
+            tasks.forEach(task -> task.setWorker(worker));
+            return;
+        }
+
+        int[] pending = new int[size];
+        int[] capacity = new int[size];
+        for (int i = 0; i < size; i++) {
+            WorkerThreadPoolMetrics metrics = metricsProvider.apply(workers.get(i));
+            if (metrics == null || metrics.isClosed()) {
+                capacity[i] = metrics == null ? 1 : 0;
+            } else {
+                pending[i] = metrics.getActivePoolSize() + (int) metrics.getQueueTaskCount();
+                capacity[i] = Math.max(1, metrics.getMaximumPoolSize());
+            }
+        }
+
+        Random rd = (random != null) ? random : ThreadLocalRandom.current();
+        for (ExecuteTaskParam task : tasks) {
+            int a = rd.nextInt(size);
+            int b = rd.nextInt(size - 1);
+            if (b >= a) {
+                b++;
+            }
+            int index = compareLoad(pending, capacity, a, b) <= 0 ? a : b;
+            pending[index]++;
+            task.setWorker(workers.get(index));
+        }
+    }
+
+    /**
+     * Compares pending[a]/capacity[a] with pending[b]/capacity[b], zero capacity(closed) is the maximum load.
+     */
+    private static int compareLoad(int[] pending, int[] capacity, int a, int b) {
+        if (capacity[a] == 0 || capacity[b] == 0) {
+            return Integer.compare(capacity[b], capacity[a]);
+        }
+        return Long.compare((long) pending[a] * capacity[b], (long) pending[b] * capacity[a]);
+    }
+
+}
@@ -18,6 +18,7 @@ package cn.ponfee.disjob.supervisor.model;
 
 import cn.ponfee.disjob.common.dag.DAGNode;
 import cn.ponfee.disjob.common.model.BaseEntity;
+import cn.ponfee.disjob.core.enums.ExecuteStatus;
 import cn.ponfee.disjob.core.enums.RunStatus;
 import cn.ponfee.disjob.core.enums.RunType;
 import lombok.Getter;
@@ -27,6 +28,7 @@ import org.springframework.util.Assert;
 
 import java.beans.Transient;
 import java.util.Date;
+import java.util.List;
 
 /**
  * The schedule instance entity, mapped database table sched_instance
@@ -116,6 +118,31 @@ public class SchedInstance extends BaseEntity {
      */
     private String workflowCurNode;
 
+    /**
+     * 待执行的任务数量(为空表示未维护计数)
+     */
+    private Integer waitingTaskCount;
+
+    /**
+     * 执行中的任务数量
+     */
+    private Integer executingTaskCount;
+
+    /**
+     * 已暂停的任务数量
+     */
+    private Integer pausedTaskCount;
+
+    /**
+     * 已完成的任务数量
+     */
+    private Integer completedTaskCount;
+
+    /**
+     * 已失败的任务数量
+     */
+    private Integer failedTaskCount;
+
     /**
      * 下一次的扫描时间
      */
@@ -248,6 +275,44 @@ public class SchedInstance extends BaseEntity {
         this.dedupKey = (isUnique && !isWorkflowNode()) ? RunType.DEDUP_KEY_VALUE : instanceId;
     }
 
+    /**
+     * Resets the task status counters by the tasks of this instance.
+     *
+     * @param tasks the tasks of this instance
+     */
+    public void resetTaskCounts(List<SchedTask> tasks) {
+        int waiting = 0, executing = 0, paused = 0, completed = 0, failed = 0;
+        for (SchedTask task : tasks) {
+            switch (ExecuteStatus.of(task.getExecuteStatus())) {
+                case WAITING: waiting++; break;
+                case EXECUTING: executing++; break;
+                case PAUSED: paused++; break;
+                case COMPLETED: completed++; break;
+                default: failed++; break;
+            }
+        }
+        this.waitingTaskCount = waiting;
+        this.executingTaskCount = executing;
+        this.pausedTaskCount = paused;
+        this.completedTaskCount = completed;
+        this.failedTaskCount = failed;
+    }
+
+    /**
+     * Returns {@code true} if the task counters are maintained and valid.
+     *
+     * @return {@code true} if has task counters
+     */
+    @Transient
+    public boolean hasTaskCounts() {
+        return isValidCount(waitingTaskCount) && isValidCount(executingTaskCount) && isValidCount(pausedTaskCount)
+            && isValidCount(completedTaskCount) && isValidCount(failedTaskCount);
+    }
+
+    public int obtainTotalTaskCount() {
+        return waitingTaskCount + executingTaskCount + pausedTaskCount + completedTaskCount + failedTaskCount;
+    }
+
     public void markTerminated(RunStatus runStatus, Date runEndTime) {
         Assert.state(runStatus.isTerminal(), () -> "Invalid terminal run status: " + instanceId + ", " + runStatus);
         Assert.state(runEndTime != null, () -> "Run end time cannot be null: " + instanceId);
@@ -255,4 +320,8 @@ public class SchedInstance extends BaseEntity {
         this.runEndTime = runEndTime;
     }
 
+    private static boolean isValidCount(Integer count) {
+        return count != null && count >= 0;
+    }
+
 }
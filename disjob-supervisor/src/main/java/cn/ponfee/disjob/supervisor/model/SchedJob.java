@@ -140,7 +140,7 @@ public class SchedJob extends BaseEntity {
     private Integer misfireStrategy;
 
     /**
-     * 任务分派给哪一个worker的路由策略：1-轮询；2-随机；3-简单的哈希；4-一致性哈希；5-本地优先；6-广播；
+     * 任务分派给哪一个worker的路由策略：1-轮询；2-随机；3-简单的哈希；4-一致性哈希；5-本地优先；6-广播；7-最小负载；
      *
      * @see RouteStrategy
      */
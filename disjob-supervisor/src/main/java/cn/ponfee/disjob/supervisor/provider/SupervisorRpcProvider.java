@@ -24,6 +24,7 @@ import cn.ponfee.disjob.core.supervisor.Supervisor;
 import cn.ponfee.disjob.core.supervisor.dto.StartTaskParam;
 import cn.ponfee.disjob.core.supervisor.dto.StartTaskResult;
 import cn.ponfee.disjob.core.supervisor.dto.StopTaskParam;
+import cn.ponfee.disjob.core.supervisor.dto.WorkerHeartbeatParam;
 import cn.ponfee.disjob.core.worker.Worker;
 import cn.ponfee.disjob.registry.SupervisorRegistry;
 import cn.ponfee.disjob.supervisor.application.OperationEventService;
@@ -33,6 +34,7 @@ import cn.ponfee.disjob.supervisor.base.ExtendedSupervisorRpcService;
 import cn.ponfee.disjob.supervisor.base.OperationEventType;
 import cn.ponfee.disjob.supervisor.base.SupervisorMetrics;
 import cn.ponfee.disjob.supervisor.component.JobManager;
+import cn.ponfee.disjob.supervisor.component.WorkerHeartbeatTable;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Date;
@@ -50,6 +52,7 @@ public class SupervisorRpcProvider implements ExtendedSupervisorRpcService {
 
     private final SupervisorRegistry supervisorRegistry;
     private final JobManager jobManager;
+    private final WorkerHeartbeatTable workerHeartbeatTable;
     private final Supervisor.Local localSupervisor;
 
     // -------------------------------------------------------for worker invoke method
@@ -57,6 +60,14 @@ public class SupervisorRpcProvider implements ExtendedSupervisorRpcService {
     @Override
     public void subscribeWorkerEvent(RegistryEventType eventType, Worker worker) {
         supervisorRegistry.subscribeServerEvent(eventType, worker);
+        if (!eventType.isRegister()) {
+            workerHeartbeatTable.remove(worker.serialize());
+        }
+    }
+
+    @Override
+    public void reportWorkerHeartbeat(WorkerHeartbeatParam param) {
+        workerHeartbeatTable.receive(param);
     }
 
     @Override
@@ -74,6 +85,16 @@ public class SupervisorRpcProvider implements ExtendedSupervisorRpcService {
         return jobManager.stopTask(param);
     }
 
+    @Override
+    public List<StartTaskResult> startTasks(List<StartTaskParam> params) {
+        return jobManager.startTasks(params);
+    }
+
+    @Override
+    public boolean[] stopTasks(List<StopTaskParam> params) {
+        return jobManager.stopTasks(params);
+    }
+
     @Override
     public boolean pauseInstance(long instanceId) {
         return jobManager.pauseInstance(instanceId);
@@ -17,8 +17,7 @@
 package cn.ponfee.disjob.supervisor.scanner;
 
 import cn.ponfee.disjob.common.collect.Collects;
-import cn.ponfee.disjob.common.concurrent.AbstractHeartbeatThread;
-import cn.ponfee.disjob.common.concurrent.PeriodExecutor;
+import cn.ponfee.disjob.common.concurrent.*;
 import cn.ponfee.disjob.common.lock.LockTemplate;
 import cn.ponfee.disjob.core.enums.RunStatus;
 import cn.ponfee.disjob.supervisor.component.JobManager;
@@ -31,13 +30,16 @@ import cn.ponfee.disjob.supervisor.model.SchedTask;
 import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.util.Assert;
 
-import java.util.Date;
-import java.util.List;
-import java.util.Set;
+import javax.annotation.PreDestroy;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.stream.Collectors;
 
 /**
  * Scan expire (waiting or running) instance record.
+ * <p>The scanned instances are processed by pipeline: renew next scan time(parallel) -> load tasks(batch query) -> process(parallel)
  *
  * @author Ponfee
  */
@@ -51,6 +53,7 @@ public class ExpireInstanceScanner extends AbstractHeartbeatThread {
     private final WorkerClient workerClient;
     private final LockTemplate lockTemplate;
     private final long beforeMilliseconds;
+    private final ExecutorService processInstanceExecutor;
     private final PeriodExecutor logPrinter = new PeriodExecutor(30000, () -> log.warn("Not discovered any worker."));
 
     public ExpireInstanceScanner(RunStatus scanRunStatus,
@@ -72,6 +75,14 @@ public class ExpireInstanceScanner extends AbstractHeartbeatThread {
         this.workerClient = workerClient;
         this.lockTemplate = lockTemplate;
         this.beforeMilliseconds = (heartbeatPeriodMs * 12);
+        this.processInstanceExecutor = ThreadPoolExecutors.builder()
+            .corePoolSize(1)
+            .maximumPoolSize(conf.getMaximumProcessInstancePoolSize())
+            .workQueue(new SynchronousQueue<>())
+            .keepAliveTimeSeconds(300)
+            .rejectedHandler(ThreadPoolExecutors.CALLER_RUNS)
+            .threadFactory(NamedThreadFactory.builder().prefix("expire_" + scanRunStatus.name().toLowerCase() + "_instance_scanner").daemon(true).uncaughtExceptionHandler(log).build())
+            .build();
     }
 
     @Override
@@ -83,34 +94,67 @@ public class ExpireInstanceScanner extends AbstractHeartbeatThread {
         return Boolean.TRUE.equals(lockTemplate.execute(this::scan));
     }
 
+    @PreDestroy
+    @Override
+    public void close() {
+        super.close();
+        ThreadPoolExecutors.shutdown(processInstanceExecutor, 1);
+    }
+
     // --------------------------------------------------------------------------private methods
 
     private boolean scan() {
         Date expireTime = new Date(System.currentTimeMillis() - beforeMilliseconds);
         List<SchedInstance> instances = jobQuerier.findExpireInstance(scanRunStatus, expireTime, scanBatchSize);
-        instances.forEach(this::processInstance);
+        if (instances.isEmpty()) {
+            return true;
+        }
+
+        // renew next scan time, only process the renewed instances
+        Date now = new Date();
+        List<SchedInstance> renewedInstances = MultithreadExecutors.call(instances, e -> renewInstance(e, now), processInstanceExecutor)
+            .stream().filter(Objects::nonNull).collect(Collectors.toList());
+
+        if (!renewedInstances.isEmpty()) {
+            Map<Long, List<SchedTask>> instanceTasks = jobQuerier.findBaseInstanceTasks(Collects.convert(renewedInstances, SchedInstance::getInstanceId));
+            // the job cache of current scan batch
+            Map<Long, SchedJob> jobs = new ConcurrentHashMap<>();
+            MultithreadExecutors.run(renewedInstances, e -> processInstance(e, instanceTasks, jobs), processInstanceExecutor);
+        }
         return instances.size() < scanBatchSize;
     }
 
-    private void processInstance(SchedInstance instance) {
-        if (jobManager.updateInstanceNextScanTime(instance, new Date())) {
-            List<SchedTask> allTasks = jobQuerier.findBaseInstanceTasks(instance.getInstanceId());
+    private SchedInstance renewInstance(SchedInstance instance, Date nextScanTime) {
+        try {
+            return jobManager.updateInstanceNextScanTime(instance, nextScanTime) ? instance : null;
+        } catch (Throwable t) {
+            log.error("Renew scanned instance next scan time error: {}", instance.getInstanceId(), t);
+            return null;
+        }
+    }
+
+    private void processInstance(SchedInstance instance, Map<Long, List<SchedTask>> instanceTasks, Map<Long, SchedJob> jobs) {
+        try {
+            List<SchedTask> allTasks = instanceTasks.getOrDefault(instance.getInstanceId(), Collections.emptyList());
             List<SchedTask> waitingTasks = Collects.filter(allTasks, SchedTask::isWaiting);
             if (CollectionUtils.isNotEmpty(waitingTasks)) {
-                redispatchWaitingTask(instance, waitingTasks);
+                redispatchWaitingTask(instance, waitingTasks, jobs);
             } else {
                 purgeExpiredInstance(instance, allTasks);
             }
+        } catch (Throwable t) {
+            log.error("Process scanned instance error: {}", instance.getInstanceId(), t);
+            Threads.reinterruptIfInterruptedException(t);
         }
     }
 
-    private void redispatchWaitingTask(SchedInstance instance, List<SchedTask> waitingTasks) {
+    private void redispatchWaitingTask(SchedInstance instance, List<SchedTask> waitingTasks, Map<Long, SchedJob> jobs) {
         // sieve the (un-dispatch) or (assigned worker dead) waiting tasks to redo dispatch
-        List<SchedTask> redispatchingTasks = Collects.filter(waitingTasks, workerClient::isNeedRedispatch);
+        List<SchedTask> redispatchingTasks = workerClient.filterNeedRedispatch(waitingTasks);
         if (CollectionUtils.isEmpty(redispatchingTasks)) {
             return;
         }
-        SchedJob job = jobQuerier.getJob(instance.getJobId());
+        SchedJob job = getJob(instance.getJobId(), jobs);
         if (job == null) {
             log.error("Job not found: {}", instance.getJobId());
             return;
@@ -124,6 +168,20 @@ public class ExpireInstanceScanner extends AbstractHeartbeatThread {
         log.info("Redo dispatch task: {}", instance.getInstanceId());
     }
 
+    private SchedJob getJob(long jobId, Map<Long, SchedJob> jobs) {
+        SchedJob job = jobs.get(jobId);
+        if (job != null) {
+            return job;
+        }
+        // 不能在`computeIfAbsent`中查询数据库：会持有ConcurrentHashMap的bin锁，阻塞相同bin的其它线程
+        job = jobQuerier.getJob(jobId);
+        if (job == null) {
+            return null;
+        }
+        SchedJob exists = jobs.putIfAbsent(jobId, job);
+        return exists != null ? exists : job;
+    }
+
     private void purgeExpiredInstance(SchedInstance instance, List<SchedTask> allTasks) {
         if (allTasks.stream().allMatch(SchedTask::isTerminal)) {
             // double check instance run status
@@ -20,56 +20,75 @@ import cn.ponfee.disjob.common.base.SingletonClassConstraint;
 import cn.ponfee.disjob.common.concurrent.*;
 import cn.ponfee.disjob.common.date.Dates;
 import cn.ponfee.disjob.common.lock.LockTemplate;
+import cn.ponfee.disjob.common.tuple.Tuple2;
 import cn.ponfee.disjob.core.enums.*;
+import cn.ponfee.disjob.core.supervisor.Supervisor;
+import cn.ponfee.disjob.registry.SupervisorRegistry;
 import cn.ponfee.disjob.supervisor.base.TriggerTimes;
 import cn.ponfee.disjob.supervisor.component.JobManager;
 import cn.ponfee.disjob.supervisor.component.JobQuerier;
+import cn.ponfee.disjob.supervisor.component.TriggeringJobIndex;
 import cn.ponfee.disjob.supervisor.component.WorkerClient;
 import cn.ponfee.disjob.supervisor.configuration.SupervisorProperties;
 import cn.ponfee.disjob.supervisor.model.SchedInstance;
 import cn.ponfee.disjob.supervisor.model.SchedJob;
+import com.google.common.collect.Lists;
 import com.google.common.math.IntMath;
 import org.springframework.dao.DuplicateKeyException;
 
 import javax.annotation.PreDestroy;
-import java.util.Date;
-import java.util.List;
+import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.SynchronousQueue;
+import java.util.function.LongPredicate;
 
 /**
  * The schedule job heartbeat thread, <br/>
  * find the sched_job which will be trigger, <br/>
  * split to one sched_instance and many sched_task
+ * <p>if configured `scanTriggeringJobShardCount > 0`, the sched_job will be partitioned by `job_id % shardCount`,
+ * and each supervisor only scan the shards which assigned by the registered supervisor list.
+ * <p>if enabled triggering job index, will skip the database scan when none job will be triggering.
  *
  * @author Ponfee
  */
 public class TriggeringJobScanner extends AbstractHeartbeatThread {
 
     private final int scanBatchSize;
+    private final int triggerJobBatchSize;
     private final int maximumJobScanFailures;
     private final JobManager jobManager;
     private final JobQuerier jobQuerier;
     private final WorkerClient workerClient;
     private final LockTemplate lockTemplate;
+    private final SupervisorRegistry supervisorRegistry;
+    private final TriggeringJobIndex triggeringJobIndex;
+    private final int shardCount;
     private final long afterMilliseconds;
     private final ExecutorService processJobExecutor;
     private final PeriodExecutor logPrinter = new PeriodExecutor(30_000L, () -> log.warn("Not discovered any worker."));
+    private volatile List<Integer> ownedShards = Collections.emptyList();
 
     public TriggeringJobScanner(SupervisorProperties conf,
                                 JobManager jobManager,
                                 JobQuerier jobQuerier,
                                 WorkerClient workerClient,
-                                LockTemplate lockTemplate) {
+                                LockTemplate lockTemplate,
+                                SupervisorRegistry supervisorRegistry,
+                                TriggeringJobIndex triggeringJobIndex) {
         super(conf.getScanTriggeringJobPeriodMs());
         SingletonClassConstraint.constrain(this);
 
         this.scanBatchSize = conf.getScanBatchSize();
+        this.triggerJobBatchSize = conf.getTriggerJobBatchSize();
         this.maximumJobScanFailures = conf.getMaximumJobScanFailures();
         this.jobManager = jobManager;
         this.jobQuerier = jobQuerier;
         this.workerClient = workerClient;
         this.lockTemplate = lockTemplate;
+        this.supervisorRegistry = supervisorRegistry;
+        this.triggeringJobIndex = triggeringJobIndex;
+        this.shardCount = conf.getScanTriggeringJobShardCount();
         // heartbeat period duration: 2s * 3 = 6s
         this.afterMilliseconds = heartbeatPeriodMs * 3;
         this.processJobExecutor = ThreadPoolExecutors.builder()
@@ -88,7 +107,22 @@ public class TriggeringJobScanner extends AbstractHeartbeatThread {
             logPrinter.execute();
             return true;
         }
-        return Boolean.TRUE.equals(lockTemplate.execute(this::scan));
+        if (shardCount <= 0) {
+            if (!triggeringJobIndex.hasTriggering(System.currentTimeMillis() + afterMilliseconds, jobId -> true)) {
+                return true;
+            }
+            return Boolean.TRUE.equals(lockTemplate.execute(this::scan));
+        }
+        List<Integer> shards = rebalanceShards();
+        if (shards.isEmpty()) {
+            return true;
+        }
+        Set<Integer> shardSet = new HashSet<>(shards);
+        LongPredicate filter = jobId -> shardSet.contains((int) (jobId % shardCount));
+        if (!triggeringJobIndex.hasTriggering(System.currentTimeMillis() + afterMilliseconds, filter)) {
+            return true;
+        }
+        return scan(shards, filter);
     }
 
     @PreDestroy
@@ -103,11 +137,84 @@ public class TriggeringJobScanner extends AbstractHeartbeatThread {
     private boolean scan() {
         long maxNextTriggerTime = System.currentTimeMillis() + afterMilliseconds;
         List<SchedJob> jobs = jobQuerier.findBeTriggeringJob(maxNextTriggerTime, scanBatchSize);
-        MultithreadExecutors.run(jobs, this::processJob, processJobExecutor);
-        return jobs.size() < scanBatchSize;
+        return process(jobs, maxNextTriggerTime, jobId -> true);
+    }
+
+    private boolean scan(List<Integer> shards, LongPredicate filter) {
+        long maxNextTriggerTime = System.currentTimeMillis() + afterMilliseconds;
+        List<SchedJob> jobs = jobQuerier.findBeTriggeringJob(maxNextTriggerTime, shardCount, shards, scanBatchSize);
+        return process(jobs, maxNextTriggerTime, filter);
+    }
+
+    private boolean process(List<SchedJob> jobs, long maxNextTriggerTime, LongPredicate filter) {
+        if (triggerJobBatchSize > 1) {
+            List<Tuple2<SchedJob, Long>> prepared = Collections.synchronizedList(new ArrayList<>(jobs.size()));
+            MultithreadExecutors.run(jobs, job -> processJob(job, prepared), processJobExecutor);
+            List<List<Tuple2<SchedJob, Long>>> batches = Lists.partition(new ArrayList<>(prepared), triggerJobBatchSize);
+            MultithreadExecutors.run(batches, this::triggerJobs, processJobExecutor);
+        } else {
+            MultithreadExecutors.run(jobs, job -> processJob(job, null), processJobExecutor);
+        }
+        if (jobs.size() < scanBatchSize) {
+            triggeringJobIndex.reconcile(maxNextTriggerTime, filter, jobs);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 每次心跳都基于注册中心的supervisor列表重新计算分片，supervisor上下线时自动重新平衡
+     *
+     * @return current supervisor owned shards
+     */
+    private List<Integer> rebalanceShards() {
+        List<Supervisor> supervisors;
+        try {
+            supervisors = supervisorRegistry.getRegisteredServers();
+        } catch (Throwable t) {
+            // 注册中心异常时沿用上一次的分片，重复触发由唯一索引`uk_jobid_triggertime_runtype_dedupkey`兜底
+            log.error("Get registered supervisors error, use last owned shards: {}", ownedShards, t);
+            return ownedShards;
+        }
+        List<Integer> shards = assignShards(shardCount, supervisors, Supervisor.local());
+        if (!shards.equals(ownedShards)) {
+            log.info("Rebalanced triggering job shards: {} -> {}, {}", ownedShards, shards, supervisors);
+            this.ownedShards = shards;
+        }
+        return shards;
+    }
+
+    /**
+     * Assign shards to the supervisor, shard `i` owned by the sorted supervisors[i % size]
+     *
+     * @param shardCount  the total shard count
+     * @param supervisors the registered supervisors
+     * @param current     the current supervisor
+     * @return shards of current supervisor owned
+     */
+    static List<Integer> assignShards(int shardCount, List<Supervisor> supervisors, Supervisor current) {
+        if (current == null || supervisors == null || supervisors.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Supervisor> list = new ArrayList<>(new TreeSet<>(supervisors));
+        int index = list.indexOf(current);
+        if (index < 0) {
+            return Collections.emptyList();
+        }
+        List<Integer> shards = new ArrayList<>();
+        for (int i = index; i < shardCount; i += list.size()) {
+            shards.add(i);
+        }
+        return Collections.unmodifiableList(shards);
     }
 
-    private void processJob(SchedJob job) {
+    /**
+     * Process the job
+     *
+     * @param job      the job
+     * @param prepared if null then trigger immediately, else add to prepared list for batch trigger
+     */
+    private void processJob(SchedJob job, List<Tuple2<SchedJob, Long>> prepared) {
         Date now = new Date();
         try {
             // check has available workers
@@ -138,14 +245,44 @@ public class TriggeringJobScanner extends AbstractHeartbeatThread {
             }
 
             refreshNextTriggerTime(job, triggerTime, now);
-            jobManager.scheduleTriggerJob(job, triggerTime);
-        } catch (DuplicateKeyException e) {
-            boolean updated = jobManager.updateJobNextTriggerTime(job);
-            log.info("Update conflict next trigger time: {}, {}, {}", updated, job, e.getMessage());
-        } catch (IllegalArgumentException e) {
-            log.error("Scan trigger job failed: {}", job, e);
-            disableJob(job, "scan process failed, " + e.getMessage());
+            if (prepared != null) {
+                prepared.add(Tuple2.of(job, triggerTime));
+            } else {
+                jobManager.scheduleTriggerJob(job, triggerTime);
+            }
         } catch (Throwable t) {
+            handleTriggerError(job, now, t);
+        }
+    }
+
+    private void triggerJobs(List<Tuple2<SchedJob, Long>> jobs) {
+        if (jobs.size() > 1) {
+            try {
+                jobManager.scheduleTriggerJobs(jobs);
+                return;
+            } catch (Throwable t) {
+                // 整批事务已回滚，降级为逐个job触发
+                log.warn("Batch trigger job failed, fallback to one by one: {}, {}", jobs.size(), t.getMessage());
+            }
+        }
+        for (Tuple2<SchedJob, Long> e : jobs) {
+            Date now = new Date();
+            try {
+                jobManager.scheduleTriggerJob(e.a, e.b);
+            } catch (Throwable t) {
+                handleTriggerError(e.a, now, t);
+            }
+        }
+    }
+
+    private void handleTriggerError(SchedJob job, Date now, Throwable t) {
+        if (t instanceof DuplicateKeyException) {
+            boolean updated = jobManager.updateJobNextTriggerTime(job);
+            log.info("Update conflict next trigger time: {}, {}, {}", updated, job, t.getMessage());
+        } else if (t instanceof IllegalArgumentException) {
+            log.error("Scan trigger job failed: {}", job, t);
+            disableJob(job, "scan process failed, " + t.getMessage());
+        } else {
             log.error("Scan trigger job error: {}", job, t);
             if (job.getScanFailures() >= maximumJobScanFailures) {
                 disableJob(job, "scan over failed, " + t.getMessage());
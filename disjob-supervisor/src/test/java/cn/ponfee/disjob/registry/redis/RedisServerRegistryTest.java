@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.registry.redis;
+
+import cn.ponfee.disjob.core.base.JobConstants;
+import cn.ponfee.disjob.core.worker.Worker;
+import cn.ponfee.disjob.registry.redis.configuration.RedisRegistryProperties;
+import cn.ponfee.disjob.supervisor.SpringBootTestBase;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis server registry test
+ *
+ * @author Ponfee
+ */
+public class RedisServerRegistryTest extends SpringBootTestBase<StringRedisTemplate> {
+
+    @Test
+    public void testRedisKeys() {
+        Assertions.assertEquals(Arrays.asList("{ns:disjob.worker}", "{ns:disjob.worker}:version"), RedisServerRegistry.redisKeys("ns:disjob.worker", ':'));
+    }
+
+    @Test
+    public void testDiscoverVersionShortCircuit() {
+        String namespace = "test_" + RandomStringUtils.randomAlphanumeric(8);
+        RedisRegistryProperties config = new RedisRegistryProperties();
+        config.setNamespace(namespace);
+        // avoid the heartbeat thread discover servers during test
+        config.setSessionTimeoutMs(TimeUnit.HOURS.toMillis(1));
+
+        List<String> keys = RedisServerRegistry.redisKeys(namespace + ":" + JobConstants.WORKER_CONFIG_KEY, ':');
+        String serversKey = keys.get(0), versionKey = keys.get(1);
+        String group = "group_" + RandomStringUtils.randomAlphanumeric(8);
+        Worker worker1 = new Worker(group, "worker1", "127.0.0.1", 8081);
+        Worker worker2 = new Worker(group, "worker2", "127.0.0.1", 8082);
+        double score = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+
+        RedisSupervisorRegistry registry = new RedisSupervisorRegistry(config, new RestTemplate(), bean);
+        try {
+            bean.opsForZSet().add(serversKey, worker1.serialize(), score);
+            bean.opsForValue().increment(versionKey);
+            registry.discoverServers();
+            Assertions.assertEquals(Arrays.asList(worker1), registry.getAliveServers(group));
+
+            // the version not changed, then not fetch the servers
+            bean.opsForZSet().add(serversKey, worker2.serialize(), score);
+            registry.discoverServers();
+            Assertions.assertEquals(Arrays.asList(worker1), registry.getAliveServers(group));
+
+            // the version changed, then fetch the servers
+            bean.opsForValue().increment(versionKey);
+            registry.discoverServers();
+            Assertions.assertEquals(Arrays.asList(worker1, worker2), registry.getAliveServers(group));
+        } finally {
+            registry.close();
+            bean.delete(keys);
+        }
+    }
+
+}
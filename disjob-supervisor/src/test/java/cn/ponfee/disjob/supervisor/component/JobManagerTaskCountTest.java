@@ -0,0 +1,306 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.supervisor.component;
+
+import cn.ponfee.disjob.core.enums.*;
+import cn.ponfee.disjob.core.supervisor.dto.StopTaskParam;
+import cn.ponfee.disjob.supervisor.SpringBootTestBase;
+import cn.ponfee.disjob.supervisor.dao.mapper.SchedInstanceMapper;
+import cn.ponfee.disjob.supervisor.dao.mapper.SchedJobMapper;
+import cn.ponfee.disjob.supervisor.dao.mapper.SchedTaskMapper;
+import cn.ponfee.disjob.supervisor.model.SchedInstance;
+import cn.ponfee.disjob.supervisor.model.SchedJob;
+import cn.ponfee.disjob.supervisor.model.SchedTask;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * JobManager task counters test
+ *
+ * @author Ponfee
+ */
+public class JobManagerTaskCountTest extends SpringBootTestBase<JobManager> {
+
+    private static final String WORKER = "default:1a2b3c:127.0.0.1:8080";
+
+    @Resource
+    private SchedInstanceMapper instanceMapper;
+
+    @Resource
+    private SchedTaskMapper taskMapper;
+
+    @Resource
+    private SchedJobMapper jobMapper;
+
+    @Test
+    public void testConcurrentStopLastTwoTasks() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 20; round++) {
+                List<SchedTask> tasks = createInstance(true, ExecuteStatus.EXECUTING, ExecuteStatus.EXECUTING);
+                long instanceId = tasks.get(0).getInstanceId();
+                CyclicBarrier barrier = new CyclicBarrier(2);
+                List<Future<Boolean>> futures = new ArrayList<>();
+                for (SchedTask task : tasks) {
+                    futures.add(executor.submit(() -> {
+                        barrier.await();
+                        return bean.stopTask(stopParam(task, WORKER, ExecuteStatus.COMPLETED));
+                    }));
+                }
+                // the other stop must be optimistic, or locked and not terminate the instance again
+                for (Future<Boolean> future : futures) {
+                    Assertions.assertTrue(future.get(10, TimeUnit.SECONDS));
+                }
+
+                // exactly one of the stops finished the instance
+                SchedInstance instance = instanceMapper.get(instanceId);
+                Assertions.assertEquals(RunStatus.COMPLETED.value(), instance.getRunStatus());
+                assertTaskCounts(instance, 0, 0, 0, 2, 0);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testOptimisticStopConflictRollback() {
+        List<SchedTask> tasks = createInstance(true, ExecuteStatus.EXECUTING, ExecuteStatus.EXECUTING, ExecuteStatus.EXECUTING);
+        long instanceId = tasks.get(0).getInstanceId();
+
+        // the task CAS failed by other worker, the counter update must be rolled back
+        Assertions.assertFalse(bean.stopTask(stopParam(tasks.get(0), "default:4d5e6f:127.0.0.1:8081", ExecuteStatus.COMPLETED)));
+        SchedInstance instance = instanceMapper.get(instanceId);
+        Assertions.assertEquals(RunStatus.RUNNING.value(), instance.getRunStatus());
+        assertTaskCounts(instance, 0, 3, 0, 0, 0);
+        Assertions.assertEquals(ExecuteStatus.EXECUTING.value(), taskMapper.get(tasks.get(0).getTaskId()).getExecuteStatus());
+
+        // the instance has other active task, optimistic stop without lock
+        Assertions.assertTrue(bean.stopTask(stopParam(tasks.get(0), WORKER, ExecuteStatus.COMPLETED)));
+        instance = instanceMapper.get(instanceId);
+        Assertions.assertEquals(RunStatus.RUNNING.value(), instance.getRunStatus());
+        assertTaskCounts(instance, 0, 2, 0, 1, 0);
+    }
+
+    @Test
+    public void testLockedStopFallback() {
+        List<SchedTask> tasks = createInstance(true, ExecuteStatus.COMPLETED, ExecuteStatus.EXECUTING);
+        long instanceId = tasks.get(0).getInstanceId();
+
+        // the keep-active predicate failed(last active task), fallback to the locked stop and finish the instance
+        Assertions.assertTrue(bean.stopTask(stopParam(tasks.get(1), WORKER, ExecuteStatus.EXECUTE_FAILED)));
+        SchedInstance instance = instanceMapper.get(instanceId);
+        Assertions.assertEquals(RunStatus.CANCELED.value(), instance.getRunStatus());
+        Assertions.assertNotNull(instance.getRunEndTime());
+        assertTaskCounts(instance, 0, 0, 0, 1, 1);
+
+        // the instance is terminal, stop again is conflict
+        Assertions.assertFalse(bean.stopTask(stopParam(tasks.get(1), WORKER, ExecuteStatus.EXECUTE_FAILED)));
+        assertTaskCounts(instanceMapper.get(instanceId), 0, 0, 0, 1, 1);
+    }
+
+    @Test
+    public void testNullCountersRecount() {
+        // the instance created before the counter columns added
+        List<SchedTask> tasks = createInstance(false, ExecuteStatus.EXECUTING, ExecuteStatus.EXECUTING);
+        long instanceId = tasks.get(0).getInstanceId();
+
+        Assertions.assertTrue(bean.stopTask(stopParam(tasks.get(0), WORKER, ExecuteStatus.COMPLETED)));
+        SchedInstance instance = instanceMapper.get(instanceId);
+        Assertions.assertEquals(RunStatus.RUNNING.value(), instance.getRunStatus());
+        assertTaskCounts(instance, 0, 1, 0, 1, 0);
+
+        Assertions.assertTrue(bean.stopTask(stopParam(tasks.get(1), WORKER, ExecuteStatus.COMPLETED)));
+        instance = instanceMapper.get(instanceId);
+        Assertions.assertEquals(RunStatus.COMPLETED.value(), instance.getRunStatus());
+        assertTaskCounts(instance, 0, 0, 0, 2, 0);
+    }
+
+    @Test
+    public void testDriftedCountersRecount() {
+        // the counters drifted: actual has two executing tasks
+        List<SchedTask> tasks = createInstance(false, ExecuteStatus.EXECUTING, ExecuteStatus.EXECUTING);
+        long instanceId = tasks.get(0).getInstanceId();
+        updateTaskCounts(instanceId, 0, 1, 0, 0, 0);
+
+        // the counters indicate the last task, must recount and not terminate the instance
+        Assertions.assertTrue(bean.stopTask(stopParam(tasks.get(0), WORKER, ExecuteStatus.COMPLETED)));
+        SchedInstance instance = instanceMapper.get(instanceId);
+        Assertions.assertEquals(RunStatus.RUNNING.value(), instance.getRunStatus());
+        Assertions.assertNull(instance.getRunEndTime());
+        assertTaskCounts(instance, 0, 1, 0, 1, 0);
+
+        Assertions.assertTrue(bean.stopTask(stopParam(tasks.get(1), WORKER, ExecuteStatus.EXECUTE_FAILED)));
+        instance = instanceMapper.get(instanceId);
+        Assertions.assertEquals(RunStatus.CANCELED.value(), instance.getRunStatus());
+        assertTaskCounts(instance, 0, 0, 0, 1, 1);
+    }
+
+    @Test
+    public void testNegativeCounterRecount() {
+        List<SchedTask> tasks = createInstance(false, ExecuteStatus.COMPLETED, ExecuteStatus.EXECUTING, ExecuteStatus.EXECUTING);
+        long instanceId = tasks.get(0).getInstanceId();
+        updateTaskCounts(instanceId, 0, 0, 0, -1, 0);
+
+        Assertions.assertTrue(bean.stopTask(stopParam(tasks.get(1), WORKER, ExecuteStatus.COMPLETED)));
+        SchedInstance instance = instanceMapper.get(instanceId);
+        Assertions.assertEquals(RunStatus.RUNNING.value(), instance.getRunStatus());
+        assertTaskCounts(instance, 0, 1, 0, 2, 0);
+    }
+
+    @Test
+    public void testPauseAndResumeCounters() {
+        SchedJob job = createJob();
+        List<SchedTask> tasks = createInstance(job.getJobId(), false, ExecuteStatus.COMPLETED, ExecuteStatus.WAITING, ExecuteStatus.WAITING);
+        long instanceId = tasks.get(0).getInstanceId();
+        updateTaskCounts(instanceId, 5, 0, 0, 0, 0);
+
+        Assertions.assertTrue(bean.pauseInstance(instanceId));
+        SchedInstance instance = instanceMapper.get(instanceId);
+        Assertions.assertEquals(RunStatus.PAUSED.value(), instance.getRunStatus());
+        assertTaskCounts(instance, 0, 0, 2, 1, 0);
+
+        updateTaskCounts(instanceId, 0, 0, 0, 0, 0);
+        Assertions.assertTrue(bean.resumeInstance(instanceId));
+        instance = instanceMapper.get(instanceId);
+        Assertions.assertEquals(RunStatus.WAITING.value(), instance.getRunStatus());
+        assertTaskCounts(instance, 2, 0, 0, 1, 0);
+    }
+
+    @Test
+    public void testCancelCounters() {
+        SchedJob job = createJob();
+        List<SchedTask> tasks = createInstance(job.getJobId(), false, ExecuteStatus.COMPLETED, ExecuteStatus.WAITING, ExecuteStatus.PAUSED);
+        long instanceId = tasks.get(0).getInstanceId();
+        updateTaskCounts(instanceId, 0, 0, 0, 3, 0);
+
+        Assertions.assertTrue(bean.cancelInstance(instanceId, Operation.MANUAL_CANCEL));
+        SchedInstance instance = instanceMapper.get(instanceId);
+        Assertions.assertEquals(RunStatus.CANCELED.value(), instance.getRunStatus());
+        assertTaskCounts(instance, 0, 0, 0, 1, 2);
+    }
+
+    @Test
+    public void testPurgeCounters() {
+        SchedJob job = createJob();
+        // the executing task worker is dead
+        List<SchedTask> tasks = createInstance(job.getJobId(), true, ExecuteStatus.COMPLETED, ExecuteStatus.EXECUTING);
+        long instanceId = tasks.get(0).getInstanceId();
+
+        Assertions.assertTrue(bean.purgeInstance(instanceMapper.get(instanceId)));
+        SchedInstance instance = instanceMapper.get(instanceId);
+        Assertions.assertEquals(RunStatus.CANCELED.value(), instance.getRunStatus());
+        Assertions.assertEquals(ExecuteStatus.EXECUTE_ABORTED.value(), taskMapper.get(tasks.get(1).getTaskId()).getExecuteStatus());
+        assertTaskCounts(instance, 0, 0, 0, 1, 1);
+    }
+
+    @Test
+    public void testForceChangeStatusCounters() {
+        SchedJob job = createJob();
+        List<SchedTask> tasks = createInstance(job.getJobId(), true, ExecuteStatus.COMPLETED, ExecuteStatus.EXECUTE_FAILED);
+        long instanceId = tasks.get(0).getInstanceId();
+        Assertions.assertTrue(instanceMapper.terminate(instanceId, RunStatus.CANCELED, Collections.singletonList(RunStatus.RUNNING.value()), new Date()));
+
+        bean.changeInstanceStatus(instanceId, ExecuteStatus.WAITING);
+        SchedInstance instance = instanceMapper.get(instanceId);
+        Assertions.assertEquals(RunStatus.WAITING.value(), instance.getRunStatus());
+        assertTaskCounts(instance, 2, 0, 0, 0, 0);
+    }
+
+    // ------------------------------------------------------------------private methods
+
+    private SchedJob createJob() {
+        SchedJob job = new SchedJob();
+        job.setJobId(bean.generateId());
+        job.setGroup("default");
+        job.setJobName("test-task-count-" + job.getJobId());
+        job.setJobExecutor("cn.ponfee.disjob.test.executor.NoopJobExecutor");
+        job.setJobStatus(JobStatus.DISABLED.value());
+        job.setJobType(JobType.GENERAL.value());
+        job.setJobParam("");
+        job.setRetryType(RetryType.NONE.value());
+        job.setRetryCount(0);
+        job.setRetryInterval(0);
+        job.setTriggerType(TriggerType.CRON.value());
+        job.setTriggerValue("0/10 * * * * ?");
+        job.setExecuteTimeout(0);
+        job.setCollisionStrategy(CollisionStrategy.CONCURRENT.value());
+        job.setMisfireStrategy(MisfireStrategy.SKIP_ALL_LOST.value());
+        job.setRouteStrategy(RouteStrategy.ROUND_ROBIN.value());
+        job.setShutdownStrategy(ShutdownStrategy.RESUME.value());
+        job.setAlertOptions(0);
+        job.setUpdatedBy("0");
+        job.setCreatedBy("0");
+        job.setUpdatedAt(new Date());
+        job.setCreatedAt(new Date());
+        Assertions.assertEquals(1, jobMapper.insert(job));
+        return job;
+    }
+
+    private List<SchedTask> createInstance(boolean taskCounts, ExecuteStatus... taskStatuses) {
+        return createInstance(bean.generateId(), taskCounts, taskStatuses);
+    }
+
+    private List<SchedTask> createInstance(long jobId, boolean taskCounts, ExecuteStatus... taskStatuses) {
+        long instanceId = bean.generateId();
+        SchedInstance instance = SchedInstance.of(null, null, instanceId, jobId, RunType.SCHEDULE, System.currentTimeMillis(), 0);
+        instance.setRunStatus(RunStatus.RUNNING.value());
+        instance.fillDedupKey();
+        List<SchedTask> tasks = new ArrayList<>(taskStatuses.length);
+        for (int i = 0; i < taskStatuses.length; i++) {
+            SchedTask task = SchedTask.of(null, bean.generateId(), instanceId, i + 1, taskStatuses.length, WORKER);
+            task.setExecuteStatus(taskStatuses[i].value());
+            tasks.add(task);
+        }
+        if (taskCounts) {
+            instance.resetTaskCounts(tasks);
+        }
+        instanceMapper.insertBatch(Collections.singletonList(instance));
+        taskMapper.insertBatch(tasks);
+        return tasks;
+    }
+
+    private void updateTaskCounts(long instanceId, int waiting, int executing, int paused, int completed, int failed) {
+        SchedInstance counts = new SchedInstance();
+        counts.setInstanceId(instanceId);
+        counts.setWaitingTaskCount(waiting);
+        counts.setExecutingTaskCount(executing);
+        counts.setPausedTaskCount(paused);
+        counts.setCompletedTaskCount(completed);
+        counts.setFailedTaskCount(failed);
+        instanceMapper.updateTaskCounts(counts);
+    }
+
+    private static StopTaskParam stopParam(SchedTask task, String worker, ExecuteStatus toStatus) {
+        return StopTaskParam.of(null, task.getInstanceId(), task.getTaskId(), worker, Operation.TRIGGER, toStatus, null);
+    }
+
+    private static void assertTaskCounts(SchedInstance instance, int waiting, int executing, int paused, int completed, int failed) {
+        Assertions.assertEquals(waiting, instance.getWaitingTaskCount());
+        Assertions.assertEquals(executing, instance.getExecutingTaskCount());
+        Assertions.assertEquals(paused, instance.getPausedTaskCount());
+        Assertions.assertEquals(completed, instance.getCompletedTaskCount());
+        Assertions.assertEquals(failed, instance.getFailedTaskCount());
+    }
+
+}
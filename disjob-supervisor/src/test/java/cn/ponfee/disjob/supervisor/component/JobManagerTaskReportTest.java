@@ -0,0 +1,230 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.supervisor.component;
+
+import cn.ponfee.disjob.common.base.IdGenerator;
+import cn.ponfee.disjob.common.tuple.Tuple2;
+import cn.ponfee.disjob.core.enums.*;
+import cn.ponfee.disjob.core.supervisor.dto.StartTaskParam;
+import cn.ponfee.disjob.core.supervisor.dto.StartTaskResult;
+import cn.ponfee.disjob.core.supervisor.dto.StopTaskParam;
+import cn.ponfee.disjob.supervisor.configuration.SupervisorProperties;
+import cn.ponfee.disjob.supervisor.dao.mapper.*;
+import cn.ponfee.disjob.supervisor.dispatch.TaskDispatcher;
+import cn.ponfee.disjob.supervisor.model.SchedInstance;
+import cn.ponfee.disjob.supervisor.model.SchedJob;
+import cn.ponfee.disjob.supervisor.model.SchedTask;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * JobManager batch trigger jobs and start/stop tasks test
+ *
+ * @author Ponfee
+ */
+public class JobManagerTaskReportTest {
+
+    private static final String WORKER = "default:1a2b3c:127.0.0.1:8080";
+
+    private final IdGenerator idGenerator = mock(IdGenerator.class);
+    private final SchedJobMapper jobMapper = mock(SchedJobMapper.class);
+    private final SchedInstanceMapper instanceMapper = mock(SchedInstanceMapper.class);
+    private final SchedTaskMapper taskMapper = mock(SchedTaskMapper.class);
+    private final WorkerClient workerClient = mock(WorkerClient.class);
+    private final TaskDispatcher taskDispatcher = mock(TaskDispatcher.class);
+    private final TriggeringJobIndex triggeringJobIndex = mock(TriggeringJobIndex.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final JobManager jobManager = new JobManager(
+        new SupervisorProperties(), idGenerator, jobMapper, mock(SchedDependMapper.class),
+        instanceMapper, mock(SchedWorkflowMapper.class), taskMapper, workerClient, taskDispatcher,
+        triggeringJobIndex, mock(ApplicationEventPublisher.class), transactionTemplate
+    );
+
+    JobManagerTaskReportTest() {
+        when(transactionTemplate.execute(any())).thenAnswer(e -> ((TransactionCallback<?>) e.getArgument(0)).doInTransaction(mock(TransactionStatus.class)));
+        AtomicLong id = new AtomicLong(1000);
+        when(idGenerator.generateId()).thenAnswer(e -> id.incrementAndGet());
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void testScheduleTriggerJobs() throws Exception {
+        when(jobMapper.updateNextTriggerTimeBatch(anyList())).thenReturn(3);
+        // each instance split to two tasks
+        when(workerClient.splitJob(eq("default"), anyLong(), any(), any(), anyInt())).thenAnswer(e -> {
+            long instanceId = e.getArgument(1);
+            return Arrays.asList(SchedTask.of(null, instanceId * 10 + 1, instanceId, 1, 2, null), SchedTask.of(null, instanceId * 10 + 2, instanceId, 2, 2, null));
+        });
+
+        List<Tuple2<SchedJob, Long>> jobs = Arrays.asList(Tuple2.of(job(1L), 1000L), Tuple2.of(job(2L), 2000L), Tuple2.of(job(3L), 3000L));
+        jobManager.scheduleTriggerJobs(jobs);
+
+        // one batch update and one multi-row insert for all jobs
+        verify(jobMapper, times(1)).updateNextTriggerTimeBatch(anyList());
+        verify(jobMapper, never()).updateNextTriggerTime(any());
+        ArgumentCaptor<List<SchedInstance>> instanceCaptor = ArgumentCaptor.forClass((Class) List.class);
+        ArgumentCaptor<List<SchedTask>> taskCaptor = ArgumentCaptor.forClass((Class) List.class);
+        verify(instanceMapper, times(1)).insertBatch(instanceCaptor.capture());
+        verify(taskMapper, times(1)).insertBatch(taskCaptor.capture());
+        List<SchedInstance> instances = instanceCaptor.getValue();
+        Assertions.assertEquals(3, instances.size());
+        Assertions.assertEquals(6, taskCaptor.getValue().size());
+        for (int i = 0; i < instances.size(); i++) {
+            SchedInstance instance = instances.get(i);
+            Assertions.assertEquals(jobs.get(i).a.getJobId(), instance.getJobId());
+            Assertions.assertEquals(jobs.get(i).b, instance.getTriggerTime());
+            Assertions.assertEquals(2, instance.getWaitingTaskCount());
+            Assertions.assertNotNull(instance.getDedupKey());
+        }
+        verify(taskDispatcher, times(3)).dispatch(eq("default"), anyList());
+        verify(triggeringJobIndex, times(3)).put(any(SchedJob.class));
+    }
+
+    @Test
+    public void testScheduleTriggerJobsConflict() throws Exception {
+        // the job 2 version conflict
+        when(jobMapper.updateNextTriggerTimeBatch(anyList())).thenReturn(2);
+
+        List<Tuple2<SchedJob, Long>> jobs = Arrays.asList(Tuple2.of(job(1L), 1000L), Tuple2.of(job(2L), 2000L), Tuple2.of(job(3L), 3000L));
+        Assertions.assertThrows(IllegalStateException.class, () -> jobManager.scheduleTriggerJobs(jobs));
+
+        // the whole batch must be rolled back by the transaction
+        verify(workerClient, never()).splitJob(anyString(), anyLong(), any(), any(), anyInt());
+        verify(instanceMapper, never()).insertBatch(anyList());
+        verify(taskMapper, never()).insertBatch(anyList());
+        verify(taskDispatcher, never()).dispatch(anyString(), anyList());
+        verify(triggeringJobIndex, never()).put(any(SchedJob.class));
+    }
+
+    @Test
+    public void testStartTasks() {
+        when(taskMapper.start(anyLong(), eq(WORKER), anyString(), any())).thenReturn(1);
+        when(instanceMapper.start(anyLong(), any())).thenReturn(1);
+        when(taskMapper.get(anyLong())).thenAnswer(e -> task(e.getArgument(0)));
+
+        List<StartTaskParam> params = Arrays.asList(startParam(1L, 11L), startParam(2L, 21L), startParam(1L, 12L));
+        List<StartTaskResult> results = jobManager.startTasks(params);
+
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertEquals(11L, results.get(0).getTaskId());
+        Assertions.assertEquals(21L, results.get(1).getTaskId());
+        Assertions.assertEquals(12L, results.get(2).getTaskId());
+        results.forEach(e -> Assertions.assertTrue(e.isSuccess()));
+        // one transaction per instance
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(instanceMapper, times(3)).transferTaskCount(anyLong(), eq(ExecuteStatus.WAITING), eq(ExecuteStatus.EXECUTING), eq(false));
+    }
+
+    @Test
+    public void testStartTasksFallback() {
+        when(taskMapper.start(anyLong(), eq(WORKER), anyString(), any())).thenReturn(1);
+        // the batch transaction of instance 1 failed at first
+        when(instanceMapper.start(eq(1L), any())).thenThrow(new IllegalStateException("Deadlock found.")).thenReturn(1);
+        when(instanceMapper.start(eq(2L), any())).thenReturn(1);
+        when(taskMapper.get(anyLong())).thenAnswer(e -> task(e.getArgument(0)));
+
+        List<StartTaskParam> params = Arrays.asList(startParam(1L, 11L), startParam(2L, 21L), startParam(1L, 12L));
+        List<StartTaskResult> results = jobManager.startTasks(params);
+
+        results.forEach(e -> Assertions.assertTrue(e.isSuccess()));
+        Assertions.assertEquals(12L, results.get(2).getTaskId());
+        // instance 1: failed batch + 2 fallback, instance 2: 1 batch
+        verify(transactionTemplate, times(4)).execute(any());
+    }
+
+    @Test
+    public void testStopTasks() {
+        when(instanceMapper.lock(anyLong())).thenAnswer(e -> instance(e.getArgument(0)));
+        when(instanceMapper.get(anyLong())).thenAnswer(e -> instance(e.getArgument(0)));
+        when(taskMapper.terminate(anyLong(), eq(WORKER), any(ExecuteStatus.class), any(ExecuteStatus.class), any(), any())).thenReturn(true);
+        when(instanceMapper.transferTaskCount(anyLong(), any(ExecuteStatus.class), any(ExecuteStatus.class), eq(true))).thenReturn(true);
+
+        List<StopTaskParam> params = Arrays.asList(stopParam(1L, 11L), stopParam(1L, 12L), stopParam(2L, 21L));
+        boolean[] results = jobManager.stopTasks(params);
+
+        Assertions.assertArrayEquals(new boolean[]{true, true, true}, results);
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(instanceMapper, times(2)).lock(anyLong());
+    }
+
+    @Test
+    public void testStopTasksFallback() {
+        // the batch transaction failed, then fallback to optimistic stop one by one
+        when(instanceMapper.lock(anyLong())).thenThrow(new IllegalStateException("Lock wait timeout."));
+        when(taskMapper.terminate(anyLong(), eq(WORKER), any(ExecuteStatus.class), any(ExecuteStatus.class), any(), any())).thenReturn(true);
+        when(instanceMapper.transferTaskCount(anyLong(), any(ExecuteStatus.class), any(ExecuteStatus.class), eq(true))).thenReturn(true);
+        when(taskMapper.terminate(eq(12L), eq(WORKER), any(ExecuteStatus.class), any(ExecuteStatus.class), any(), any())).thenReturn(false);
+
+        List<StopTaskParam> params = Arrays.asList(stopParam(1L, 11L), stopParam(1L, 12L));
+        boolean[] results = jobManager.stopTasks(params);
+
+        // task 12 conflict stop, not affect the task 11
+        Assertions.assertArrayEquals(new boolean[]{true, false}, results);
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+
+    private static SchedJob job(long jobId) {
+        SchedJob job = new SchedJob();
+        job.setJobId(jobId);
+        job.setGroup("default");
+        job.setJobExecutor("cn.ponfee.disjob.test.executor.NoopJobExecutor");
+        job.setJobStatus(JobStatus.ENABLED.value());
+        job.setJobType(JobType.GENERAL.value());
+        job.setRetryCount(0);
+        job.setExecuteTimeout(0);
+        job.setRouteStrategy(RouteStrategy.ROUND_ROBIN.value());
+        job.setShutdownStrategy(ShutdownStrategy.RESUME.value());
+        job.setVersion(1);
+        return job;
+    }
+
+    private static StartTaskParam startParam(long instanceId, long taskId) {
+        return StartTaskParam.of(1L, null, instanceId, taskId, JobType.GENERAL, WORKER, "key-" + taskId);
+    }
+
+    private static StopTaskParam stopParam(long instanceId, long taskId) {
+        return StopTaskParam.of(null, instanceId, taskId, WORKER, Operation.TRIGGER, ExecuteStatus.COMPLETED, null);
+    }
+
+    private static SchedTask task(long taskId) {
+        SchedTask task = new SchedTask();
+        task.setTaskId(taskId);
+        task.setTaskNo(1);
+        task.setTaskCount(1);
+        return task;
+    }
+
+    private static SchedInstance instance(long instanceId) {
+        SchedInstance instance = new SchedInstance();
+        instance.setInstanceId(instanceId);
+        instance.setRunStatus(RunStatus.RUNNING.value());
+        return instance;
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.supervisor.component;
+
+import cn.ponfee.disjob.common.tuple.Tuple2;
+import cn.ponfee.disjob.core.enums.*;
+import cn.ponfee.disjob.supervisor.SpringBootTestBase;
+import cn.ponfee.disjob.supervisor.dao.mapper.SchedJobMapper;
+import cn.ponfee.disjob.supervisor.model.SchedJob;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Resource;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * JobManager batch schedule trigger jobs test
+ *
+ * @author Ponfee
+ */
+public class JobManagerTriggerJobsTest extends SpringBootTestBase<JobManager> {
+
+    private static final long ONE_DAY_MS = 86400000L;
+
+    @Resource
+    private SchedJobMapper jobMapper;
+
+    @Resource
+    private JobQuerier jobQuerier;
+
+    @Test
+    public void testUpdateNextTriggerTimeBatch() {
+        List<SchedJob> jobs = reload(createJob(), createJob(), createJob());
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < jobs.size(); i++) {
+            jobs.get(i).setLastTriggerTime(now + i);
+            jobs.get(i).setNextTriggerTime(now + ONE_DAY_MS + i);
+        }
+        Assertions.assertEquals(3, jobMapper.updateNextTriggerTimeBatch(jobs));
+
+        // each row updated with its own value
+        for (int i = 0; i < jobs.size(); i++) {
+            SchedJob job = jobMapper.get(jobs.get(i).getJobId());
+            Assertions.assertEquals(now + i, job.getLastTriggerTime());
+            Assertions.assertEquals(now + ONE_DAY_MS + i, job.getNextTriggerTime());
+            Assertions.assertEquals(jobs.get(i).getVersion() + 1, job.getVersion());
+        }
+
+        // the job 1 version is stale
+        List<SchedJob> reloaded = reload(jobs.get(0).getJobId(), jobs.get(1).getJobId(), jobs.get(2).getJobId());
+        reloaded.set(1, jobs.get(1));
+        reloaded.forEach(e -> e.setLastTriggerTime(e.getLastTriggerTime() + 1));
+        Assertions.assertEquals(2, jobMapper.updateNextTriggerTimeBatch(reloaded));
+        Assertions.assertEquals(now + 1, jobMapper.get(jobs.get(1).getJobId()).getLastTriggerTime());
+    }
+
+    @Test
+    public void testScheduleTriggerJobsConflictRollback() {
+        List<SchedJob> jobs = reload(createJob(), createJob(), createJob());
+        long now = System.currentTimeMillis();
+
+        // the job 1 updated by other supervisor
+        SchedJob other = jobMapper.get(jobs.get(1).getJobId());
+        other.setLastTriggerTime(now);
+        Assertions.assertEquals(1, jobMapper.updateNextTriggerTimeBatch(Collections.singletonList(other)));
+
+        List<Tuple2<SchedJob, Long>> list = jobs.stream().map(e -> {
+            e.setLastTriggerTime(now);
+            e.setNextTriggerTime(now + ONE_DAY_MS);
+            return Tuple2.of(e, now);
+        }).collect(Collectors.toList());
+        Assertions.assertThrows(IllegalStateException.class, () -> bean.scheduleTriggerJobs(list));
+
+        // the whole batch rolled back, the caller will fallback to trigger one by one
+        for (int i : new int[]{0, 2}) {
+            SchedJob job = jobMapper.get(jobs.get(i).getJobId());
+            Assertions.assertEquals(jobs.get(i).getVersion(), job.getVersion());
+            Assertions.assertNull(job.getLastTriggerTime());
+            Assertions.assertNull(jobQuerier.getInstance(job.getJobId(), now, RunType.SCHEDULE));
+        }
+    }
+
+    // ------------------------------------------------------------------private methods
+
+    private List<SchedJob> reload(Long... jobIds) {
+        return Arrays.stream(jobIds).map(jobMapper::get).collect(Collectors.toList());
+    }
+
+    private long createJob() {
+        SchedJob job = new SchedJob();
+        job.setJobId(bean.generateId());
+        job.setGroup("default");
+        job.setJobName("test-trigger-jobs-" + job.getJobId());
+        job.setJobExecutor("cn.ponfee.disjob.test.executor.NoopJobExecutor");
+        job.setJobStatus(JobStatus.ENABLED.value());
+        job.setJobType(JobType.GENERAL.value());
+        job.setJobParam("");
+        job.setRetryType(RetryType.NONE.value());
+        job.setRetryCount(0);
+        job.setRetryInterval(0);
+        job.setTriggerType(TriggerType.CRON.value());
+        job.setTriggerValue("0/10 * * * * ?");
+        // far away from now, not triggered by the scanner
+        job.setNextTriggerTime(System.currentTimeMillis() + 30 * ONE_DAY_MS);
+        job.setExecuteTimeout(0);
+        job.setCollisionStrategy(CollisionStrategy.CONCURRENT.value());
+        job.setMisfireStrategy(MisfireStrategy.SKIP_ALL_LOST.value());
+        job.setRouteStrategy(RouteStrategy.ROUND_ROBIN.value());
+        job.setShutdownStrategy(ShutdownStrategy.RESUME.value());
+        job.setAlertOptions(0);
+        job.setUpdatedBy("0");
+        job.setCreatedBy("0");
+        job.setUpdatedAt(new Date());
+        job.setCreatedAt(new Date());
+        Assertions.assertEquals(1, jobMapper.insert(job));
+        return job.getJobId();
+    }
+
+}
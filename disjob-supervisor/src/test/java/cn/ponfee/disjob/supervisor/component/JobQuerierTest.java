@@ -0,0 +1,63 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.supervisor.component;
+
+import cn.ponfee.disjob.supervisor.dao.mapper.SchedInstanceMapper;
+import cn.ponfee.disjob.supervisor.dao.mapper.SchedJobMapper;
+import cn.ponfee.disjob.supervisor.dao.mapper.SchedTaskMapper;
+import cn.ponfee.disjob.supervisor.model.SchedTask;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static cn.ponfee.disjob.core.base.JobConstants.PROCESS_BATCH_SIZE;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * JobQuerier test
+ *
+ * @author Ponfee
+ */
+public class JobQuerierTest {
+
+    @Test
+    public void testFindBaseInstanceTasksBatch() {
+        SchedTaskMapper taskMapper = mock(SchedTaskMapper.class);
+        when(taskMapper.findBaseByInstanceIds(anyList())).thenAnswer(e -> {
+            List<Long> ids = e.getArgument(0);
+            Assertions.assertTrue(ids.size() <= PROCESS_BATCH_SIZE);
+            return ids.stream().flatMap(id -> LongStream.of(1, 2).mapToObj(no -> SchedTask.of(null, id * 10 + no, id, (int) no, 2, null))).collect(Collectors.toList());
+        });
+        JobQuerier jobQuerier = new JobQuerier(mock(SchedJobMapper.class), mock(SchedInstanceMapper.class), taskMapper);
+
+        List<Long> instanceIds = LongStream.rangeClosed(1, PROCESS_BATCH_SIZE * 2L + 1).boxed().collect(Collectors.toList());
+        Map<Long, List<SchedTask>> result = jobQuerier.findBaseInstanceTasks(instanceIds);
+
+        verify(taskMapper, times(3)).findBaseByInstanceIds(anyList());
+        Assertions.assertEquals(instanceIds.size(), result.size());
+        result.forEach((instanceId, tasks) -> {
+            Assertions.assertEquals(2, tasks.size());
+            tasks.forEach(e -> Assertions.assertEquals(instanceId, e.getInstanceId()));
+        });
+    }
+
+}
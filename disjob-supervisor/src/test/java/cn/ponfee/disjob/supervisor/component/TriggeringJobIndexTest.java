@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.supervisor.component;
+
+import cn.ponfee.disjob.core.enums.JobStatus;
+import cn.ponfee.disjob.core.enums.TriggerType;
+import cn.ponfee.disjob.supervisor.configuration.SupervisorProperties;
+import cn.ponfee.disjob.supervisor.dao.mapper.SchedJobMapper;
+import cn.ponfee.disjob.supervisor.model.SchedJob;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * TriggeringJobIndex test
+ *
+ * @author Ponfee
+ */
+public class TriggeringJobIndexTest {
+
+    @Test
+    public void testHasTriggering() {
+        long now = System.currentTimeMillis();
+        SchedJobMapper jobMapper = mock(SchedJobMapper.class);
+        when(jobMapper.findEnabledTriggerTimes(eq(0L), anyInt())).thenReturn(Arrays.asList(
+            job(1L, now + 60_000, null),
+            job(2L, now + 120_000, null)
+        ));
+        when(jobMapper.findEnabledTriggerTimes(eq(2L), anyInt())).thenReturn(Collections.emptyList());
+
+        SupervisorProperties conf = new SupervisorProperties();
+        conf.setTriggeringJobIndexEnabled(true);
+        TriggeringJobIndex index = new TriggeringJobIndex(conf, jobMapper);
+
+        Assertions.assertFalse(index.hasTriggering(now + 6000, jobId -> true));
+        Assertions.assertEquals(2, index.size());
+        Assertions.assertTrue(index.hasTriggering(now + 61_000, jobId -> true));
+        Assertions.assertFalse(index.hasTriggering(now + 61_000, jobId -> jobId == 2L));
+
+        // next scan time in the future
+        index.put(job(3L, now, new Date(now + 30_000)));
+        Assertions.assertFalse(index.hasTriggering(now + 6000, jobId -> true));
+
+        index.put(job(4L, now, null));
+        Assertions.assertTrue(index.hasTriggering(now + 6000, jobId -> true));
+        index.remove(4L);
+        Assertions.assertFalse(index.hasTriggering(now + 6000, jobId -> true));
+
+        // stale entry reconcile from database
+        index.put(job(5L, now, null));
+        when(jobMapper.findByJobIds(Collections.singletonList(5L))).thenReturn(Collections.singletonList(job(5L, now + 60_000, null)));
+        index.reconcile(now + 6000, jobId -> true, Collections.emptyList());
+        Assertions.assertFalse(index.hasTriggering(now + 6000, jobId -> true));
+        verify(jobMapper, times(1)).findEnabledTriggerTimes(eq(0L), anyInt());
+    }
+
+    @Test
+    public void testDisabled() {
+        SchedJobMapper jobMapper = mock(SchedJobMapper.class);
+        TriggeringJobIndex index = new TriggeringJobIndex(new SupervisorProperties(), jobMapper);
+        Assertions.assertTrue(index.hasTriggering(System.currentTimeMillis(), jobId -> true));
+        index.put(job(1L, 0, null));
+        Assertions.assertEquals(0, index.size());
+        verifyNoInteractions(jobMapper);
+    }
+
+    private static SchedJob job(long jobId, long nextTriggerTime, Date nextScanTime) {
+        SchedJob job = new SchedJob();
+        job.setJobId(jobId);
+        job.setJobStatus(JobStatus.ENABLED.value());
+        job.setTriggerType(TriggerType.CRON.value());
+        job.setNextTriggerTime(nextTriggerTime);
+        job.setNextScanTime(nextScanTime);
+        return job;
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.supervisor.dispatch;
+
+import cn.ponfee.disjob.core.enums.JobType;
+import cn.ponfee.disjob.core.enums.Operation;
+import cn.ponfee.disjob.core.enums.RouteStrategy;
+import cn.ponfee.disjob.core.worker.Worker;
+import cn.ponfee.disjob.core.worker.dto.ExecuteTaskParam;
+import cn.ponfee.disjob.supervisor.dispatch.route.ConsistentHashExecutionRouter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConsistentHashExecutionRouter benchmark of route throughput and rebuild cost
+ *
+ * @author Ponfee
+ */
+public class ConsistentHashExecutionRouterBenchmarkTest {
+
+    private static final int TASK_COUNT = 100000;
+    private static final int REBUILD_COUNT = 20;
+
+    @Test
+    public void testRing() {
+        benchmark("ring", new ConsistentHashExecutionRouter());
+    }
+
+    @Test
+    public void testMaglev() {
+        benchmark("maglev", ConsistentHashExecutionRouter.maglev());
+    }
+
+    private static void benchmark(String name, ConsistentHashExecutionRouter router) {
+        List<ExecuteTaskParam> tasks = new ArrayList<>(TASK_COUNT);
+        for (long i = 1; i <= TASK_COUNT; i++) {
+            tasks.add(ConsistentHashExecutionRouterTest.createExecuteTaskParam(Operation.TRIGGER, i, 1L, null, 0, 1L, JobType.GENERAL, RouteStrategy.CONSISTENT_HASH, 0, ""));
+        }
+        for (int workerCount : new int[]{10, 100, 1000}) {
+            List<Worker> workers = createWorkers(workerCount);
+
+            // warm up and build
+            router.route(tasks, workers);
+            long start = System.nanoTime();
+            router.route(tasks, workers);
+            long routeNanos = System.nanoTime() - start;
+            tasks.forEach(e -> Assertions.assertNotNull(e.getWorker()));
+
+            // each route with a new list identity will rebuild
+            start = System.nanoTime();
+            for (int i = 0; i < REBUILD_COUNT; i++) {
+                router.route(Collections.singletonList(tasks.get(0)), new ArrayList<>(workers));
+            }
+            long rebuildNanos = (System.nanoTime() - start) / REBUILD_COUNT;
+
+            System.out.println(name + " workers: " + workerCount
+                + ", route throughput: " + (TASK_COUNT * 1000L / Math.max(TimeUnit.NANOSECONDS.toMillis(routeNanos), 1)) + "/s"
+                + ", rebuild cost: " + TimeUnit.NANOSECONDS.toMicros(rebuildNanos) + "us");
+        }
+    }
+
+    private static List<Worker> createWorkers(int count) {
+        List<Worker> workers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            workers.add(new Worker("default", "worker" + i, "127.0.0.1", 10000 + i));
+        }
+        return Collections.unmodifiableList(workers);
+    }
+
+}
@@ -23,6 +23,7 @@ import cn.ponfee.disjob.core.enums.Operation;
 import cn.ponfee.disjob.core.enums.RouteStrategy;
 import cn.ponfee.disjob.core.worker.Worker;
 import cn.ponfee.disjob.core.worker.dto.ExecuteTaskParam;
+import cn.ponfee.disjob.supervisor.configuration.SupervisorProperties;
 import cn.ponfee.disjob.supervisor.dispatch.route.ConsistentHashExecutionRouter;
 import cn.ponfee.disjob.supervisor.dispatch.route.ExecutionRouterRegistrar;
 import cn.ponfee.disjob.supervisor.dispatch.route.RandomExecutionRouter;
@@ -55,6 +56,19 @@ public class ConsistentHashExecutionRouterTest {
     public void testRegisterRouter() {
         ExecutionRouterRegistrar.register(new RandomExecutionRouter(null));
         ExecutionRouterRegistrar.register(new ConsistentHashExecutionRouter(11, ConsistentHash.HashFunction.MD5));
+        // the user registered router cannot be overwritten by built-in router
+        Assertions.assertFalse(ExecutionRouterRegistrar.registerBuiltIn(ConsistentHashExecutionRouter.maglev()));
+    }
+
+    @Test
+    public void testConsistentHashAlgorithm() {
+        SupervisorProperties conf = new SupervisorProperties();
+        Assertions.assertFalse(conf.isMaglevConsistentHash());
+        conf.setConsistentHashAlgorithm("maglev");
+        Assertions.assertTrue(conf.isMaglevConsistentHash());
+        conf.check();
+        conf.setConsistentHashAlgorithm("jump");
+        Assertions.assertThrows(IllegalArgumentException.class, conf::check);
     }
 
     @Test
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.supervisor.dispatch;
+
+import cn.ponfee.disjob.core.enums.JobType;
+import cn.ponfee.disjob.core.enums.Operation;
+import cn.ponfee.disjob.core.enums.RouteStrategy;
+import cn.ponfee.disjob.core.worker.Worker;
+import cn.ponfee.disjob.core.worker.WorkerMetrics.WorkerThreadPoolMetrics;
+import cn.ponfee.disjob.core.worker.dto.ExecuteTaskParam;
+import cn.ponfee.disjob.supervisor.dispatch.route.LeastLoadedExecutionRouter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * LeastLoadedExecutionRouter test
+ *
+ * @author Ponfee
+ */
+public class LeastLoadedExecutionRouterTest {
+
+    @Test
+    public void testRouteToLessLoaded() {
+        Worker busy = new Worker("default", "a", "127.0.0.1", 80);
+        Worker idle = new Worker("default", "b", "127.0.0.1", 81);
+        Map<Worker, WorkerThreadPoolMetrics> metrics = new HashMap<>();
+        metrics.put(busy, createMetrics(10, 10, 100));
+        metrics.put(idle, createMetrics(10, 0, 0));
+
+        List<ExecuteTaskParam> tasks = new ArrayList<>();
+        for (long i = 1; i <= 50; i++) {
+            tasks.add(ConsistentHashExecutionRouterTest.createExecuteTaskParam(Operation.TRIGGER, i, 1L, null, 0, 1L, JobType.GENERAL, RouteStrategy.LEAST_LOADED, 0, ""));
+        }
+        new LeastLoadedExecutionRouter(metrics::get, new Random(1)).route(tasks, Arrays.asList(busy, idle));
+        // busy load is 11, idle load reached 11 after 110 tasks assigned
+        tasks.forEach(e -> Assertions.assertEquals(idle, e.getWorker()));
+    }
+
+    @Test
+    public void testRouteWithoutMetrics() {
+        List<Worker> workers = Arrays.asList(
+            new Worker("default", "a", "127.0.0.1", 80),
+            new Worker("default", "b", "127.0.0.1", 81),
+            new Worker("default", "c", "127.0.0.1", 82)
+        );
+        List<ExecuteTaskParam> tasks = new ArrayList<>();
+        for (long i = 1; i <= 300; i++) {
+            tasks.add(ConsistentHashExecutionRouterTest.createExecuteTaskParam(Operation.TRIGGER, i, 1L, null, 0, 1L, JobType.GENERAL, RouteStrategy.LEAST_LOADED, 0, ""));
+        }
+        new LeastLoadedExecutionRouter(worker -> null).route(tasks, workers);
+        Map<Worker, Long> counts = tasks.stream().collect(Collectors.groupingBy(ExecuteTaskParam::getWorker, Collectors.counting()));
+        Assertions.assertEquals(3, counts.size());
+        // power-of-two-choices keeps the max deviation small
+        counts.values().forEach(e -> Assertions.assertTrue(e >= 95 && e <= 105, "Unbalanced count: " + e));
+    }
+
+    private static WorkerThreadPoolMetrics createMetrics(int maximumPoolSize, int activePoolSize, long queueTaskCount) {
+        WorkerThreadPoolMetrics metrics = new WorkerThreadPoolMetrics();
+        metrics.setMaximumPoolSize(maximumPoolSize);
+        metrics.setActivePoolSize(activePoolSize);
+        metrics.setQueueTaskCount(queueTaskCount);
+        return metrics;
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.supervisor.dispatch;
+
+import cn.ponfee.disjob.core.base.RetryProperties;
+import cn.ponfee.disjob.core.enums.*;
+import cn.ponfee.disjob.core.worker.Worker;
+import cn.ponfee.disjob.core.worker.WorkerRpcService;
+import cn.ponfee.disjob.core.worker.dto.ExecuteTaskParam;
+import cn.ponfee.disjob.registry.Discovery;
+import cn.ponfee.disjob.supervisor.component.WorkerClient;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * TaskDispatcher test
+ *
+ * @author Ponfee
+ */
+@SuppressWarnings("unchecked")
+public class TaskDispatcherTest {
+
+    private static final String GROUP = "test";
+    private static final Worker WORKER1 = new Worker(GROUP, "worker1", "127.0.0.1", 8081);
+    private static final Worker WORKER2 = new Worker(GROUP, "worker2", "127.0.0.1", 8082);
+
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final Discovery<Worker> discoverWorker = mock(Discovery.class);
+    private final WorkerClient workerClient = mock(WorkerClient.class);
+    private final WorkerRpcService workerRpcService1 = mock(WorkerRpcService.class);
+    private final WorkerRpcService workerRpcService2 = mock(WorkerRpcService.class);
+
+    TaskDispatcherTest() {
+        when(discoverWorker.getAliveServers(GROUP)).thenReturn(Arrays.asList(WORKER1, WORKER2));
+        when(workerClient.destination(WORKER1)).thenReturn(workerRpcService1);
+        when(workerClient.destination(WORKER2)).thenReturn(workerRpcService2);
+    }
+
+    @Test
+    public void testRejectThenReroute() {
+        when(workerRpcService1.receiveTask(any())).thenReturn(false);
+        when(workerRpcService2.receiveTask(any())).thenReturn(true);
+
+        TaskDispatcher dispatcher = new TaskDispatcher(RetryProperties.of(1, 100), eventPublisher, discoverWorker, workerClient);
+        try {
+            ExecuteTaskParam task = createTask(WORKER1);
+            dispatcher.dispatch(GROUP, Collections.singletonList(task));
+
+            // worker1 rejected, immediately reroute to worker2 without backoff retry
+            verify(workerRpcService1, times(1)).receiveTask(any());
+            verify(workerRpcService2, times(1)).receiveTask(any());
+            Assertions.assertEquals(WORKER2, task.getWorker());
+            verify(eventPublisher, never()).publishEvent(any());
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    public void testRejectedWorkersResetPerRetryRound() {
+        when(workerRpcService1.receiveTask(any())).thenReturn(false);
+        when(workerRpcService2.receiveTask(any())).thenReturn(false);
+
+        TaskDispatcher dispatcher = new TaskDispatcher(RetryProperties.of(1, 100), eventPublisher, discoverWorker, workerClient);
+        try {
+            dispatcher.dispatch(GROUP, Collections.singletonList(createTask(WORKER1)));
+
+            // round 0: worker1 rejected -> worker2 rejected -> backoff retry
+            // round 1: all the workers participate in routing again -> both rejected -> retry exceeded
+            verify(eventPublisher, timeout(5000)).publishEvent(any(TaskDispatchFailedEvent.class));
+            verify(workerRpcService1, times(2)).receiveTask(any());
+            verify(workerRpcService2, times(2)).receiveTask(any());
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    private static ExecuteTaskParam createTask(Worker worker) {
+        ExecuteTaskParam task = new ExecuteTaskParam();
+        task.setOperation(Operation.TRIGGER);
+        task.setTaskId(1L);
+        task.setInstanceId(1L);
+        task.setTriggerTime(System.currentTimeMillis());
+        task.setJobId(1L);
+        task.setJobType(JobType.GENERAL);
+        task.setRouteStrategy(RouteStrategy.ROUND_ROBIN);
+        task.setShutdownStrategy(ShutdownStrategy.RESUME);
+        task.setJobExecutor("test");
+        task.setWorker(worker);
+        return task;
+    }
+
+}
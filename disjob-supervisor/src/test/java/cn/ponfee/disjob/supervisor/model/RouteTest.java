@@ -19,17 +19,27 @@ package cn.ponfee.disjob.supervisor.model;
 import cn.ponfee.disjob.common.util.Numbers;
 import cn.ponfee.disjob.common.util.UuidUtils;
 import cn.ponfee.disjob.supervisor.SpringBootTestBase;
+import cn.ponfee.disjob.supervisor.dao.SupervisorDataSourceConfig;
 import cn.ponfee.disjob.supervisor.dispatch.count.AtomicCounter;
+import cn.ponfee.disjob.supervisor.dispatch.count.DatabaseAtomicCounter;
 import cn.ponfee.disjob.supervisor.dispatch.count.JdkAtomicCounter;
+import cn.ponfee.disjob.supervisor.dispatch.count.RedisAtomicCounter;
+import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.annotation.Resource;
 
 /**
  * @author Ponfee
  */
 public class RouteTest extends SpringBootTestBase<StringRedisTemplate> {
 
+    @Resource(name = SupervisorDataSourceConfig.SPRING_BEAN_NAME_JDBC_TEMPLATE)
+    private JdbcTemplate jdbcTemplate;
+
     @Test
     public void testAtomicCounter() {
         AtomicCounter counter = new JdkAtomicCounter(10);
@@ -54,15 +64,61 @@ public class RouteTest extends SpringBootTestBase<StringRedisTemplate> {
         Assertions.assertEquals(1, bean.opsForValue().increment(key2));
         Assertions.assertEquals(2, bean.opsForValue().increment(key2));
 
-        /*
-        RedisAtomicCounter counter = new RedisAtomicCounter("disjob:counter3:" + UuidUtils.uuid32(), bean);
-        long initValue = counter.get();
-        Assertions.assertEquals(initValue, counter.getAndIncrement());
+        String group = "disjob:counter3:" + UuidUtils.uuid32();
+        RedisAtomicCounter counter = new RedisAtomicCounter(group, bean);
+        Assertions.assertEquals(0, counter.get());
+        Assertions.assertEquals(0, counter.getAndIncrement());
+        Assertions.assertEquals(1, counter.get());
+        Assertions.assertEquals(6, counter.addAndGet(5));
+        Assertions.assertEquals(6, counter.get());
+        counter.set(100);
+        Assertions.assertEquals(100, counter.get());
+        Assertions.assertEquals(101, counter.incrementAndGet());
+
+        // other server reserves the next block
+        RedisAtomicCounter other = new RedisAtomicCounter(group, bean);
+        Assertions.assertEquals(1101, other.incrementAndGet());
+        Assertions.assertEquals(102, counter.incrementAndGet());
+    }
+
+    @Test
+    public void testRedisBlockAtomicCounter() {
+        String group = "disjob:counter4:" + UuidUtils.uuid32();
+        RedisAtomicCounter counter1 = new RedisAtomicCounter(group, bean, 1);
+        RedisAtomicCounter counter2 = new RedisAtomicCounter(group, bean, 10);
+        Assertions.assertEquals(1, counter1.incrementAndGet());
+        Assertions.assertEquals(2, counter2.incrementAndGet());
+        Assertions.assertEquals(12, counter1.incrementAndGet());
+        for (int i = 3; i <= 11; i++) {
+            Assertions.assertEquals(i, counter2.incrementAndGet());
+        }
+        Assertions.assertEquals(13, counter2.incrementAndGet());
+        // delta greater than block size
+        Assertions.assertEquals(122, counter2.addAndGet(100));
+    }
+
+    @Test
+    public void testDatabaseAtomicCounter() {
+        // the maximum length group
+        String group = UuidUtils.uuid32() + RandomStringUtils.randomAlphanumeric(28);
+        DatabaseAtomicCounter counter = new DatabaseAtomicCounter(jdbcTemplate, group);
+        Assertions.assertEquals(0, counter.get());
+        Assertions.assertEquals(0, counter.getAndIncrement());
         Assertions.assertEquals(1, counter.get());
-        Assertions.assertEquals(6 + initValue, counter.addAndGet(5));
-        Assertions.assertEquals(6 + initValue, counter.get());
+        Assertions.assertEquals(6, counter.addAndGet(5));
         counter.set(100);
         Assertions.assertEquals(100, counter.get());
-        */
+        Assertions.assertEquals(101, counter.incrementAndGet());
+
+        // other server reserves the next block
+        DatabaseAtomicCounter other = new DatabaseAtomicCounter(jdbcTemplate, group);
+        Assertions.assertEquals(1101, other.incrementAndGet());
+        Assertions.assertEquals(102, counter.incrementAndGet());
+
+        DatabaseAtomicCounter counter1 = new DatabaseAtomicCounter(jdbcTemplate, group + "x", 1);
+        DatabaseAtomicCounter counter2 = new DatabaseAtomicCounter(jdbcTemplate, group + "x", 10);
+        Assertions.assertEquals(1, counter1.incrementAndGet());
+        Assertions.assertEquals(2, counter2.incrementAndGet());
+        Assertions.assertEquals(12, counter1.incrementAndGet());
     }
 }
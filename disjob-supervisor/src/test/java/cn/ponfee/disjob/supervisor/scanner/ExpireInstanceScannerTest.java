@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.supervisor.scanner;
+
+import cn.ponfee.disjob.common.lock.LockTemplate;
+import cn.ponfee.disjob.core.enums.ExecuteStatus;
+import cn.ponfee.disjob.core.enums.RunStatus;
+import cn.ponfee.disjob.supervisor.component.JobManager;
+import cn.ponfee.disjob.supervisor.component.JobQuerier;
+import cn.ponfee.disjob.supervisor.component.WorkerClient;
+import cn.ponfee.disjob.supervisor.configuration.SupervisorProperties;
+import cn.ponfee.disjob.supervisor.model.SchedInstance;
+import cn.ponfee.disjob.supervisor.model.SchedJob;
+import cn.ponfee.disjob.supervisor.model.SchedTask;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ExpireInstanceScanner test
+ *
+ * @author Ponfee
+ */
+public class ExpireInstanceScannerTest {
+
+    private final JobManager jobManager = mock(JobManager.class);
+    private final JobQuerier jobQuerier = mock(JobQuerier.class);
+    private final WorkerClient workerClient = mock(WorkerClient.class);
+    private final LockTemplate lockTemplate = mock(LockTemplate.class);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testScanPipeline() throws Exception {
+        SchedInstance i1 = instance(1L, 10L), i2 = instance(2L, 10L), i3 = instance(3L, 10L), i4 = instance(4L, 90L), i5 = instance(5L, 10L);
+        SchedJob job = new SchedJob();
+        job.setJobId(10L);
+        job.setGroup("default");
+
+        when(workerClient.hasAliveWorker()).thenReturn(true);
+        when(workerClient.hasAliveWorker("default")).thenReturn(true);
+        when(workerClient.filterNeedRedispatch(anyList())).thenAnswer(e -> e.getArgument(0));
+        when(lockTemplate.execute(any())).thenAnswer(e -> ((Callable<Boolean>) e.getArgument(0)).call());
+        when(jobQuerier.findExpireInstance(eq(RunStatus.WAITING), any(), anyInt())).thenReturn(Arrays.asList(i1, i2, i3, i4, i5));
+        // the instance 3 renewed by other supervisor
+        when(jobManager.updateInstanceNextScanTime(any(), any())).thenAnswer(e -> e.getArgument(0) != i3);
+        when(jobQuerier.findBaseInstanceTasks(anyList())).thenAnswer(e -> {
+            Map<Long, List<SchedTask>> map = new HashMap<>();
+            for (Long instanceId : (List<Long>) e.getArgument(0)) {
+                ExecuteStatus status = instanceId == 5L ? ExecuteStatus.COMPLETED : ExecuteStatus.WAITING;
+                map.put(instanceId, Collections.singletonList(task(instanceId, status)));
+            }
+            return map;
+        });
+        when(jobQuerier.getJob(10L)).thenReturn(job);
+        when(jobQuerier.getInstance(5L)).thenReturn(i5);
+
+        ExpireInstanceScanner scanner = createScanner();
+        try {
+            Assertions.assertTrue(scanner.heartbeat());
+        } finally {
+            scanner.close();
+        }
+
+        // load tasks of the renewed instances in one call
+        verify(jobQuerier, times(1)).findBaseInstanceTasks(argThat(e -> new HashSet<>(e).equals(new HashSet<>(Arrays.asList(1L, 2L, 4L, 5L)))));
+        verify(jobQuerier, never()).findBaseInstanceTasks(anyLong());
+        // the job is cached in the scan batch, may be loaded concurrently
+        verify(jobQuerier, atMost(2)).getJob(10L);
+        verify(jobQuerier, times(1)).getJob(90L);
+        verify(jobManager, times(1)).redispatch(same(job), same(i1), anyList());
+        verify(jobManager, times(1)).redispatch(same(job), same(i2), anyList());
+        verify(jobManager, times(2)).redispatch(any(), any(), anyList());
+        verify(jobManager, times(1)).purgeInstance(same(i5));
+        verify(jobManager, times(1)).purgeInstance(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private ExpireInstanceScanner createScanner() throws Exception {
+        // the scanner of each run status is constrained to singleton instance, maybe created by spring boot test context
+        Set<RunStatus> mutex = (Set<RunStatus>) FieldUtils.readStaticField(ExpireInstanceScanner.class, "MUTEX", true);
+        boolean existed = mutex.remove(RunStatus.WAITING);
+        try {
+            return new ExpireInstanceScanner(RunStatus.WAITING, new SupervisorProperties(), jobManager, jobQuerier, workerClient, lockTemplate);
+        } finally {
+            if (!existed) {
+                mutex.remove(RunStatus.WAITING);
+            }
+        }
+    }
+
+    private static SchedInstance instance(long instanceId, long jobId) {
+        SchedInstance instance = new SchedInstance();
+        instance.setInstanceId(instanceId);
+        instance.setJobId(jobId);
+        instance.setRunStatus(RunStatus.WAITING.value());
+        return instance;
+    }
+
+    private static SchedTask task(long instanceId, ExecuteStatus status) {
+        SchedTask task = SchedTask.of(null, instanceId * 10, instanceId, 1, 1, null);
+        task.setExecuteStatus(status.value());
+        return task;
+    }
+
+}
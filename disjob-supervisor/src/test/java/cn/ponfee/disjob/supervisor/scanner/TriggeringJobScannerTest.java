@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.supervisor.scanner;
+
+import cn.ponfee.disjob.common.lock.LockTemplate;
+import cn.ponfee.disjob.common.tuple.Tuple2;
+import cn.ponfee.disjob.core.enums.*;
+import cn.ponfee.disjob.core.supervisor.Supervisor;
+import cn.ponfee.disjob.registry.SupervisorRegistry;
+import cn.ponfee.disjob.supervisor.component.JobManager;
+import cn.ponfee.disjob.supervisor.component.JobQuerier;
+import cn.ponfee.disjob.supervisor.component.TriggeringJobIndex;
+import cn.ponfee.disjob.supervisor.component.WorkerClient;
+import cn.ponfee.disjob.supervisor.configuration.SupervisorProperties;
+import cn.ponfee.disjob.supervisor.model.SchedJob;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * TriggeringJobScanner test
+ *
+ * @author Ponfee
+ */
+public class TriggeringJobScannerTest {
+
+    @Test
+    public void testAssignShards() {
+        Supervisor s1 = new Supervisor("127.0.0.1", 8081);
+        Supervisor s2 = new Supervisor("127.0.0.1", 8082);
+        Supervisor s3 = new Supervisor("127.0.0.1", 8083);
+        List<Supervisor> supervisors = Arrays.asList(s3, s1, s2, s1);
+
+        Assertions.assertEquals(Arrays.asList(0, 3, 6, 9), TriggeringJobScanner.assignShards(10, supervisors, s1));
+        Assertions.assertEquals(Arrays.asList(1, 4, 7), TriggeringJobScanner.assignShards(10, supervisors, s2));
+        Assertions.assertEquals(Arrays.asList(2, 5, 8), TriggeringJobScanner.assignShards(10, supervisors, s3));
+        Assertions.assertTrue(TriggeringJobScanner.assignShards(10, supervisors, new Supervisor("127.0.0.1", 8084)).isEmpty());
+        Assertions.assertTrue(TriggeringJobScanner.assignShards(2, supervisors, s3).isEmpty());
+
+        // every shard owned by exactly one supervisor
+        Set<Integer> all = new HashSet<>();
+        for (Supervisor s : Arrays.asList(s1, s2, s3)) {
+            for (Integer shard : TriggeringJobScanner.assignShards(64, supervisors, s)) {
+                Assertions.assertTrue(all.add(shard));
+            }
+        }
+        Assertions.assertEquals(64, all.size());
+    }
+
+    @Test
+    public void testBatchTriggerJobs() throws Exception {
+        JobManager jobManager = mock(JobManager.class);
+        List<SchedJob> jobs = Arrays.asList(job(1L), job(2L), job(3L));
+        TriggeringJobScanner scanner = createScanner(jobManager, jobs);
+        try {
+            Assertions.assertTrue(scanner.heartbeat());
+        } finally {
+            scanner.close();
+        }
+
+        verify(jobManager, times(1)).scheduleTriggerJobs(argThat(e -> e.size() == 3));
+        verify(jobManager, never()).scheduleTriggerJob(any(), anyLong());
+    }
+
+    @Test
+    public void testBatchTriggerJobsFallback() throws Exception {
+        JobManager jobManager = mock(JobManager.class);
+        // the job 2 version conflict, the batch transaction rolled back
+        doThrow(new IllegalStateException("Batch update next trigger time conflict: 2, 3")).when(jobManager).scheduleTriggerJobs(anyList());
+        List<SchedJob> jobs = Arrays.asList(job(1L), job(2L), job(3L));
+        TriggeringJobScanner scanner = createScanner(jobManager, jobs);
+        try {
+            Assertions.assertTrue(scanner.heartbeat());
+        } finally {
+            scanner.close();
+        }
+
+        verify(jobManager, times(1)).scheduleTriggerJobs(anyList());
+        for (SchedJob job : jobs) {
+            verify(jobManager, times(1)).scheduleTriggerJob(same(job), eq((long) job.getLastTriggerTime()));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TriggeringJobScanner createScanner(JobManager jobManager, List<SchedJob> jobs) {
+        SupervisorProperties conf = new SupervisorProperties();
+        conf.setTriggerJobBatchSize(10);
+        JobQuerier jobQuerier = mock(JobQuerier.class);
+        WorkerClient workerClient = mock(WorkerClient.class);
+        LockTemplate lockTemplate = mock(LockTemplate.class);
+        TriggeringJobIndex triggeringJobIndex = mock(TriggeringJobIndex.class);
+        when(workerClient.hasAliveWorker()).thenReturn(true);
+        when(workerClient.hasAliveWorker(anyString())).thenReturn(true);
+        when(triggeringJobIndex.hasTriggering(anyLong(), any())).thenReturn(true);
+        when(lockTemplate.execute(any())).thenAnswer(e -> ((Callable<Boolean>) e.getArgument(0)).call());
+        when(jobQuerier.findBeTriggeringJob(anyLong(), anyInt())).thenReturn(jobs);
+
+        // anonymous subclass: the TriggeringJobScanner class is constrained to singleton instance
+        return new TriggeringJobScanner(conf, jobManager, jobQuerier, workerClient, lockTemplate, mock(SupervisorRegistry.class), triggeringJobIndex) { };
+    }
+
+    private static SchedJob job(long jobId) {
+        SchedJob job = new SchedJob();
+        job.setJobId(jobId);
+        job.setGroup("default");
+        job.setJobStatus(JobStatus.ENABLED.value());
+        job.setJobType(JobType.GENERAL.value());
+        job.setTriggerType(TriggerType.CRON.value());
+        job.setTriggerValue("0/10 * * * * ?");
+        job.setNextTriggerTime(System.currentTimeMillis());
+        job.setCollisionStrategy(CollisionStrategy.CONCURRENT.value());
+        job.setMisfireStrategy(MisfireStrategy.SKIP_ALL_LOST.value());
+        job.setScanFailures(0);
+        job.setVersion(1);
+        return job;
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.worker.base;
+
+import cn.ponfee.disjob.core.enums.*;
+import cn.ponfee.disjob.core.supervisor.SupervisorRpcService;
+import cn.ponfee.disjob.core.supervisor.dto.StartTaskParam;
+import cn.ponfee.disjob.core.supervisor.dto.StartTaskResult;
+import cn.ponfee.disjob.core.supervisor.dto.StopTaskParam;
+import cn.ponfee.disjob.core.worker.Worker;
+import cn.ponfee.disjob.core.worker.dto.ExecuteTaskParam;
+import cn.ponfee.disjob.test.executor.NoopJobExecutor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * WorkerThreadPool throughput benchmark with no-op tasks
+ *
+ * @author Ponfee
+ */
+public class WorkerThreadPoolBenchmarkTest {
+
+    private static final int TASK_COUNT = 20000;
+    private static final int MAXIMUM_POOL_SIZE = 32;
+
+    @Test
+    public void testNoopTaskThroughput() throws Exception {
+        long major = NoopJobExecutor.major, minor = NoopJobExecutor.minor;
+        // no sleep in NoopJobExecutor#execute
+        NoopJobExecutor.major = 0;
+        NoopJobExecutor.minor = 1;
+
+        CountDownLatch latch = new CountDownLatch(TASK_COUNT);
+        AtomicInteger completedCount = new AtomicInteger();
+        SupervisorRpcService supervisorRpcClient = mock(SupervisorRpcService.class);
+        when(supervisorRpcClient.startTask(any())).thenAnswer(e -> {
+            StartTaskParam param = e.getArgument(0);
+            StartTaskResult result = new StartTaskResult();
+            result.setSuccess(true);
+            result.setTaskId(param.getTaskId());
+            result.setTaskNo(1);
+            result.setTaskCount(1);
+            return result;
+        });
+        when(supervisorRpcClient.savepoint(anyLong(), any(), any())).thenReturn(true);
+        when(supervisorRpcClient.stopTask(any())).thenAnswer(e -> {
+            StopTaskParam param = e.getArgument(0);
+            if (param.getToStatus() == ExecuteStatus.COMPLETED) {
+                completedCount.incrementAndGet();
+            }
+            latch.countDown();
+            return true;
+        });
+
+        WorkerThreadPool threadPool = new WorkerThreadPool(MAXIMUM_POOL_SIZE, 60, supervisorRpcClient);
+        try {
+            Worker worker = new Worker("benchmark", "7ad2c7ba7e2c4a4f8d9c6a0f1c4d2e3b", "127.0.0.1", 8080);
+            long start = System.nanoTime();
+            for (int i = 1; i <= TASK_COUNT; i++) {
+                Assertions.assertTrue(threadPool.submit(new WorkerTask(createParam(i, worker))));
+            }
+            Assertions.assertTrue(latch.await(120, TimeUnit.SECONDS));
+            long costMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            Assertions.assertEquals(TASK_COUNT, completedCount.get());
+            Assertions.assertEquals(TASK_COUNT, threadPool.metrics().getCompletedTaskCount());
+            System.out.println("Noop task count: " + TASK_COUNT + ", cost: " + costMillis + "ms, throughput: " + (TASK_COUNT * 1000L / Math.max(costMillis, 1)) + "/s");
+            System.out.println(threadPool);
+        } finally {
+            threadPool.close();
+            NoopJobExecutor.major = major;
+            NoopJobExecutor.minor = minor;
+        }
+    }
+
+    private static ExecuteTaskParam createParam(long taskId, Worker worker) {
+        ExecuteTaskParam param = new ExecuteTaskParam();
+        param.setOperation(Operation.TRIGGER);
+        param.setTaskId(taskId);
+        param.setInstanceId(taskId);
+        param.setTriggerTime(System.currentTimeMillis());
+        param.setJobId(1L);
+        param.setJobType(JobType.GENERAL);
+        param.setRouteStrategy(RouteStrategy.ROUND_ROBIN);
+        param.setShutdownStrategy(ShutdownStrategy.RESUME);
+        param.setJobExecutor(NoopJobExecutor.class.getName());
+        param.setWorker(worker);
+        return param;
+    }
+
+}
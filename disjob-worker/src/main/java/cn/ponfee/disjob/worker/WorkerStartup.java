@@ -30,6 +30,7 @@ import cn.ponfee.disjob.core.worker.dto.ExecuteTaskParam;
 import cn.ponfee.disjob.registry.WorkerRegistry;
 import cn.ponfee.disjob.registry.rpc.DiscoveryUngroupedServerRestProxy;
 import cn.ponfee.disjob.worker.base.TimingWheelRotator;
+import cn.ponfee.disjob.worker.base.WorkerHeartbeatReporter;
 import cn.ponfee.disjob.worker.base.WorkerThreadPool;
 import cn.ponfee.disjob.worker.configuration.WorkerProperties;
 import lombok.extern.slf4j.Slf4j;
@@ -51,6 +52,7 @@ public class WorkerStartup extends SingletonClassConstraint implements Startable
     private final Worker.Local localWorker;
     private final WorkerThreadPool workerThreadPool;
     private final TimingWheelRotator timingWheelRotator;
+    private final WorkerHeartbeatReporter heartbeatReporter;
     private final WorkerRegistry workerRegistry;
     private final TripleState state = TripleState.create();
 
@@ -72,8 +74,10 @@ public class WorkerStartup extends SingletonClassConstraint implements Startable
 
         this.workerConf = workerConf;
         this.localWorker = localWorker;
-        this.workerThreadPool = new WorkerThreadPool(workerConf.getMaximumPoolSize(), workerConf.getKeepAliveTimeSeconds(), supervisorRpcClient);
+        this.workerThreadPool = new WorkerThreadPool(workerConf.getMaximumPoolSize(), workerConf.getKeepAliveTimeSeconds(), workerConf.isVirtualThreadEnabled(), workerConf.getTaskReportWindowMs(), supervisorRpcClient);
         this.timingWheelRotator = new TimingWheelRotator(supervisorRpcClient, workerRegistry, timingWheel, workerThreadPool, workerConf.getProcessThreadPoolSize());
+        this.heartbeatReporter = workerConf.getHeartbeatPeriodMs() == 0 ? null :
+            new WorkerHeartbeatReporter(workerConf.getHeartbeatPeriodMs(), workerThreadPool, workerRegistry, restTemplate, supervisorRpcService);
         this.workerRegistry = workerRegistry;
     }
 
@@ -85,10 +89,12 @@ public class WorkerStartup extends SingletonClassConstraint implements Startable
         }
 
         log.info("Worker start begin: {}", localWorker);
-        workerThreadPool.start();
         timingWheelRotator.start();
         ThrowingRunnable.doCaught(workerRegistry::discoverServers);
         workerRegistry.register(localWorker);
+        if (heartbeatReporter != null) {
+            heartbeatReporter.start();
+        }
         printBanner(workerConf.isPrintBannerEnabled());
         log.info("Worker start end: {}", localWorker);
     }
@@ -101,6 +107,9 @@ public class WorkerStartup extends SingletonClassConstraint implements Startable
         }
 
         log.info("Worker stop begin: {}", localWorker);
+        if (heartbeatReporter != null) {
+            ThrowingRunnable.doCaught(heartbeatReporter::stop);
+        }
         ThrowingRunnable.doCaught(workerRegistry::close);
         ThrowingRunnable.doCaught(timingWheelRotator::close);
         ThrowingRunnable.doCaught(workerThreadPool::close);
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.worker.base;
+
+import cn.ponfee.disjob.common.concurrent.LoopThread;
+import cn.ponfee.disjob.common.concurrent.Threads;
+import cn.ponfee.disjob.common.exception.Throwables.ThrowingRunnable;
+import cn.ponfee.disjob.core.base.CoreUtils;
+import cn.ponfee.disjob.core.supervisor.SupervisorRpcService;
+import cn.ponfee.disjob.core.supervisor.dto.StartTaskParam;
+import cn.ponfee.disjob.core.supervisor.dto.StartTaskResult;
+import cn.ponfee.disjob.core.supervisor.dto.StopTaskParam;
+import com.google.common.primitives.Booleans;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Reports the task start and stop events to supervisor.
+ * <p>If window time greater than 0, the events within a short window are coalesced to one batch rpc,
+ * and the supervisor applies the events of same instance in one locked transaction.
+ * <p>If the event not taken by the flush thread within the await timeout, then report it in the caller thread.
+ *
+ * @author Ponfee
+ */
+@Slf4j
+final class TaskReporter implements Closeable {
+
+    private static final int MAX_BATCH_SIZE = 200;
+
+    /**
+     * Extra wait milliseconds (beyond the window) for the flush thread taken the event
+     */
+    private static final long AWAIT_FLUSH_TIMEOUT_MS = 3000;
+
+    /**
+     * Max wait milliseconds for the in-flight batch rpc result which includes the event
+     */
+    private static final long AWAIT_REPORT_TIMEOUT_MS = 30000;
+
+    private final SupervisorRpcService supervisorRpcClient;
+    private final BlockingQueue<Event<StartTaskParam, StartTaskResult>> startEvents = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Event<StopTaskParam, Boolean>> stopEvents = new LinkedBlockingQueue<>();
+    private final LoopThread flushThread;
+    private final long awaitFlushTimeoutMs;
+    private volatile boolean closed = false;
+
+    TaskReporter(SupervisorRpcService supervisorRpcClient, long windowMs) {
+        Assert.isTrue(windowMs >= 0, "Task report window ms cannot be negative.");
+        this.supervisorRpcClient = supervisorRpcClient;
+        this.flushThread = (windowMs == 0) ? null : LoopThread.createStarted("task_reporter", windowMs, windowMs, this::flush);
+        this.awaitFlushTimeoutMs = windowMs + AWAIT_FLUSH_TIMEOUT_MS;
+    }
+
+    StartTaskResult startTask(WorkerTask task) throws Exception {
+        StartTaskParam param = task.toStartTaskParam();
+        if (flushThread == null) {
+            return CoreUtils.doInSynchronized(task.getLockInstanceId(), () -> supervisorRpcClient.startTask(param));
+        }
+        return await(offer(startEvents, param), supervisorRpcClient::startTask);
+    }
+
+    void stopTask(WorkerTask task, StopTaskParam param, Supplier<String> msgSupplier) {
+        if (flushThread == null) {
+            CoreUtils.doInSynchronized(task.getLockInstanceId(), () -> supervisorRpcClient.stopTask(param), msgSupplier);
+            return;
+        }
+        try {
+            // the event already queued, it will be reported even if current thread interrupted
+            await(offer(stopEvents, param), supervisorRpcClient::stopTask);
+        } catch (Throwable t) {
+            log.error(msgSupplier.get(), t);
+            Threads.reinterruptIfInterruptedException(t);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (flushThread == null || closed) {
+            return;
+        }
+        closed = true;
+        flushThread.terminate();
+        // report the remaining events
+        ThrowingRunnable.doCaught(this::flush);
+    }
+
+    // ----------------------------------------------------------------------private methods
+
+    private <P, R> Event<P, R> offer(BlockingQueue<Event<P, R>> queue, P param) {
+        Event<P, R> event = new Event<>(param);
+        queue.offer(event);
+        if (closed) {
+            // flush thread already terminated, report in current thread
+            flush();
+        }
+        return event;
+    }
+
+    private <P, R> R await(Event<P, R> event, Function<P, R> singleAction) throws Exception {
+        try {
+            try {
+                return event.future.get(awaitFlushTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (!event.take()) {
+                    // the event already taken by flush thread, wait the in-flight batch rpc result
+                    return event.future.get(AWAIT_REPORT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                }
+                log.warn("Await task event flush timeout, fallback report in current thread: {}", event.param);
+                return singleAction.apply(event.param);
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw (cause instanceof Exception) ? (Exception) cause : e;
+        }
+    }
+
+    private void flush() {
+        flush(startEvents, supervisorRpcClient::startTasks, supervisorRpcClient::startTask);
+        flush(stopEvents, params -> Booleans.asList(supervisorRpcClient.stopTasks(params)), supervisorRpcClient::stopTask);
+    }
+
+    private static <P, R> void flush(BlockingQueue<Event<P, R>> queue,
+                                     Function<List<P>, List<R>> batchAction,
+                                     Function<P, R> singleAction) {
+        List<Event<P, R>> events = new ArrayList<>(MAX_BATCH_SIZE);
+        while (queue.drainTo(events, MAX_BATCH_SIZE) > 0) {
+            // skip the event which already taken by the timeout caller thread
+            events.removeIf(e -> !e.take());
+            if (events.isEmpty()) {
+                continue;
+            }
+            try {
+                if (events.size() == 1) {
+                    report(events.get(0), singleAction);
+                } else {
+                    report(events, batchAction, singleAction);
+                }
+            } finally {
+                events.forEach(e -> e.future.completeExceptionally(new IllegalStateException("Task event not reported.")));
+                events.clear();
+            }
+        }
+    }
+
+    private static <P, R> void report(List<Event<P, R>> events,
+                                      Function<List<P>, List<R>> batchAction,
+                                      Function<P, R> singleAction) {
+        List<R> results;
+        try {
+            List<P> params = new ArrayList<>(events.size());
+            events.forEach(e -> params.add(e.param));
+            results = batchAction.apply(params);
+            Assert.isTrue(results != null && results.size() == events.size(), "Inconsistent batch report result size.");
+        } catch (Throwable t) {
+            // maybe the supervisor is an old version which not supported batch rpc
+            log.warn("Batch report task events failed, fallback one by one: {}", t.getMessage());
+            events.forEach(e -> report(e, singleAction));
+            return;
+        }
+        for (int i = 0, n = events.size(); i < n; i++) {
+            events.get(i).future.complete(results.get(i));
+        }
+    }
+
+    private static <P, R> void report(Event<P, R> event, Function<P, R> singleAction) {
+        try {
+            event.future.complete(singleAction.apply(event.param));
+        } catch (Throwable t) {
+            event.future.completeExceptionally(t);
+        }
+    }
+
+    private static class Event<P, R> {
+        private final P param;
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+        private final AtomicBoolean taken = new AtomicBoolean(false);
+
+        private Event(P param) {
+            this.param = param;
+        }
+
+        /**
+         * Takes the event for report, the event only can be reported by either flush thread or caller thread.
+         *
+         * @return {@code true} if taken successful
+         */
+        private boolean take() {
+            return taken.compareAndSet(false, true);
+        }
+    }
+
+}
@@ -20,8 +20,11 @@ import cn.ponfee.disjob.core.base.JobConstants;
 import cn.ponfee.disjob.core.supervisor.Supervisor;
 import cn.ponfee.disjob.core.worker.Worker;
 import cn.ponfee.disjob.core.worker.WorkerMetrics;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
 
 import java.util.Date;
+import java.util.List;
 
 /**
  * Worker configurator
@@ -31,6 +34,7 @@ import java.util.Date;
 public class WorkerConfigurator {
 
     private static volatile WorkerThreadPool workerThreadPool;
+    private static volatile PoolingHttpClientConnectionManager httpConnectionManager;
 
     static synchronized void setWorkerThreadPool(WorkerThreadPool threadPool) {
         if (workerThreadPool != null) {
@@ -39,6 +43,10 @@ public class WorkerConfigurator {
         workerThreadPool = threadPool;
     }
 
+    public static void setHttpConnectionManager(PoolingHttpClientConnectionManager connectionManager) {
+        httpConnectionManager = connectionManager;
+    }
+
     public static WorkerMetrics metrics() {
         Worker.Local localWorker = Worker.local();
         WorkerMetrics metrics = new WorkerMetrics();
@@ -50,6 +58,16 @@ public class WorkerConfigurator {
         if (workerThreadPool != null) {
             metrics.setWorkerThreadPoolMetrics(workerThreadPool.metrics());
         }
+        PoolingHttpClientConnectionManager connectionManager = httpConnectionManager;
+        if (connectionManager != null) {
+            PoolStats stats = connectionManager.getTotalStats();
+            WorkerMetrics.HttpPoolMetrics httpPoolMetrics = new WorkerMetrics.HttpPoolMetrics();
+            httpPoolMetrics.setMax(stats.getMax());
+            httpPoolMetrics.setLeased(stats.getLeased());
+            httpPoolMetrics.setPending(stats.getPending());
+            httpPoolMetrics.setAvailable(stats.getAvailable());
+            metrics.setHttpPoolMetrics(httpPoolMetrics);
+        }
         metrics.setSignature(localWorker.createWorkerSignatureToken());
         return metrics;
     }
@@ -58,8 +76,16 @@ public class WorkerConfigurator {
         workerThreadPool.setMaximumPoolSize(maximumPoolSize);
     }
 
+    public static int queueTaskCount() {
+        return workerThreadPool == null ? 0 : workerThreadPool.queueTaskCount();
+    }
+
     public static boolean existsTask(long taskId) {
         return workerThreadPool.existsTask(taskId);
     }
 
+    public static boolean[] existsTasks(List<Long> taskIds) {
+        return workerThreadPool.existsTasks(taskIds);
+    }
+
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.worker.base;
+
+import cn.ponfee.disjob.common.base.Startable;
+import cn.ponfee.disjob.common.concurrent.LoopThread;
+import cn.ponfee.disjob.common.concurrent.Threads;
+import cn.ponfee.disjob.core.base.RetryProperties;
+import cn.ponfee.disjob.core.supervisor.Supervisor;
+import cn.ponfee.disjob.core.supervisor.SupervisorRpcService;
+import cn.ponfee.disjob.core.supervisor.dto.WorkerHeartbeatParam;
+import cn.ponfee.disjob.core.worker.Worker;
+import cn.ponfee.disjob.registry.Discovery;
+import cn.ponfee.disjob.registry.rpc.DestinationServerRestProxy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+/**
+ * Pushes the worker heartbeat to all discovered supervisors periodically.
+ * <p>The heartbeat carries the running and queued task ids, supervisor use it to avoid the `existsTask` rpc call.
+ *
+ * @author Ponfee
+ */
+@Slf4j
+public class WorkerHeartbeatReporter implements Startable {
+
+    private final long periodMs;
+    private final WorkerThreadPool workerThreadPool;
+    private final Discovery<Supervisor> discoverSupervisor;
+    private final DestinationServerRestProxy<SupervisorRpcService, Supervisor> supervisorRpcProxy;
+    private final LoopThread reportThread;
+
+    public WorkerHeartbeatReporter(long periodMs,
+                                   WorkerThreadPool workerThreadPool,
+                                   Discovery<Supervisor> discoverSupervisor,
+                                   RestTemplate restTemplate,
+                                   SupervisorRpcService supervisorRpcService) {
+        Assert.isTrue(periodMs > 0, "Heartbeat period ms must be greater than 0.");
+        this.periodMs = periodMs;
+        this.workerThreadPool = workerThreadPool;
+        this.discoverSupervisor = discoverSupervisor;
+        this.supervisorRpcProxy = DestinationServerRestProxy.of(
+            SupervisorRpcService.class, supervisorRpcService, Supervisor.local(), restTemplate, RetryProperties.none()
+        );
+        this.reportThread = new LoopThread("worker_heartbeat", periodMs, periodMs, this::report);
+    }
+
+    @Override
+    public void start() {
+        reportThread.start();
+    }
+
+    @Override
+    public void stop() {
+        reportThread.terminate();
+    }
+
+    private void report() {
+        List<Supervisor> supervisors = discoverSupervisor.getAliveServers(null);
+        if (supervisors.isEmpty()) {
+            return;
+        }
+        WorkerHeartbeatParam param = WorkerHeartbeatParam.of(
+            Worker.local().serialize(), periodMs, workerThreadPool.taskIds(), workerThreadPool.metrics()
+        );
+        for (Supervisor supervisor : supervisors) {
+            try {
+                supervisorRpcProxy.destination(supervisor).reportWorkerHeartbeat(param);
+            } catch (Throwable t) {
+                // maybe the supervisor is an old version which not supported heartbeat rpc
+                log.warn("Report worker heartbeat failed: {}, {}", supervisor, t.getMessage());
+                Threads.reinterruptIfInterruptedException(t);
+            }
+        }
+    }
+
+}
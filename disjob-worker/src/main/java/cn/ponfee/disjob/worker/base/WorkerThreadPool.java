@@ -17,7 +17,6 @@
 package cn.ponfee.disjob.worker.base;
 
 import cn.ponfee.disjob.common.base.SingletonClassConstraint;
-import cn.ponfee.disjob.common.collect.Collects;
 import cn.ponfee.disjob.common.collect.SynchronizedSegmentMap;
 import cn.ponfee.disjob.common.concurrent.*;
 import cn.ponfee.disjob.common.exception.Throwables;
@@ -41,9 +40,7 @@ import org.springframework.util.Assert;
 
 import javax.annotation.PreDestroy;
 import java.io.Closeable;
-import java.util.Collections;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -53,12 +50,14 @@ import static cn.ponfee.disjob.common.concurrent.ThreadPoolExecutors.commonSched
 import static cn.ponfee.disjob.common.concurrent.ThreadPoolExecutors.commonThreadPool;
 
 /**
- * Thread pool of execute task, also is a boss thread
+ * Thread pool of execute task
+ * <p>The worker threads pull task directly from the shared task queue, and new worker thread
+ * created when there are not enough idle worker threads to consume the queued tasks.
  *
  * @author Ponfee
  */
 @Slf4j
-public class WorkerThreadPool extends Thread implements Closeable {
+public class WorkerThreadPool implements Closeable {
 
     private static final int ERR_MSG_MAX_LENGTH = 2048;
     private static final AtomicLong NAMED_SEQ = new AtomicLong(1);
@@ -68,6 +67,11 @@ public class WorkerThreadPool extends Thread implements Closeable {
      */
     private final SupervisorRpcService supervisorRpcClient;
 
+    /**
+     * Task start and stop events reporter
+     */
+    private final TaskReporter taskReporter;
+
     /**
      * Maximum pool size
      */
@@ -78,15 +82,20 @@ public class WorkerThreadPool extends Thread implements Closeable {
      */
     private final long keepAliveTime;
 
+    /**
+     * Whether run task on virtual thread
+     */
+    private final boolean virtualThread;
+
     /**
      * Active worker thread pool
      */
     private final ActiveThreadPool activePool = new ActiveThreadPool();
 
     /**
-     * Idle worker thread pool
+     * Idle worker thread pool, contains the worker threads which waiting for task
      */
-    private final LinkedBlockingDeque<WorkerThread> idlePool = new LinkedBlockingDeque<>();
+    private final Set<WorkerThread> idlePool = ConcurrentHashMap.newKeySet();
 
     /**
      * Task queue for pending execution
@@ -109,17 +118,32 @@ public class WorkerThreadPool extends Thread implements Closeable {
     private final TripleState threadPoolState = TripleState.createStarted();
 
     public WorkerThreadPool(int maximumPoolSize, long keepAliveTimeSeconds, SupervisorRpcService supervisorRpcClient) {
+        this(maximumPoolSize, keepAliveTimeSeconds, false, 0, supervisorRpcClient);
+    }
+
+    /**
+     * Constructor
+     * <p>If virtual thread enabled, the concurrency is bounded by the `maximumPoolSize` permits instead of OS threads.
+     *
+     * @param maximumPoolSize      the maximum pool size
+     * @param keepAliveTimeSeconds the worker thread keep alive time seconds
+     * @param virtualThread        whether run task on virtual thread, fallback to platform thread if JDK not supported
+     * @param taskReportWindowMs   the window ms of coalesce task start and stop events, 0 means report immediately
+     * @param supervisorRpcClient  the supervisor rpc client
+     */
+    public WorkerThreadPool(int maximumPoolSize, long keepAliveTimeSeconds, boolean virtualThread,
+                            long taskReportWindowMs, SupervisorRpcService supervisorRpcClient) {
         Assert.isTrue(keepAliveTimeSeconds > 0, "Keep alive time seconds must be positive number.");
         setMaximumPoolSize(maximumPoolSize);
         this.keepAliveTime = TimeUnit.SECONDS.toNanos(keepAliveTimeSeconds);
+        if (virtualThread && !VirtualThreads.isSupported()) {
+            log.warn("Virtual thread not supported, fallback to platform thread: {}", System.getProperty("java.version"));
+            virtualThread = false;
+        }
+        this.virtualThread = virtualThread;
         this.supervisorRpcClient = Objects.requireNonNull(supervisorRpcClient);
+        this.taskReporter = new TaskReporter(supervisorRpcClient, taskReportWindowMs);
         SingletonClassConstraint.constrain(this);
-
-        super.setDaemon(true);
-        super.setName(getClass().getSimpleName());
-        super.setPriority(Thread.MAX_PRIORITY);
-        super.setUncaughtExceptionHandler(new LoggedUncaughtExceptionHandler(log));
-
         WorkerConfigurator.setWorkerThreadPool(this);
     }
 
@@ -135,7 +159,9 @@ public class WorkerThreadPool extends Thread implements Closeable {
         }
         log.info("Task trace [{}] submitted: {}, {}", task.getTaskId(), task.getOperation(), task.getWorker());
         if (task.getOperation().isTrigger()) {
-            return taskQueue.offerLast(task);
+            boolean accepted = taskQueue.offerLast(task);
+            replenishWorkerThreads();
+            return accepted;
         } else {
             commonThreadPool().execute(ThrowingRunnable.toCaught(() -> stopTask(task)));
             return true;
@@ -150,63 +176,24 @@ public class WorkerThreadPool extends Thread implements Closeable {
         }
 
         log.info("Close worker thread pool start...");
-        // stop this boss thread
-        if (Thread.currentThread() != this) {
-            ThrowingRunnable.doCaught(super::interrupt);
-            ThrowingRunnable.doCaught(() -> Threads.stopThread(this, 6000L));
-        }
-        // stop idle pool thread
-        List<WorkerThread> idleWorkerThreads = Collects.drainAll(idlePool);
-        idleWorkerThreads.forEach(e -> ThrowingRunnable.doCaught(e::interrupt));
-        idleWorkerThreads.forEach(e -> ThrowingRunnable.doCaught(e::doStop));
         // clear task queue
         ThrowingRunnable.doCaught(taskQueue::clear);
+        // stop idle pool thread
+        List<WorkerThread> idleWorkerThreads = new ArrayList<>(idlePool);
+        idlePool.removeAll(idleWorkerThreads);
+        idleWorkerThreads.forEach(e -> ThrowingRunnable.doCaught(e.thread::interrupt));
+        idleWorkerThreads.forEach(e -> ThrowingRunnable.doCaught(e::doStop));
         // stop active pool thread
         ThrowingRunnable.doCaught(activePool::close);
+        // report the remaining task events
+        ThrowingRunnable.doCaught(taskReporter::close);
         log.info("Close worker thread pool end.");
     }
 
-    @Override
-    public void run() {
-        try {
-            while (threadPoolState.isRunning() && !super.isInterrupted()) {
-                WorkerTask task = taskQueue.takeFirst();
-                WorkerThread workerThread = takeWorkerThread();
-                if (workerThread.isStopped()) {
-                    log.info("Worker thread was stopped: {}, {}", workerThread.getName(), task.getTaskId());
-                    // Re-submit this execution task
-                    taskQueue.putFirst(task);
-                    workerThread.doStop();
-                    continue;
-                }
-                try {
-                    activePool.submit(workerThread, task);
-                } catch (BrokenThreadException e) {
-                    log.error(e.getMessage());
-                    // Re-submit this execution task
-                    taskQueue.putFirst(task);
-                    workerThread.doStop();
-                } catch (IllegalTaskException e) {
-                    log.error(e.getMessage());
-                    // return the worker thread to idle pool
-                    idlePool.putFirst(workerThread);
-                } catch (Throwable t) {
-                    workerThread.doStop();
-                    throw t;
-                }
-            }
-        } catch (Throwable t) {
-            log.error("Boss thread break: {}({})", t.getClass().getName(), t.getMessage());
-            Threads.reinterruptIfInterruptedException(t);
-        } finally {
-            close();
-        }
-    }
-
     @Override
     public String toString() {
-        String format = "maximum-pool-size=%d, current-pool-size=%d, active-pool-size=%d, idle-pool-size=%d, queue-task-count=%d, completed-task-count=%d";
-        return String.format(format, maximumPoolSize, workerThreadCounter.get(), activePool.size(), idlePool.size(), taskQueue.size(), completedTaskCounter.get());
+        String format = "virtual-thread=%s, maximum-pool-size=%d, current-pool-size=%d, active-pool-size=%d, idle-pool-size=%d, queue-task-count=%d, completed-task-count=%d";
+        return String.format(format, virtualThread, maximumPoolSize, workerThreadCounter.get(), activePool.size(), idlePool.size(), taskQueue.size(), completedTaskCounter.get());
     }
 
     WorkerMetrics.WorkerThreadPoolMetrics metrics() {
@@ -222,9 +209,15 @@ public class WorkerThreadPool extends Thread implements Closeable {
         return metrics;
     }
 
+    int queueTaskCount() {
+        return taskQueue.size();
+    }
+
     synchronized void setMaximumPoolSize(int value) {
         Assert.isTrue(0 < value && value <= ThreadPoolExecutors.MAX_CAP, "Maximum pool size must be range [1, 32767].");
         this.maximumPoolSize = value;
+        // if increased, create more worker threads for the queued tasks
+        replenishWorkerThreads();
     }
 
     boolean existsTask(long taskId) {
@@ -240,6 +233,55 @@ public class WorkerThreadPool extends Thread implements Closeable {
         return activePool.containsKey(taskId);
     }
 
+    /**
+     * Batch check the tasks whether exists in this thread pool, only traverse the task queue once.
+     *
+     * @param taskIds the task ids
+     * @return exists results, corresponding to the task ids one by one
+     */
+    boolean[] existsTasks(List<Long> taskIds) {
+        boolean[] results = new boolean[taskIds.size()];
+        Set<Long> remains = new HashSet<>();
+        for (int i = 0; i < results.length; i++) {
+            results[i] = activePool.containsKey(taskIds.get(i));
+            if (!results[i]) {
+                remains.add(taskIds.get(i));
+            }
+        }
+        if (remains.isEmpty()) {
+            return results;
+        }
+        Set<Long> queued = new HashSet<>();
+        for (WorkerTask task : taskQueue) {
+            if (remains.contains(task.getTaskId())) {
+                queued.add(task.getTaskId());
+            }
+        }
+        for (int i = 0; i < results.length; i++) {
+            if (!results[i]) {
+                // check again from active pool
+                Long taskId = taskIds.get(i);
+                results[i] = queued.contains(taskId) || activePool.containsKey(taskId);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns the running and queued task ids snapshot, for report heartbeat to supervisor.
+     *
+     * @return task ids
+     */
+    Set<Long> taskIds() {
+        Set<Long> result = new HashSet<>();
+        for (WorkerTask task : taskQueue) {
+            result.add(task.getTaskId());
+        }
+        // scan active pool after task queue, the task moved from queue to active pool will not be missed
+        result.addAll(activePool.keySet());
+        return result;
+    }
+
     // ----------------------------------------------------------------------private methods
 
     /**
@@ -276,20 +318,15 @@ public class WorkerThreadPool extends Thread implements Closeable {
         }
     }
 
-    private WorkerThread takeWorkerThread() throws InterruptedException {
-        WorkerThread workerThread = idlePool.pollFirst();
-        if (workerThread != null) {
-            return workerThread;
-        }
-        while (!threadPoolState.isStopped() && !super.isInterrupted()) {
-            if ((workerThread = createWorkerThreadIfNecessary()) != null) {
-                return workerThread;
-            }
-            if ((workerThread = idlePool.pollFirst(1000L, TimeUnit.MILLISECONDS)) != null) {
-                return workerThread;
+    /**
+     * If idle worker threads not enough to consume the queued tasks, then create new worker threads.
+     */
+    private void replenishWorkerThreads() {
+        while (threadPoolState.isRunning() && idlePool.size() < taskQueue.size()) {
+            if (createWorkerThreadIfNecessary() == null) {
+                return;
             }
         }
-        throw new IllegalStateException("Take worker thread stopped.");
     }
 
     /**
@@ -300,9 +337,9 @@ public class WorkerThreadPool extends Thread implements Closeable {
     private WorkerThread createWorkerThreadIfNecessary() {
         for (int count; (count = workerThreadCounter.get()) < maximumPoolSize; ) {
             if (workerThreadCounter.compareAndSet(count, count + 1)) {
-                WorkerThread thread = new WorkerThread();
-                log.info("Created worker thread {}, current size: {}", thread, count + 1);
-                return thread;
+                WorkerThread workerThread = new WorkerThread();
+                log.info("Created worker thread {}, current size: {}", workerThread, count + 1);
+                return workerThread;
             }
         }
         return null;
@@ -312,8 +349,7 @@ public class WorkerThreadPool extends Thread implements Closeable {
         int phase = 0;
         ScheduledFuture<?> cancelTimeoutFuture = null;
         try {
-            StartTaskResult startTaskResult = CoreUtils.doInSynchronized(
-                task.getLockInstanceId(), () -> supervisorRpcClient.startTask(task.toStartTaskParam()));
+            StartTaskResult startTaskResult = taskReporter.startTask(task);
             if (!startTaskResult.isSuccess()) {
                 log.warn("Start task failed: {}, {}", task, startTaskResult.getFailedMessage());
                 return;
@@ -403,7 +439,7 @@ public class WorkerThreadPool extends Thread implements Closeable {
         StopTaskParam param = task.toStopTaskParam(ops, toStatus, errorMsg);
         log.info("Stop task operation: {}, {}, {}", task.getTaskId(), ops, toStatus);
         Supplier<String> msgSupplier = () -> "Stop task error: " + task.getTaskId() + ", " + ops + ", " + toStatus;
-        CoreUtils.doInSynchronized(task.getLockInstanceId(), () -> supervisorRpcClient.stopTask(param), msgSupplier);
+        taskReporter.stopTask(task, param, msgSupplier);
     }
 
     private void stopInstance(WorkerTask task, Operation ops, String errorMsg) {
@@ -437,7 +473,7 @@ public class WorkerThreadPool extends Thread implements Closeable {
      */
     private static class ActiveThreadPool extends SynchronizedSegmentMap<Long, WorkerThread> {
 
-        private void submit(WorkerThread wt, WorkerTask task) throws Throwable {
+        private void submit(WorkerThread wt, WorkerTask task) {
             if (task.getOperation().isNotTrigger()) {
                 throw new IllegalTaskException("Not a executable task operation: " + task);
             }
@@ -447,15 +483,9 @@ public class WorkerThreadPool extends Thread implements Closeable {
                     // discard re-dispatched task
                     throw new IllegalTaskException("Repeat execute task: " + task + ", " + et.getCurrentTask());
                 }
-                try {
-                    wt.setCurrentTask(task);
-                    wt.submit(task);
-                    map.put(task.getTaskId(), wt);
-                    log.info("Put to active pool worker thread: {}, {}", task.getTaskId(), wt.getName());
-                } catch (Throwable t) {
-                    wt.setCurrentTask(null);
-                    throw t;
-                }
+                wt.setCurrentTask(task);
+                map.put(task.getTaskId(), wt);
+                log.info("Put to active pool worker thread: {}, {}", task.getTaskId(), wt.getName());
             });
         }
 
@@ -509,14 +539,6 @@ public class WorkerThreadPool extends Thread implements Closeable {
         }
     }
 
-    private static class BrokenThreadException extends RuntimeException {
-        private static final long serialVersionUID = 3475868254991118684L;
-
-        private BrokenThreadException(String message) {
-            super(message);
-        }
-    }
-
     private class TaskSavepoint implements Savepoint {
         private final long taskId;
         private final String worker;
@@ -537,11 +559,11 @@ public class WorkerThreadPool extends Thread implements Closeable {
         }
     }
 
-    private class WorkerThread extends Thread {
+    private class WorkerThread implements Runnable {
         /**
-         * Worker task queue
+         * Actual thread, platform thread or virtual thread
          */
-        private final BlockingQueue<WorkerTask> queue = new SynchronousQueue<>();
+        private final Thread thread;
 
         /**
          * Worker thread state
@@ -554,19 +576,27 @@ public class WorkerThreadPool extends Thread implements Closeable {
         private volatile WorkerTask currentTask;
 
         private WorkerThread() {
-            super.setDaemon(true);
-            super.setName(getClass().getSimpleName() + "-" + NAMED_SEQ.getAndIncrement());
-            super.setUncaughtExceptionHandler(new LoggedUncaughtExceptionHandler(log));
-            super.start();
+            String name = getClass().getSimpleName() + "-" + NAMED_SEQ.getAndIncrement();
+            if (virtualThread) {
+                // virtual thread always is daemon thread
+                this.thread = VirtualThreads.newThread(name, this);
+            } else {
+                this.thread = new Thread(this, name);
+                thread.setDaemon(true);
+            }
+            thread.setUncaughtExceptionHandler(new LoggedUncaughtExceptionHandler(log));
+            // new worker thread is idle until it polled a task
+            idlePool.add(this);
+            thread.start();
         }
 
-        private void submit(WorkerTask task) throws InterruptedException {
-            if (isStopped()) {
-                throw new BrokenThreadException("Worker thread already stopped: " + super.getName());
-            }
-            if (!queue.offer(task, 5000L, TimeUnit.MILLISECONDS)) {
-                throw new BrokenThreadException("Put to worker thread queue timeout: " + super.getName());
-            }
+        private String getName() {
+            return thread.getName();
+        }
+
+        @Override
+        public String toString() {
+            return thread.toString();
         }
 
         private void toStop() {
@@ -581,7 +611,26 @@ public class WorkerThreadPool extends Thread implements Closeable {
 
         private void doStop() {
             toStop();
-            Threads.stopThread(this, 5000L);
+            if (!Threads.stopThread(thread, 5000L)) {
+                // 非协作式(不响应中断)的任务无法被强制停止，只能等待其自行结束
+                log.warn("Worker thread cannot be stopped, the task not respond to interrupt: {}, {}", thread.getName(), currentTask);
+            }
+        }
+
+        /**
+         * If current thread count greater than maximumPoolSize(reduced by modify), then retire this worker thread.
+         *
+         * @return {@code true} if retired
+         */
+        private boolean retireIfOverflow() {
+            for (int count; (count = workerThreadCounter.get()) > maximumPoolSize; ) {
+                if (workerThreadCounter.compareAndSet(count, count - 1)) {
+                    // already decremented the worker thread counter
+                    state.stop();
+                    return true;
+                }
+            }
+            return false;
         }
 
         /**
@@ -595,15 +644,9 @@ public class WorkerThreadPool extends Thread implements Closeable {
                 // maybe already removed by other operation
                 return false;
             }
-            try {
-                // return the detached worker thread to idle pool
-                idlePool.putFirst(this);
-                return true;
-            } catch (InterruptedException e) {
-                log.error("Return thread to idle pool interrupted.", e);
-                Thread.currentThread().interrupt();
-                return false;
-            }
+            // return the detached worker thread to idle pool
+            idlePool.add(this);
+            return true;
         }
 
         /**
@@ -612,8 +655,10 @@ public class WorkerThreadPool extends Thread implements Closeable {
         private void removeFromPool() {
             toStop();
             if (activePool.removeThread(this) == null && !idlePool.remove(this)) {
-                log.info("Worker thread not in thread pool: {}", super.getName());
+                log.info("Worker thread not in thread pool: {}", getName());
             }
+            // the queued tasks maybe need new worker thread to execute
+            replenishWorkerThreads();
         }
 
         private void setCurrentTask(WorkerTask task) {
@@ -625,38 +670,56 @@ public class WorkerThreadPool extends Thread implements Closeable {
         }
 
         private boolean isStopped() {
-            return state.isStopped() || super.isInterrupted() || Threads.isStopped(this);
+            return state.isStopped() || thread.isInterrupted() || Threads.isStopped(thread);
         }
 
         private void close() {
             WorkerTask task = activePool.removeThread(this);
-            log.info("Close worker thread staring: {}, {}", task, super.getName());
+            log.info("Close worker thread staring: {}, {}", task, getName());
             if (task == null) {
                 return;
             }
             Operation ops = task.getShutdownStrategy().operation();
             boolean updated = task.updateOperation(Operation.TRIGGER, ops);
             log.info("Close worker thread update task operation: {}, {}, {}", updated, task, ops);
-            ThrowingRunnable.doCaught(this::doStop, () -> "Close worker thread error: " + task + ", " + super.getName());
+            ThrowingRunnable.doCaught(this::doStop, () -> "Close worker thread error: " + task + ", " + getName());
             if (updated) {
                 ThrowingRunnable.doCaught(() -> stopTask(task, ops, "Worker shutdown"), () -> "Stop task fail: " + task);
             }
-            log.info("Close worker thread end: {}, {}", task, super.getName());
+            log.info("Close worker thread end: {}, {}", task, getName());
         }
 
         @Override
         public void run() {
             try {
-                while (state.isRunning() && !super.isInterrupted()) {
-                    WorkerTask task = queue.poll(keepAliveTime, TimeUnit.NANOSECONDS);
+                while (state.isRunning() && !thread.isInterrupted()) {
+                    WorkerTask task = taskQueue.pollFirst(keepAliveTime, TimeUnit.NANOSECONDS);
                     if (task == null) {
-                        log.info("Exit idle timeout worker thread: {}", super.getName());
+                        if (taskQueue.isEmpty()) {
+                            log.info("Exit idle timeout worker thread: {}", getName());
+                            break;
+                        }
+                        continue;
+                    }
+                    if (threadPoolState.isStopped()) {
+                        log.warn("Worker thread pool closed, discard task: {}", task);
                         break;
                     }
-                    if (task != currentTask) {
-                        log.error("Invalid polled worker task: {}, {}", task, currentTask);
+                    if (retireIfOverflow() || isStopped()) {
+                        log.info("Worker thread retired: {}, {}", getName(), task.getTaskId());
+                        // Re-submit this execution task
+                        taskQueue.putFirst(task);
                         break;
                     }
+                    idlePool.remove(this);
+                    try {
+                        activePool.submit(this, task);
+                    } catch (IllegalTaskException e) {
+                        log.error(e.getMessage());
+                        // return this to idle thread pool
+                        idlePool.add(this);
+                        continue;
+                    }
                     log.info("Task trace [{}] readied: {}, {}", task.getTaskId(), task.getOperation(), task.getWorker());
                     WorkerThreadPool.this.executeTask(task);
                     // return this to idle thread pool
@@ -41,10 +41,11 @@ class WorkerConfiguration {
     }
 
     @Bean
-    WorkerRpcService workerRpcService(Worker.Local localWorker,
+    WorkerRpcService workerRpcService(WorkerProperties workerConf,
+                                      Worker.Local localWorker,
                                       TimingWheel<ExecuteTaskParam> timingWheel,
                                       WorkerRegistry workerRegistry) {
-        return WorkerRpcProvider.create(localWorker, timingWheel, workerRegistry);
+        return WorkerRpcProvider.create(workerConf, localWorker, timingWheel, workerRegistry);
     }
 
 }
@@ -24,6 +24,8 @@ import cn.ponfee.disjob.core.worker.Worker;
 import cn.ponfee.disjob.core.worker.dto.ExecuteTaskParam;
 import cn.ponfee.disjob.registry.WorkerRegistry;
 import cn.ponfee.disjob.worker.WorkerStartup;
+import cn.ponfee.disjob.worker.base.WorkerConfigurator;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.Lifecycle;
 import org.springframework.context.Phased;
@@ -46,8 +48,10 @@ class WorkerLifecycle implements SmartLifecycle {
                     RetryProperties retryConf,
                     WorkerRegistry workerRegistry,
                     @Qualifier(JobConstants.SPRING_BEAN_NAME_REST_TEMPLATE) RestTemplate restTemplate,
+                    @Nullable @Qualifier(JobConstants.SPRING_BEAN_NAME_HTTP_CONNECTION_MANAGER) PoolingHttpClientConnectionManager httpConnectionManager,
                     // if the local server also is a supervisor -> cn.ponfee.disjob.supervisor.provider.SupervisorRpcProvider
                     @Nullable SupervisorRpcService supervisorRpcService) {
+        WorkerConfigurator.setHttpConnectionManager(httpConnectionManager);
         this.workerStartup = new WorkerStartup(workerConf, localWorker, timingWheel, retryConf, workerRegistry, restTemplate, supervisorRpcService);
     }
 
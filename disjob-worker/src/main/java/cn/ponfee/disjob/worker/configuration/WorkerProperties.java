@@ -73,6 +73,36 @@ public class WorkerProperties extends ToJsonString implements Serializable {
      */
     private int processThreadPoolSize = 5;
 
+    /**
+     * Whether execute task on virtual thread(JDK 21+), default false.
+     * <p>If enabled, the `maximumPoolSize` is the maximum concurrency of tasks, not the OS threads.
+     * <p>Virtual thread not supported Thread#stop(), the task that not respond to interrupt(non-cooperative)
+     * cannot be force stopped when pause/cancel instance or shutdown, it only ends by itself.
+     */
+    private boolean virtualThreadEnabled = false;
+
+    /**
+     * Window ms of coalesce the task start and stop events to batch report supervisor, default 0(report immediately).
+     */
+    private long taskReportWindowMs = 0;
+
+    /**
+     * Period ms of push heartbeat(carries the running task ids) to supervisor, default 0(disabled).
+     * <p>Should be enabled after all supervisors upgraded to support the heartbeat rpc.
+     */
+    private long heartbeatPeriodMs = 0;
+
+    /**
+     * Maximum waiting tasks in timing wheel, the worker rejects new trigger task if reached, default 0(unbounded).
+     */
+    private int maximumTimingWheelTaskSize = 0;
+
+    /**
+     * Maximum waiting tasks in thread pool queue, the worker rejects new trigger task if reached, default 0(unbounded).
+     * <p>It is a soft limit: the tasks already in the timing wheel still move to the queue, so it may briefly exceed.
+     */
+    private int maximumQueueTaskSize = 0;
+
     /**
      * The token which use call rpc to supervisor
      */
@@ -91,10 +121,14 @@ public class WorkerProperties extends ToJsonString implements Serializable {
     public void check() {
         Assert.hasText(group, "Group cannot be blank.");
         Assert.isTrue(timingWheelTickMs > 0, "Timing wheel tick ms must be greater than 0.");
-        Assert.isTrue(timingWheelRingSize > 0, "Timing wheel ring size must be greater than 0.");
+        Assert.isTrue(timingWheelRingSize > 1, "Timing wheel ring size must be greater than 1.");
         Assert.isTrue(0 < maximumPoolSize && maximumPoolSize <= ThreadPoolExecutors.MAX_CAP, "Maximum pool size must be range [1, 32767].");
         Assert.isTrue(keepAliveTimeSeconds > 0, "Keep alive time seconds must be greater 0.");
         Assert.isTrue(processThreadPoolSize > 0, "Process thread pool size must be greater than 0.");
+        Assert.isTrue(taskReportWindowMs >= 0, "Task report window ms cannot be negative.");
+        Assert.isTrue(heartbeatPeriodMs >= 0, "Heartbeat period ms cannot be negative.");
+        Assert.isTrue(maximumTimingWheelTaskSize >= 0, "Maximum timing wheel task size cannot be negative.");
+        Assert.isTrue(maximumQueueTaskSize >= 0, "Maximum queue task size cannot be negative.");
         Assert.isTrue(supervisorContextPath.startsWith(Str.SLASH), () -> "Supervisor context-path must start with '/': " + supervisorContextPath);
         if (supervisorContextPath.length() > 1 && supervisorContextPath.endsWith(Str.SLASH)) {
             throw new IllegalArgumentException("Supervisor context-path cannot end with '/': " + supervisorContextPath);
@@ -27,11 +27,15 @@ import cn.ponfee.disjob.core.worker.dto.*;
 import cn.ponfee.disjob.core.worker.dto.ConfigureWorkerParam.Action;
 import cn.ponfee.disjob.registry.WorkerRegistry;
 import cn.ponfee.disjob.worker.base.WorkerConfigurator;
+import cn.ponfee.disjob.worker.configuration.WorkerProperties;
 import cn.ponfee.disjob.worker.util.JobExecutorUtils;
 import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Worker rpc service provider.
@@ -44,13 +48,18 @@ public interface WorkerRpcProvider extends WorkerRpcService {
     /**
      * Creates WorkerRpcService proxy
      *
+     * @param workerConf     the worker properties
      * @param localWorker    the local worker
      * @param timingWheel    the timing wheel
      * @param workerRegistry the worker registry
      * @return WorkerRpcService proxy
      */
-    static WorkerRpcProvider create(Worker.Local localWorker, TimingWheel<ExecuteTaskParam> timingWheel, WorkerRegistry workerRegistry) {
-        return ProxyUtils.create(new WorkerRpcLocal(localWorker, timingWheel, workerRegistry), WorkerRpcProvider.class);
+    static WorkerRpcProvider create(WorkerProperties workerConf, Worker.Local localWorker,
+                                    TimingWheel<ExecuteTaskParam> timingWheel, WorkerRegistry workerRegistry) {
+        WorkerRpcLocal workerRpcLocal = new WorkerRpcLocal(
+            localWorker, timingWheel, workerRegistry, workerConf.getMaximumTimingWheelTaskSize(), workerConf.getMaximumQueueTaskSize()
+        );
+        return ProxyUtils.create(workerRpcLocal, WorkerRpcProvider.class);
     }
 
     @Slf4j
@@ -59,11 +68,21 @@ public interface WorkerRpcProvider extends WorkerRpcService {
         private final Worker.Local localWorker;
         private final TimingWheel<ExecuteTaskParam> timingWheel;
         private final WorkerRegistry workerRegistry;
+        private final int maximumTimingWheelTaskSize;
+        private final int maximumQueueTaskSize;
 
-        private WorkerRpcLocal(Worker.Local localWorker, TimingWheel<ExecuteTaskParam> timingWheel, WorkerRegistry workerRegistry) {
+        /**
+         * 准入检查与放入时间轮需为原子操作，防止并发接收任务时超出时间轮任务数上限
+         */
+        private final Lock admissionLock = new ReentrantLock();
+
+        private WorkerRpcLocal(Worker.Local localWorker, TimingWheel<ExecuteTaskParam> timingWheel, WorkerRegistry workerRegistry,
+                               int maximumTimingWheelTaskSize, int maximumQueueTaskSize) {
             this.localWorker = localWorker;
             this.timingWheel = timingWheel;
             this.workerRegistry = workerRegistry;
+            this.maximumTimingWheelTaskSize = maximumTimingWheelTaskSize;
+            this.maximumQueueTaskSize = maximumQueueTaskSize;
         }
 
         @Override
@@ -105,26 +124,23 @@ public interface WorkerRpcProvider extends WorkerRpcService {
             }
 
             localWorker.verifySupervisorAuthenticationToken(param);
-            Worker assignedWorker = param.getWorker();
-            if (!localWorker.matches(assignedWorker)) {
-                log.error("Received unmatched worker task: {}, {}, {}", param.getTaskId(), localWorker, assignedWorker);
-                return false;
-            }
-
-            if (!localWorker.getWorkerId().equals(assignedWorker.getWorkerId())) {
-                // 当Worker宕机后又快速启动(重启)的情况，Supervisor从本地缓存(或注册中心)拿到的仍是旧的workerId，但任务却派发给新的workerId(同机器同端口)
-                // 这种情况：1、可以剔除掉，等待Supervisor重新派发即可；2、也可以不剔除掉，短暂时间内该Worker的压力会是正常情况的2倍(注册中心还存有旧workerId)；
-                log.warn("Received former worker task: {}, {}, {}", param.getTaskId(), localWorker, assignedWorker);
-                param.setWorker(localWorker);
-            }
+            return receive(param);
+        }
 
-            boolean res = timingWheel.offer(param);
-            if (res) {
-                log.info("Task trace [{}] received: {}, {}", param.getTaskId(), param.getOperation(), param.getWorker());
-            } else {
-                log.error("Received task failed: {}", param);
+        @Override
+        public boolean[] receiveTasks(ReceiveTasksParam param) {
+            // 批量参数已在`invoke`方法中认证，无需再认证每个task
+            List<ExecuteTaskParam> tasks = param.getTasks();
+            boolean[] results = new boolean[tasks.size()];
+            for (int i = 0; i < results.length; i++) {
+                ExecuteTaskParam task = tasks.get(i);
+                if (task == null) {
+                    log.error("Received batch task param cannot be null.");
+                    continue;
+                }
+                results[i] = receive(task);
             }
-            return res;
+            return results;
         }
 
         @Override
@@ -132,9 +148,16 @@ public interface WorkerRpcProvider extends WorkerRpcService {
             return WorkerConfigurator.existsTask(param.getTaskId());
         }
 
+        @Override
+        public boolean[] existsTasks(ExistsTasksParam param) {
+            return WorkerConfigurator.existsTasks(param.getTaskIds());
+        }
+
         @Override
         public WorkerMetrics getMetrics(GetMetricsParam param) {
-            return WorkerConfigurator.metrics();
+            WorkerMetrics metrics = WorkerConfigurator.metrics();
+            metrics.setTimingWheelTaskCount(timingWheel.size());
+            return metrics;
         }
 
         @Override
@@ -155,6 +178,63 @@ public interface WorkerRpcProvider extends WorkerRpcService {
                     throw new UnsupportedOperationException("Unsupported configure worker action: " + action);
             }
         }
+
+        // ------------------------------------------------------------------------private methods
+
+        private boolean receive(ExecuteTaskParam param) {
+            Worker assignedWorker = param.getWorker();
+            if (!localWorker.matches(assignedWorker)) {
+                log.error("Received unmatched worker task: {}, {}, {}", param.getTaskId(), localWorker, assignedWorker);
+                return false;
+            }
+
+            if (!localWorker.getWorkerId().equals(assignedWorker.getWorkerId())) {
+                // 当Worker宕机后又快速启动(重启)的情况，Supervisor从本地缓存(或注册中心)拿到的仍是旧的workerId，但任务却派发给新的workerId(同机器同端口)
+                // 这种情况：1、可以剔除掉，等待Supervisor重新派发即可；2、也可以不剔除掉，短暂时间内该Worker的压力会是正常情况的2倍(注册中心还存有旧workerId)；
+                log.warn("Received former worker task: {}, {}, {}", param.getTaskId(), localWorker, assignedWorker);
+                param.setWorker(localWorker);
+            }
+
+            if (param.getOperation().isNotTrigger() || (maximumTimingWheelTaskSize <= 0 && maximumQueueTaskSize <= 0)) {
+                return offer(param);
+            }
+            admissionLock.lock();
+            try {
+                if (isBusy()) {
+                    // 返回false让Supervisor立即重新路由到其它的Worker
+                    log.warn("Rejected task for worker busy: {}, {}, {}", param.getTaskId(), timingWheel.size(), WorkerConfigurator.queueTaskCount());
+                    return false;
+                }
+                return offer(param);
+            } finally {
+                admissionLock.unlock();
+            }
+        }
+
+        private boolean offer(ExecuteTaskParam param) {
+            boolean res = timingWheel.offer(param);
+            if (res) {
+                log.info("Task trace [{}] received: {}, {}", param.getTaskId(), param.getOperation(), param.getWorker());
+            } else {
+                log.error("Received task failed: {}", param);
+            }
+            return res;
+        }
+
+        /**
+         * Returns {@code true} if the worker is busy.
+         * <p>The timing wheel task size is a hard limit, because the check and offer are under the admission lock.
+         * <p>The queue task size is a soft limit, because the thread pool queue is fed by the timing wheel rotator
+         * asynchronously, it may briefly exceed the limit.
+         *
+         * @return {@code true} if busy
+         */
+        private boolean isBusy() {
+            if (maximumTimingWheelTaskSize > 0 && timingWheel.size() >= maximumTimingWheelTaskSize) {
+                return true;
+            }
+            return maximumQueueTaskSize > 0 && WorkerConfigurator.queueTaskCount() >= maximumQueueTaskSize;
+        }
     }
 
 }
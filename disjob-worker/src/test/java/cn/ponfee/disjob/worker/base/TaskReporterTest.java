@@ -0,0 +1,178 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.worker.base;
+
+import cn.ponfee.disjob.core.enums.*;
+import cn.ponfee.disjob.core.supervisor.SupervisorRpcService;
+import cn.ponfee.disjob.core.supervisor.dto.StartTaskParam;
+import cn.ponfee.disjob.core.supervisor.dto.StartTaskResult;
+import cn.ponfee.disjob.core.supervisor.dto.StopTaskParam;
+import cn.ponfee.disjob.core.worker.Worker;
+import cn.ponfee.disjob.core.worker.dto.ExecuteTaskParam;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * TaskReporter test
+ *
+ * @author Ponfee
+ */
+@SuppressWarnings("unchecked")
+public class TaskReporterTest {
+
+    private static final Worker WORKER = new Worker("test", "workerId", "127.0.0.1", 8080);
+
+    @Test
+    public void testCoalesce() throws Exception {
+        SupervisorRpcService supervisor = mock(SupervisorRpcService.class);
+        when(supervisor.startTasks(anyList())).thenAnswer(e -> {
+            List<StartTaskParam> params = e.getArgument(0);
+            List<StartTaskResult> results = new ArrayList<>();
+            params.forEach(p -> results.add(success(p.getTaskId())));
+            return results;
+        });
+        when(supervisor.stopTasks(anyList())).thenAnswer(e -> new boolean[((List<?>) e.getArgument(0)).size()]);
+
+        int count = 10;
+        TaskReporter reporter = new TaskReporter(supervisor, 1000);
+        ExecutorService executor = Executors.newFixedThreadPool(count);
+        try {
+            List<Future<StartTaskResult>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                WorkerTask task = new WorkerTask(createParam(i));
+                futures.add(executor.submit(() -> reporter.startTask(task)));
+            }
+            for (int i = 0; i < count; i++) {
+                StartTaskResult result = futures.get(i).get(10, TimeUnit.SECONDS);
+                Assertions.assertTrue(result.isSuccess());
+                Assertions.assertEquals(i, result.getTaskId());
+            }
+
+            List<Future<?>> stopFutures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                WorkerTask task = new WorkerTask(createParam(i));
+                StopTaskParam param = task.toStopTaskParam(Operation.TRIGGER, ExecuteStatus.COMPLETED, null);
+                stopFutures.add(executor.submit(() -> reporter.stopTask(task, param, () -> "Stop task error.")));
+            }
+            for (Future<?> future : stopFutures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+            reporter.close();
+        }
+
+        ArgumentCaptor<List<StartTaskParam>> startCaptor = ArgumentCaptor.forClass(List.class);
+        verify(supervisor, atLeastOnce()).startTasks(startCaptor.capture());
+        Assertions.assertEquals(count, startCaptor.getAllValues().stream().mapToInt(List::size).sum());
+        ArgumentCaptor<List<StopTaskParam>> stopCaptor = ArgumentCaptor.forClass(List.class);
+        verify(supervisor, atLeastOnce()).stopTasks(stopCaptor.capture());
+        Assertions.assertEquals(count, stopCaptor.getAllValues().stream().mapToInt(List::size).sum());
+        verify(supervisor, never()).startTask(any());
+        verify(supervisor, never()).stopTask(any());
+    }
+
+    @Test
+    public void testBatchFailedFallback() throws Exception {
+        SupervisorRpcService supervisor = mock(SupervisorRpcService.class);
+        when(supervisor.startTasks(anyList())).thenThrow(new IllegalStateException("Batch not supported."));
+        when(supervisor.startTask(any())).thenAnswer(e -> success(((StartTaskParam) e.getArgument(0)).getTaskId()));
+
+        int count = 5;
+        TaskReporter reporter = new TaskReporter(supervisor, 1000);
+        ExecutorService executor = Executors.newFixedThreadPool(count);
+        try {
+            List<Future<StartTaskResult>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                WorkerTask task = new WorkerTask(createParam(i));
+                futures.add(executor.submit(() -> reporter.startTask(task)));
+            }
+            for (Future<StartTaskResult> future : futures) {
+                Assertions.assertTrue(future.get(10, TimeUnit.SECONDS).isSuccess());
+            }
+        } finally {
+            executor.shutdownNow();
+            reporter.close();
+        }
+        verify(supervisor, times(count)).startTask(any());
+    }
+
+    @Test
+    public void testAwaitTimeoutFallback() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        SupervisorRpcService supervisor = mock(SupervisorRpcService.class);
+        // the flush thread blocked by the stop task rpc
+        when(supervisor.stopTask(any())).thenAnswer(e -> latch.await(30, TimeUnit.SECONDS));
+        when(supervisor.startTask(any())).thenAnswer(e -> success(((StartTaskParam) e.getArgument(0)).getTaskId()));
+
+        TaskReporter reporter = new TaskReporter(supervisor, 100);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            WorkerTask stopTask = new WorkerTask(createParam(1));
+            StopTaskParam stopParam = stopTask.toStopTaskParam(Operation.TRIGGER, ExecuteStatus.COMPLETED, null);
+            Future<?> stopFuture = executor.submit(() -> reporter.stopTask(stopTask, stopParam, () -> "Stop task error."));
+            verify(supervisor, timeout(2000)).stopTask(any());
+
+            // the start event cannot be flushed in time, then report in current thread
+            StartTaskResult result = reporter.startTask(new WorkerTask(createParam(2)));
+            Assertions.assertTrue(result.isSuccess());
+            Assertions.assertEquals(2, result.getTaskId());
+
+            latch.countDown();
+            stopFuture.get(10, TimeUnit.SECONDS);
+            Thread.sleep(300);
+        } finally {
+            executor.shutdownNow();
+            reporter.close();
+        }
+        // the event already reported by current thread, cannot be reported again by flush thread
+        verify(supervisor, times(1)).startTask(any());
+        verify(supervisor, never()).startTasks(anyList());
+    }
+
+    private static StartTaskResult success(long taskId) {
+        StartTaskResult result = new StartTaskResult();
+        result.setSuccess(true);
+        result.setTaskId(taskId);
+        return result;
+    }
+
+    private static ExecuteTaskParam createParam(long taskId) {
+        ExecuteTaskParam param = new ExecuteTaskParam();
+        param.setOperation(Operation.TRIGGER);
+        param.setTaskId(taskId);
+        param.setInstanceId(taskId);
+        param.setTriggerTime(System.currentTimeMillis());
+        param.setJobId(1L);
+        param.setJobType(JobType.GENERAL);
+        param.setRouteStrategy(RouteStrategy.ROUND_ROBIN);
+        param.setShutdownStrategy(ShutdownStrategy.RESUME);
+        param.setJobExecutor("test");
+        param.setWorker(WORKER);
+        return param;
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.worker.base;
+
+import cn.ponfee.disjob.common.concurrent.VirtualThreads;
+import cn.ponfee.disjob.core.enums.*;
+import cn.ponfee.disjob.core.supervisor.SupervisorRpcService;
+import cn.ponfee.disjob.core.supervisor.dto.StartTaskParam;
+import cn.ponfee.disjob.core.supervisor.dto.StartTaskResult;
+import cn.ponfee.disjob.core.worker.Worker;
+import cn.ponfee.disjob.core.worker.dto.ExecuteTaskParam;
+import cn.ponfee.disjob.worker.executor.ExecutionResult;
+import cn.ponfee.disjob.worker.executor.ExecutionTask;
+import cn.ponfee.disjob.worker.executor.JobExecutor;
+import cn.ponfee.disjob.worker.executor.Savepoint;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * WorkerThreadPool test
+ *
+ * @author Ponfee
+ */
+public class WorkerThreadPoolTest {
+
+    private static final AtomicInteger VIRTUAL_EXECUTE_COUNT = new AtomicInteger();
+
+    @Test
+    public void testVirtualThreadExecute() throws Exception {
+        Assumptions.assumeTrue(VirtualThreads.isSupported(), "Virtual thread not supported.");
+
+        // more than carrier threads, and all tasks use the same instance lock
+        int count = Runtime.getRuntime().availableProcessors() * 4;
+        CountDownLatch latch = new CountDownLatch(count);
+        AtomicInteger concurrency = new AtomicInteger();
+        AtomicInteger maxConcurrency = new AtomicInteger();
+        AtomicInteger virtualReportCount = new AtomicInteger();
+        SupervisorRpcService supervisorRpcClient = mock(SupervisorRpcService.class);
+        when(supervisorRpcClient.startTask(any())).thenAnswer(e -> {
+            if (VirtualThreads.isVirtual(Thread.currentThread())) {
+                virtualReportCount.incrementAndGet();
+            }
+            maxConcurrency.accumulateAndGet(concurrency.incrementAndGet(), Math::max);
+            // blocking rpc in the instance lock
+            Thread.sleep(10);
+            concurrency.decrementAndGet();
+            StartTaskParam param = e.getArgument(0);
+            StartTaskResult result = new StartTaskResult();
+            result.setSuccess(true);
+            result.setTaskId(param.getTaskId());
+            result.setTaskNo(1);
+            result.setTaskCount(1);
+            return result;
+        });
+        when(supervisorRpcClient.stopTask(any())).thenAnswer(e -> {
+            maxConcurrency.accumulateAndGet(concurrency.incrementAndGet(), Math::max);
+            Thread.sleep(10);
+            concurrency.decrementAndGet();
+            latch.countDown();
+            return true;
+        });
+
+        VIRTUAL_EXECUTE_COUNT.set(0);
+        // report window 0: report task start and stop event in the instance lock
+        WorkerThreadPool threadPool = new WorkerThreadPool(count, 60, true, 0, supervisorRpcClient);
+        try {
+            Worker worker = new Worker("test", "workerId", "127.0.0.1", 8080);
+            for (int i = 1; i <= count; i++) {
+                Assertions.assertTrue(threadPool.submit(new WorkerTask(createParam(i, worker))));
+            }
+            Assertions.assertTrue(latch.await(60, TimeUnit.SECONDS));
+            Assertions.assertEquals(1, maxConcurrency.get());
+            Assertions.assertEquals(count, virtualReportCount.get());
+            Assertions.assertEquals(count, VIRTUAL_EXECUTE_COUNT.get());
+            Assertions.assertEquals(count, threadPool.metrics().getCompletedTaskCount());
+        } finally {
+            threadPool.close();
+        }
+    }
+
+    private static ExecuteTaskParam createParam(long taskId, Worker worker) {
+        ExecuteTaskParam param = new ExecuteTaskParam();
+        param.setOperation(Operation.TRIGGER);
+        param.setTaskId(taskId);
+        // same instance lock
+        param.setInstanceId(1L);
+        param.setTriggerTime(System.currentTimeMillis());
+        param.setJobId(1L);
+        param.setJobType(JobType.GENERAL);
+        param.setRouteStrategy(RouteStrategy.ROUND_ROBIN);
+        param.setShutdownStrategy(ShutdownStrategy.RESUME);
+        param.setJobExecutor(VirtualThreadJobExecutor.class.getName());
+        param.setWorker(worker);
+        return param;
+    }
+
+    public static class VirtualThreadJobExecutor extends JobExecutor {
+        @Override
+        public ExecutionResult execute(ExecutionTask task, Savepoint savepoint) {
+            if (VirtualThreads.isVirtual(Thread.currentThread())) {
+                VIRTUAL_EXECUTE_COUNT.incrementAndGet();
+            }
+            return ExecutionResult.success();
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022-2026 Ponfee (http://www.ponfee.cn/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.ponfee.disjob.worker.provider;
+
+import cn.ponfee.disjob.core.enums.*;
+import cn.ponfee.disjob.core.worker.Worker;
+import cn.ponfee.disjob.core.worker.dto.ExecuteTaskParam;
+import cn.ponfee.disjob.registry.WorkerRegistry;
+import cn.ponfee.disjob.worker.base.TaskTimingWheel;
+import cn.ponfee.disjob.worker.configuration.WorkerProperties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * WorkerRpcProvider test
+ *
+ * @author Ponfee
+ */
+public class WorkerRpcProviderTest {
+
+    private static final Worker WORKER = new Worker("test", "workerId", "127.0.0.1", 8080);
+
+    @Test
+    public void testConcurrentReceiveTaskBounded() throws Exception {
+        int maximumTimingWheelTaskSize = 100, threadCount = 16, taskCountPerThread = 50;
+        WorkerProperties workerConf = new WorkerProperties();
+        workerConf.setMaximumTimingWheelTaskSize(maximumTimingWheelTaskSize);
+        Worker.Local localWorker = mock(Worker.Local.class);
+        when(localWorker.matches(any())).thenReturn(true);
+        when(localWorker.getWorkerId()).thenReturn(WORKER.getWorkerId());
+        TaskTimingWheel timingWheel = new TaskTimingWheel(100, 60);
+        WorkerRpcProvider provider = WorkerRpcProvider.create(workerConf, localWorker, timingWheel, mock(WorkerRegistry.class));
+
+        AtomicLong taskIdGenerator = new AtomicLong();
+        AtomicInteger acceptedCount = new AtomicInteger();
+        CyclicBarrier barrier = new CyclicBarrier(threadCount);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    for (int j = 0; j < taskCountPerThread; j++) {
+                        if (provider.receiveTask(createParam(taskIdGenerator.incrementAndGet()))) {
+                            acceptedCount.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // the trigger time is one hour later, no task popped from timing wheel
+        Assertions.assertEquals(maximumTimingWheelTaskSize, acceptedCount.get());
+        Assertions.assertEquals(maximumTimingWheelTaskSize, timingWheel.size());
+
+        // the stop operation task is not limited
+        ExecuteTaskParam param = createParam(taskIdGenerator.incrementAndGet());
+        param.setOperation(Operation.PAUSE);
+        Assertions.assertTrue(provider.receiveTask(param));
+        Assertions.assertEquals(maximumTimingWheelTaskSize + 1, timingWheel.size());
+    }
+
+    private static ExecuteTaskParam createParam(long taskId) {
+        ExecuteTaskParam param = new ExecuteTaskParam();
+        param.setOperation(Operation.TRIGGER);
+        param.setTaskId(taskId);
+        param.setInstanceId(taskId);
+        param.setTriggerTime(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+        param.setJobId(1L);
+        param.setJobType(JobType.GENERAL);
+        param.setRouteStrategy(RouteStrategy.ROUND_ROBIN);
+        param.setShutdownStrategy(ShutdownStrategy.RESUME);
+        param.setJobExecutor("test");
+        param.setWorker(WORKER);
+        return param;
+    }
+
+}
@@ -0,0 +1,30 @@
+SET NAMES utf8mb4;
+
+-- ----------------------------
+-- Upgrade the existing disjob database, the new created database by `mysql-disjob.sql` not need to execute.
+-- Every statement can only be executed once.
+-- ----------------------------
+USE disjob;
+
+
+-- ----------------------------
+-- sched_instance: task counters, NULL means not maintained and will be recounted from sched_task on demand
+-- ----------------------------
+ALTER TABLE `sched_instance`
+  ADD COLUMN `waiting_task_count`    INT                                DEFAULT NULL                 COMMENT '待执行的任务数量(NULL表示未维护计数)' AFTER `workflow_cur_node`,
+  ADD COLUMN `executing_task_count`  INT                                DEFAULT NULL                 COMMENT '执行中的任务数量(NULL表示未维护计数)' AFTER `waiting_task_count`,
+  ADD COLUMN `paused_task_count`     INT                                DEFAULT NULL                 COMMENT '已暂停的任务数量(NULL表示未维护计数)' AFTER `executing_task_count`,
+  ADD COLUMN `completed_task_count`  INT                                DEFAULT NULL                 COMMENT '已完成的任务数量(NULL表示未维护计数)' AFTER `paused_task_count`,
+  ADD COLUMN `failed_task_count`     INT                                DEFAULT NULL                 COMMENT '已失败的任务数量(NULL表示未维护计数)' AFTER `completed_task_count`;
+
+
+-- ----------------------------
+-- sched_counter: cluster-wide round robin route counter, `disjob.supervisor.round-robin-counter=database`
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `sched_counter` (
+  `id`                    BIGINT       UNSIGNED    NOT NULL  AUTO_INCREMENT               COMMENT 'auto increment primary key id',
+  `name`                  VARCHAR(60)              NOT NULL                               COMMENT 'counter name',
+  `value`                 BIGINT                   NOT NULL  DEFAULT '0'                  COMMENT 'counter value',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_name` (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_bin COMMENT='Distributed counter based database';
@@ -44,7 +44,7 @@ CREATE TABLE `sched_job` (
   `execute_timeout`       INT            UNSIGNED  NOT NULL  DEFAULT '0'                  COMMENT '执行超时时间(毫秒)，若大于0则执行超时会中断任务',
   `collision_strategy`    TINYINT        UNSIGNED  NOT NULL  DEFAULT '1'                  COMMENT '冲突策略(如果上一次调度未完成，下一次调度执行策略)：1-并发执行；2-顺序执行；3-覆盖上次任务（取消上次任务，执行本次任务）；4-丢弃本次任务；',
   `misfire_strategy`      TINYINT        UNSIGNED  NOT NULL  DEFAULT '1'                  COMMENT '过期策略：1-立即触发执行一次；2-跳过所有被错过的；3-执行所有被错过的；',
-  `route_strategy`        TINYINT        UNSIGNED  NOT NULL  DEFAULT '1'                  COMMENT '任务分派给哪一个worker的路由策略：1-轮询；2-随机；3-简单的哈希；4-一致性哈希；5-本地优先；6-广播；',
+  `route_strategy`        TINYINT        UNSIGNED  NOT NULL  DEFAULT '1'                  COMMENT '任务分派给哪一个worker的路由策略：1-轮询；2-随机；3-简单的哈希；4-一致性哈希；5-本地优先；6-广播；7-最小负载；',
   `shutdown_strategy`     TINYINT        UNSIGNED  NOT NULL  DEFAULT '1'                  COMMENT 'Worker关机的执行策略(如重新发布服务时)：1-恢复执行；2-暂停执行；3-取消执行；',
   `alert_options`         TINYINT        UNSIGNED  NOT NULL  DEFAULT '0'                  COMMENT '告警选项(bitwise OR)：1-警报；2-通知；3-全选；',
   `last_trigger_time`     BIGINT         UNSIGNED            DEFAULT NULL                 COMMENT '最近一次的触发时间(毫秒时间戳)',
@@ -93,6 +93,11 @@ CREATE TABLE `sched_instance` (
   `retry_times`           TINYINT        UNSIGNED  NOT NULL  DEFAULT '0'                  COMMENT '当前是第几次重试(the maximum value is sched_job.retry_count)',
   `next_scan_time`        DATETIME(3)              NOT NULL  DEFAULT CURRENT_TIMESTAMP(3) COMMENT '下一次的扫描时间',
   `workflow_cur_node`     VARCHAR(255)                       DEFAULT NULL                 COMMENT '工作流任务的当前节点(sched_workflow.cur_node，非工作流任务时为NULL)',
+  `waiting_task_count`    INT                                DEFAULT NULL                 COMMENT '待执行的任务数量(NULL表示未维护计数)',
+  `executing_task_count`  INT                                DEFAULT NULL                 COMMENT '执行中的任务数量(NULL表示未维护计数)',
+  `paused_task_count`     INT                                DEFAULT NULL                 COMMENT '已暂停的任务数量(NULL表示未维护计数)',
+  `completed_task_count`  INT                                DEFAULT NULL                 COMMENT '已完成的任务数量(NULL表示未维护计数)',
+  `failed_task_count`     INT                                DEFAULT NULL                 COMMENT '已失败的任务数量(NULL表示未维护计数)',
   `version`               INT            UNSIGNED  NOT NULL  DEFAULT '1'                  COMMENT '行记录版本号',
   `updated_at`            DATETIME(3)              NOT NULL  DEFAULT CURRENT_TIMESTAMP(3) COMMENT '更新时间' ON UPDATE CURRENT_TIMESTAMP(3),
   `created_at`            DATETIME(3)              NOT NULL  DEFAULT CURRENT_TIMESTAMP(3) COMMENT '创建时间',
@@ -176,6 +181,14 @@ CREATE TABLE IF NOT EXISTS `sched_lock` (
   UNIQUE KEY `uk_name` (`name`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_bin COMMENT='Distributed lock based database';
 
+CREATE TABLE IF NOT EXISTS `sched_counter` (
+  `id`                    BIGINT       UNSIGNED    NOT NULL  AUTO_INCREMENT               COMMENT 'auto increment primary key id',
+  `name`                  VARCHAR(60)              NOT NULL                               COMMENT 'counter name',
+  `value`                 BIGINT                   NOT NULL  DEFAULT '0'                  COMMENT 'counter value',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_name` (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_bin COMMENT='Distributed counter based database';
+
 CREATE TABLE IF NOT EXISTS `sched_snowflake` (
   `id`                    BIGINT        UNSIGNED   NOT NULL  AUTO_INCREMENT               COMMENT 'auto increment primary key id',
   `biz_tag`               VARCHAR(60)              NOT NULL                               COMMENT 'biz tag',